@@ -5,6 +5,7 @@ import eu.neverblink.jelly.core.JellyConverterFactory;
 import eu.neverblink.jelly.core.ProtoDecoderConverter;
 import eu.neverblink.jelly.core.ProtoEncoderConverter;
 import eu.neverblink.jelly.core.patch.internal.PatchDecoderImpl;
+import eu.neverblink.jelly.core.patch.internal.ParallelPatchDecoderImpl;
 import eu.neverblink.jelly.core.patch.internal.PatchEncoderImpl;
 import eu.neverblink.jelly.core.proto.v1.patch.RdfPatchOptions;
 
@@ -87,4 +88,21 @@ public abstract class JellyPatchConverterFactory<
             supportedOptions
         );
     }
+
+    /**
+     * Create a new ParallelPatchDecoder that decodes Jelly-Patch streams of any statement type,
+     * splitting the stream into chunks of transactions that are decoded in parallel.
+     *
+     * @param handler handler for the decoded statements
+     * @param supportedOptions supported options for the decoder
+     * @param params parameters of the parallel decoder
+     * @return decoder
+     */
+    public ParallelPatchDecoder parallelDecoder(
+        PatchHandler.AnyPatchHandler<TNode> handler,
+        RdfPatchOptions supportedOptions,
+        ParallelPatchDecoder.Params params
+    ) {
+        return new ParallelPatchDecoderImpl<>(converterFactory::decoderConverter, handler, supportedOptions, params);
+    }
 }
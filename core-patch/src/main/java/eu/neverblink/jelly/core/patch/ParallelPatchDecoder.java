@@ -0,0 +1,79 @@
+package eu.neverblink.jelly.core.patch;
+
+import eu.neverblink.jelly.core.ExperimentalApi;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Decoder for RDF-Patch streams that decodes parts of the stream in parallel.
+ * <p>
+ * The stream is split into chunks of whole transactions. Each chunk is decoded on the executor by a
+ * separate decoder that is seeded with the state of the lookups at the start of the chunk. The decoded
+ * chunks are delivered to the PatchHandler in the original order, always on the thread that calls
+ * the ingest methods or finish(). So, the handler does not have to be thread-safe.
+ * <p>
+ * The rows and frames passed to this decoder are kept until their chunk is decoded. They must not be
+ * modified or reused by the caller afterward.
+ * <p>
+ * A single transaction is never split, so very large transactions limit the parallelism. Streams
+ * without transactions are split between any rows.
+ *
+ * @see JellyPatchConverterFactory#parallelDecoder
+ */
+@ExperimentalApi
+public interface ParallelPatchDecoder extends PatchDecoder, AutoCloseable {
+    /**
+     * Parameters of the parallel decoder.
+     * @param executor executor to decode the chunks on. It is not shut down by the decoder.
+     * @param minChunkRows minimum number of rows in a chunk. Smaller chunks have a higher
+     *                     overhead of restoring the lookups in the decoder.
+     * @param maxChunksInFlight maximum number of chunks submitted to the executor and not yet
+     *                          delivered to the handler. The ingest methods block when this is exceeded.
+     */
+    record Params(ExecutorService executor, int minChunkRows, int maxChunksInFlight) {
+        public static final int DEFAULT_MIN_CHUNK_ROWS = 2048;
+
+        public Params {
+            if (executor == null) {
+                throw new IllegalArgumentException("The executor must be set");
+            }
+            if (minChunkRows < 1) {
+                throw new IllegalArgumentException("The minimum chunk size must be positive");
+            }
+            if (maxChunksInFlight < 1) {
+                throw new IllegalArgumentException("The maximum number of chunks in flight must be positive");
+            }
+        }
+
+        /**
+         * Creates a new Params instance with the default chunk size, allowing two chunks in flight
+         * for each available processor.
+         */
+        public static Params of(ExecutorService executor) {
+            return new Params(executor, DEFAULT_MIN_CHUNK_ROWS, 2 * Runtime.getRuntime().availableProcessors());
+        }
+
+        /**
+         * Creates a new Params instance.
+         */
+        public static Params of(ExecutorService executor, int minChunkRows, int maxChunksInFlight) {
+            return new Params(executor, minChunkRows, maxChunksInFlight);
+        }
+    }
+
+    /**
+     * Decode all ingested rows and deliver them to the handler. Blocks until this is done.
+     * <p>
+     * The decoder cannot be used after this call. Calling this method again has no effect.
+     *
+     * @throws eu.neverblink.jelly.core.RdfProtoDeserializationError if any part of the stream is invalid
+     */
+    void finish();
+
+    /**
+     * Same as {@link #finish()}.
+     */
+    @Override
+    default void close() {
+        finish();
+    }
+}
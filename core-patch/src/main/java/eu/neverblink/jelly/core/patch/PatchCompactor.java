@@ -0,0 +1,820 @@
+package eu.neverblink.jelly.core.patch;
+
+import eu.neverblink.jelly.core.ExperimentalApi;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+
+/**
+ * Compacts a patch stream into a minimal equivalent patch.
+ * <p>
+ * Use it as the handler of a PatchDecoder (or call its methods directly), and call {@link #checkpoint()}
+ * whenever the changes collected so far should be written out. {@link #finish()} writes the last checkpoint.
+ * For each checkpoint, the destination handler receives one transaction with the net effect of all
+ * committed changes since the previous checkpoint:
+ * <ul>
+ *     <li>Only the last operation (add or delete) on each statement or namespace is kept, because adding and
+ *     deleting are idempotent. An add followed by a delete of the same statement collapses to the delete,
+ *     and vice versa.</li>
+ *     <li>Changes in aborted transactions are dropped.</li>
+ *     <li>All committed transactions (and changes outside of transactions) are merged.</li>
+ *     <li>If the patch is applied to an empty dataset ({@link Builder#fromEmptyDataset(boolean)}), deletions
+ *     in the first checkpoint are dropped as well.</li>
+ * </ul>
+ * The order of statements in the output is not the order in the input, which is fine, because after
+ * compaction each statement appears at most once in a checkpoint. Headers are written at the start of the
+ * next checkpoint. Punctuation in the input is ignored.
+ * <p>
+ * Internally, RDF terms are mapped to dense integer IDs, so that the sets of pending changes are stored as
+ * int tuples in open-addressing hash tables, and not as objects. When a table reaches
+ * {@link Builder#maxStatementsInMemory(int)}, it is sorted and spilled to a temporary file. The spilled runs
+ * are merged at the checkpoint.
+ * <p>
+ * Only the statement tables are bounded this way. The term dictionary is kept in memory, and is reset at each
+ * checkpoint outside of a transaction, as no pending change refers to it then. So it holds all distinct terms
+ * since the last such checkpoint: without checkpoints, it grows with the number of distinct terms in the stream,
+ * and a transaction keeps all of its terms until it ends. With {@link Builder#maxTermsInMemory(int)}, a
+ * checkpoint is written automatically outside of transactions when the dictionary gets too large, so it holds
+ * at most that many terms plus the terms of one transaction.
+ * <p>
+ * This class is not thread-safe. Call {@link #close()} to delete the temporary files if the compaction is
+ * abandoned before finish().
+ *
+ * @param <TNode> type of RDF nodes in the library
+ */
+@ExperimentalApi
+public final class PatchCompactor<TNode> implements PatchHandler.AnyPatchHandler<TNode>, AutoCloseable {
+
+    /**
+     * Default maximum number of statements in one in-memory table before it is spilled to disk.
+     */
+    public static final int DEFAULT_MAX_STATEMENTS_IN_MEMORY = 1 << 20;
+
+    private static final byte OP_ADD = 1;
+    private static final byte OP_DELETE = 2;
+    // Graph ID of triples, IRI ID of namespace deletions without an IRI
+    private static final int NO_TERM = -1;
+    // Maximum number of spilled runs before they are merged into one
+    private static final int MAX_RUNS = 64;
+    // Size of one spilled entry: 4 term IDs and the operation
+    private static final int ENTRY_BYTES = 4 * Integer.BYTES + 1;
+
+    /**
+     * Creates a new builder for the compactor.
+     * @param destination handler that receives the compacted patch
+     * @return builder
+     * @param <TNode> type of RDF nodes in the library
+     */
+    public static <TNode> Builder<TNode> builder(PatchHandler.AnyPatchHandler<TNode> destination) {
+        return new Builder<>(destination);
+    }
+
+    /**
+     * Builder for PatchCompactor.
+     * @param <TNode> type of RDF nodes in the library
+     */
+    public static final class Builder<TNode> {
+
+        private final PatchHandler.AnyPatchHandler<TNode> destination;
+        private boolean fromEmptyDataset = false;
+        private int maxStatementsInMemory = DEFAULT_MAX_STATEMENTS_IN_MEMORY;
+        private int maxTermsInMemory = Integer.MAX_VALUE;
+        private Path spillDirectory = null;
+        private boolean punctuateCheckpoints = false;
+
+        private Builder(PatchHandler.AnyPatchHandler<TNode> destination) {
+            this.destination = Objects.requireNonNull(destination);
+        }
+
+        /**
+         * Whether the compacted patch will be applied to an empty dataset (e.g., when rebuilding a replica
+         * from scratch). If true, the first checkpoint contains no deletions. Default: false.
+         * @param fromEmptyDataset true if the patch starts from an empty dataset
+         * @return this builder
+         */
+        public Builder<TNode> fromEmptyDataset(boolean fromEmptyDataset) {
+            this.fromEmptyDataset = fromEmptyDataset;
+            return this;
+        }
+
+        /**
+         * Maximum number of statements kept in one in-memory table before it is spilled to disk.
+         * There are two tables: committed changes and changes of the open transaction.
+         * Default: {@link PatchCompactor#DEFAULT_MAX_STATEMENTS_IN_MEMORY}.
+         * @param maxStatementsInMemory maximum number of statements, at least 1
+         * @return this builder
+         */
+        public Builder<TNode> maxStatementsInMemory(int maxStatementsInMemory) {
+            if (maxStatementsInMemory < 1) {
+                throw new IllegalArgumentException("maxStatementsInMemory must be positive");
+            }
+            this.maxStatementsInMemory = maxStatementsInMemory;
+            return this;
+        }
+
+        /**
+         * Maximum number of terms in the term dictionary, after which a checkpoint is written as soon as no
+         * transaction is open. This bounds the memory use of the dictionary, in exchange for more checkpoints
+         * (and so less compaction) in the output. Default: no limit, only explicit checkpoints are written.
+         * @param maxTermsInMemory maximum number of terms, at least 1
+         * @return this builder
+         */
+        public Builder<TNode> maxTermsInMemory(int maxTermsInMemory) {
+            if (maxTermsInMemory < 1) {
+                throw new IllegalArgumentException("maxTermsInMemory must be positive");
+            }
+            this.maxTermsInMemory = maxTermsInMemory;
+            return this;
+        }
+
+        /**
+         * Directory for the spilled runs. Default: the system temporary directory.
+         * @param spillDirectory directory
+         * @return this builder
+         */
+        public Builder<TNode> spillDirectory(Path spillDirectory) {
+            this.spillDirectory = spillDirectory;
+            return this;
+        }
+
+        /**
+         * Whether to emit a punctuation mark after each checkpoint. Only enable this if the destination is
+         * a PUNCTUATED stream. Default: false.
+         * @param punctuateCheckpoints true to emit punctuation
+         * @return this builder
+         */
+        public Builder<TNode> punctuateCheckpoints(boolean punctuateCheckpoints) {
+            this.punctuateCheckpoints = punctuateCheckpoints;
+            return this;
+        }
+
+        public PatchCompactor<TNode> build() {
+            return new PatchCompactor<>(this);
+        }
+    }
+
+    private record NamespaceKey(String name, int graph) {}
+
+    private record NamespaceOp(byte op, int iri) {}
+
+    private record Header<N>(String key, N value) {}
+
+    private final PatchHandler.AnyPatchHandler<TNode> destination;
+    private final int maxStatementsInMemory;
+    private final int maxTermsInMemory;
+    private final Path spillDirectory;
+    private final boolean punctuateCheckpoints;
+    private boolean dropDeletes;
+
+    // Term dictionary, reset at checkpoints outside of transactions
+    private Map<TNode, Integer> termIds = new HashMap<>();
+    private List<TNode> terms = new ArrayList<>();
+
+    // Committed changes since the last checkpoint
+    private final StatementTable committed;
+    private final Map<NamespaceKey, NamespaceOp> committedNamespaces = new LinkedHashMap<>();
+    // Changes of the currently open transaction
+    private final StatementTable transaction;
+    private final Map<NamespaceKey, NamespaceOp> transactionNamespaces = new LinkedHashMap<>();
+    private boolean inTransaction = false;
+
+    private final List<Header<TNode>> headers = new ArrayList<>();
+
+    private long inputStatements = 0;
+    private long abortedStatements = 0;
+    private long outputStatements = 0;
+    private long checkpoints = 0;
+    private int spilledRuns = 0;
+
+    private PatchCompactor(Builder<TNode> builder) {
+        this.destination = builder.destination;
+        this.maxStatementsInMemory = builder.maxStatementsInMemory;
+        this.maxTermsInMemory = builder.maxTermsInMemory;
+        this.spillDirectory = builder.spillDirectory;
+        this.punctuateCheckpoints = builder.punctuateCheckpoints;
+        this.dropDeletes = builder.fromEmptyDataset;
+        this.committed = new StatementTable();
+        this.transaction = new StatementTable();
+    }
+
+    @Override
+    public void addTriple(TNode subject, TNode predicate, TNode object) {
+        putStatement(OP_ADD, subject, predicate, object, NO_TERM);
+    }
+
+    @Override
+    public void deleteTriple(TNode subject, TNode predicate, TNode object) {
+        putStatement(OP_DELETE, subject, predicate, object, NO_TERM);
+    }
+
+    @Override
+    public void addQuad(TNode subject, TNode predicate, TNode object, TNode graph) {
+        putStatement(OP_ADD, subject, predicate, object, termId(graph));
+    }
+
+    @Override
+    public void deleteQuad(TNode subject, TNode predicate, TNode object, TNode graph) {
+        putStatement(OP_DELETE, subject, predicate, object, termId(graph));
+    }
+
+    private void putStatement(byte op, TNode subject, TNode predicate, TNode object, int graph) {
+        inputStatements++;
+        final var table = inTransaction ? transaction : committed;
+        table.put(termId(subject), termId(predicate), termId(object), graph, op);
+        checkTermLimit();
+    }
+
+    @Override
+    public void addNamespace(String name, TNode iriValue, TNode graph) {
+        putNamespace(name, graph, new NamespaceOp(OP_ADD, termId(iriValue)));
+    }
+
+    @Override
+    public void deleteNamespace(String name, TNode iriValue, TNode graph) {
+        putNamespace(name, graph, new NamespaceOp(OP_DELETE, iriValue == null ? NO_TERM : termId(iriValue)));
+    }
+
+    private void putNamespace(String name, TNode graph, NamespaceOp op) {
+        final var key = new NamespaceKey(name, graph == null ? NO_TERM : termId(graph));
+        final var namespaces = inTransaction ? transactionNamespaces : committedNamespaces;
+        // Remove first, so that the iteration order reflects the last operation
+        namespaces.remove(key);
+        namespaces.put(key, op);
+        checkTermLimit();
+    }
+
+    /**
+     * Writes a checkpoint if the term dictionary is over its limit and no transaction is open.
+     */
+    private void checkTermLimit() {
+        if (!inTransaction && terms.size() > maxTermsInMemory) {
+            checkpoint();
+        }
+    }
+
+    @Override
+    public void header(String key, TNode value) {
+        headers.add(new Header<>(key, value));
+    }
+
+    @Override
+    public void transactionStart() {
+        if (inTransaction) {
+            throw new IllegalStateException("Nested transactions are not supported: a transaction is already open");
+        }
+        inTransaction = true;
+    }
+
+    @Override
+    public void transactionCommit() {
+        if (!inTransaction) {
+            return;
+        }
+        inTransaction = false;
+        committed.mergeNewer(transaction);
+        for (final var entry : transactionNamespaces.entrySet()) {
+            committedNamespaces.remove(entry.getKey());
+            committedNamespaces.put(entry.getKey(), entry.getValue());
+        }
+        transactionNamespaces.clear();
+        checkTermLimit();
+    }
+
+    @Override
+    public void transactionAbort() {
+        if (!inTransaction) {
+            return;
+        }
+        inTransaction = false;
+        abortedStatements += transaction.discard();
+        transactionNamespaces.clear();
+        checkTermLimit();
+    }
+
+    @Override
+    public void punctuation() {
+        // Patch boundaries are merged away
+    }
+
+    /**
+     * Writes out the net effect of all changes committed since the previous checkpoint as one transaction.
+     * An open transaction is not included. If there are no changes and no headers, nothing is written.
+     * <p>
+     * Outside of a transaction, this also resets the term dictionary.
+     */
+    public void checkpoint() {
+        if (!committed.isEmpty() || !committedNamespaces.isEmpty() || !headers.isEmpty()) {
+            writeCheckpoint();
+        }
+        if (!inTransaction && !terms.isEmpty()) {
+            // All pending changes were written, so no term ID is in use. New instances, to release the memory.
+            termIds = new HashMap<>();
+            terms = new ArrayList<>();
+        }
+    }
+
+    private void writeCheckpoint() {
+        for (final var header : headers) {
+            destination.header(header.key(), header.value());
+        }
+        headers.clear();
+        if (!committed.isEmpty() || !committedNamespaces.isEmpty()) {
+            destination.transactionStart();
+            for (final var entry : committedNamespaces.entrySet()) {
+                final var key = entry.getKey();
+                final var op = entry.getValue();
+                final TNode graph = key.graph() == NO_TERM ? null : terms.get(key.graph());
+                if (op.op() == OP_ADD) {
+                    destination.addNamespace(key.name(), terms.get(op.iri()), graph);
+                } else if (!dropDeletes) {
+                    destination.deleteNamespace(key.name(), op.iri() == NO_TERM ? null : terms.get(op.iri()), graph);
+                }
+            }
+            committedNamespaces.clear();
+            committed.drain(this::emitStatement);
+            destination.transactionCommit();
+        }
+        if (punctuateCheckpoints) {
+            destination.punctuation();
+        }
+        // After the first checkpoint, the dataset is no longer empty
+        dropDeletes = false;
+        checkpoints++;
+    }
+
+    private void emitStatement(int s, int p, int o, int g, byte op) {
+        if (op == OP_DELETE && dropDeletes) {
+            return;
+        }
+        outputStatements++;
+        final TNode subject = terms.get(s);
+        final TNode predicate = terms.get(p);
+        final TNode object = terms.get(o);
+        if (g == NO_TERM) {
+            if (op == OP_ADD) destination.addTriple(subject, predicate, object);
+            else destination.deleteTriple(subject, predicate, object);
+        } else {
+            if (op == OP_ADD) destination.addQuad(subject, predicate, object, terms.get(g));
+            else destination.deleteQuad(subject, predicate, object, terms.get(g));
+        }
+    }
+
+    /**
+     * Writes the last checkpoint. A transaction that was not committed is dropped.
+     */
+    public void finish() {
+        if (inTransaction) {
+            transactionAbort();
+        }
+        checkpoint();
+        close();
+    }
+
+    /**
+     * Deletes all temporary files. Pending changes are lost.
+     */
+    @Override
+    public void close() {
+        committed.discard();
+        transaction.discard();
+    }
+
+    /**
+     * @return number of added and deleted statements received
+     */
+    public long getInputStatementCount() {
+        return inputStatements;
+    }
+
+    /**
+     * @return number of added and deleted statements written to the destination
+     */
+    public long getOutputStatementCount() {
+        return outputStatements;
+    }
+
+    /**
+     * @return number of distinct statements dropped because their transaction was aborted
+     */
+    public long getAbortedStatementCount() {
+        return abortedStatements;
+    }
+
+    /**
+     * @return number of checkpoints written
+     */
+    public long getCheckpointCount() {
+        return checkpoints;
+    }
+
+    /**
+     * @return number of sorted runs spilled to disk so far
+     */
+    public int getSpilledRunCount() {
+        return spilledRuns;
+    }
+
+    /**
+     * @return number of RDF terms in the term dictionary
+     */
+    public int getTermCount() {
+        return terms.size();
+    }
+
+    /**
+     * @return output statements divided by input statements (1.0 if there was no input)
+     */
+    public double getCompactionRatio() {
+        return inputStatements == 0 ? 1.0 : (double) outputStatements / inputStatements;
+    }
+
+    private int termId(TNode node) {
+        if (node == null) {
+            throw new IllegalArgumentException("RDF terms in patch statements must not be null");
+        }
+        final Integer id = termIds.get(node);
+        if (id != null) {
+            return id;
+        }
+        final int newId = terms.size();
+        terms.add(node);
+        termIds.put(node, newId);
+        return newId;
+    }
+
+    @FunctionalInterface
+    private interface StatementConsumer {
+        void accept(int s, int p, int o, int g, byte op) throws IOException;
+    }
+
+    /**
+     * Last operation per statement, in an open-addressing hash table over int tuples, plus sorted runs
+     * spilled to disk (oldest first).
+     */
+    private final class StatementTable {
+
+        private int[] keys;
+        private byte[] ops;
+        private int size = 0;
+        private final List<Path> runs = new ArrayList<>();
+
+        StatementTable() {
+            allocate(Math.min(1024, Integer.highestOneBit(maxStatementsInMemory)) * 2);
+        }
+
+        private void allocate(int capacity) {
+            keys = new int[capacity * 4];
+            ops = new byte[capacity];
+            size = 0;
+        }
+
+        boolean isEmpty() {
+            return size == 0 && runs.isEmpty();
+        }
+
+        private int slot(int s, int p, int o, int g) {
+            int h = s * 0x9E3779B1;
+            h = (h ^ p) * 0x85EBCA6B;
+            h = (h ^ o) * 0xC2B2AE35;
+            h = (h ^ g) * 0x9E3779B1;
+            return (h ^ (h >>> 16)) & (ops.length - 1);
+        }
+
+        void put(int s, int p, int o, int g, byte op) {
+            final int mask = ops.length - 1;
+            int i = slot(s, p, o, g);
+            while (ops[i] != 0) {
+                final int k = i * 4;
+                if (keys[k] == s && keys[k + 1] == p && keys[k + 2] == o && keys[k + 3] == g) {
+                    ops[i] = op;
+                    return;
+                }
+                i = (i + 1) & mask;
+            }
+            final int k = i * 4;
+            keys[k] = s;
+            keys[k + 1] = p;
+            keys[k + 2] = o;
+            keys[k + 3] = g;
+            ops[i] = op;
+            size++;
+            if (size >= maxStatementsInMemory) {
+                spill();
+            } else if (size * 2 > ops.length) {
+                grow();
+            }
+        }
+
+        private void grow() {
+            final int[] oldKeys = keys;
+            final byte[] oldOps = ops;
+            allocate(oldOps.length * 2);
+            for (int i = 0; i < oldOps.length; i++) {
+                if (oldOps[i] != 0) {
+                    final int k = i * 4;
+                    put(oldKeys[k], oldKeys[k + 1], oldKeys[k + 2], oldKeys[k + 3], oldOps[i]);
+                }
+            }
+        }
+
+        /**
+         * @return indices of the occupied slots, sorted by key
+         */
+        private int[] sortedSlots() {
+            final int[] slots = new int[size];
+            int n = 0;
+            for (int i = 0; i < ops.length; i++) {
+                if (ops[i] != 0) slots[n++] = i;
+            }
+            sortSlots(slots, 0, n - 1);
+            return slots;
+        }
+
+        private int compareSlots(int a, int b) {
+            final int ka = a * 4;
+            final int kb = b * 4;
+            for (int j = 0; j < 4; j++) {
+                final int c = Integer.compare(keys[ka + j], keys[kb + j]);
+                if (c != 0) return c;
+            }
+            return 0;
+        }
+
+        private void sortSlots(int[] slots, int lo, int hi) {
+            while (hi - lo > 16) {
+                // Median of three as the pivot
+                final int mid = (lo + hi) >>> 1;
+                if (compareSlots(slots[mid], slots[lo]) < 0) swap(slots, mid, lo);
+                if (compareSlots(slots[hi], slots[lo]) < 0) swap(slots, hi, lo);
+                if (compareSlots(slots[hi], slots[mid]) < 0) swap(slots, hi, mid);
+                final int pivot = slots[mid];
+                int i = lo;
+                int j = hi;
+                while (i <= j) {
+                    while (compareSlots(slots[i], pivot) < 0) i++;
+                    while (compareSlots(slots[j], pivot) > 0) j--;
+                    if (i <= j) swap(slots, i++, j--);
+                }
+                // Recurse into the smaller part, loop on the larger one
+                if (j - lo < hi - i) {
+                    sortSlots(slots, lo, j);
+                    lo = i;
+                } else {
+                    sortSlots(slots, i, hi);
+                    hi = j;
+                }
+            }
+            for (int i = lo + 1; i <= hi; i++) {
+                final int v = slots[i];
+                int j = i - 1;
+                while (j >= lo && compareSlots(slots[j], v) > 0) {
+                    slots[j + 1] = slots[j];
+                    j--;
+                }
+                slots[j + 1] = v;
+            }
+        }
+
+        /**
+         * Writes the in-memory entries to a new sorted run on disk.
+         */
+        private void spill() {
+            if (size == 0) {
+                return;
+            }
+            final int[] slots = sortedSlots();
+            final Path run = newRunFile();
+            runs.add(run);
+            try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run), 1 << 16))) {
+                for (final int slot : slots) {
+                    final int k = slot * 4;
+                    writeEntry(out, keys[k], keys[k + 1], keys[k + 2], keys[k + 3], ops[slot]);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to spill patch compaction state to disk", e);
+            }
+            spilledRuns++;
+            Arrays.fill(ops, (byte) 0);
+            size = 0;
+            limitRuns();
+        }
+
+        /**
+         * Merges the runs into one if there are too many, to keep the number of open files low in the
+         * final merge.
+         */
+        private void limitRuns() {
+            if (runs.size() < MAX_RUNS) {
+                return;
+            }
+            final Path merged = newRunFile();
+            try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(merged), 1 << 16))) {
+                mergeRuns((s, p, o, g, op) -> writeEntry(out, s, p, o, g, op));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to merge spilled patch compaction state", e);
+            }
+            deleteRuns();
+            runs.add(merged);
+        }
+
+        private Path newRunFile() {
+            try {
+                return spillDirectory == null
+                    ? Files.createTempFile("jelly-patch-compactor", ".run")
+                    : Files.createTempFile(spillDirectory, "jelly-patch-compactor", ".run");
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to create a file for spilling patch compaction state", e);
+            }
+        }
+
+        private long deleteRuns() {
+            long deleted = 0;
+            for (final Path run : runs) {
+                try {
+                    deleted += Files.size(run) / ENTRY_BYTES;
+                    Files.deleteIfExists(run);
+                } catch (IOException ignored) {
+                    // Best effort, the file is in a temporary directory anyway
+                }
+            }
+            runs.clear();
+            return deleted;
+        }
+
+        /**
+         * Applies all changes of a newer table on top of this one, and empties the other table.
+         */
+        void mergeNewer(StatementTable newer) {
+            if (!newer.runs.isEmpty()) {
+                // Keep the runs in chronological order: everything in memory here is older
+                spill();
+                runs.addAll(newer.runs);
+                newer.runs.clear();
+                limitRuns();
+            }
+            for (int i = 0; i < newer.ops.length; i++) {
+                if (newer.ops[i] != 0) {
+                    final int k = i * 4;
+                    put(newer.keys[k], newer.keys[k + 1], newer.keys[k + 2], newer.keys[k + 3], newer.ops[i]);
+                }
+            }
+            newer.clearMemory();
+        }
+
+        private void clearMemory() {
+            if (ops.length > 1024 && size < ops.length / 8) {
+                // Don't keep a huge table around after a large transaction
+                allocate(1024);
+            } else {
+                Arrays.fill(ops, (byte) 0);
+                size = 0;
+            }
+        }
+
+        /**
+         * Drops all entries and deletes the runs.
+         * @return number of dropped in-memory and spilled entries
+         */
+        long discard() {
+            final long dropped = size + deleteRuns();
+            clearMemory();
+            return dropped;
+        }
+
+        /**
+         * Passes the last operation for each statement to the consumer, in key order, and empties the table.
+         */
+        void drain(StatementConsumer consumer) {
+            try {
+                if (runs.isEmpty()) {
+                    final int[] slots = sortedSlots();
+                    for (final int slot : slots) {
+                        final int k = slot * 4;
+                        consumer.accept(keys[k], keys[k + 1], keys[k + 2], keys[k + 3], ops[slot]);
+                    }
+                } else {
+                    spill();
+                    mergeRuns(consumer);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read spilled patch compaction state", e);
+            } finally {
+                discard();
+            }
+        }
+
+        /**
+         * K-way merge of the runs, passing the entries to the consumer in key order. For equal keys, only the
+         * entry from the newest run is passed.
+         */
+        private void mergeRuns(StatementConsumer consumer) throws IOException {
+            final var queue = new PriorityQueue<RunCursor>();
+            try {
+                for (int i = 0; i < runs.size(); i++) {
+                    final var cursor = new RunCursor(runs.get(i), i);
+                    advanceOrClose(queue, cursor);
+                }
+                while (!queue.isEmpty()) {
+                    final var newest = queue.poll();
+                    final int s = newest.s, p = newest.p, o = newest.o, g = newest.g;
+                    consumer.accept(s, p, o, g, newest.op);
+                    advanceOrClose(queue, newest);
+                    // Skip older entries of the same statement
+                    while (!queue.isEmpty() && queue.peek().hasKey(s, p, o, g)) {
+                        advanceOrClose(queue, queue.poll());
+                    }
+                }
+            } finally {
+                queue.forEach(RunCursor::close);
+            }
+        }
+    }
+
+    private static void writeEntry(DataOutputStream out, int s, int p, int o, int g, byte op) throws IOException {
+        out.writeInt(s);
+        out.writeInt(p);
+        out.writeInt(o);
+        out.writeInt(g);
+        out.writeByte(op);
+    }
+
+    private static void swap(int[] a, int i, int j) {
+        final int t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+    }
+
+    private static void advanceOrClose(PriorityQueue<RunCursor> queue, RunCursor cursor) throws IOException {
+        if (cursor.advance()) queue.add(cursor);
+        else cursor.close();
+    }
+
+    /**
+     * Reads the entries of one spilled run.
+     */
+    private static final class RunCursor implements Comparable<RunCursor> {
+
+        private final DataInputStream in;
+        private final int age;
+        int s, p, o, g;
+        byte op;
+
+        RunCursor(Path run, int age) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run), 1 << 16));
+            this.age = age;
+        }
+
+        boolean advance() throws IOException {
+            try {
+                s = in.readInt();
+            } catch (EOFException e) {
+                return false;
+            }
+            p = in.readInt();
+            o = in.readInt();
+            g = in.readInt();
+            op = in.readByte();
+            return true;
+        }
+
+        boolean hasKey(int s, int p, int o, int g) {
+            return this.s == s && this.p == p && this.o == o && this.g == g;
+        }
+
+        @Override
+        public int compareTo(RunCursor other) {
+            int c = Integer.compare(s, other.s);
+            if (c != 0) return c;
+            c = Integer.compare(p, other.p);
+            if (c != 0) return c;
+            c = Integer.compare(o, other.o);
+            if (c != 0) return c;
+            c = Integer.compare(g, other.g);
+            if (c != 0) return c;
+            // Newer runs first
+            return Integer.compare(other.age, age);
+        }
+
+        void close() {
+            try {
+                in.close();
+            } catch (IOException ignored) {
+                // Nothing to do
+            }
+        }
+    }
+}
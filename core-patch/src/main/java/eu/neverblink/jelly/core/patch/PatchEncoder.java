@@ -5,8 +5,11 @@ import eu.neverblink.jelly.core.ProtoEncoderConverter;
 import eu.neverblink.jelly.core.RdfBufferAppender;
 import eu.neverblink.jelly.core.internal.EncoderBase;
 import eu.neverblink.jelly.core.memory.EncoderAllocator;
+import eu.neverblink.jelly.core.patch.memory.PatchEncoderAllocator;
 import eu.neverblink.jelly.core.proto.v1.RdfQuad;
 import eu.neverblink.jelly.core.proto.v1.RdfTriple;
+import eu.neverblink.jelly.core.proto.v1.patch.RdfPatchHeader;
+import eu.neverblink.jelly.core.proto.v1.patch.RdfPatchNamespace;
 import eu.neverblink.jelly.core.proto.v1.patch.RdfPatchOptions;
 import eu.neverblink.jelly.core.proto.v1.patch.RdfPatchRow;
 import eu.neverblink.protoc.java.runtime.MessageCollection;
@@ -32,7 +35,9 @@ public abstract class PatchEncoder<TNode>
      * @param rowBuffer buffer for storing patch rows. The encoder will append the RdfPatchRows to
      *                            this buffer. The caller is responsible for managing this buffer and grouping
      *                            the rows in RdfPatchFrames.
-     * @param allocator allocator for proto class instances. Obtain it from {@link EncoderAllocator}.
+     * @param allocator allocator for proto class instances. Obtain it from {@link PatchEncoderAllocator}
+     *                  to also allocate the namespace and header messages from it, or from
+     *                  {@link EncoderAllocator} to allocate only the statements.
      */
     public record Params(
         RdfPatchOptions options,
@@ -57,6 +62,9 @@ public abstract class PatchEncoder<TNode>
 
     protected final EncoderAllocator allocator;
 
+    // Same as allocator, if it can allocate the patch-specific messages. Otherwise, null.
+    private final PatchEncoderAllocator patchAllocator;
+
     /**
      * Creates a new PatchEncoder instance.
      * @param converter converter for the RDF nodes
@@ -70,6 +78,7 @@ public abstract class PatchEncoder<TNode>
             .setVersion(JellyPatchConstants.PROTO_VERSION_1_0_X);
         this.rowBuffer = params.rowBuffer;
         this.allocator = params.allocator;
+        this.patchAllocator = params.allocator instanceof PatchEncoderAllocator pa ? pa : null;
     }
 
     @Override
@@ -96,4 +105,20 @@ public abstract class PatchEncoder<TNode>
     protected RdfQuad.Mutable newQuad() {
         return allocator.newQuad();
     }
+
+    /**
+     * Allocates a namespace message, from the arena if the allocator supports it.
+     * @return namespace
+     */
+    protected RdfPatchNamespace.Mutable newNamespace() {
+        return patchAllocator != null ? patchAllocator.newNamespace() : RdfPatchNamespace.newInstance();
+    }
+
+    /**
+     * Allocates a header message, from the arena if the allocator supports it.
+     * @return header
+     */
+    protected RdfPatchHeader.Mutable newHeader() {
+        return patchAllocator != null ? patchAllocator.newHeader() : RdfPatchHeader.newInstance();
+    }
 }
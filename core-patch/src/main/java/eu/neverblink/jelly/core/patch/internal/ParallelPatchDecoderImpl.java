@@ -0,0 +1,275 @@
+package eu.neverblink.jelly.core.patch.internal;
+
+import eu.neverblink.jelly.core.ExperimentalApi;
+import eu.neverblink.jelly.core.InternalApi;
+import eu.neverblink.jelly.core.ProtoDecoderConverter;
+import eu.neverblink.jelly.core.RdfProtoDeserializationError;
+import eu.neverblink.jelly.core.patch.JellyPatchOptions;
+import eu.neverblink.jelly.core.patch.ParallelPatchDecoder;
+import eu.neverblink.jelly.core.patch.PatchHandler;
+import eu.neverblink.jelly.core.proto.v1.RdfQuad;
+import eu.neverblink.jelly.core.proto.v1.patch.*;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Implementation of {@link ParallelPatchDecoder}.
+ * <p>
+ * The calling thread only scans the rows: it tracks the raw state of the lookups (see
+ * {@link PatchLookupState}) and cuts the stream into chunks. A new chunk may start at a row outside of a
+ * transaction, once the current chunk is large enough. Because the decoder of the chunk cannot know
+ * the repeated terms from the previous chunk, the cut is confirmed only if the following rows set each
+ * term position before repeating it. Otherwise, the rows stay in the current chunk.
+ *
+ * @param <TNode> type of RDF nodes in the library
+ * @param <TDatatype> type of the datatype in the library
+ */
+@ExperimentalApi
+@InternalApi
+public final class ParallelPatchDecoderImpl<TNode, TDatatype> implements ParallelPatchDecoder {
+
+    // Marks the end of a frame in a FRAME stream
+    private static final Object FRAME_END = new Object();
+
+    private final Supplier<? extends ProtoDecoderConverter<TNode, TDatatype>> converterSupplier;
+    private final PatchHandler.AnyPatchHandler<TNode> patchHandler;
+    private final RdfPatchOptions supportedOptions;
+    private final Params params;
+
+    private final PatchLookupState state = new PatchLookupState();
+    private final ArrayDeque<Future<PatchEventBuffer<TNode>>> inFlight = new ArrayDeque<>();
+
+    private PatchStatementType statementType = null;
+    private boolean isFrameStreamType = false;
+    private boolean inTransaction = false;
+    private boolean graphSet = false;
+    private boolean finished = false;
+
+    // The chunk being collected and the lookup state at its start
+    private ArrayList<Object> chunk = new ArrayList<>();
+    private PatchLookupState chunkState = new PatchLookupState();
+
+    // Start of the next chunk, if not yet confirmed. -1 if there is none.
+    private int pendingStart = -1;
+    private PatchLookupState pendingState = null;
+    private boolean pendingGraphUsed = false;
+
+    public ParallelPatchDecoderImpl(
+        Supplier<? extends ProtoDecoderConverter<TNode, TDatatype>> converterSupplier,
+        PatchHandler.AnyPatchHandler<TNode> patchHandler,
+        RdfPatchOptions supportedOptions,
+        Params params
+    ) {
+        this.converterSupplier = converterSupplier;
+        this.patchHandler = patchHandler;
+        this.supportedOptions =
+            supportedOptions != null ? supportedOptions : JellyPatchOptions.DEFAULT_SUPPORTED_OPTIONS;
+        this.params = params;
+    }
+
+    @Override
+    public RdfPatchOptions getPatchOptions() {
+        return state.getOptions();
+    }
+
+    @Override
+    public void ingestRow(RdfPatchRow row) {
+        if (finished) {
+            throw new IllegalStateException("The decoder is already finished.");
+        }
+        if (pendingStart < 0 && !inTransaction && chunk.size() >= params.minChunkRows()) {
+            pendingStart = chunk.size();
+            pendingState = state.snapshot();
+            pendingGraphUsed = false;
+        }
+
+        boolean confirm = false;
+        switch (row.getRowFieldNumber()) {
+            case RdfPatchRow.OPTIONS -> handleOptions(row.getOptions());
+            case RdfPatchRow.STATEMENT_ADD -> confirm = handleStatement(row.getStatementAdd());
+            case RdfPatchRow.STATEMENT_DELETE -> confirm = handleStatement(row.getStatementDelete());
+            case RdfPatchRow.NAMESPACE_ADD -> handleNamespace(row.getNamespaceAdd());
+            case RdfPatchRow.NAMESPACE_DELETE -> handleNamespace(row.getNamespaceDelete());
+            case RdfPatchRow.TRANSACTION_START -> inTransaction = true;
+            case RdfPatchRow.TRANSACTION_COMMIT, RdfPatchRow.TRANSACTION_ABORT -> {
+                inTransaction = false;
+                confirm = true;
+            }
+            case RdfPatchRow.NAME -> state.updateName(row.getName().getId(), row.getName().getValue());
+            case RdfPatchRow.PREFIX -> state.updatePrefix(row.getPrefix().getId(), row.getPrefix().getValue());
+            case RdfPatchRow.DATATYPE -> state.updateDatatype(
+                row.getDatatype().getId(),
+                row.getDatatype().getValue()
+            );
+            case RdfPatchRow.HEADER -> state.referenceTerm(row.getHeader().getValue());
+            // Punctuation and invalid rows are checked by the chunk's decoder, in order
+            default -> {}
+        }
+        chunk.add(row);
+        if (confirm && pendingStart >= 0) {
+            cutChunk();
+        }
+    }
+
+    @Override
+    public void ingestFrame(RdfPatchFrame frame) {
+        for (final var row : frame.getRows()) {
+            ingestRow(row);
+        }
+
+        if (isFrameStreamType) {
+            chunk.add(FRAME_END);
+        }
+    }
+
+    @Override
+    public void finish() {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        if (pendingStart >= 0) {
+            cutChunk();
+        }
+        submit(chunk, chunkState);
+        chunk = null;
+        deliver(0);
+    }
+
+    private void handleOptions(RdfPatchOptions opt) {
+        if (opt.getStatementType() == PatchStatementType.UNSPECIFIED) {
+            throw new RdfProtoDeserializationError("Incoming stream has no statement type set. Cannot decode.");
+        }
+        if (opt.getStatementType() == null) {
+            throw new RdfProtoDeserializationError(
+                "Incoming stream has an unrecognized statement type cannot be decoded by this decoder. " +
+                    "Only TRIPLES and QUADS streams are accepted."
+            );
+        }
+        JellyPatchOptions.checkCompatibility(opt, supportedOptions);
+        if (state.getOptions() == null) {
+            state.setOptions(opt);
+            statementType = opt.getStatementType();
+            isFrameStreamType = opt.getStreamType() == PatchStreamType.FRAME;
+        }
+    }
+
+    /**
+     * @return true if the statement confirms the pending start of a chunk
+     */
+    private boolean handleStatement(RdfQuad statement) {
+        final boolean isQuad = statementType == PatchStatementType.QUADS;
+        if (
+            pendingStart >= 0 &&
+            (statement.getSubject() == null ||
+                statement.getPredicate() == null ||
+                statement.getObject() == null ||
+                (isQuad && !checkPendingGraph(statement.getGraph())))
+        ) {
+            // Repeated term from before the pending start
+            pendingStart = -1;
+            pendingState = null;
+        }
+        state.referenceTerm(statement.getSubject());
+        state.referenceTerm(statement.getPredicate());
+        state.referenceTerm(statement.getObject());
+        if (isQuad) {
+            state.referenceTerm(statement.getGraph());
+            graphSet |= statement.getGraph() != null;
+        }
+        return true;
+    }
+
+    private void handleNamespace(RdfPatchNamespace namespace) {
+        if (pendingStart >= 0 && !checkPendingGraph(namespace.getGraph())) {
+            pendingStart = -1;
+            pendingState = null;
+        }
+        state.referenceIri(namespace.getValue());
+        state.referenceTerm(namespace.getGraph());
+        graphSet |= namespace.getGraph() != null;
+    }
+
+    /**
+     * @return false if the graph term repeats a graph from before the pending start
+     */
+    private boolean checkPendingGraph(Object graph) {
+        if (pendingGraphUsed) {
+            return true;
+        }
+        pendingGraphUsed = true;
+        return graph != null || !graphSet;
+    }
+
+    private void cutChunk() {
+        final var tail = chunk.subList(pendingStart, chunk.size());
+        final var next = new ArrayList<>(tail);
+        tail.clear();
+        submit(chunk, chunkState);
+        chunk = next;
+        chunkState = pendingState;
+        pendingStart = -1;
+        pendingState = null;
+    }
+
+    private void submit(List<Object> items, PatchLookupState seed) {
+        if (!items.isEmpty()) {
+            inFlight.add(params.executor().submit(() -> decodeChunk(items, seed)));
+        }
+        deliver(params.maxChunksInFlight());
+    }
+
+    private PatchEventBuffer<TNode> decodeChunk(List<Object> items, PatchLookupState seed) {
+        final var buffer = new PatchEventBuffer<TNode>();
+        final var decoder = new PatchDecoderImpl.AnyStatementDecoder<>(
+            converterSupplier.get(),
+            buffer,
+            supportedOptions
+        );
+        decoder.seed(seed);
+        for (final var item : items) {
+            if (item == FRAME_END) {
+                buffer.punctuation();
+            } else {
+                decoder.ingestRow((RdfPatchRow) item);
+            }
+        }
+        return buffer;
+    }
+
+    /**
+     * Deliver the decoded chunks to the handler, in order. Waits for the oldest chunk if more than
+     * maxInFlight chunks are pending.
+     */
+    private void deliver(int maxInFlight) {
+        while (!inFlight.isEmpty() && (inFlight.size() > maxInFlight || inFlight.peek().isDone())) {
+            final PatchEventBuffer<TNode> buffer;
+            try {
+                buffer = inFlight.poll().get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancelInFlight();
+                throw new RdfProtoDeserializationError("Interrupted while waiting for a decoded chunk.", e);
+            } catch (ExecutionException e) {
+                cancelInFlight();
+                if (e.getCause() instanceof RuntimeException re) {
+                    throw re;
+                }
+                throw new RdfProtoDeserializationError("Error while decoding a chunk: " + e.getCause(), e.getCause());
+            }
+            buffer.replay(patchHandler);
+        }
+    }
+
+    private void cancelInFlight() {
+        finished = true;
+        for (final var future : inFlight) {
+            future.cancel(true);
+        }
+        inFlight.clear();
+    }
+}
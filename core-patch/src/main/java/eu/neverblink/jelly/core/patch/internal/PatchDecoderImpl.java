@@ -101,6 +101,70 @@ public abstract sealed class PatchDecoderImpl<TNode, TDatatype>
         }
     }
 
+    /**
+     * Bring a fresh decoder to the lookup state of a stream at some row, so that the decoder can
+     * ingest the stream starting from that row.
+     * <p>
+     * The options are validated as if they were in an options row. The entries of the lookups are
+     * converted again, and the last referenced IRI is decoded to restore the references for the
+     * following IRIs. Repeated terms are not restored.
+     *
+     * @param state state of the lookups, not modified by this method
+     * @throws RdfProtoDeserializationError if the options are not supported
+     */
+    public final void seed(PatchLookupState state) {
+        if (state.options != null) {
+            handleOptions(state.options);
+        }
+
+        final var nameDecoder = getNameDecoder();
+        if (state.names != null) {
+            for (int i = 1; i < state.names.length; i++) {
+                if (state.names[i] != null) {
+                    nameDecoder.updateNames(RdfNameEntry.newInstance().setId(i).setValue(state.names[i]));
+                }
+            }
+            if (state.lastNameIdSet > 0) {
+                // Set the entry again to restore the last set ID
+                nameDecoder.updateNames(
+                    RdfNameEntry.newInstance().setId(state.lastNameIdSet).setValue(state.names[state.lastNameIdSet])
+                );
+            }
+        }
+        if (state.prefixes != null) {
+            for (int i = 1; i < state.prefixes.length; i++) {
+                if (state.prefixes[i] != null) {
+                    nameDecoder.updatePrefixes(RdfPrefixEntry.newInstance().setId(i).setValue(state.prefixes[i]));
+                }
+            }
+            if (state.lastPrefixIdSet > 0) {
+                nameDecoder.updatePrefixes(
+                    RdfPrefixEntry.newInstance()
+                        .setId(state.lastPrefixIdSet)
+                        .setValue(state.prefixes[state.lastPrefixIdSet])
+                );
+            }
+        }
+        if (state.datatypes != null) {
+            final var datatypeLookup = getDatatypeLookup();
+            for (int i = 1; i < state.datatypes.length; i++) {
+                if (state.datatypes[i] != null) {
+                    datatypeLookup.update(i, converter.makeDatatype(state.datatypes[i]));
+                }
+            }
+            if (state.lastDatatypeIdSet > 0) {
+                datatypeLookup.update(
+                    state.lastDatatypeIdSet,
+                    converter.makeDatatype(state.datatypes[state.lastDatatypeIdSet])
+                );
+            }
+        }
+        if (state.lastNameIdReference > 0) {
+            // The decoded IRI is discarded, only the references are updated
+            nameDecoder.decode(state.lastPrefixIdReference, state.lastNameIdReference);
+        }
+    }
+
     protected abstract void handleStatementAdd(RdfQuad statement);
 
     protected abstract void handleStatementDelete(RdfQuad statement);
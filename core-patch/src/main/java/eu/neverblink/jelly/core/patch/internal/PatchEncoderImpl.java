@@ -19,28 +19,6 @@ public final class PatchEncoderImpl<TNode> extends PatchEncoder<TNode> {
 
     private boolean hasEmittedOptions = false;
 
-    // These rows are always identical, so we can use singletons
-    private static final RdfPatchRow ROW_PUNCTUATION = RdfPatchRow.newInstance().setPunctuation(
-        RdfPatchPunctuation.EMPTY
-    );
-    private static final RdfPatchRow ROW_TX_START = RdfPatchRow.newInstance().setTransactionStart(
-        RdfPatchTransactionStart.EMPTY
-    );
-    private static final RdfPatchRow ROW_TX_COMMIT = RdfPatchRow.newInstance().setTransactionCommit(
-        RdfPatchTransactionCommit.EMPTY
-    );
-    private static final RdfPatchRow ROW_TX_ABORT = RdfPatchRow.newInstance().setTransactionAbort(
-        RdfPatchTransactionAbort.EMPTY
-    );
-
-    static {
-        // Pre-calculate the serialized sizes of the static rows to avoid repeated calculations
-        ROW_PUNCTUATION.getSerializedSize();
-        ROW_TX_START.getSerializedSize();
-        ROW_TX_COMMIT.getSerializedSize();
-        ROW_TX_ABORT.getSerializedSize();
-    }
-
     /**
      * Constructor.
      *
@@ -99,22 +77,19 @@ public final class PatchEncoderImpl<TNode> extends PatchEncoder<TNode> {
     @Override
     public void transactionStart() {
         emitOptions();
-        // TODO: replace with .appendMessage() in when we introduce RowBuffer fully
-        rowBuffer.add(ROW_TX_START);
+        rowBuffer.appendMessage().setTransactionStart(RdfPatchTransactionStart.EMPTY).getSerializedSize();
     }
 
     @Override
     public void transactionCommit() {
         emitOptions();
-        // TODO: replace with .appendMessage() in when we introduce RowBuffer fully
-        rowBuffer.add(ROW_TX_COMMIT);
+        rowBuffer.appendMessage().setTransactionCommit(RdfPatchTransactionCommit.EMPTY).getSerializedSize();
     }
 
     @Override
     public void transactionAbort() {
         emitOptions();
-        // TODO: replace with .appendMessage() in when we introduce RowBuffer fully
-        rowBuffer.add(ROW_TX_ABORT);
+        rowBuffer.appendMessage().setTransactionAbort(RdfPatchTransactionAbort.EMPTY).getSerializedSize();
     }
 
     @Override
@@ -131,7 +106,7 @@ public final class PatchEncoderImpl<TNode> extends PatchEncoder<TNode> {
 
     private RdfPatchNamespace encodeNamespace(String name, TNode iriValue, TNode graph) {
         emitOptions();
-        final var namespace = RdfPatchNamespace.newInstance().setName(name);
+        final var namespace = newNamespace().setName(name);
         if (iriValue != null) {
             final var encoded = converter.nodeToProto(getNodeEncoder(), iriValue);
             namespace.setValue((RdfIri) encoded);
@@ -145,7 +120,7 @@ public final class PatchEncoderImpl<TNode> extends PatchEncoder<TNode> {
     @Override
     public void header(String key, TNode value) {
         emitOptions();
-        final var header = RdfPatchHeader.newInstance().setKey(key);
+        final var header = newHeader().setKey(key);
         final var encoded = converter.nodeToProto(getNodeEncoder(), value);
         header.setValue(encoded);
         rowBuffer.appendMessage().setHeader(header).getSerializedSize();
@@ -157,8 +132,7 @@ public final class PatchEncoderImpl<TNode> extends PatchEncoder<TNode> {
         if (options.getStreamType() != PatchStreamType.PUNCTUATED) {
             throw new RdfProtoSerializationError("Punctuation is not allowed in this stream type.");
         }
-        // TODO: replace with .appendMessage() in when we introduce RowBuffer fully
-        rowBuffer.add(ROW_PUNCTUATION);
+        rowBuffer.appendMessage().setPunctuation(RdfPatchPunctuation.EMPTY).getSerializedSize();
     }
 
     private void emitOptions() {
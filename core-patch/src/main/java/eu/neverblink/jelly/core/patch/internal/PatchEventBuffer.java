@@ -0,0 +1,151 @@
+package eu.neverblink.jelly.core.patch.internal;
+
+import eu.neverblink.jelly.core.ExperimentalApi;
+import eu.neverblink.jelly.core.InternalApi;
+import eu.neverblink.jelly.core.patch.PatchHandler;
+import java.util.Arrays;
+
+/**
+ * Patch handler that records the calls made to it, to replay them later on another handler.
+ * <p>
+ * The calls are stored in columns (an array of operation codes and an array of arguments),
+ * without allocating an object per call.
+ *
+ * @param <TNode> type of RDF nodes in the library
+ */
+@ExperimentalApi
+@InternalApi
+public final class PatchEventBuffer<TNode> implements PatchHandler.AnyPatchHandler<TNode> {
+
+    private static final byte ADD_TRIPLE = 0;
+    private static final byte DELETE_TRIPLE = 1;
+    private static final byte ADD_QUAD = 2;
+    private static final byte DELETE_QUAD = 3;
+    private static final byte TX_START = 4;
+    private static final byte TX_COMMIT = 5;
+    private static final byte TX_ABORT = 6;
+    private static final byte ADD_NAMESPACE = 7;
+    private static final byte DELETE_NAMESPACE = 8;
+    private static final byte HEADER = 9;
+    private static final byte PUNCTUATION = 10;
+
+    private static final int ARGS = 4;
+
+    private byte[] ops = new byte[256];
+    private Object[] args = new Object[256 * ARGS];
+    private int size = 0;
+
+    /**
+     * @return number of recorded calls
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Replays the recorded calls on the given handler, in the order they were made.
+     * @param handler handler to call
+     */
+    @SuppressWarnings("unchecked")
+    public void replay(PatchHandler.AnyPatchHandler<TNode> handler) {
+        for (int i = 0, a = 0; i < size; i++, a += ARGS) {
+            switch (ops[i]) {
+                case ADD_TRIPLE -> handler.addTriple((TNode) args[a], (TNode) args[a + 1], (TNode) args[a + 2]);
+                case DELETE_TRIPLE -> handler.deleteTriple((TNode) args[a], (TNode) args[a + 1], (TNode) args[a + 2]);
+                case ADD_QUAD -> handler.addQuad(
+                    (TNode) args[a],
+                    (TNode) args[a + 1],
+                    (TNode) args[a + 2],
+                    (TNode) args[a + 3]
+                );
+                case DELETE_QUAD -> handler.deleteQuad(
+                    (TNode) args[a],
+                    (TNode) args[a + 1],
+                    (TNode) args[a + 2],
+                    (TNode) args[a + 3]
+                );
+                case TX_START -> handler.transactionStart();
+                case TX_COMMIT -> handler.transactionCommit();
+                case TX_ABORT -> handler.transactionAbort();
+                case ADD_NAMESPACE -> handler.addNamespace((String) args[a], (TNode) args[a + 1], (TNode) args[a + 2]);
+                case DELETE_NAMESPACE -> handler.deleteNamespace(
+                    (String) args[a],
+                    (TNode) args[a + 1],
+                    (TNode) args[a + 2]
+                );
+                case HEADER -> handler.header((String) args[a], (TNode) args[a + 1]);
+                case PUNCTUATION -> handler.punctuation();
+                default -> throw new IllegalStateException("Unknown operation: " + ops[i]);
+            }
+        }
+    }
+
+    private void append(byte op, Object a0, Object a1, Object a2, Object a3) {
+        if (size == ops.length) {
+            ops = Arrays.copyOf(ops, size * 2);
+            args = Arrays.copyOf(args, size * 2 * ARGS);
+        }
+        ops[size] = op;
+        final int a = size * ARGS;
+        args[a] = a0;
+        args[a + 1] = a1;
+        args[a + 2] = a2;
+        args[a + 3] = a3;
+        size++;
+    }
+
+    @Override
+    public void addTriple(TNode subject, TNode predicate, TNode object) {
+        append(ADD_TRIPLE, subject, predicate, object, null);
+    }
+
+    @Override
+    public void deleteTriple(TNode subject, TNode predicate, TNode object) {
+        append(DELETE_TRIPLE, subject, predicate, object, null);
+    }
+
+    @Override
+    public void addQuad(TNode subject, TNode predicate, TNode object, TNode graph) {
+        append(ADD_QUAD, subject, predicate, object, graph);
+    }
+
+    @Override
+    public void deleteQuad(TNode subject, TNode predicate, TNode object, TNode graph) {
+        append(DELETE_QUAD, subject, predicate, object, graph);
+    }
+
+    @Override
+    public void transactionStart() {
+        append(TX_START, null, null, null, null);
+    }
+
+    @Override
+    public void transactionCommit() {
+        append(TX_COMMIT, null, null, null, null);
+    }
+
+    @Override
+    public void transactionAbort() {
+        append(TX_ABORT, null, null, null, null);
+    }
+
+    @Override
+    public void addNamespace(String name, TNode iriValue, TNode graph) {
+        append(ADD_NAMESPACE, name, iriValue, graph, null);
+    }
+
+    @Override
+    public void deleteNamespace(String name, TNode iriValue, TNode graph) {
+        append(DELETE_NAMESPACE, name, iriValue, graph, null);
+    }
+
+    @Override
+    public void header(String key, TNode value) {
+        append(HEADER, key, value, null, null);
+    }
+
+    @Override
+    public void punctuation() {
+        append(PUNCTUATION, null, null, null, null);
+    }
+}
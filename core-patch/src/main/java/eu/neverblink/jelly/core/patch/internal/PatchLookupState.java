@@ -0,0 +1,164 @@
+package eu.neverblink.jelly.core.patch.internal;
+
+import static eu.neverblink.jelly.core.internal.BaseJellyOptions.*;
+
+import eu.neverblink.jelly.core.ExperimentalApi;
+import eu.neverblink.jelly.core.InternalApi;
+import eu.neverblink.jelly.core.RdfProtoDeserializationError;
+import eu.neverblink.jelly.core.proto.v1.RdfIri;
+import eu.neverblink.jelly.core.proto.v1.RdfTriple;
+import eu.neverblink.jelly.core.proto.v1.patch.RdfPatchOptions;
+
+/**
+ * Raw (not converted) state of the lookups of a Jelly-Patch stream at a given row: the name, prefix,
+ * and datatype tables, the IDs that were set last, and the last referenced IRI.
+ * <p>
+ * This is enough to start decoding the stream from the middle with a fresh decoder, see
+ * {@link PatchDecoderImpl#seed(PatchLookupState)}. Tracking the state is much cheaper than decoding, as
+ * no strings are concatenated and no nodes are created.
+ * <p>
+ * The repeated terms are not a part of the state – the decoder must be seeded at a row after which
+ * every term position is set explicitly before it is repeated.
+ */
+@ExperimentalApi
+@InternalApi
+public final class PatchLookupState {
+
+    RdfPatchOptions options;
+
+    // All tables are indexed by the 1-based IDs, entry 0 is unused
+    String[] names;
+    String[] prefixes;
+    String[] datatypes;
+
+    int lastNameIdSet = 0;
+    int lastPrefixIdSet = 0;
+    int lastDatatypeIdSet = 0;
+
+    int lastNameIdReference = 0;
+    int lastPrefixIdReference = 0;
+
+    /**
+     * Creates an empty state, as at the start of a stream.
+     */
+    public PatchLookupState() {}
+
+    /**
+     * Returns a copy of this state that is not affected by the subsequent updates.
+     * @return copy
+     */
+    public PatchLookupState snapshot() {
+        final var copy = new PatchLookupState();
+        copy.options = options;
+        copy.names = names == null ? null : names.clone();
+        copy.prefixes = prefixes == null ? null : prefixes.clone();
+        copy.datatypes = datatypes == null ? null : datatypes.clone();
+        copy.lastNameIdSet = lastNameIdSet;
+        copy.lastPrefixIdSet = lastPrefixIdSet;
+        copy.lastDatatypeIdSet = lastDatatypeIdSet;
+        copy.lastNameIdReference = lastNameIdReference;
+        copy.lastPrefixIdReference = lastPrefixIdReference;
+        return copy;
+    }
+
+    /**
+     * Sets the options of the stream. Like in the decoder, only the first options are taken into account.
+     * @param options options of the stream
+     */
+    public void setOptions(RdfPatchOptions options) {
+        if (this.options == null) {
+            this.options = options;
+        }
+    }
+
+    public RdfPatchOptions getOptions() {
+        return options;
+    }
+
+    /**
+     * Update the name table. Same semantics as NameDecoder.updateNames.
+     * @param id ID of the entry, 0 means the last set ID + 1
+     * @param value name
+     * @throws RdfProtoDeserializationError if the ID is out of bounds
+     */
+    public void updateName(int id, String value) {
+        if (names == null) {
+            names = new String[(options == null ? SMALL_NAME_TABLE_SIZE : options.getMaxNameTableSize()) + 1];
+        }
+        lastNameIdSet = id == 0 ? lastNameIdSet + 1 : id;
+        if (lastNameIdSet < 1 || lastNameIdSet >= names.length) {
+            throw new RdfProtoDeserializationError(
+                "Name entry with ID %d is out of bounds of the name lookup table.".formatted(id)
+            );
+        }
+        names[lastNameIdSet] = value;
+    }
+
+    /**
+     * Update the prefix table. Same semantics as NameDecoder.updatePrefixes.
+     * @param id ID of the entry, 0 means the last set ID + 1
+     * @param value prefix
+     * @throws RdfProtoDeserializationError if the ID is out of bounds
+     */
+    public void updatePrefix(int id, String value) {
+        if (prefixes == null) {
+            prefixes = new String[(options == null ? SMALL_PREFIX_TABLE_SIZE : options.getMaxPrefixTableSize()) + 1];
+        }
+        lastPrefixIdSet = id == 0 ? lastPrefixIdSet + 1 : id;
+        if (lastPrefixIdSet < 1 || lastPrefixIdSet >= prefixes.length) {
+            throw new RdfProtoDeserializationError(
+                "Prefix entry with ID %d is out of bounds of the prefix lookup table.".formatted(id)
+            );
+        }
+        prefixes[lastPrefixIdSet] = value;
+    }
+
+    /**
+     * Update the datatype table. Same semantics as DecoderLookup.update.
+     * @param id ID of the entry, 0 means the last set ID + 1
+     * @param value datatype IRI
+     * @throws RdfProtoDeserializationError if the ID is out of bounds
+     */
+    public void updateDatatype(int id, String value) {
+        if (datatypes == null) {
+            datatypes = new String[(options == null ? SMALL_DT_TABLE_SIZE : options.getMaxDatatypeTableSize()) + 1];
+        }
+        lastDatatypeIdSet = id == 0 ? lastDatatypeIdSet + 1 : id;
+        if (lastDatatypeIdSet < 1 || lastDatatypeIdSet >= datatypes.length) {
+            throw new RdfProtoDeserializationError(
+                "Datatype entry with ID %d is out of bounds of the datatype lookup table.".formatted(id)
+            );
+        }
+        datatypes[lastDatatypeIdSet] = value;
+    }
+
+    /**
+     * Track the IRI references in a term, in the same order as the decoder would decode them.
+     * @param term SPO or graph term, may be null
+     */
+    public void referenceTerm(Object term) {
+        if (term instanceof RdfIri.Mutable iri) {
+            referenceIri(iri);
+        } else if (term instanceof RdfTriple.Mutable triple) {
+            referenceTerm(triple.getSubject());
+            referenceTerm(triple.getPredicate());
+            referenceTerm(triple.getObject());
+        }
+    }
+
+    /**
+     * Track an IRI reference. Same semantics as NameDecoder.decode.
+     * @param iri IRI, may be null
+     */
+    public void referenceIri(RdfIri iri) {
+        if (iri == null) {
+            return;
+        }
+        final int nameId = iri.getNameId();
+        final int prefixId = iri.getPrefixId();
+        lastNameIdReference = nameId == 0 ? lastNameIdReference + 1 : nameId;
+        if (prefixId != 0) {
+            lastPrefixIdReference = prefixId;
+        }
+    }
+}
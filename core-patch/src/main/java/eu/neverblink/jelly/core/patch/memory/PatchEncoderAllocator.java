@@ -0,0 +1,122 @@
+package eu.neverblink.jelly.core.patch.memory;
+
+import eu.neverblink.jelly.core.ExperimentalApi;
+import eu.neverblink.jelly.core.memory.ArenaMessageAllocator;
+import eu.neverblink.jelly.core.memory.EncoderAllocator;
+import eu.neverblink.jelly.core.proto.v1.RdfQuad;
+import eu.neverblink.jelly.core.proto.v1.RdfTriple;
+import eu.neverblink.jelly.core.proto.v1.patch.RdfPatchHeader;
+import eu.neverblink.jelly.core.proto.v1.patch.RdfPatchNamespace;
+
+/**
+ * Allocator for the proto objects of {@link eu.neverblink.jelly.core.patch.PatchEncoder}. In addition to
+ * the statements, it allocates the namespace and header messages.
+ * <p>
+ * If you pass a plain {@link EncoderAllocator} to the PatchEncoder, the namespace and header messages
+ * are always allocated on the heap.
+ */
+@ExperimentalApi
+public abstract class PatchEncoderAllocator extends EncoderAllocator {
+
+    /**
+     * Create a new {@link RdfPatchNamespace.Mutable} object.
+     * @return namespace
+     */
+    public abstract RdfPatchNamespace.Mutable newNamespace();
+
+    /**
+     * Create a new {@link RdfPatchHeader.Mutable} object.
+     * @return header
+     */
+    public abstract RdfPatchHeader.Mutable newHeader();
+
+    /**
+     * Simple, thread-safe allocator that uses the Java heap to allocate objects.
+     * @return a new instance of {@link PatchEncoderAllocator} that allocates objects on the heap.
+     */
+    public static PatchEncoderAllocator newHeapAllocator() {
+        return HEAP_ALLOCATOR;
+    }
+
+    /**
+     * Arena-based allocator (on-heap) that can reuse objects after .releaseAll() is called.
+     * This is NOT thread-safe, and it is your responsibility to ensure that the you don't
+     * use allocated objects after calling .releaseAll().
+     * @param maxSize maximum size of the arena, for each message type. After this size is reached,
+     *                remaining objects will be allocated on the heap.
+     * @return a new instance of {@link PatchEncoderAllocator} that allocates objects in a heap-backed arena.
+     */
+    public static PatchEncoderAllocator newArenaAllocator(int maxSize) {
+        return new ArenaAllocator(maxSize);
+    }
+
+    private static final PatchEncoderAllocator HEAP_ALLOCATOR = new PatchEncoderAllocator() {
+        @Override
+        public RdfTriple.Mutable newTriple() {
+            return RdfTriple.newInstance();
+        }
+
+        @Override
+        public RdfQuad.Mutable newQuad() {
+            return RdfQuad.newInstance();
+        }
+
+        @Override
+        public RdfPatchNamespace.Mutable newNamespace() {
+            return RdfPatchNamespace.newInstance();
+        }
+
+        @Override
+        public RdfPatchHeader.Mutable newHeader() {
+            return RdfPatchHeader.newInstance();
+        }
+
+        @Override
+        public void releaseAll() {
+            // No-op
+        }
+    };
+
+    private static class ArenaAllocator extends PatchEncoderAllocator {
+
+        private final ArenaMessageAllocator<RdfTriple.Mutable> tripleAllocator;
+        private final ArenaMessageAllocator<RdfQuad.Mutable> quadAllocator;
+        private final ArenaMessageAllocator<RdfPatchNamespace.Mutable> namespaceAllocator;
+        private final ArenaMessageAllocator<RdfPatchHeader.Mutable> headerAllocator;
+
+        public ArenaAllocator(int maxSize) {
+            this.tripleAllocator = new ArenaMessageAllocator<>(RdfTriple::newInstance, maxSize);
+            this.quadAllocator = new ArenaMessageAllocator<>(RdfQuad::newInstance, maxSize);
+            this.namespaceAllocator = new ArenaMessageAllocator<>(RdfPatchNamespace::newInstance, maxSize);
+            this.headerAllocator = new ArenaMessageAllocator<>(RdfPatchHeader::newInstance, maxSize);
+        }
+
+        @Override
+        public RdfTriple.Mutable newTriple() {
+            return tripleAllocator.newInstance();
+        }
+
+        @Override
+        public RdfQuad.Mutable newQuad() {
+            return quadAllocator.newInstance();
+        }
+
+        @Override
+        public RdfPatchNamespace.Mutable newNamespace() {
+            return namespaceAllocator.newInstance();
+        }
+
+        @Override
+        public RdfPatchHeader.Mutable newHeader() {
+            return headerAllocator.newInstance();
+        }
+
+        @Override
+        public void releaseAll() {
+            tripleAllocator.releaseAll();
+            quadAllocator.releaseAll();
+            namespaceAllocator.releaseAll();
+            headerAllocator.releaseAll();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package eu.neverblink.jelly.core.patch.memory;
+
+import eu.neverblink.jelly.core.ExperimentalApi;
+import eu.neverblink.jelly.core.proto.v1.patch.RdfPatchRow;
+import eu.neverblink.protoc.java.runtime.MessageCollection;
+
+/**
+ * Buffer of RdfPatchRow messages, the Jelly-Patch counterpart of
+ * {@link eu.neverblink.jelly.core.memory.RowBuffer}.
+ * <p>
+ * Use the reusable buffer if you can guarantee that the proto objects are only created temporarily
+ * for a single frame, and then never used again. This happens for example in the Jena and RDF4J
+ * patch writers. Otherwise, use a buffer that never reuses the proto objects, such as
+ * {@link eu.neverblink.protoc.java.runtime.ArrayListMessageCollection}.
+ */
+@ExperimentalApi
+public interface PatchRowBuffer extends MessageCollection<RdfPatchRow, RdfPatchRow.Mutable> {
+    /**
+     * Returns true if the buffer is empty.
+     * @return true if the buffer is empty, false otherwise
+     */
+    boolean isEmpty();
+
+    /**
+     * Returns the number of rows in the buffer.
+     * @return current size
+     */
+    int size();
+
+    /**
+     * Creates a new ReusablePatchRowBuffer with the given initial capacity, for use by the PatchEncoder.
+     * This buffer maintains internally a single array of RdfPatchRow objects, and reuses them
+     * for each frame (after clear() is called).
+     * @param initialCapacity initial capacity of the buffer
+     * @return a new ReusablePatchRowBuffer for encoding
+     */
+    static ReusablePatchRowBuffer newReusableForEncoder(int initialCapacity) {
+        return new ReusablePatchRowBuffer(initialCapacity, ReusablePatchRowBuffer.ENCODER_CLEAR_POLICY);
+    }
+
+    /**
+     * Creates a new ReusablePatchRowBuffer with the given initial capacity, for use by the PatchDecoder.
+     * This buffer maintains internally a single array of RdfPatchRow objects, and reuses them
+     * for each frame (after clear() is called).
+     * @param initialCapacity initial capacity of the buffer
+     * @return a new ReusablePatchRowBuffer for decoding
+     */
+    static ReusablePatchRowBuffer newReusableForDecoder(int initialCapacity) {
+        return new ReusablePatchRowBuffer(initialCapacity, ReusablePatchRowBuffer.DECODER_CLEAR_POLICY);
+    }
+}
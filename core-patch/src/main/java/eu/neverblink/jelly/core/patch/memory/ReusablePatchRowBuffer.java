@@ -0,0 +1,117 @@
+package eu.neverblink.jelly.core.patch.memory;
+
+import eu.neverblink.jelly.core.ExperimentalApi;
+import eu.neverblink.jelly.core.proto.v1.patch.RdfPatchRow;
+import java.util.AbstractCollection;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * Buffer of RdfPatchRow messages, which will re-use the same internal array of RdfPatchRow
+ * objects when it is cleared. You must NEVER keep a reference to the rows after calling clear(),
+ * because they will be reused and their contents will be overwritten.
+ * <p>
+ * Rows can only be added with appendMessage(). add() is not supported, because the buffer owns its rows.
+ */
+@ExperimentalApi
+public final class ReusablePatchRowBuffer extends AbstractCollection<RdfPatchRow> implements PatchRowBuffer {
+
+    private RdfPatchRow[] rows;
+    private int visibleSize = 0;
+    private int initializedSize = 0;
+    private int capacity;
+    private final Consumer<RdfPatchRow.Mutable> clearPolicy;
+
+    /**
+     * Package-private constructor.
+     * Use PatchRowBuffer.newReusableForEncoder(int initialCapacity) instead.
+     * @param initialCapacity initial capacity of the buffer
+     * @param clearPolicy method to clear the row when it is reused
+     */
+    ReusablePatchRowBuffer(int initialCapacity, Consumer<RdfPatchRow.Mutable> clearPolicy) {
+        // Cap the initial allocation, same as in ReusableRowBuffer. The buffer grows if needed.
+        this.capacity = Math.max(1, Math.min(initialCapacity, 2048));
+        this.rows = new RdfPatchRow[capacity];
+        this.clearPolicy = clearPolicy;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return visibleSize == 0;
+    }
+
+    @Override
+    public Iterator<RdfPatchRow> iterator() {
+        return new Iterator<>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < visibleSize;
+            }
+
+            @Override
+            public RdfPatchRow next() {
+                return rows[index++];
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return visibleSize;
+    }
+
+    /**
+     * Returns the row at the given index, without copying.
+     * @param index index of the row, must be less than size()
+     * @return row
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public RdfPatchRow get(int index) {
+        if (index < 0 || index >= visibleSize) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return rows[index];
+    }
+
+    @Override
+    public RdfPatchRow.Mutable appendMessage() {
+        if (visibleSize < initializedSize) {
+            final var row = (RdfPatchRow.Mutable) rows[visibleSize++];
+            // Clear the row using the specified policy before returning, so that it can be reused.
+            clearPolicy.accept(row);
+            return row;
+        } else if (visibleSize >= capacity) {
+            // Resize the array to make room for more rows.
+            capacity = Math.max(capacity + 1, (capacity * 3) / 2);
+            final var newRows = new RdfPatchRow[capacity];
+            System.arraycopy(rows, 0, newRows, 0, visibleSize);
+            rows = newRows;
+        }
+        // Batch-allocate instances to avoid frequent allocations
+        // and to hopefully improve cache locality.
+        initializedSize = Math.min(capacity, visibleSize + 16);
+        for (int i = visibleSize; i < initializedSize; i++) {
+            rows[i] = RdfPatchRow.newInstance();
+        }
+        return (RdfPatchRow.Mutable) rows[visibleSize++];
+    }
+
+    @Override
+    public void clear() {
+        visibleSize = 0;
+    }
+
+    /**
+     * For encoding, we just reset the cached size of the rows, because the row's oneof field
+     * will be overwritten anyway.
+     */
+    static final Consumer<RdfPatchRow.Mutable> ENCODER_CLEAR_POLICY = RdfPatchRow::resetCachedSize;
+
+    /**
+     * For decoding, we don't even need to reset the cached size, as it's not used anyway.
+     * The contents will be overwritten.
+     */
+    static final Consumer<RdfPatchRow.Mutable> DECODER_CLEAR_POLICY = row -> {};
+}
@@ -0,0 +1,161 @@
+package eu.neverblink.jelly.core.patch
+
+import eu.neverblink.jelly.core.RdfProtoDeserializationError
+import eu.neverblink.jelly.core.helpers.Mrl.*
+import eu.neverblink.jelly.core.memory.EncoderAllocator
+import eu.neverblink.jelly.core.patch.helpers.*
+import eu.neverblink.jelly.core.patch.helpers.Mpl.*
+import eu.neverblink.jelly.core.patch.helpers.PatchAdapter.*
+import eu.neverblink.jelly.core.proto.v1.patch.*
+import eu.neverblink.protoc.java.runtime.ArrayListMessageCollection
+import org.scalatest.BeforeAndAfterAll
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+import java.util.concurrent.Executors
+import scala.annotation.experimental
+import scala.jdk.CollectionConverters.*
+import scala.util.Random
+
+@experimental
+class ParallelPatchDecoderSpec extends AnyWordSpec, Matchers, BeforeAndAfterAll:
+  private val executor = Executors.newFixedThreadPool(4)
+
+  override def afterAll(): Unit = executor.shutdown()
+
+  private def decodeSequential(frames: Seq[RdfPatchFrame]): Seq[PatchStatement] =
+    val out = PatchCollector()
+    val decoder = MockPatchConverterFactory.anyStatementDecoder(out, null)
+    frames.foreach(decoder.ingestFrame)
+    out.statements.toSeq
+
+  private def decodeParallel(
+      frames: Seq[RdfPatchFrame],
+      minChunkRows: Int,
+      maxChunksInFlight: Int = 4,
+  ): Seq[PatchStatement] =
+    val out = PatchCollector()
+    val decoder = MockPatchConverterFactory.parallelDecoder(
+      out,
+      null,
+      ParallelPatchDecoder.Params.of(executor, minChunkRows, maxChunksInFlight),
+    )
+    frames.foreach(decoder.ingestFrame)
+    decoder.finish()
+    out.statements.toSeq
+
+  private def encode(
+      patch: Seq[PatchStatement],
+      statementType: PatchStatementType,
+      streamType: PatchStreamType,
+  ): Seq[RdfPatchFrame] =
+    val buffer = ArrayListMessageCollection[RdfPatchRow, RdfPatchRow.Mutable](() => RdfPatchRow.newInstance())
+    val encoder = MockPatchConverterFactory.encoder(
+      PatchEncoder.Params(
+        JellyPatchOptions.SMALL_ALL_FEATURES.clone
+          .setStatementType(statementType)
+          .setStreamType(streamType),
+        buffer,
+        EncoderAllocator.newHeapAllocator(),
+      ),
+    )
+    patch.foreach(_.apply(encoder))
+    buffer.asScala.toSeq.grouped(37).map(rows => rdfPatchFrame(rows)).toSeq
+
+  /** A patch with many distinct IRIs (to evict lookup entries), repeated terms, and transactions. */
+  private def randomPatch(random: Random, size: Int, quads: Boolean): Seq[PatchStatement] =
+    def iri(): Iri = Iri(s"https://test.org/ns${random.nextInt(30)}/name${random.nextInt(300)}")
+    def node(): Node = random.nextInt(10) match
+      case 0 => SimpleLiteral(s"lit ${random.nextInt(100)}")
+      case 1 => DtLiteral(random.nextInt(100).toString, Datatype(s"https://test.org/dt${random.nextInt(20)}"))
+      case 2 => BlankNode(s"b${random.nextInt(10)}")
+      case 3 => TripleNode(iri(), iri(), iri())
+      case _ => iri()
+    var s = iri()
+    var p = iri()
+    var g: Node = iri()
+    def statement(): Statement =
+      // Keep the subject and the predicate often to produce repeated terms
+      if random.nextInt(3) == 0 then s = iri()
+      if random.nextInt(3) == 0 then p = iri()
+      if random.nextInt(5) == 0 then g = if random.nextBoolean() then iri() else DefaultGraphNode()
+      if quads then Quad(s, p, node(), g) else Triple(s, p, node())
+    val patch = Seq.newBuilder[PatchStatement]
+    var inTx = false
+    for _ <- 0 until size do
+      random.nextInt(30) match
+        case 0 if !inTx =>
+          patch += TxStart
+          inTx = true
+        case 1 if inTx =>
+          patch += TxCommit
+          inTx = false
+        case 2 if inTx =>
+          patch += TxAbort
+          inTx = false
+        case 3 => patch += Add(NsDecl(s"ns${random.nextInt(5)}", iri(), if quads then g else null))
+        case 4 => patch += Header(s"h${random.nextInt(5)}", iri())
+        case n if n < 20 => patch += Add(statement())
+        case _ => patch += Delete(statement())
+    if inTx then patch += TxCommit
+    patch.result()
+
+  "ParallelPatchDecoder" should {
+    for
+      (desc, testCase, statementType) <- PatchTestCases.testCases
+      streamType <- Seq(PatchStreamType.FLAT, PatchStreamType.FRAME, PatchStreamType.PUNCTUATED)
+      minChunkRows <- Seq(1, 3, 1000)
+    do
+      s"decode $desc like the sequential decoder ($streamType, min chunk $minChunkRows rows)" in {
+        val opt = JellyPatchOptions.SMALL_GENERALIZED.clone
+          .setStatementType(statementType)
+          .setStreamType(streamType)
+        val frames = testCase.encodedFull(opt, 2)
+        decodeParallel(frames, minChunkRows) should be(decodeSequential(frames))
+      }
+
+    for
+      statementType <- Seq(PatchStatementType.TRIPLES, PatchStatementType.QUADS)
+      streamType <- Seq(PatchStreamType.FLAT, PatchStreamType.FRAME)
+      (minChunkRows, maxChunksInFlight, seed) <- Seq((1, 1, 1), (16, 3, 2), (200, 8, 3))
+    do
+      s"decode a random $statementType $streamType patch like the sequential decoder " +
+        s"(min chunk $minChunkRows rows, $maxChunksInFlight in flight)" in {
+          val patch = randomPatch(Random(seed), 5000, statementType == PatchStatementType.QUADS)
+          val frames = encode(patch, statementType, streamType)
+          val expected = decodeSequential(frames)
+          expected.size should be >= 5000
+          decodeParallel(frames, minChunkRows, maxChunksInFlight) should be(expected)
+        }
+
+    "rethrow errors from decoding a chunk" in {
+      val frames = PatchTestCases.Triples1.encodedFull(
+        JellyPatchOptions.SMALL_STRICT.clone
+          .setStatementType(PatchStatementType.TRIPLES)
+          .setStreamType(PatchStreamType.FLAT),
+        100,
+      )
+      val invalid = rdfPatchFrame(Seq(RdfPatchRow.newInstance()))
+      val error = intercept[RdfProtoDeserializationError] {
+        decodeParallel(frames :+ invalid, 1)
+      }
+      error.getMessage should include("Row kind is not set or unknown")
+    }
+
+    "not accept rows after finishing" in {
+      val decoder = MockPatchConverterFactory.parallelDecoder(
+        PatchCollector(),
+        null,
+        ParallelPatchDecoder.Params.of(executor),
+      )
+      decoder.finish()
+      decoder.finish()
+      an[IllegalStateException] should be thrownBy decoder.ingestRow(RdfPatchRow.newInstance())
+    }
+
+    "reject invalid parameters" in {
+      an[IllegalArgumentException] should be thrownBy ParallelPatchDecoder.Params.of(null)
+      an[IllegalArgumentException] should be thrownBy ParallelPatchDecoder.Params.of(executor, 0, 1)
+      an[IllegalArgumentException] should be thrownBy ParallelPatchDecoder.Params.of(executor, 1, 0)
+    }
+  }
@@ -0,0 +1,233 @@
+package eu.neverblink.jelly.core.patch
+
+import eu.neverblink.jelly.core.helpers.Mrl.*
+import eu.neverblink.jelly.core.patch.helpers.*
+import eu.neverblink.jelly.core.patch.helpers.Mpl.*
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+import java.nio.file.Files
+import scala.annotation.experimental
+import scala.util.Random
+
+@experimental
+class PatchCompactorSpec extends AnyWordSpec, Matchers:
+  private def iri(i: Int) = Iri(s"https://test.org/$i")
+
+  /** Applies the patch to a set of statements, like a transactional store would. */
+  private def applyPatch(patch: Seq[PatchStatement], base: Set[Statement]): Set[Statement] =
+    var committed = base
+    var current = base
+    var inTx = false
+    for st <- patch do
+      st match
+        case Add(s: Statement) => current += s
+        case Delete(s: Statement) => current -= s
+        case TxStart => inTx = true
+        case TxCommit =>
+          inTx = false
+          committed = current
+        case TxAbort =>
+          inTx = false
+          current = committed
+        case _ => ()
+      if !inTx then committed = current
+    committed
+
+  private def compact(
+      patch: Seq[PatchStatement],
+      configure: PatchCompactor.Builder[Node] => PatchCompactor.Builder[Node] = identity,
+  ): (Seq[PatchStatement], PatchCompactor[Node]) =
+    val out = PatchCollector()
+    val compactor = configure(PatchCompactor.builder(out)).build()
+    patch.foreach(_.apply(compactor))
+    compactor.finish()
+    (out.statements.toSeq, compactor)
+
+  private def randomPatch(random: Random, size: Int, distinct: Int): Seq[PatchStatement] =
+    def statement(): Statement =
+      val i = random.nextInt(distinct)
+      if i % 2 == 0 then Triple(iri(i), iri(1000), iri(i + 1))
+      else Quad(iri(i), iri(1000), SimpleLiteral(i.toString), iri(2000 + i % 3))
+    val patch = Seq.newBuilder[PatchStatement]
+    var inTx = false
+    for _ <- 0 until size do
+      random.nextInt(20) match
+        case 0 if !inTx =>
+          patch += TxStart
+          inTx = true
+        case 1 if inTx =>
+          patch += TxCommit
+          inTx = false
+        case 2 if inTx =>
+          patch += TxAbort
+          inTx = false
+        case n if n < 12 => patch += Add(statement())
+        case _ => patch += Delete(statement())
+    if inTx then patch += TxCommit
+    patch.result()
+
+  "PatchCompactor" should {
+    "keep only the last operation on each statement" in {
+      val t1 = Triple(iri(1), iri(2), iri(3))
+      val q1 = Quad(iri(1), iri(2), iri(3), iri(4))
+      val (out, compactor) = compact(
+        Seq(Add(t1), Add(q1), Delete(t1), Add(t1), Delete(q1), Add(t1)),
+      )
+      out should contain theSameElementsAs Seq(TxStart, Add(t1), Delete(q1), TxCommit)
+      out.head should be(TxStart)
+      out.last should be(TxCommit)
+      compactor.getInputStatementCount should be(6)
+      compactor.getOutputStatementCount should be(2)
+      compactor.getCompactionRatio should be(2.0 / 6)
+    }
+
+    "drop aborted transactions" in {
+      val t1 = Triple(iri(1), iri(2), iri(3))
+      val t2 = Triple(iri(4), iri(5), iri(6))
+      val (out, compactor) = compact(
+        Seq(TxStart, Add(t1), TxCommit, TxStart, Delete(t1), Add(t2), TxAbort),
+      )
+      out should be(Seq(TxStart, Add(t1), TxCommit))
+      compactor.getAbortedStatementCount should be(2)
+    }
+
+    "drop deletions in the first checkpoint when starting from an empty dataset" in {
+      val t1 = Triple(iri(1), iri(2), iri(3))
+      val t2 = Triple(iri(4), iri(5), iri(6))
+      val out = PatchCollector()
+      val compactor = PatchCompactor.builder(out).fromEmptyDataset(true).build()
+      compactor.addTriple(t1.s, t1.p, t1.o)
+      compactor.addTriple(t2.s, t2.p, t2.o)
+      compactor.deleteTriple(t2.s, t2.p, t2.o)
+      compactor.checkpoint()
+      out.statements.toSeq should be(Seq(TxStart, Add(t1), TxCommit))
+      // The second checkpoint is applied on top of the first one, so deletions are kept
+      compactor.deleteTriple(t1.s, t1.p, t1.o)
+      compactor.finish()
+      out.statements.toSeq.drop(3) should be(Seq(TxStart, Delete(t1), TxCommit))
+      compactor.getCheckpointCount should be(2)
+    }
+
+    "keep the last operation on each namespace and write headers first" in {
+      val ns = NsDecl("ex", iri(1))
+      val nsOther = NsDecl("ex", iri(2), iri(3))
+      val (out, _) = compact(
+        Seq(Header("id", iri(9)), Add(ns), Add(nsOther), Delete(ns), Add(ns), Delete(nsOther)),
+      )
+      out should be(Seq(Header("id", iri(9)), TxStart, Add(ns), Delete(nsOther), TxCommit))
+    }
+
+    "punctuate checkpoints if requested" in {
+      val t1 = Triple(iri(1), iri(2), iri(3))
+      val (out, _) = compact(Seq(Add(t1), Punctuation), _.punctuateCheckpoints(true))
+      out should be(Seq(TxStart, Add(t1), TxCommit, Punctuation))
+    }
+
+    "write nothing for an empty or fully aborted patch" in {
+      compact(Seq())._1 shouldBe empty
+      compact(Seq(TxStart, Add(Triple(iri(1), iri(2), iri(3))), TxAbort))._1 shouldBe empty
+      // Unfinished transaction
+      compact(Seq(TxStart, Add(Triple(iri(1), iri(2), iri(3)))))._1 shouldBe empty
+    }
+
+    "reject a non-positive in-memory limit" in {
+      an[IllegalArgumentException] should be thrownBy
+        PatchCompactor.builder(PatchCollector()).maxStatementsInMemory(0)
+    }
+
+    for (maxInMemory, seed) <- Seq((1_000_000, 1), (50, 2), (7, 3), (1, 4)) do
+      s"produce an equivalent patch for a random log (in-memory limit $maxInMemory)" in {
+        val random = Random(seed)
+        val patch = randomPatch(random, 3000, 200)
+        val spillDir = Files.createTempDirectory("jelly-compactor-test")
+        val (out, compactor) = compact(
+          patch,
+          _.maxStatementsInMemory(maxInMemory).spillDirectory(spillDir),
+        )
+        val base = (0 until 200 by 7).map(i => Triple(iri(i), iri(1000), iri(i + 1))).toSet[Statement]
+        applyPatch(out, base) should be(applyPatch(patch, base))
+        // Each statement appears at most once
+        val statements = out.collect {
+          case Add(s: Statement) => s
+          case Delete(s: Statement) => s
+        }
+        statements.distinct.size should be(statements.size)
+        statements.size should be <= 200
+        if maxInMemory < 200 then compactor.getSpilledRunCount should be > 0
+        // All runs were deleted
+        Files.list(spillDir).count() should be(0)
+      }
+
+    "reset the term dictionary at a checkpoint outside of a transaction" in {
+      val t1 = Triple(iri(1), iri(2), iri(3))
+      val t2 = Triple(iri(4), iri(5), iri(6))
+      val out = PatchCollector()
+      val compactor = PatchCompactor.builder(out).build()
+      compactor.addTriple(t1.s, t1.p, t1.o)
+      compactor.transactionStart()
+      compactor.deleteTriple(t2.s, t2.p, t2.o)
+      // The open transaction still refers to its terms
+      compactor.checkpoint()
+      compactor.getTermCount should be(6)
+      compactor.transactionCommit()
+      compactor.checkpoint()
+      compactor.getTermCount should be(0)
+      compactor.addTriple(t2.s, t2.p, t2.o)
+      compactor.finish()
+      compactor.getTermCount should be(0)
+      out.statements.toSeq should be(
+        Seq(TxStart, Add(t1), TxCommit, TxStart, Delete(t2), TxCommit, TxStart, Add(t2), TxCommit),
+      )
+    }
+
+    for maxInMemory <- Seq(10, 100_000) do
+      s"produce an equivalent patch for a random log with many checkpoints (in-memory limit $maxInMemory)" in {
+        val patch = randomPatch(Random(11), 5000, 300)
+        val out = PatchCollector()
+        val compactor = PatchCompactor.builder(out).maxStatementsInMemory(maxInMemory).build()
+        for (st, i) <- patch.zipWithIndex do
+          st.apply(compactor)
+          // Checkpoints both inside and outside of transactions
+          if i % 97 == 0 then compactor.checkpoint()
+        compactor.finish()
+        compactor.getCheckpointCount should be > 10L
+        applyPatch(out.statements.toSeq, Set.empty) should be(applyPatch(patch, Set.empty))
+      }
+
+    "reject a nested transaction" in {
+      val compactor = PatchCompactor.builder(PatchCollector()).build()
+      compactor.transactionStart()
+      an[IllegalStateException] should be thrownBy compactor.transactionStart()
+    }
+
+    "write a checkpoint outside of transactions when the term dictionary is too large" in {
+      val patch = randomPatch(Random(17), 5000, 300)
+      val out = PatchCollector()
+      val compactor = PatchCompactor.builder(out).maxTermsInMemory(50).build()
+      var inTx = false
+      for st <- patch do
+        st.apply(compactor)
+        st match
+          case TxStart => inTx = true
+          case TxCommit | TxAbort => inTx = false
+          case _ => ()
+        // Inside of a transaction, the dictionary may grow over the limit
+        if !inTx then compactor.getTermCount should be <= 50
+      compactor.finish()
+      compactor.getCheckpointCount should be > 1L
+      applyPatch(out.statements.toSeq, Set.empty) should be(applyPatch(patch, Set.empty))
+    }
+
+    "reject a non-positive term limit" in {
+      an[IllegalArgumentException] should be thrownBy
+        PatchCompactor.builder(PatchCollector()).maxTermsInMemory(0)
+    }
+
+    "produce an equivalent patch for an empty dataset" in {
+      val patch = randomPatch(Random(5), 3000, 200)
+      val (out, _) = compact(patch, _.fromEmptyDataset(true).maxStatementsInMemory(30))
+      applyPatch(out, Set.empty) should be(applyPatch(patch, Set.empty))
+      out.collect { case d: Delete => d } shouldBe empty
+    }
+  }
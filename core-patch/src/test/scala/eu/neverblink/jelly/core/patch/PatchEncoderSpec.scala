@@ -8,6 +8,7 @@ import org.scalatest.matchers.should.Matchers
 import org.scalatest.wordspec.AnyWordSpec
 import eu.neverblink.jelly.core.memory.EncoderAllocator
 import eu.neverblink.jelly.core.patch.helpers.PatchAdapter.*
+import eu.neverblink.jelly.core.patch.memory.{PatchEncoderAllocator, PatchRowBuffer}
 import eu.neverblink.protoc.java.runtime.{ArrayListMessageCollection, MessageFactory}
 
 import scala.annotation.experimental
@@ -44,6 +45,26 @@ class PatchEncoderSpec extends AnyWordSpec, Matchers:
             assertEncoded(buffer.asScala.toSeq, testCase.encoded(encoder.options))
           }
 
+          s"encode $desc with a reusable row buffer and an arena allocator" in {
+            val buffer = PatchRowBuffer.newReusableForEncoder(4)
+            val allocator = PatchEncoderAllocator.newArenaAllocator(4)
+            // Encode the same patch twice, reusing the rows and messages of the first run
+            for _ <- 0 until 2 do
+              val encoder = MockPatchConverterFactory.encoder(
+                Pep(
+                  JellyPatchOptions.SMALL_GENERALIZED.clone
+                    .setStatementType(statementType)
+                    .setStreamType(streamType),
+                  buffer,
+                  allocator,
+                ),
+              )
+              testCase.mrl.foreach(_.apply(encoder))
+              assertEncoded(buffer.asScala.toSeq, testCase.encoded(encoder.options))
+              buffer.clear()
+              allocator.releaseAll()
+          }
+
           s"precompute the size of each patch row ($desc)" in {
             val buffer = getBuffer
             val encoder = MockPatchConverterFactory.encoder(
@@ -0,0 +1,64 @@
+package eu.neverblink.jelly.core.patch.memory
+
+import eu.neverblink.jelly.core.proto.v1.{RdfQuad, RdfTriple}
+import eu.neverblink.jelly.core.proto.v1.patch.{RdfPatchHeader, RdfPatchNamespace}
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+class PatchEncoderAllocatorSpec extends AnyWordSpec, Matchers:
+  "PatchEncoderAllocator -- heap" should {
+    "return new messages" in {
+      val allocator = PatchEncoderAllocator.newHeapAllocator()
+      allocator.newTriple() should be(a[RdfTriple.Mutable])
+      allocator.newQuad() should be(a[RdfQuad.Mutable])
+      allocator.newNamespace() should be(a[RdfPatchNamespace.Mutable])
+      allocator.newHeader() should be(a[RdfPatchHeader.Mutable])
+    }
+
+    "not reuse messages after releaseAll()" in {
+      val allocator = PatchEncoderAllocator.newHeapAllocator()
+      val n1 = allocator.newNamespace()
+      val h1 = allocator.newHeader()
+      allocator.releaseAll()
+      allocator.newNamespace() should not be theSameInstanceAs(n1)
+      allocator.newHeader() should not be theSameInstanceAs(h1)
+    }
+  }
+
+  "PatchEncoderAllocator -- arena" should {
+    "return unique messages" in {
+      val allocator = PatchEncoderAllocator.newArenaAllocator(16)
+      val namespaces = (0 until 40).map(_ => allocator.newNamespace())
+      val headers = (0 until 34).map(_ => allocator.newHeader())
+
+      namespaces.forall(n => namespaces.count(n2 => n eq n2) == 1) should be(true)
+      headers.forall(h => headers.count(h2 => h eq h2) == 1) should be(true)
+    }
+
+    "reuse cleared messages when released" in {
+      val allocator = PatchEncoderAllocator.newArenaAllocator(16)
+      val quads1 = (0 until 40).map(_ => allocator.newQuad())
+      val namespaces1 = (0 until 40).map(i => allocator.newNamespace().setName(s"ns$i"))
+      val headers1 = (0 until 40).map(i => allocator.newHeader().setKey(s"key$i"))
+
+      allocator.releaseAll()
+
+      val quads2 = (0 until 40).map(_ => allocator.newQuad())
+      val namespaces2 = (0 until 40).map(_ => allocator.newNamespace())
+      val headers2 = (0 until 40).map(_ => allocator.newHeader())
+
+      for (i <- 0 until 16) {
+        quads1(i) should be theSameInstanceAs quads2(i)
+        namespaces1(i) should be theSameInstanceAs namespaces2(i)
+        headers1(i) should be theSameInstanceAs headers2(i)
+        namespaces2(i).getName should be("")
+        headers2(i).getKey should be("")
+      }
+
+      // Messages outside the range of the arena should be allocated on the heap
+      for (i <- 16 until 40) {
+        namespaces1(i) should not be theSameInstanceAs(namespaces2(i))
+        headers1(i) should not be theSameInstanceAs(headers2(i))
+      }
+    }
+  }
@@ -0,0 +1,87 @@
+package eu.neverblink.jelly.core.patch.memory
+
+import eu.neverblink.jelly.core.proto.v1.RdfNameEntry
+import eu.neverblink.jelly.core.proto.v1.patch.RdfPatchTransactionStart
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+import scala.jdk.CollectionConverters.*
+
+class PatchRowBufferSpec extends AnyWordSpec, Matchers:
+  "ReusablePatchRowBuffer" should {
+    "work for an empty buffer" in {
+      val buffer = PatchRowBuffer.newReusableForEncoder(16)
+      buffer.size should be(0)
+      buffer.isEmpty should be(true)
+      buffer.iterator().hasNext should be(false)
+    }
+
+    "store rows, expanding in capacity to over 2048 (decoder)" in {
+      val buffer = PatchRowBuffer.newReusableForDecoder(16)
+      for (i <- 0 until 10_000) {
+        buffer.appendMessage()
+          .setName(RdfNameEntry.newInstance().setId(i))
+          .getSerializedSize
+      }
+      buffer.size should be(10_000)
+      buffer.isEmpty should be(false)
+      for (r, i) <- buffer.asScala.zipWithIndex do {
+        r.getName.getId should be(i)
+      }
+      buffer.get(9_999).getName.getId should be(9_999)
+
+      buffer.clear()
+      buffer.size should be(0)
+      buffer.isEmpty should be(true)
+
+      for (i <- 0 until 10_000) {
+        // Decoder buffer -- the rows are not cleared at all
+        val r = buffer.appendMessage()
+        r.hasName should be(true)
+        r.getName.getId should be(i)
+        r.getCachedSize should be >= 0
+      }
+    }
+
+    "reuse rows, only resetting the cached size (encoder)" in {
+      val buffer = PatchRowBuffer.newReusableForEncoder(16)
+      val rows1 = (0 until 100).map(j =>
+        buffer.appendMessage().setName(RdfNameEntry.newInstance().setId(j)).getSerializedSize
+        buffer.get(j)
+      )
+      buffer.clear()
+
+      for (j <- 0 until 150) {
+        val row = buffer.appendMessage()
+        if j < 100 then
+          row should be theSameInstanceAs rows1(j)
+          row.hasName should be(true)
+          row.getCachedSize should be(-1)
+        // Setting another field of the oneof overwrites the old one
+        row.setTransactionStart(RdfPatchTransactionStart.EMPTY).getSerializedSize
+        row.hasName should be(false)
+        row.hasTransactionStart should be(true)
+      }
+      buffer.size should be(150)
+    }
+
+    "not support add()" in {
+      val buffer = PatchRowBuffer.newReusableForEncoder(16)
+      intercept[UnsupportedOperationException] {
+        buffer.add(buffer.appendMessage())
+      }
+    }
+
+    "throw on out-of-range get()" in {
+      val buffer = PatchRowBuffer.newReusableForEncoder(16)
+      buffer.appendMessage()
+      intercept[IndexOutOfBoundsException] {
+        buffer.get(1)
+      }
+    }
+
+    "not throw if the user demands a buffer that is very large" in {
+      val buffer = PatchRowBuffer.newReusableForDecoder(Int.MaxValue)
+      buffer.size should be(0)
+    }
+  }
@@ -0,0 +1,76 @@
+package eu.neverblink.jelly.core;
+
+/**
+ * Handler that receives decoded statements in batches, as parallel arrays of terms, instead of one
+ * statement per call like {@link RdfHandler}. This is useful for consumers that can insert statements in
+ * bulk (e.g., database connections, columnar sinks).
+ * <p>
+ * To receive batches from a ProtoDecoder, wrap the handler in a
+ * {@link eu.neverblink.jelly.core.utils.BatchingRdfHandler} and pass that to the decoder.
+ * <p>
+ * The arrays passed to the handler are reused for the next batch. Only the first {@code count} elements of
+ * each array are valid, and the handler must not keep references to the arrays after it returns.
+ *
+ * @param <TNode> The type of the nodes in the RDF data structure, as bound by library.
+ */
+@ExperimentalApi
+public interface BatchRdfHandler<TNode> {
+    /**
+     * Handle namespace definition. It is called in stream order relative to the batches.
+     * @param prefix The prefix of the namespace.
+     * @param namespace The namespace IRI, as represented by node in the RDF data structure.
+     */
+    default void handleNamespace(String prefix, TNode namespace) {
+        // No-op
+    }
+
+    /**
+     * Handle a batch of triples.
+     * @param subjects subjects of the triples
+     * @param predicates predicates of the triples
+     * @param objects objects of the triples
+     * @param count number of triples in the batch, at least 1
+     */
+    void handleTriples(TNode[] subjects, TNode[] predicates, TNode[] objects, int count);
+
+    /**
+     * Handle a batch of quads. Triples in graphs of a GRAPHS stream are also passed here, as quads.
+     * @param subjects subjects of the quads
+     * @param predicates predicates of the quads
+     * @param objects objects of the quads
+     * @param graphs graphs of the quads
+     * @param count number of quads in the batch, at least 1
+     */
+    void handleQuads(TNode[] subjects, TNode[] predicates, TNode[] objects, TNode[] graphs, int count);
+
+    /**
+     * Adapts a per-statement handler to the batch interface, by calling it for each statement in the batch.
+     * Use this to pass batches to existing handlers.
+     *
+     * @param handler per-statement handler
+     * @return batch handler
+     * @param <TNode> The type of the nodes in the RDF data structure, as bound by library.
+     */
+    static <TNode> BatchRdfHandler<TNode> perStatement(RdfHandler.AnyStatementHandler<TNode> handler) {
+        return new BatchRdfHandler<>() {
+            @Override
+            public void handleNamespace(String prefix, TNode namespace) {
+                handler.handleNamespace(prefix, namespace);
+            }
+
+            @Override
+            public void handleTriples(TNode[] subjects, TNode[] predicates, TNode[] objects, int count) {
+                for (int i = 0; i < count; i++) {
+                    handler.handleTriple(subjects[i], predicates[i], objects[i]);
+                }
+            }
+
+            @Override
+            public void handleQuads(TNode[] subjects, TNode[] predicates, TNode[] objects, TNode[] graphs, int count) {
+                for (int i = 0; i < count; i++) {
+                    handler.handleQuad(subjects[i], predicates[i], objects[i], graphs[i]);
+                }
+            }
+        };
+    }
+}
@@ -3,6 +3,8 @@ package eu.neverblink.jelly.core;
 import eu.neverblink.jelly.core.internal.ProtoDecoderImpl;
 import eu.neverblink.jelly.core.internal.ProtoEncoderImpl;
 import eu.neverblink.jelly.core.proto.v1.RdfStreamOptions;
+import eu.neverblink.jelly.core.stats.DecoderStats;
+import eu.neverblink.jelly.core.stats.EncoderStats;
 
 /**
  * "Main" interface to be implemented by RDF conversion modules (e.g., for Jena and RDF4J).
@@ -42,6 +44,17 @@ public abstract class JellyConverterFactory<
         return new ProtoEncoderImpl<>(encoderConverter(), params);
     }
 
+    /**
+     * Create a new ProtoEncoder that collects statistics.
+     * @param params Parameters for the encoder.
+     * @param stats Receiver of encoder statistics (e.g., EncoderCounters). If null, no statistics are collected.
+     * @return encoder
+     */
+    @ExperimentalApi
+    public final ProtoEncoder<TNode> encoder(ProtoEncoder.Params params, EncoderStats stats) {
+        return new ProtoEncoderImpl<>(encoderConverter(), params, stats);
+    }
+
     /**
      * Create a new TriplesDecoder.
      * @param supportedOptions maximum supported options for the decoder. If not provided, this.defaultSupportedOptions
@@ -58,6 +71,22 @@ public abstract class JellyConverterFactory<
         return new ProtoDecoderImpl.TriplesDecoder<>(decoderConverter(), tripleHandler, supportedOptions);
     }
 
+    /**
+     * Create a new TriplesDecoder that collects statistics.
+     * @param tripleHandler the handler to use for decoding
+     * @param supportedOptions maximum supported options for the decoder
+     * @param stats Receiver of decoder statistics (e.g., DecoderCounters). If null, no statistics are collected.
+     * @return decoder
+     */
+    @ExperimentalApi
+    public final ProtoDecoder<TNode, TDatatype> triplesDecoder(
+        RdfHandler.TripleHandler<TNode> tripleHandler,
+        RdfStreamOptions supportedOptions,
+        DecoderStats stats
+    ) {
+        return new ProtoDecoderImpl.TriplesDecoder<>(decoderConverter(), tripleHandler, supportedOptions, stats);
+    }
+
     /**
      * Create a new QuadsDecoder.
      * @param supportedOptions maximum supported options for the decoder. If not provided, this.defaultSupportedOptions
@@ -73,6 +102,22 @@ public abstract class JellyConverterFactory<
         return new ProtoDecoderImpl.QuadsDecoder<>(decoderConverter(), quadHandler, supportedOptions);
     }
 
+    /**
+     * Create a new QuadsDecoder that collects statistics.
+     * @param quadHandler the handler to use for decoding
+     * @param supportedOptions maximum supported options for the decoder
+     * @param stats Receiver of decoder statistics (e.g., DecoderCounters). If null, no statistics are collected.
+     * @return decoder
+     */
+    @ExperimentalApi
+    public final ProtoDecoder<TNode, TDatatype> quadsDecoder(
+        RdfHandler.QuadHandler<TNode> quadHandler,
+        RdfStreamOptions supportedOptions,
+        DecoderStats stats
+    ) {
+        return new ProtoDecoderImpl.QuadsDecoder<>(decoderConverter(), quadHandler, supportedOptions, stats);
+    }
+
     /**
      * Create a new GraphsAsQuadsDecoder.
      * @param supportedOptions maximum supported options for the decoder. If not provided, this.defaultSupportedOptions
@@ -88,6 +133,22 @@ public abstract class JellyConverterFactory<
         return new ProtoDecoderImpl.GraphsAsQuadsDecoder<>(decoderConverter(), graphHandler, supportedOptions);
     }
 
+    /**
+     * Create a new GraphsAsQuadsDecoder that collects statistics.
+     * @param graphHandler the handler to use for decoding
+     * @param supportedOptions maximum supported options for the decoder
+     * @param stats Receiver of decoder statistics (e.g., DecoderCounters). If null, no statistics are collected.
+     * @return decoder
+     */
+    @ExperimentalApi
+    public final ProtoDecoder<TNode, TDatatype> graphsAsQuadsDecoder(
+        RdfHandler.QuadHandler<TNode> graphHandler,
+        RdfStreamOptions supportedOptions,
+        DecoderStats stats
+    ) {
+        return new ProtoDecoderImpl.GraphsAsQuadsDecoder<>(decoderConverter(), graphHandler, supportedOptions, stats);
+    }
+
     /**
      * Create a new GraphsDecoder.
      * @param supportedOptions maximum supported options for the decoder. If not provided, this.defaultSupportedOptions
@@ -103,6 +164,22 @@ public abstract class JellyConverterFactory<
         return new ProtoDecoderImpl.GraphsDecoder<>(decoderConverter(), graphHandler, supportedOptions);
     }
 
+    /**
+     * Create a new GraphsDecoder that collects statistics.
+     * @param graphHandler the handler to use for decoding
+     * @param supportedOptions maximum supported options for the decoder
+     * @param stats Receiver of decoder statistics (e.g., DecoderCounters). If null, no statistics are collected.
+     * @return decoder
+     */
+    @ExperimentalApi
+    public final ProtoDecoder<TNode, TDatatype> graphsDecoder(
+        RdfHandler.GraphHandler<TNode> graphHandler,
+        RdfStreamOptions supportedOptions,
+        DecoderStats stats
+    ) {
+        return new ProtoDecoderImpl.GraphsDecoder<>(decoderConverter(), graphHandler, supportedOptions, stats);
+    }
+
     /**
      * Create a new AnyStatementDecoder.
      * @param supportedOptions maximum supported options for the decoder. If not provided, this.defaultSupportedOptions
@@ -117,4 +194,25 @@ public abstract class JellyConverterFactory<
     ) {
         return new ProtoDecoderImpl.AnyStatementDecoder<>(decoderConverter(), anyStatementHandler, supportedOptions);
     }
+
+    /**
+     * Create a new AnyStatementDecoder that collects statistics.
+     * @param anyStatementHandler the handler to use for decoding
+     * @param supportedOptions maximum supported options for the decoder
+     * @param stats Receiver of decoder statistics (e.g., DecoderCounters). If null, no statistics are collected.
+     * @return decoder
+     */
+    @ExperimentalApi
+    public final ProtoDecoder<TNode, TDatatype> anyStatementDecoder(
+        RdfHandler.AnyStatementHandler<TNode> anyStatementHandler,
+        RdfStreamOptions supportedOptions,
+        DecoderStats stats
+    ) {
+        return new ProtoDecoderImpl.AnyStatementDecoder<>(
+            decoderConverter(),
+            anyStatementHandler,
+            supportedOptions,
+            stats
+        );
+    }
 }
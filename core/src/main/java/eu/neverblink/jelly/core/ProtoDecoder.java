@@ -3,6 +3,7 @@ package eu.neverblink.jelly.core;
 import eu.neverblink.jelly.core.internal.DecoderBase;
 import eu.neverblink.jelly.core.proto.v1.RdfStreamOptions;
 import eu.neverblink.jelly.core.proto.v1.RdfStreamRow;
+import eu.neverblink.jelly.core.stats.DecoderStats;
 
 /**
  * Base extendable interface for decoders of protobuf RDF streams.
@@ -23,6 +24,16 @@ public abstract class ProtoDecoder<TNode, TDatatype> extends DecoderBase<TNode,
         super(converter);
     }
 
+    /**
+     * Constructor for a decoder that reports statistics.
+     *
+     * @param converter the converter to use
+     * @param stats receiver of decoder statistics, or null to disable statistics
+     */
+    protected ProtoDecoder(ProtoDecoderConverter<TNode, TDatatype> converter, DecoderStats stats) {
+        super(converter, stats);
+    }
+
     /**
      * Options for this stream.
      * @return options if the decoder has encountered the stream options, None otherwise.
@@ -35,4 +46,16 @@ public abstract class ProtoDecoder<TNode, TDatatype> extends DecoderBase<TNode,
      * @param row row to ingest
      */
     public abstract void ingestRow(RdfStreamRow row);
+
+    /**
+     * Returns the statistics receiver of this decoder.
+     * <p>
+     * Parsers that read the stream frame by frame should report each decoded frame to it with
+     * {@link DecoderStats#onFrame(int, long, long)}.
+     * @return statistics receiver, or null if statistics are disabled
+     */
+    @ExperimentalApi
+    public DecoderStats getStats() {
+        return stats;
+    }
 }
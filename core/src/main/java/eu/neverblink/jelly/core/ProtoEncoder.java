@@ -6,6 +6,10 @@ import eu.neverblink.jelly.core.memory.RowBuffer;
 import eu.neverblink.jelly.core.proto.v1.RdfQuad;
 import eu.neverblink.jelly.core.proto.v1.RdfStreamOptions;
 import eu.neverblink.jelly.core.proto.v1.RdfTriple;
+import eu.neverblink.jelly.core.stats.EncoderStats;
+import eu.neverblink.jelly.core.utils.QuadExtractor;
+import eu.neverblink.jelly.core.utils.TripleExtractor;
+import java.util.Iterator;
 
 /**
  * Base interface for RDF stream encoders.
@@ -97,7 +101,17 @@ public abstract class ProtoEncoder<TNode>
     protected final EncoderAllocator allocator;
 
     protected ProtoEncoder(ProtoEncoderConverter<TNode> converter, Params params) {
-        super(converter);
+        this(converter, params, null);
+    }
+
+    /**
+     * Creates a new encoder that reports statistics to the given receiver.
+     * @param converter converter for the encoder
+     * @param params parameters for the encoder
+     * @param stats receiver of encoder statistics, or null to disable statistics
+     */
+    protected ProtoEncoder(ProtoEncoderConverter<TNode> converter, Params params, EncoderStats stats) {
+        super(converter, stats);
         this.options = params.options
             .clone()
             // Override whatever the user set in the options.
@@ -152,4 +166,139 @@ public abstract class ProtoEncoder<TNode>
     public RowBuffer getRowBuffer() {
         return rowBuffer;
     }
+
+    /**
+     * Encodes a batch of triples stored in parallel arrays, starting at the given offset.
+     * <p>
+     * Encoding stops early when the row buffer reaches maxRows rows, so that the caller can end the frame
+     * and continue with the rest of the batch. This replaces the frame size check the caller would
+     * otherwise do after each statement.
+     *
+     * @param subjects subjects of the triples
+     * @param predicates predicates of the triples
+     * @param objects objects of the triples
+     * @param offset index of the first triple to encode
+     * @param count number of triples to encode
+     * @param maxRows stop after the row buffer has at least this many rows. Use Integer.MAX_VALUE to encode
+     *                the whole batch.
+     * @return number of triples encoded, between 1 and count (or 0 if count is 0)
+     */
+    @ExperimentalApi
+    public int handleTriples(TNode[] subjects, TNode[] predicates, TNode[] objects, int offset, int count, int maxRows) {
+        final int end = offset + count;
+        for (int i = offset; i < end; i++) {
+            handleTriple(subjects[i], predicates[i], objects[i]);
+            if (rowBuffer.size() >= maxRows) {
+                return i + 1 - offset;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Encodes a batch of quads stored in parallel arrays, starting at the given offset.
+     * See the array variant of handleTriples for the semantics of maxRows.
+     *
+     * @param subjects subjects of the quads
+     * @param predicates predicates of the quads
+     * @param objects objects of the quads
+     * @param graphs graphs of the quads
+     * @param offset index of the first quad to encode
+     * @param count number of quads to encode
+     * @param maxRows stop after the row buffer has at least this many rows. Use Integer.MAX_VALUE to encode
+     *                the whole batch.
+     * @return number of quads encoded, between 1 and count (or 0 if count is 0)
+     */
+    @ExperimentalApi
+    public int handleQuads(
+        TNode[] subjects,
+        TNode[] predicates,
+        TNode[] objects,
+        TNode[] graphs,
+        int offset,
+        int count,
+        int maxRows
+    ) {
+        final int end = offset + count;
+        for (int i = offset; i < end; i++) {
+            handleQuad(subjects[i], predicates[i], objects[i], graphs[i]);
+            if (rowBuffer.size() >= maxRows) {
+                return i + 1 - offset;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Encodes triples from an iterator, until the iterator is exhausted or the row buffer reaches maxRows rows.
+     * If encoding stopped early, call this method again with the same iterator after ending the frame.
+     *
+     * @param triples iterator of triples
+     * @param extractor extracts the terms from the triples (usually the library's encoder converter)
+     * @param maxRows stop after the row buffer has at least this many rows
+     * @return number of triples encoded
+     * @param <TTriple> type of triples in the library
+     */
+    @ExperimentalApi
+    public <TTriple> int handleTriples(
+        Iterator<? extends TTriple> triples,
+        TripleExtractor<TNode, TTriple> extractor,
+        int maxRows
+    ) {
+        int encoded = 0;
+        while (triples.hasNext()) {
+            final TTriple triple = triples.next();
+            handleTriple(
+                extractor.getTripleSubject(triple),
+                extractor.getTriplePredicate(triple),
+                extractor.getTripleObject(triple)
+            );
+            encoded++;
+            if (rowBuffer.size() >= maxRows) {
+                break;
+            }
+        }
+        return encoded;
+    }
+
+    /**
+     * Encodes quads from an iterator, until the iterator is exhausted or the row buffer reaches maxRows rows.
+     * If encoding stopped early, call this method again with the same iterator after ending the frame.
+     *
+     * @param quads iterator of quads
+     * @param extractor extracts the terms from the quads (usually the library's encoder converter)
+     * @param maxRows stop after the row buffer has at least this many rows
+     * @return number of quads encoded
+     * @param <TQuad> type of quads in the library
+     */
+    @ExperimentalApi
+    public <TQuad> int handleQuads(Iterator<? extends TQuad> quads, QuadExtractor<TNode, TQuad> extractor, int maxRows) {
+        int encoded = 0;
+        while (quads.hasNext()) {
+            final TQuad quad = quads.next();
+            handleQuad(
+                extractor.getQuadSubject(quad),
+                extractor.getQuadPredicate(quad),
+                extractor.getQuadObject(quad),
+                extractor.getQuadGraph(quad)
+            );
+            encoded++;
+            if (rowBuffer.size() >= maxRows) {
+                break;
+            }
+        }
+        return encoded;
+    }
+
+    /**
+     * Returns the statistics receiver of this encoder.
+     * <p>
+     * Writers that group rows into frames should report each written frame to it with
+     * {@link EncoderStats#onFrame(int, long)}.
+     * @return statistics receiver, or null if statistics are disabled
+     */
+    @ExperimentalApi
+    public EncoderStats getStats() {
+        return stats;
+    }
 }
@@ -0,0 +1,29 @@
+package eu.neverblink.jelly.core;
+
+/**
+ * Optional extension of {@link ProtoDecoderConverter} for converters that can make IRI nodes from the
+ * prefix and name of the IRI, as they are stored in the Jelly lookup tables, without concatenating them first.
+ * <p>
+ * If the converter passed to a decoder implements this interface, the decoder calls
+ * {@link #makeIriNode(String, String)} for IRIs with a prefix, instead of {@link #makeIriNode(String)} with
+ * the concatenated string. IRIs without a prefix are still made with {@link #makeIriNode(String)}.
+ * This allows the RDF library to defer the concatenation until the full IRI string is actually needed,
+ * or to skip it altogether (e.g., when the consumer only compares or hashes the IRIs).
+ *
+ * @param <TNode> type of RDF nodes in the library
+ * @param <TDatatype> type of RDF datatypes in the library
+ */
+@ExperimentalApi
+public interface SplitIriDecoderConverter<TNode, TDatatype> extends ProtoDecoderConverter<TNode, TDatatype> {
+    /**
+     * Make an IRI node from its prefix and name. The IRI is the concatenation of the two.
+     * <p>
+     * Note that the split between the prefix and the name is chosen by the encoder, and may be different from
+     * the split into a namespace and a local name in the RDF library.
+     *
+     * @param prefix prefix of the IRI, not empty
+     * @param name rest of the IRI, may be empty
+     * @return IRI node
+     */
+    TNode makeIriNode(String prefix, String name);
+}
@@ -7,6 +7,7 @@ import eu.neverblink.jelly.core.RdfProtoDeserializationError;
 import eu.neverblink.jelly.core.internal.proto.GraphBase;
 import eu.neverblink.jelly.core.internal.proto.SpoBase;
 import eu.neverblink.jelly.core.proto.v1.*;
+import eu.neverblink.jelly.core.stats.DecoderStats;
 
 /**
  * Base trait for Jelly proto decoders. Only for internal use.
@@ -25,13 +26,38 @@ public abstract class DecoderBase<TNode, TDatatype> {
     protected TNode lastObject = null;
     protected TNode lastGraph = null;
 
+    /**
+     * Optional statistics receiver. Null if statistics are disabled.
+     */
+    protected final DecoderStats stats;
+
     protected DecoderBase(ProtoDecoderConverter<TNode, TDatatype> converter) {
+        this(converter, null);
+    }
+
+    protected DecoderBase(ProtoDecoderConverter<TNode, TDatatype> converter, DecoderStats stats) {
         this.converter = converter;
+        this.stats = stats;
     }
 
     protected final NameDecoder<TNode> getNameDecoder() {
         if (nameDecoder == null) {
-            nameDecoder = new NameDecoderImpl<>(getPrefixTableSize(), getNameTableSize(), converter::makeIriNode);
+            if (converter instanceof SplitIriDecoderConverter<TNode, TDatatype> splitConverter) {
+                nameDecoder = new NameDecoderImpl<>(
+                    getPrefixTableSize(),
+                    getNameTableSize(),
+                    splitConverter::makeIriNode,
+                    splitConverter::makeIriNode,
+                    stats
+                );
+            } else {
+                nameDecoder = new NameDecoderImpl<>(
+                    getPrefixTableSize(),
+                    getNameTableSize(),
+                    converter::makeIriNode,
+                    stats
+                );
+            }
         }
         return nameDecoder;
     }
@@ -141,11 +167,17 @@ public abstract class DecoderBase<TNode, TDatatype> {
         }
 
         if (term == null) {
+            if (stats != null) {
+                stats.onTerm(DecoderStats.Term.SUBJECT, true);
+            }
             return lastSubject;
         }
 
         final var node = convertTerm(term);
         lastSubject = node;
+        if (stats != null) {
+            stats.onTerm(DecoderStats.Term.SUBJECT, false);
+        }
         return node;
     }
 
@@ -164,11 +196,17 @@ public abstract class DecoderBase<TNode, TDatatype> {
         }
 
         if (term == null) {
+            if (stats != null) {
+                stats.onTerm(DecoderStats.Term.PREDICATE, true);
+            }
             return lastPredicate;
         }
 
         final var node = convertTerm(term);
         lastPredicate = node;
+        if (stats != null) {
+            stats.onTerm(DecoderStats.Term.PREDICATE, false);
+        }
         return node;
     }
 
@@ -187,11 +225,17 @@ public abstract class DecoderBase<TNode, TDatatype> {
         }
 
         if (term == null) {
+            if (stats != null) {
+                stats.onTerm(DecoderStats.Term.OBJECT, true);
+            }
             return lastObject;
         }
 
         final var node = convertTerm(term);
         lastObject = node;
+        if (stats != null) {
+            stats.onTerm(DecoderStats.Term.OBJECT, false);
+        }
         return node;
     }
 
@@ -208,11 +252,17 @@ public abstract class DecoderBase<TNode, TDatatype> {
         }
 
         if (graph.getGraph() == null) {
+            if (stats != null) {
+                stats.onTerm(DecoderStats.Term.GRAPH, true);
+            }
             return lastGraph;
         }
 
         final var node = convertGraphTerm(graph.getGraph());
         lastGraph = node;
+        if (stats != null) {
+            stats.onTerm(DecoderStats.Term.GRAPH, false);
+        }
         return node;
     }
 }
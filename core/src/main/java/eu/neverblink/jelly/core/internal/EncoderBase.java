@@ -3,6 +3,7 @@ package eu.neverblink.jelly.core.internal;
 import eu.neverblink.jelly.core.*;
 import eu.neverblink.jelly.core.internal.proto.*;
 import eu.neverblink.jelly.core.proto.v1.*;
+import eu.neverblink.jelly.core.stats.EncoderStats;
 
 /**
  * Base interface for Jelly proto encoders. Only for internal use.
@@ -21,8 +22,18 @@ public abstract class EncoderBase<TNode> implements RdfBufferAppender<TNode> {
     protected boolean lastGraphSet = false;
     protected TNode lastGraph = null;
 
+    /**
+     * Optional statistics receiver. Null if statistics are disabled.
+     */
+    protected final EncoderStats stats;
+
     protected EncoderBase(ProtoEncoderConverter<TNode> converter) {
+        this(converter, null);
+    }
+
+    protected EncoderBase(ProtoEncoderConverter<TNode> converter, EncoderStats stats) {
         this.converter = converter;
+        this.stats = stats;
     }
 
     protected final NodeEncoder<TNode> getNodeEncoder() {
@@ -31,7 +42,8 @@ public abstract class EncoderBase<TNode> implements RdfBufferAppender<TNode> {
                 this,
                 getPrefixTableSize(),
                 getNameTableSize(),
-                getDatatypeTableSize()
+                getDatatypeTableSize(),
+                stats
             );
         }
         return nodeEncoder;
@@ -100,6 +112,11 @@ public abstract class EncoderBase<TNode> implements RdfBufferAppender<TNode> {
             lastSubject = node;
             final var encoded = converter.nodeToProto(getNodeEncoder(), node);
             target.setSubject(encoded);
+            if (stats != null) {
+                stats.onTerm(EncoderStats.Term.SUBJECT, false);
+            }
+        } else if (stats != null) {
+            stats.onTerm(EncoderStats.Term.SUBJECT, true);
         }
     }
 
@@ -108,6 +125,11 @@ public abstract class EncoderBase<TNode> implements RdfBufferAppender<TNode> {
             lastPredicate = node;
             final var encoded = converter.nodeToProto(getNodeEncoder(), node);
             target.setPredicate(encoded);
+            if (stats != null) {
+                stats.onTerm(EncoderStats.Term.PREDICATE, false);
+            }
+        } else if (stats != null) {
+            stats.onTerm(EncoderStats.Term.PREDICATE, true);
         }
     }
 
@@ -116,12 +138,20 @@ public abstract class EncoderBase<TNode> implements RdfBufferAppender<TNode> {
             lastObject = node;
             final var encoded = converter.nodeToProto(getNodeEncoder(), node);
             target.setObject(encoded);
+            if (stats != null) {
+                stats.onTerm(EncoderStats.Term.OBJECT, false);
+            }
+        } else if (stats != null) {
+            stats.onTerm(EncoderStats.Term.OBJECT, true);
         }
     }
 
     protected final void graphNodeToProtoWrapped(GraphBase.Setters target, TNode node) {
         // Graph nodes may be null in Jena for example... so we need to handle that.
         if ((lastGraphSet && node == null && lastGraph == null) || (node != null && node.equals(lastGraph))) {
+            if (stats != null) {
+                stats.onTerm(EncoderStats.Term.GRAPH, true);
+            }
             return;
         }
 
@@ -129,6 +159,9 @@ public abstract class EncoderBase<TNode> implements RdfBufferAppender<TNode> {
         lastGraph = node;
         final var encoded = converter.graphNodeToProto(getNodeEncoder(), node);
         target.setGraph(encoded);
+        if (stats != null) {
+            stats.onTerm(EncoderStats.Term.GRAPH, false);
+        }
     }
 
     @Override
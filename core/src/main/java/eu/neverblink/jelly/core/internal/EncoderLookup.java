@@ -1,6 +1,7 @@
 package eu.neverblink.jelly.core.internal;
 
 import eu.neverblink.jelly.core.InternalApi;
+import eu.neverblink.jelly.core.stats.EncoderStats;
 import java.util.HashMap;
 import java.util.Objects;
 
@@ -71,7 +72,24 @@ final class EncoderLookup {
 
     private final LookupEntry entryForReturns = new LookupEntry(0, 0, true);
 
+    // Optional statistics receiver. Null if statistics are disabled.
+    private final EncoderStats stats;
+    private final EncoderStats.LookupTable statsTable;
+
     public EncoderLookup(int size, boolean useSerials) {
+        this(size, useSerials, null, null);
+    }
+
+    /**
+     * Creates a new lookup table that reports hits, misses, and evictions to the given stats receiver.
+     * @param size maximum size of the lookup
+     * @param useSerials whether to maintain serial numbers for the entries
+     * @param stats statistics receiver, or null to disable statistics
+     * @param statsTable which table this is, for reporting statistics
+     */
+    public EncoderLookup(int size, boolean useSerials, EncoderStats stats, EncoderStats.LookupTable statsTable) {
+        this.stats = stats;
+        this.statsTable = statsTable;
         this.size = size;
         table = new int[(size + 1) * 2];
         names = new String[size + 1];
@@ -156,6 +174,9 @@ final class EncoderLookup {
         if (value != null) {
             // The entry is already in the table, just update the access order
             onAccess(value.getId);
+            if (stats != null) {
+                stats.onLookupHit(statsTable);
+            }
             return value;
         }
         int id;
@@ -163,10 +184,16 @@ final class EncoderLookup {
             // We still have space in the table, add a new entry to the end of the table.
             id = ++used;
             addEntrySequential(key, id);
+            if (stats != null) {
+                stats.onLookupMiss(statsTable, false);
+            }
         } else {
             // The table is full, evict the least recently used entry.
             id = table[1] / 2;
             addEntryEvicting(key, id);
+            if (stats != null) {
+                stats.onLookupMiss(statsTable, true);
+            }
         }
         if (this.useSerials) {
             // Increment the serial number
@@ -5,6 +5,8 @@ import eu.neverblink.jelly.core.NameDecoder;
 import eu.neverblink.jelly.core.RdfProtoDeserializationError;
 import eu.neverblink.jelly.core.proto.v1.RdfNameEntry;
 import eu.neverblink.jelly.core.proto.v1.RdfPrefixEntry;
+import eu.neverblink.jelly.core.stats.DecoderStats;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 
 /**
@@ -43,6 +45,10 @@ public final class NameDecoderImpl<TIri> implements NameDecoder<TIri> {
     private int lastNameIdSet = 0;
 
     private final Function<String, TIri> iriFactory;
+    // Optional, null if IRIs with a prefix should be made with iriFactory from the concatenated string
+    private final BiFunction<String, String, TIri> splitIriFactory;
+
+    private final DecoderStats stats;
 
     /**
      * Creates a new NameDecoder.
@@ -52,7 +58,47 @@ public final class NameDecoderImpl<TIri> implements NameDecoder<TIri> {
      * @param iriFactory A function that creates an IRI from a string.
      */
     public NameDecoderImpl(int prefixTableSize, int nameTableSize, Function<String, TIri> iriFactory) {
+        this(prefixTableSize, nameTableSize, iriFactory, null);
+    }
+
+    /**
+     * Creates a new NameDecoder that reports statistics.
+     *
+     * @param prefixTableSize The size of the prefix lookup table.
+     * @param nameTableSize The size of the name lookup table.
+     * @param iriFactory A function that creates an IRI from a string.
+     * @param stats Receiver of decoder statistics, or null to disable statistics.
+     */
+    public NameDecoderImpl(
+        int prefixTableSize,
+        int nameTableSize,
+        Function<String, TIri> iriFactory,
+        DecoderStats stats
+    ) {
+        this(prefixTableSize, nameTableSize, iriFactory, null, stats);
+    }
+
+    /**
+     * Creates a new NameDecoder that makes IRIs with a prefix from the prefix and the name, without
+     * concatenating them.
+     *
+     * @param prefixTableSize The size of the prefix lookup table.
+     * @param nameTableSize The size of the name lookup table.
+     * @param iriFactory A function that creates an IRI from a string. Used for IRIs without a prefix.
+     * @param splitIriFactory A function that creates an IRI from a prefix and a name, or null to use
+     *                        iriFactory with the concatenated string.
+     * @param stats Receiver of decoder statistics, or null to disable statistics.
+     */
+    public NameDecoderImpl(
+        int prefixTableSize,
+        int nameTableSize,
+        Function<String, TIri> iriFactory,
+        BiFunction<String, String, TIri> splitIriFactory,
+        DecoderStats stats
+    ) {
         this.iriFactory = iriFactory;
+        this.splitIriFactory = splitIriFactory;
+        this.stats = stats;
         nameLookup = new NameLookupEntry[nameTableSize + 1];
         prefixLookup = new PrefixLookupEntry[prefixTableSize + 1];
 
@@ -85,6 +131,9 @@ public final class NameDecoderImpl<TIri> implements NameDecoder<TIri> {
             entry.lastPrefixId = 0;
             // Set to null is required to avoid a false positive in the decode method for cases without a prefix.
             entry.lastIri = null;
+            if (stats != null) {
+                stats.onLookupUpdate(DecoderStats.LookupTable.NAME);
+            }
         } catch (ArrayIndexOutOfBoundsException | NullPointerException e) {
             throw new RdfProtoDeserializationError(
                 "Name entry with ID %d is out of bounds of the name lookup table.".formatted(id)
@@ -106,6 +155,9 @@ public final class NameDecoderImpl<TIri> implements NameDecoder<TIri> {
             PrefixLookupEntry entry = prefixLookup[lastPrefixIdSet];
             entry.prefix = prefixEntry.getValue();
             entry.serial++;
+            if (stats != null) {
+                stats.onLookupUpdate(DecoderStats.LookupTable.PREFIX);
+            }
         } catch (ArrayIndexOutOfBoundsException | NullPointerException e) {
             throw new RdfProtoDeserializationError(
                 "Prefix entry with ID %d is out of bounds of the prefix lookup table.".formatted(id)
@@ -162,7 +214,12 @@ public final class NameDecoderImpl<TIri> implements NameDecoder<TIri> {
                 nameEntry.lastPrefixId = prefixId;
                 nameEntry.lastPrefixSerial = prefixEntry.serial;
                 // And compute a new IRI
-                nameEntry.lastIri = iriFactory.apply(prefixEntry.prefix.concat(nameEntry.name));
+                nameEntry.lastIri = splitIriFactory == null
+                    ? iriFactory.apply(prefixEntry.prefix.concat(nameEntry.name))
+                    : splitIriFactory.apply(prefixEntry.prefix, nameEntry.name);
+                if (stats != null) {
+                    stats.onIriCacheMiss();
+                }
                 return (TIri) nameEntry.lastIri;
             }
             if (nameEntry.lastIri == null) {
@@ -181,8 +238,15 @@ public final class NameDecoderImpl<TIri> implements NameDecoder<TIri> {
             }
             // Name only, no need to check the prefix lookup
             nameEntry.lastIri = iriFactory.apply(nameEntry.name);
+            if (stats != null) {
+                stats.onIriCacheMiss();
+            }
+            return (TIri) nameEntry.lastIri;
         }
 
+        if (stats != null) {
+            stats.onIriCacheHit();
+        }
         return (TIri) nameEntry.lastIri;
     }
 }
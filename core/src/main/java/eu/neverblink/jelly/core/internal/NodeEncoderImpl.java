@@ -4,6 +4,7 @@ import static eu.neverblink.jelly.core.internal.BaseJellyOptions.MIN_NAME_TABLE_
 
 import eu.neverblink.jelly.core.*;
 import eu.neverblink.jelly.core.proto.v1.*;
+import eu.neverblink.jelly.core.stats.EncoderStats;
 import java.util.LinkedHashMap;
 import java.util.Objects;
 
@@ -63,12 +64,22 @@ final class NodeEncoderImpl<TNode> implements NodeEncoder<TNode> {
 
     private final RdfBufferAppender<TNode> bufferAppender;
 
+    // Optional statistics receiver. Null if statistics are disabled.
+    private final EncoderStats stats;
+
     // We split the node caches in three – the first two are for nodes that depend on the lookups
     // (IRIs and datatype literals). The third one is for nodes that don't depend on the lookups.
     private final NodeCache<Object, DependentNode<RdfIri>> iriNodeCache;
     private final NodeCache<Object, DependentNode<RdfLiteral>> dtLiteralNodeCache;
     private final NodeCache<Object, RdfLiteral> otherLiteralCache;
 
+    // Datatype of the last datatype literal that missed the node cache. Compared by reference, because
+    // RDF libraries typically hand out the same datatype IRI string instance for each literal
+    // (the datatype object is a singleton). This lets us skip the datatype table hash lookup.
+    private String lastDtName = null;
+    private int lastDtId;
+    private int lastDtSerial;
+
     // Pre-allocated IRI that has prefixId=0 and nameId=0
     static final RdfIri zeroIri = RdfIri.newInstance();
     // Pre-allocated IRIs that have prefixId=0
@@ -93,10 +104,44 @@ final class NodeEncoderImpl<TNode> implements NodeEncoder<TNode> {
         int dtLiteralNodeCacheSize,
         RdfBufferAppender<TNode> bufferAppender
     ) {
-        datatypeLookup = new EncoderLookup(dtTableSize, true);
+        this(
+            prefixTableSize,
+            nameTableSize,
+            dtTableSize,
+            nodeCacheSize,
+            iriNodeCacheSize,
+            dtLiteralNodeCacheSize,
+            bufferAppender,
+            null
+        );
+    }
+
+    /**
+     * Creates a new NodeEncoder that reports statistics to the given receiver.
+     * @param prefixTableSize The size of the prefix lookup table
+     * @param nameTableSize The size of the name lookup table
+     * @param dtTableSize The size of the datatype lookup table
+     * @param nodeCacheSize The size of the node cache (for nodes that don't depend on lookups)
+     * @param iriNodeCacheSize The size of the IRI dependent node cache (for prefix+name encoding)
+     * @param dtLiteralNodeCacheSize The size of the datatype literal dependent node cache
+     * @param bufferAppender consumer of the lookup entry rows and the encoded nodes
+     * @param stats statistics receiver, or null to disable statistics
+     */
+    public NodeEncoderImpl(
+        int prefixTableSize,
+        int nameTableSize,
+        int dtTableSize,
+        int nodeCacheSize,
+        int iriNodeCacheSize,
+        int dtLiteralNodeCacheSize,
+        RdfBufferAppender<TNode> bufferAppender,
+        EncoderStats stats
+    ) {
+        this.stats = stats;
+        datatypeLookup = new EncoderLookup(dtTableSize, true, stats, EncoderStats.LookupTable.DATATYPE);
         this.maxPrefixTableSize = prefixTableSize;
         if (maxPrefixTableSize > 0) {
-            prefixLookup = new EncoderLookup(maxPrefixTableSize, true);
+            prefixLookup = new EncoderLookup(maxPrefixTableSize, true, stats, EncoderStats.LookupTable.PREFIX);
             iriNodeCache = new NodeCache<>(iriNodeCacheSize);
         } else {
             prefixLookup = null;
@@ -115,7 +160,7 @@ final class NodeEncoderImpl<TNode> implements NodeEncoder<TNode> {
             nameOnlyIris[i] = RdfIri.newInstance().setPrefixId(0).setNameId(i);
         }
         dtLiteralNodeCache = new NodeCache<>(dtLiteralNodeCacheSize);
-        nameLookup = new EncoderLookup(nameTableSize, maxPrefixTableSize > 0);
+        nameLookup = new EncoderLookup(nameTableSize, maxPrefixTableSize > 0, stats, EncoderStats.LookupTable.NAME);
         otherLiteralCache = new NodeCache<>(nodeCacheSize);
         this.bufferAppender = bufferAppender;
     }
@@ -133,6 +178,25 @@ final class NodeEncoderImpl<TNode> implements NodeEncoder<TNode> {
         int maxPrefixTableSize,
         int maxNameTableSize,
         int maxDatatypeTableSize
+    ) {
+        return create(bufferAppender, maxPrefixTableSize, maxNameTableSize, maxDatatypeTableSize, null);
+    }
+
+    /**
+     * Create a new NodeEncoder using the default cache size heuristics from the options.
+     * @param bufferAppender The buffer appender to use
+     * @param maxPrefixTableSize The maximum size of the prefix table
+     * @param maxNameTableSize The maximum size of the name table
+     * @param maxDatatypeTableSize The maximum size of the datatype table
+     * @param stats statistics receiver, or null to disable statistics
+     * @return A new NodeEncoder
+     */
+    public static <TNode> NodeEncoder<TNode> create(
+        RdfBufferAppender<TNode> bufferAppender,
+        int maxPrefixTableSize,
+        int maxNameTableSize,
+        int maxDatatypeTableSize,
+        EncoderStats stats
     ) {
         return new NodeEncoderImpl<>(
             maxPrefixTableSize,
@@ -141,7 +205,8 @@ final class NodeEncoderImpl<TNode> implements NodeEncoder<TNode> {
             Math.max(Math.min(maxNameTableSize, 1024), 256),
             maxNameTableSize,
             Math.max(Math.min(maxNameTableSize, 1024), 256),
-            bufferAppender
+            bufferAppender,
+            stats
         );
     }
 
@@ -178,8 +243,14 @@ final class NodeEncoderImpl<TNode> implements NodeEncoder<TNode> {
         ) {
             nameLookup.onAccess(cachedNode.lookupPointer1);
             prefixLookup.onAccess(cachedNode.lookupPointer2);
+            if (stats != null) {
+                stats.onNodeCacheHit(EncoderStats.NodeCache.IRI);
+            }
             return outputIri(cachedNode);
         }
+        if (stats != null) {
+            stats.onNodeCacheMiss(EncoderStats.NodeCache.IRI);
+        }
 
         int i = iri.indexOf('#', 8);
         String prefix;
@@ -224,14 +295,38 @@ final class NodeEncoderImpl<TNode> implements NodeEncoder<TNode> {
 
     @Override
     public RdfLiteral makeSimpleLiteral(String lex) {
+        if (stats != null) {
+            return makeOtherLiteralWithStats(lex, lex, null);
+        }
         return otherLiteralCache.computeIfAbsent(lex, k -> RdfLiteral.newInstance().setLex(lex));
     }
 
     @Override
     public RdfLiteral makeLangLiteral(TNode lit, String lex, String lang) {
+        if (stats != null) {
+            return makeOtherLiteralWithStats(lit, lex, lang);
+        }
         return otherLiteralCache.computeIfAbsent(lit, k -> RdfLiteral.newInstance().setLex(lex).setLangtag(lang));
     }
 
+    /**
+     * Variant of the simple / language literal encoding path that also reports cache statistics.
+     * Kept separate so that the default path stays as lean as possible.
+     */
+    private RdfLiteral makeOtherLiteralWithStats(Object key, String lex, String lang) {
+        var literal = otherLiteralCache.get(key);
+        if (literal != null) {
+            stats.onNodeCacheHit(EncoderStats.NodeCache.OTHER_LITERAL);
+            return literal;
+        }
+        stats.onNodeCacheMiss(EncoderStats.NodeCache.OTHER_LITERAL);
+        literal = lang == null
+            ? RdfLiteral.newInstance().setLex(lex)
+            : RdfLiteral.newInstance().setLex(lex).setLangtag(lang);
+        otherLiteralCache.put(key, literal);
+        return literal;
+    }
+
     /**
      * Encodes a datatype literal using two layers of caching – both for the entire literal, and the datatype name.
      * @param key The literal key (the unencoded literal node)
@@ -254,19 +349,39 @@ final class NodeEncoderImpl<TNode> implements NodeEncoder<TNode> {
             cachedNode.lookupSerial1 == Objects.requireNonNull(datatypeLookup.serials)[cachedNode.lookupPointer1]
         ) {
             datatypeLookup.onAccess(cachedNode.lookupPointer1);
+            if (stats != null) {
+                stats.onNodeCacheHit(EncoderStats.NodeCache.DATATYPE_LITERAL);
+            }
             return cachedNode.encoded;
         }
+        if (stats != null) {
+            stats.onNodeCacheMiss(EncoderStats.NodeCache.DATATYPE_LITERAL);
+        }
 
         // The node is not encoded, but we may already have the datatype encoded
-        final var dtEntry = datatypeLookup.getOrAddEntry(datatypeName);
-        if (dtEntry.newEntry) {
-            bufferAppender.appendDatatypeEntry(
-                RdfDatatypeEntry.newInstance().setId(dtEntry.setId).setValue(datatypeName)
-            );
+        final int[] dtSerials = Objects.requireNonNull(datatypeLookup.serials);
+        int dtId;
+        if (datatypeName == lastDtName && lastDtSerial == dtSerials[lastDtId]) {
+            // Fast path: same datatype instance as the last miss, and its entry was not evicted since.
+            dtId = lastDtId;
+            datatypeLookup.onAccess(dtId);
+            if (stats != null) {
+                stats.onLookupHit(EncoderStats.LookupTable.DATATYPE);
+            }
+        } else {
+            final var dtEntry = datatypeLookup.getOrAddEntry(datatypeName);
+            if (dtEntry.newEntry) {
+                bufferAppender.appendDatatypeEntry(
+                    RdfDatatypeEntry.newInstance().setId(dtEntry.setId).setValue(datatypeName)
+                );
+            }
+            dtId = dtEntry.getId;
+            lastDtName = datatypeName;
+            lastDtId = dtId;
+            lastDtSerial = dtSerials[dtId];
         }
-        int dtId = dtEntry.getId;
         cachedNode.lookupPointer1 = dtId;
-        cachedNode.lookupSerial1 = Objects.requireNonNull(datatypeLookup.serials)[dtId];
+        cachedNode.lookupSerial1 = dtSerials[dtId];
         cachedNode.encoded = RdfLiteral.newInstance().setLex(lex).setDatatype(dtId);
         return cachedNode.encoded;
     }
@@ -13,6 +13,7 @@ import eu.neverblink.jelly.core.proto.v1.RdfQuad;
 import eu.neverblink.jelly.core.proto.v1.RdfStreamOptions;
 import eu.neverblink.jelly.core.proto.v1.RdfStreamRow;
 import eu.neverblink.jelly.core.proto.v1.RdfTriple;
+import eu.neverblink.jelly.core.stats.DecoderStats;
 
 /**
  * Base class for stateful decoders of protobuf RDF streams.
@@ -35,7 +36,16 @@ public abstract sealed class ProtoDecoderImpl<TNode, TDatatype> extends ProtoDec
         RdfHandler<TNode> protoHandler,
         RdfStreamOptions supportedOptions
     ) {
-        super(converter);
+        this(converter, protoHandler, supportedOptions, null);
+    }
+
+    public ProtoDecoderImpl(
+        ProtoDecoderConverter<TNode, TDatatype> converter,
+        RdfHandler<TNode> protoHandler,
+        RdfStreamOptions supportedOptions,
+        DecoderStats stats
+    ) {
+        super(converter, stats);
         this.protoHandler = protoHandler;
         this.supportedOptions = supportedOptions;
     }
@@ -130,6 +140,9 @@ public abstract sealed class ProtoDecoderImpl<TNode, TDatatype> extends ProtoDec
 
     protected void handleDatatype(RdfDatatypeEntry datatype) {
         getDatatypeLookup().update(datatype.getId(), converter.makeDatatype(datatype.getValue()));
+        if (stats != null) {
+            stats.onLookupUpdate(DecoderStats.LookupTable.DATATYPE);
+        }
     }
 
     protected void handleNamespace(RdfNamespaceDeclaration namespace) {
@@ -168,7 +181,16 @@ public abstract sealed class ProtoDecoderImpl<TNode, TDatatype> extends ProtoDec
             RdfHandler.TripleHandler<TNode> protoHandler,
             RdfStreamOptions supportedOptions
         ) {
-            super(converter, protoHandler, supportedOptions);
+            this(converter, protoHandler, supportedOptions, null);
+        }
+
+        public TriplesDecoder(
+            ProtoDecoderConverter<TNode, TDatatype> converter,
+            RdfHandler.TripleHandler<TNode> protoHandler,
+            RdfStreamOptions supportedOptions,
+            DecoderStats stats
+        ) {
+            super(converter, protoHandler, supportedOptions, stats);
             this.protoHandler = protoHandler;
         }
 
@@ -210,7 +232,16 @@ public abstract sealed class ProtoDecoderImpl<TNode, TDatatype> extends ProtoDec
             RdfHandler.QuadHandler<TNode> protoHandler,
             RdfStreamOptions supportedOptions
         ) {
-            super(converter, protoHandler, supportedOptions);
+            this(converter, protoHandler, supportedOptions, null);
+        }
+
+        public QuadsDecoder(
+            ProtoDecoderConverter<TNode, TDatatype> converter,
+            RdfHandler.QuadHandler<TNode> protoHandler,
+            RdfStreamOptions supportedOptions,
+            DecoderStats stats
+        ) {
+            super(converter, protoHandler, supportedOptions, stats);
             this.protoHandler = protoHandler;
         }
 
@@ -258,7 +289,16 @@ public abstract sealed class ProtoDecoderImpl<TNode, TDatatype> extends ProtoDec
             RdfHandler.QuadHandler<TNode> protoHandler,
             RdfStreamOptions supportedOptions
         ) {
-            super(converter, protoHandler, supportedOptions);
+            this(converter, protoHandler, supportedOptions, null);
+        }
+
+        public GraphsAsQuadsDecoder(
+            ProtoDecoderConverter<TNode, TDatatype> converter,
+            RdfHandler.QuadHandler<TNode> protoHandler,
+            RdfStreamOptions supportedOptions,
+            DecoderStats stats
+        ) {
+            super(converter, protoHandler, supportedOptions, stats);
             this.protoHandler = protoHandler;
         }
 
@@ -319,7 +359,16 @@ public abstract sealed class ProtoDecoderImpl<TNode, TDatatype> extends ProtoDec
             RdfHandler.GraphHandler<TNode> protoHandler,
             RdfStreamOptions supportedOptions
         ) {
-            super(converter, protoHandler, supportedOptions);
+            this(converter, protoHandler, supportedOptions, null);
+        }
+
+        public GraphsDecoder(
+            ProtoDecoderConverter<TNode, TDatatype> converter,
+            RdfHandler.GraphHandler<TNode> protoHandler,
+            RdfStreamOptions supportedOptions,
+            DecoderStats stats
+        ) {
+            super(converter, protoHandler, supportedOptions, stats);
             this.protoHandler = protoHandler;
         }
 
@@ -381,7 +430,16 @@ public abstract sealed class ProtoDecoderImpl<TNode, TDatatype> extends ProtoDec
             RdfHandler.AnyStatementHandler<TNode> protoHandler,
             RdfStreamOptions supportedOptions
         ) {
-            super(converter, protoHandler, supportedOptions);
+            this(converter, protoHandler, supportedOptions, null);
+        }
+
+        public AnyStatementDecoder(
+            ProtoDecoderConverter<TNode, TDatatype> converter,
+            RdfHandler.AnyStatementHandler<TNode> protoHandler,
+            RdfStreamOptions supportedOptions,
+            DecoderStats stats
+        ) {
+            super(converter, protoHandler, supportedOptions, stats);
             this.protoHandler = protoHandler;
         }
 
@@ -413,9 +471,9 @@ public abstract sealed class ProtoDecoderImpl<TNode, TDatatype> extends ProtoDec
             }
 
             switch (options.getPhysicalType()) {
-                case TRIPLES -> delegateDecoder = new TriplesDecoder<>(converter, protoHandler, options);
-                case QUADS -> delegateDecoder = new QuadsDecoder<>(converter, protoHandler, options);
-                case GRAPHS -> delegateDecoder = new GraphsAsQuadsDecoder<>(converter, protoHandler, options);
+                case TRIPLES -> delegateDecoder = new TriplesDecoder<>(converter, protoHandler, options, stats);
+                case QUADS -> delegateDecoder = new QuadsDecoder<>(converter, protoHandler, options, stats);
+                case GRAPHS -> delegateDecoder = new GraphsAsQuadsDecoder<>(converter, protoHandler, options, stats);
                 default -> throw new RdfProtoDeserializationError("Incoming physical stream type is not recognized.");
             }
             // Replay the options row to the new decoder
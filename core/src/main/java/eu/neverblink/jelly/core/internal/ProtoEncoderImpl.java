@@ -5,6 +5,7 @@ import eu.neverblink.jelly.core.ProtoEncoder;
 import eu.neverblink.jelly.core.ProtoEncoderConverter;
 import eu.neverblink.jelly.core.RdfProtoSerializationError;
 import eu.neverblink.jelly.core.proto.v1.*;
+import eu.neverblink.jelly.core.stats.EncoderStats;
 
 /**
  * Stateful encoder of a protobuf RDF stream.
@@ -29,6 +30,18 @@ public final class ProtoEncoderImpl<TNode> extends ProtoEncoder<TNode> {
         super(converter, params);
     }
 
+    /**
+     * Constructor for the ProtoEncoderImpl class, with statistics collection.
+     * <p>
+     *
+     * @param converter converter for the encoder
+     * @param params    parameters object for the encoder
+     * @param stats     receiver of encoder statistics, or null to disable statistics
+     */
+    public ProtoEncoderImpl(ProtoEncoderConverter<TNode> converter, ProtoEncoder.Params params, EncoderStats stats) {
+        super(converter, params, stats);
+    }
+
     @Override
     public void handleTriple(TNode subject, TNode predicate, TNode object) {
         emitOptions();
@@ -45,6 +58,65 @@ public final class ProtoEncoderImpl<TNode> extends ProtoEncoder<TNode> {
         rowBuffer.appendMessage().setQuad(quad).getSerializedSize();
     }
 
+    @Override
+    public int handleTriples(TNode[] subjects, TNode[] predicates, TNode[] objects, int offset, int count, int maxRows) {
+        if (count <= 0) {
+            return 0;
+        }
+        // Check the options and bounds once for the whole batch, instead of once per triple
+        emitOptions();
+        final int end = offset + count;
+        if (offset < 0 || end > subjects.length || end > predicates.length || end > objects.length) {
+            throw new IndexOutOfBoundsException(
+                "Batch [%d, %d) is out of bounds of the term arrays".formatted(offset, end)
+            );
+        }
+        for (int i = offset; i < end; i++) {
+            final var triple = tripleToProto(subjects[i], predicates[i], objects[i]);
+            rowBuffer.appendMessage().setTriple(triple).getSerializedSize();
+            if (rowBuffer.size() >= maxRows) {
+                return i + 1 - offset;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public int handleQuads(
+        TNode[] subjects,
+        TNode[] predicates,
+        TNode[] objects,
+        TNode[] graphs,
+        int offset,
+        int count,
+        int maxRows
+    ) {
+        if (count <= 0) {
+            return 0;
+        }
+        emitOptions();
+        final int end = offset + count;
+        if (
+            offset < 0 ||
+            end > subjects.length ||
+            end > predicates.length ||
+            end > objects.length ||
+            end > graphs.length
+        ) {
+            throw new IndexOutOfBoundsException(
+                "Batch [%d, %d) is out of bounds of the term arrays".formatted(offset, end)
+            );
+        }
+        for (int i = offset; i < end; i++) {
+            final var quad = quadToProto(subjects[i], predicates[i], objects[i], graphs[i]);
+            rowBuffer.appendMessage().setQuad(quad).getSerializedSize();
+            if (rowBuffer.size() >= maxRows) {
+                return i + 1 - offset;
+            }
+        }
+        return count;
+    }
+
     @Override
     public void handleGraphStart(TNode graph) {
         emitOptions();
@@ -5,12 +5,12 @@ import eu.neverblink.protoc.java.runtime.MessageFactory;
 import eu.neverblink.protoc.java.runtime.ProtoMessage;
 
 /**
- * Helper class for EncoderAllocator.ArenaAllocator.
+ * Helper class for EncoderAllocator.ArenaAllocator and the allocators of other modules (e.g., Jelly-Patch).
  * Maintains an object array (on the heap) of ProtoMessage instances.
  * @param <T> The type of ProtoMessage to allocate.
  */
 @InternalApi
-final class ArenaMessageAllocator<T extends ProtoMessage<?>> {
+public final class ArenaMessageAllocator<T extends ProtoMessage<?>> {
 
     private final MessageFactory<T> factory;
     private final int maxSize;
@@ -19,7 +19,7 @@ final class ArenaMessageAllocator<T extends ProtoMessage<?>> {
     private T[] buffer = null;
     private int used = 0;
 
-    ArenaMessageAllocator(MessageFactory<T> factory, int maxSize) {
+    public ArenaMessageAllocator(MessageFactory<T> factory, int maxSize) {
         this.factory = factory;
         this.maxSize = maxSize;
     }
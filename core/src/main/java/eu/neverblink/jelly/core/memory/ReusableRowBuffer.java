@@ -60,6 +60,19 @@ public final class ReusableRowBuffer extends AbstractCollection<RdfStreamRow> im
         return visibleSize;
     }
 
+    /**
+     * Returns the row at the given index, without copying.
+     * @param index index of the row, must be less than size()
+     * @return row
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public RdfStreamRow get(int index) {
+        if (index < 0 || index >= visibleSize) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return rows[index];
+    }
+
     @Override
     public RdfStreamRow.Mutable appendMessage() {
         if (visibleSize < initializedSize) {
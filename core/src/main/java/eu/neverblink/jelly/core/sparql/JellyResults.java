@@ -0,0 +1,65 @@
+package eu.neverblink.jelly.core.sparql;
+
+import com.google.protobuf.ByteString;
+import eu.neverblink.jelly.core.ExperimentalApi;
+import eu.neverblink.jelly.core.proto.v1.RdfStreamFrame;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Constants of the Jelly SPARQL results format, used by {@link JellyResultsWriter} and {@link JellyResultsReader}.
+ * <p>
+ * The format is a delimited Jelly TRIPLES stream (logical type FLAT_TRIPLES), so it can be read and transcoded
+ * by any Jelly implementation. The first frame carries the list of result variables (or the result of an ASK
+ * query) in its metadata. Solution number n is written as triples with the blank node {@code _:s0} (n even) or
+ * {@code _:s1} (n odd) as the subject, the IRI of a variable as the predicate, and its value as the object.
+ * Only the variables whose value differs from the previous solution are written, so repeated values in a column
+ * cost nothing. A variable that becomes unbound is written as a triple with the {@link #UNBOUND_IRI} as the
+ * predicate and the IRI of the variable as the object. As unbound values are marked in the predicate position,
+ * and not with a special value, any RDF term can be a value of a variable. A solution that is identical to the
+ * previous one is written as a single triple with the {@link #SOLUTION_IRI} predicate.
+ */
+@ExperimentalApi
+public final class JellyResults {
+
+    private JellyResults() {}
+
+    public static final String CONTENT_TYPE = "application/x-jelly-sparql-results";
+    public static final String FILE_EXTENSION = "jellyr";
+
+    /**
+     * Namespace of the variable IRIs. The IRI of variable "x" is this namespace + "x".
+     */
+    public static final String VARIABLE_NAMESPACE = "https://neverblink.eu/jelly/sparql/variable#";
+
+    /**
+     * Predicate marking a variable (in the object) as unbound.
+     */
+    public static final String UNBOUND_IRI = "https://neverblink.eu/jelly/sparql#unbound";
+
+    /**
+     * Predicate marking a solution identical to the previous one. The object is ignored.
+     */
+    public static final String SOLUTION_IRI = "https://neverblink.eu/jelly/sparql#solution";
+
+    /**
+     * Metadata key of the result variables: their names, UTF-8 encoded, separated with newlines.
+     */
+    public static final String METADATA_VARIABLES = "jelly.sparql.variables";
+
+    /**
+     * Metadata key of the result of an ASK query: "true" or "false", UTF-8 encoded.
+     */
+    public static final String METADATA_BOOLEAN = "jelly.sparql.boolean";
+
+    static RdfStreamFrame.MetadataEntry variablesEntry(List<String> variables) {
+        return RdfStreamFrame.MetadataEntry.newInstance()
+            .setKey(METADATA_VARIABLES)
+            .setValue(ByteString.copyFromUtf8(String.join("\n", variables)));
+    }
+
+    static List<String> parseVariables(ByteString value) {
+        final String names = value.toStringUtf8();
+        return names.isEmpty() ? List.of() : Arrays.asList(names.split("\n"));
+    }
+}
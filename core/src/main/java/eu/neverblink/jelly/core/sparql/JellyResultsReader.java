@@ -0,0 +1,197 @@
+package eu.neverblink.jelly.core.sparql;
+
+import eu.neverblink.jelly.core.ExperimentalApi;
+import eu.neverblink.jelly.core.JellyConverterFactory;
+import eu.neverblink.jelly.core.ProtoDecoder;
+import eu.neverblink.jelly.core.RdfHandler;
+import eu.neverblink.jelly.core.RdfProtoDeserializationError;
+import eu.neverblink.jelly.core.proto.v1.RdfStreamFrame;
+import eu.neverblink.jelly.core.proto.v1.RdfStreamOptions;
+import eu.neverblink.protoc.java.runtime.ProtoMessage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.IntFunction;
+
+/**
+ * Reads SPARQL results written by {@link JellyResultsWriter}.
+ * See {@link JellyResults} for the description of the format.
+ * <p>
+ * The first frame (with the result variables or the ASK result) is read in the constructor. The solutions
+ * are then read lazily, one frame at a time, when iterating over the reader. Each solution is returned as
+ * a new array with the values of the variables in the order of {@link #getVariables()}, with null for unbound
+ * variables.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @param <TNode> type of RDF nodes in the library
+ */
+@ExperimentalApi
+public final class JellyResultsReader<TNode> implements Iterator<TNode[]> {
+
+    private final InputStream inputStream;
+    private final IntFunction<TNode[]> arrayFactory;
+    private final List<String> variables;
+    private final Boolean booleanResult;
+    private final ProtoDecoder<TNode, ?> decoder;
+
+    private final HashMap<TNode, Integer> variableIndex = new HashMap<>();
+    private final TNode unboundNode;
+    private final TNode solutionNode;
+    private final ArrayDeque<TNode[]> pending = new ArrayDeque<>();
+    private TNode[] current;
+    private TNode currentSubject = null;
+    private boolean endOfStream = false;
+
+    /**
+     * Creates a new reader and reads the first frame of the stream.
+     *
+     * @param converterFactory converter factory of the RDF library
+     * @param supportedOptions maximum supported options of the stream
+     * @param arrayFactory factory of arrays of nodes, e.g., Node[]::new
+     * @param inputStream input stream with the results. It is not closed by the reader.
+     * @throws IOException if an I/O error occurs
+     * @throws RdfProtoDeserializationError if the stream is not a Jelly SPARQL results stream
+     */
+    public JellyResultsReader(
+        JellyConverterFactory<TNode, ?, ?, ?> converterFactory,
+        RdfStreamOptions supportedOptions,
+        IntFunction<TNode[]> arrayFactory,
+        InputStream inputStream
+    ) throws IOException {
+        this.inputStream = inputStream;
+        this.arrayFactory = arrayFactory;
+
+        final var first = ProtoMessage.parseDelimitedFrom(inputStream, RdfStreamFrame::newInstance);
+        if (first == null) {
+            throw new RdfProtoDeserializationError("Empty Jelly SPARQL results stream.");
+        }
+        List<String> variables = null;
+        Boolean booleanResult = null;
+        for (final var entry : first.getMetadata()) {
+            if (entry.getKey().equals(JellyResults.METADATA_VARIABLES)) {
+                variables = JellyResults.parseVariables(entry.getValue());
+            } else if (entry.getKey().equals(JellyResults.METADATA_BOOLEAN)) {
+                booleanResult = Boolean.parseBoolean(entry.getValue().toStringUtf8());
+            }
+        }
+        if (variables == null && booleanResult == null) {
+            throw new RdfProtoDeserializationError(
+                "Not a Jelly SPARQL results stream: the first frame has no variables or boolean result."
+            );
+        }
+        this.variables = variables == null ? List.of() : variables;
+        this.booleanResult = booleanResult;
+
+        final var converter = converterFactory.decoderConverter();
+        for (int i = 0; i < this.variables.size(); i++) {
+            variableIndex.put(converter.makeIriNode(JellyResults.VARIABLE_NAMESPACE + this.variables.get(i)), i);
+        }
+        this.unboundNode = converter.makeIriNode(JellyResults.UNBOUND_IRI);
+        this.solutionNode = converter.makeIriNode(JellyResults.SOLUTION_IRI);
+        this.current = arrayFactory.apply(this.variables.size());
+        this.decoder = converterFactory.triplesDecoder(new SolutionHandler(), supportedOptions);
+
+        ingestFrame(first);
+        if (booleanResult != null) {
+            endOfStream = true;
+        }
+    }
+
+    /**
+     * @return names of the result variables, without the "?". Empty for ASK results.
+     */
+    public List<String> getVariables() {
+        return variables;
+    }
+
+    /**
+     * @return true if the stream contains the result of an ASK query, instead of solutions
+     */
+    public boolean isBoolean() {
+        return booleanResult != null;
+    }
+
+    /**
+     * @return the result of the ASK query
+     * @throws IllegalStateException if the stream does not contain an ASK result
+     */
+    public boolean getBoolean() {
+        if (booleanResult == null) {
+            throw new IllegalStateException("The stream does not contain a boolean result.");
+        }
+        return booleanResult;
+    }
+
+    /**
+     * @throws UncheckedIOException if an I/O error occurs
+     */
+    @Override
+    public boolean hasNext() {
+        while (pending.isEmpty() && !endOfStream) {
+            final RdfStreamFrame frame;
+            try {
+                frame = ProtoMessage.parseDelimitedFrom(inputStream, RdfStreamFrame::newInstance);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (frame == null) {
+                endOfStream = true;
+                finishSolution();
+            } else {
+                ingestFrame(frame);
+            }
+        }
+        return !pending.isEmpty();
+    }
+
+    @Override
+    public TNode[] next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return pending.remove();
+    }
+
+    private void ingestFrame(RdfStreamFrame frame) {
+        for (final var row : frame.getRows()) {
+            decoder.ingestRow(row);
+        }
+    }
+
+    private void finishSolution() {
+        if (currentSubject != null) {
+            pending.add(current.clone());
+            currentSubject = null;
+        }
+    }
+
+    private final class SolutionHandler implements RdfHandler.TripleHandler<TNode> {
+
+        @Override
+        public void handleTriple(TNode subject, TNode predicate, TNode object) {
+            if (!subject.equals(currentSubject)) {
+                // The subject changes with every solution
+                finishSolution();
+                currentSubject = subject;
+            }
+            final Integer index = variableIndex.get(predicate);
+            if (index != null) {
+                current[index] = object;
+            } else if (predicate.equals(unboundNode)) {
+                final Integer unboundIndex = variableIndex.get(object);
+                if (unboundIndex == null) {
+                    throw new RdfProtoDeserializationError("Unknown variable in Jelly SPARQL results: " + object);
+                }
+                current[unboundIndex] = null;
+            } else if (!predicate.equals(solutionNode)) {
+                throw new RdfProtoDeserializationError("Unknown variable in Jelly SPARQL results: " + predicate);
+            }
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package eu.neverblink.jelly.core.sparql;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedOutputStream;
+import eu.neverblink.jelly.core.ExperimentalApi;
+import eu.neverblink.jelly.core.JellyConverterFactory;
+import eu.neverblink.jelly.core.ProtoEncoder;
+import eu.neverblink.jelly.core.memory.EncoderAllocator;
+import eu.neverblink.jelly.core.memory.ReusableRowBuffer;
+import eu.neverblink.jelly.core.memory.RowBuffer;
+import eu.neverblink.jelly.core.proto.v1.LogicalStreamType;
+import eu.neverblink.jelly.core.proto.v1.PhysicalStreamType;
+import eu.neverblink.jelly.core.proto.v1.RdfStreamFrame;
+import eu.neverblink.jelly.core.proto.v1.RdfStreamOptions;
+import eu.neverblink.protoc.java.runtime.ProtobufUtil;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Writes SPARQL SELECT results (solutions of variable bindings) as a Jelly stream.
+ * See {@link JellyResults} for the description of the format.
+ * <p>
+ * The terms are encoded with the usual Jelly machinery (prefix, name, and datatype lookups), and a value is
+ * only written when it differs from the value of the same variable in the previous solution.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @param <TNode> type of RDF nodes in the library
+ */
+@ExperimentalApi
+public final class JellyResultsWriter<TNode> {
+
+    private final OutputStream outputStream;
+    private final CodedOutputStream codedOutput;
+    private final int frameSize;
+    private final ReusableRowBuffer buffer;
+    private final EncoderAllocator allocator;
+    private final RdfStreamFrame.Mutable frame;
+    private final ProtoEncoder<TNode> encoder;
+
+    // Nodes are stored as Object[], like in ReorderingRdfHandler, to avoid creating generic arrays
+    private final Object[] variableNodes;
+    private final Object[] previousValues;
+    private final Object[] subjects;
+    private final Object unboundNode;
+    private final Object solutionNode;
+
+    private long solutionCount = 0;
+    private boolean headerWritten = false;
+
+    /**
+     * Creates a new writer.
+     *
+     * @param converterFactory converter factory of the RDF library
+     * @param options stream options. The physical and logical stream types are set by the writer.
+     *                Use options with RDF-star support if the values may be quoted triples.
+     * @param frameSize maximum number of rows in a frame
+     * @param variables names of the result variables, without the "?"
+     * @param outputStream output stream. It is not closed by the writer.
+     */
+    public JellyResultsWriter(
+        JellyConverterFactory<TNode, ?, ?, ?> converterFactory,
+        RdfStreamOptions options,
+        int frameSize,
+        List<String> variables,
+        OutputStream outputStream
+    ) {
+        if (frameSize < 1) {
+            throw new IllegalArgumentException("Frame size must be at least 1, got " + frameSize);
+        }
+        this.outputStream = outputStream;
+        this.codedOutput = ProtobufUtil.createCodedOutputStream(outputStream);
+        this.frameSize = frameSize;
+        this.buffer = RowBuffer.newReusableForEncoder(frameSize + 8);
+        this.allocator = EncoderAllocator.newArenaAllocator(frameSize + 8);
+        this.frame = RdfStreamFrame.newInstance().setRows(buffer);
+        this.frame.getMetadata().add(JellyResults.variablesEntry(variables));
+        this.encoder = converterFactory.encoder(
+            ProtoEncoder.Params.of(
+                options
+                    .clone()
+                    .setPhysicalType(PhysicalStreamType.TRIPLES)
+                    .setLogicalType(LogicalStreamType.FLAT_TRIPLES),
+                false,
+                buffer,
+                allocator
+            )
+        );
+
+        final var converter = converterFactory.decoderConverter();
+        this.variableNodes = new Object[variables.size()];
+        for (int i = 0; i < variableNodes.length; i++) {
+            variableNodes[i] = converter.makeIriNode(JellyResults.VARIABLE_NAMESPACE + variables.get(i));
+        }
+        this.previousValues = new Object[variables.size()];
+        this.subjects = new Object[] { converter.makeBlankNode("s0"), converter.makeBlankNode("s1") };
+        this.unboundNode = converter.makeIriNode(JellyResults.UNBOUND_IRI);
+        this.solutionNode = converter.makeIriNode(JellyResults.SOLUTION_IRI);
+    }
+
+    /**
+     * Writes the result of an ASK query as a Jelly stream.
+     *
+     * @param result result of the query
+     * @param outputStream output stream. It is not closed by this method.
+     * @throws IOException if an I/O error occurs
+     */
+    public static void writeBoolean(boolean result, OutputStream outputStream) throws IOException {
+        final var frame = RdfStreamFrame.newInstance();
+        frame
+            .getMetadata()
+            .add(
+                RdfStreamFrame.MetadataEntry.newInstance()
+                    .setKey(JellyResults.METADATA_BOOLEAN)
+                    .setValue(ByteString.copyFromUtf8(Boolean.toString(result)))
+            );
+        final var codedOutput = ProtobufUtil.createCodedOutputStream(outputStream);
+        frame.writeDelimitedTo(codedOutput);
+        codedOutput.flush();
+        outputStream.flush();
+    }
+
+    /**
+     * Writes one solution.
+     *
+     * @param values values of the variables, in the order given in the constructor. Null means unbound.
+     *               The array is not retained and can be reused by the caller.
+     * @throws IOException if an I/O error occurs
+     * @throws IllegalArgumentException if the number of values does not match the number of variables
+     */
+    @SuppressWarnings("unchecked")
+    public void writeSolution(TNode[] values) throws IOException {
+        if (values.length != variableNodes.length) {
+            throw new IllegalArgumentException(
+                "Expected %d values, got %d".formatted(variableNodes.length, values.length)
+            );
+        }
+        final TNode subject = (TNode) subjects[(int) (solutionCount & 1)];
+        boolean written = false;
+        for (int i = 0; i < values.length; i++) {
+            final TNode value = values[i];
+            if (Objects.equals(value, previousValues[i])) {
+                continue;
+            }
+            if (value == null) {
+                encoder.handleTriple(subject, (TNode) unboundNode, (TNode) variableNodes[i]);
+            } else {
+                encoder.handleTriple(subject, (TNode) variableNodes[i], value);
+            }
+            previousValues[i] = value;
+            written = true;
+        }
+        if (!written) {
+            // Same as the previous solution – still needs a row to mark the start of a new solution
+            encoder.handleTriple(subject, (TNode) solutionNode, (TNode) unboundNode);
+        }
+        solutionCount++;
+        if (buffer.size() >= frameSize) {
+            writeFrame();
+        }
+    }
+
+    /**
+     * @return number of solutions written so far
+     */
+    public long getSolutionCount() {
+        return solutionCount;
+    }
+
+    /**
+     * Writes the remaining buffered solutions and flushes the output stream.
+     * Must be called once, after the last solution.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    public void finish() throws IOException {
+        if (!buffer.isEmpty() || !headerWritten) {
+            writeFrame();
+        }
+        // !!! CodedOutputStream.flush() does not flush the underlying OutputStream,
+        // so we need to do it explicitly.
+        codedOutput.flush();
+        outputStream.flush();
+    }
+
+    private void writeFrame() throws IOException {
+        frame.resetCachedSize();
+        try {
+            frame.writeDelimitedTo(codedOutput);
+        } finally {
+            buffer.clear();
+            allocator.releaseAll();
+            if (!headerWritten) {
+                // The variables are only written in the first frame
+                frame.getMetadata().clear();
+                headerWritten = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package eu.neverblink.jelly.core.stats;
+
+import eu.neverblink.jelly.core.ExperimentalApi;
+import java.util.Arrays;
+
+/**
+ * Simple, dependency-free implementation of {@link DecoderStats} that keeps plain counters.
+ * <p>
+ * This class is NOT thread-safe for writing – it should be updated only by a single decoder.
+ * Reading the counters from other threads is allowed, but the values may be slightly stale.
+ * To bridge this to a metrics system, register gauges or function counters that read the getters
+ * of this class.
+ */
+@ExperimentalApi
+public final class DecoderCounters implements DecoderStats {
+
+    /**
+     * Number of buckets in the frame decoding latency histogram. Bucket i counts frames decoded in
+     * [2^i, 2^(i+1)) nanoseconds. Bucket 0 also counts frames decoded in 0 ns, and the last bucket
+     * collects everything above ~2 seconds.
+     */
+    public static final int HISTOGRAM_BUCKETS = 32;
+
+    private final long[] lookupUpdates = new long[LookupTable.values().length];
+    private final long[] terms = new long[Term.values().length];
+    private final long[] repeatedTerms = new long[Term.values().length];
+    private final long[] frameLatencyHistogram = new long[HISTOGRAM_BUCKETS];
+
+    private long iriCacheHits = 0;
+    private long iriCacheMisses = 0;
+    private long frames = 0;
+    private long rows = 0;
+    private long bytes = 0;
+    private long nanos = 0;
+    private long maxFrameNanos = 0;
+
+    @Override
+    public void onLookupUpdate(LookupTable table) {
+        lookupUpdates[table.ordinal()]++;
+    }
+
+    @Override
+    public void onIriCacheHit() {
+        iriCacheHits++;
+    }
+
+    @Override
+    public void onIriCacheMiss() {
+        iriCacheMisses++;
+    }
+
+    @Override
+    public void onTerm(Term term, boolean repeated) {
+        terms[term.ordinal()]++;
+        if (repeated) {
+            repeatedTerms[term.ordinal()]++;
+        }
+    }
+
+    @Override
+    public void onFrame(int rows, long bytes, long nanos) {
+        this.frames++;
+        this.rows += rows;
+        this.bytes += bytes;
+        this.nanos += nanos;
+        if (nanos > maxFrameNanos) {
+            maxFrameNanos = nanos;
+        }
+        frameLatencyHistogram[EncoderCounters.histogramBucket(nanos)]++;
+    }
+
+    public long getLookupUpdates(LookupTable table) {
+        return lookupUpdates[table.ordinal()];
+    }
+
+    public long getIriCacheHits() {
+        return iriCacheHits;
+    }
+
+    public long getIriCacheMisses() {
+        return iriCacheMisses;
+    }
+
+    /**
+     * Returns the hit rate of the IRI cache in the name decoder.
+     * @return hit rate in the range [0, 1], or NaN if no IRIs were decoded
+     */
+    public double getIriCacheHitRate() {
+        final long total = iriCacheHits + iriCacheMisses;
+        if (total == 0) {
+            return Double.NaN;
+        }
+        return (double) iriCacheHits / total;
+    }
+
+    public long getTerms(Term term) {
+        return terms[term.ordinal()];
+    }
+
+    public long getRepeatedTerms(Term term) {
+        return repeatedTerms[term.ordinal()];
+    }
+
+    public long getFrames() {
+        return frames;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @return total time spent reading and decoding frames, in nanoseconds
+     */
+    public long getNanos() {
+        return nanos;
+    }
+
+    public long getMaxFrameNanos() {
+        return maxFrameNanos;
+    }
+
+    /**
+     * Returns the decoding throughput, counting only the time spent in reading and decoding frames.
+     * @return rows per second, or NaN if no frames were decoded
+     */
+    public double getRowsPerSecond() {
+        if (nanos == 0) {
+            return Double.NaN;
+        }
+        return rows * 1e9 / nanos;
+    }
+
+    /**
+     * Returns a copy of the frame decoding latency histogram.
+     * Bucket i counts frames decoded in [2^i, 2^(i+1)) nanoseconds.
+     * @return histogram of frame decoding latencies
+     */
+    public long[] getFrameLatencyHistogram() {
+        return frameLatencyHistogram.clone();
+    }
+
+    /**
+     * Resets all counters to zero.
+     */
+    public void reset() {
+        Arrays.fill(lookupUpdates, 0);
+        Arrays.fill(terms, 0);
+        Arrays.fill(repeatedTerms, 0);
+        Arrays.fill(frameLatencyHistogram, 0);
+        iriCacheHits = 0;
+        iriCacheMisses = 0;
+        frames = 0;
+        rows = 0;
+        bytes = 0;
+        nanos = 0;
+        maxFrameNanos = 0;
+    }
+
+    @Override
+    public String toString() {
+        final var sb = new StringBuilder("DecoderCounters{frames=")
+            .append(frames)
+            .append(", rows=")
+            .append(rows)
+            .append(", bytes=")
+            .append(bytes)
+            .append(", nanos=")
+            .append(nanos)
+            .append(", iriCache=[hits=")
+            .append(iriCacheHits)
+            .append(", misses=")
+            .append(iriCacheMisses)
+            .append(']');
+        for (final var table : LookupTable.values()) {
+            sb.append(", ").append(table.name().toLowerCase()).append("Updates=").append(getLookupUpdates(table));
+        }
+        for (final var term : Term.values()) {
+            sb
+                .append(", ")
+                .append(term.name().toLowerCase())
+                .append("=[terms=")
+                .append(getTerms(term))
+                .append(", repeated=")
+                .append(getRepeatedTerms(term))
+                .append(']');
+        }
+        return sb.append('}').toString();
+    }
+}
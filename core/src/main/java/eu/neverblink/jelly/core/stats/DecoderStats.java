@@ -0,0 +1,68 @@
+package eu.neverblink.jelly.core.stats;
+
+import eu.neverblink.jelly.core.ExperimentalApi;
+
+/**
+ * Receiver of statistics from the hot path of {@link eu.neverblink.jelly.core.ProtoDecoder}.
+ * <p>
+ * Statistics collection is opt-in: pass an implementation of this interface to one of the decoder
+ * factory methods in {@link eu.neverblink.jelly.core.JellyConverterFactory} that accept a DecoderStats
+ * argument. If no stats receiver is set, the decoder does not collect anything.
+ * <p>
+ * The methods are called synchronously from the decoder's thread, so they must be very cheap.
+ * For a ready-to-use, dependency-free implementation, see {@link DecoderCounters}.
+ *
+ * @see EncoderStats the equivalent for encoders
+ */
+@ExperimentalApi
+public interface DecoderStats {
+    /**
+     * Lookup tables maintained by the decoder.
+     */
+    enum LookupTable {
+        PREFIX,
+        NAME,
+        DATATYPE,
+    }
+
+    /**
+     * Positions of terms in a statement.
+     */
+    enum Term {
+        SUBJECT,
+        PREDICATE,
+        OBJECT,
+        GRAPH,
+    }
+
+    /**
+     * Called when an entry in a lookup table is set by a lookup row in the stream.
+     * @param table the lookup table
+     */
+    void onLookupUpdate(LookupTable table);
+
+    /**
+     * Called when an IRI was decoded and the IRI cached in the name table could be reused.
+     */
+    void onIriCacheHit();
+
+    /**
+     * Called when an IRI was decoded and a new IRI node had to be created.
+     */
+    void onIriCacheMiss();
+
+    /**
+     * Called for every term of a decoded statement (not for terms of quoted triples).
+     * @param term position of the term in the statement
+     * @param repeated true if the term was elided in the input and the previous term was reused
+     */
+    void onTerm(Term term, boolean repeated);
+
+    /**
+     * Called by parsers when a whole frame was read and decoded.
+     * @param rows number of rows in the frame
+     * @param bytes serialized size of the frame in bytes, or 0 if unknown
+     * @param nanos time spent reading and decoding the frame, in nanoseconds
+     */
+    void onFrame(int rows, long bytes, long nanos);
+}
@@ -0,0 +1,225 @@
+package eu.neverblink.jelly.core.stats;
+
+import eu.neverblink.jelly.core.ExperimentalApi;
+import java.util.Arrays;
+
+/**
+ * Simple, dependency-free implementation of {@link EncoderStats} that keeps plain counters.
+ * <p>
+ * This class is NOT thread-safe for writing – it should be updated only by a single encoder.
+ * Reading the counters from other threads is allowed, but the values may be slightly stale.
+ * To bridge this to a metrics system (e.g., Micrometer, OpenTelemetry), register gauges or
+ * function counters that read the getters of this class.
+ */
+@ExperimentalApi
+public final class EncoderCounters implements EncoderStats {
+
+    /**
+     * Number of buckets in the frame size histogram. Bucket i counts frames with serialized size
+     * in the range [2^i, 2^(i+1)) bytes. Bucket 0 also counts empty frames.
+     */
+    public static final int HISTOGRAM_BUCKETS = 32;
+
+    private final long[] lookupHits = new long[LookupTable.values().length];
+    private final long[] lookupMisses = new long[LookupTable.values().length];
+    private final long[] lookupEvictions = new long[LookupTable.values().length];
+    private final long[] nodeCacheHits = new long[NodeCache.values().length];
+    private final long[] nodeCacheMisses = new long[NodeCache.values().length];
+    private final long[] terms = new long[Term.values().length];
+    private final long[] repeatedTerms = new long[Term.values().length];
+    private final long[] frameSizeHistogram = new long[HISTOGRAM_BUCKETS];
+
+    private long frames = 0;
+    private long rows = 0;
+    private long bytes = 0;
+    private long maxFrameBytes = 0;
+
+    @Override
+    public void onLookupHit(LookupTable table) {
+        lookupHits[table.ordinal()]++;
+    }
+
+    @Override
+    public void onLookupMiss(LookupTable table, boolean evicted) {
+        lookupMisses[table.ordinal()]++;
+        if (evicted) {
+            lookupEvictions[table.ordinal()]++;
+        }
+    }
+
+    @Override
+    public void onNodeCacheHit(NodeCache cache) {
+        nodeCacheHits[cache.ordinal()]++;
+    }
+
+    @Override
+    public void onNodeCacheMiss(NodeCache cache) {
+        nodeCacheMisses[cache.ordinal()]++;
+    }
+
+    @Override
+    public void onTerm(Term term, boolean repeated) {
+        terms[term.ordinal()]++;
+        if (repeated) {
+            repeatedTerms[term.ordinal()]++;
+        }
+    }
+
+    @Override
+    public void onFrame(int rows, long bytes) {
+        this.frames++;
+        this.rows += rows;
+        this.bytes += bytes;
+        if (bytes > maxFrameBytes) {
+            maxFrameBytes = bytes;
+        }
+        frameSizeHistogram[histogramBucket(bytes)]++;
+    }
+
+    static int histogramBucket(long value) {
+        if (value <= 1) {
+            return 0;
+        }
+        return Math.min(63 - Long.numberOfLeadingZeros(value), HISTOGRAM_BUCKETS - 1);
+    }
+
+    public long getLookupHits(LookupTable table) {
+        return lookupHits[table.ordinal()];
+    }
+
+    public long getLookupMisses(LookupTable table) {
+        return lookupMisses[table.ordinal()];
+    }
+
+    public long getLookupEvictions(LookupTable table) {
+        return lookupEvictions[table.ordinal()];
+    }
+
+    public long getNodeCacheHits(NodeCache cache) {
+        return nodeCacheHits[cache.ordinal()];
+    }
+
+    public long getNodeCacheMisses(NodeCache cache) {
+        return nodeCacheMisses[cache.ordinal()];
+    }
+
+    /**
+     * Returns the hit rate of the given node cache.
+     * @param cache node cache
+     * @return hit rate in the range [0, 1], or NaN if the cache was never used
+     */
+    public double getNodeCacheHitRate(NodeCache cache) {
+        return ratio(nodeCacheHits[cache.ordinal()], nodeCacheMisses[cache.ordinal()]);
+    }
+
+    /**
+     * Returns the hit rate of the given lookup table.
+     * @param table lookup table
+     * @return hit rate in the range [0, 1], or NaN if the table was never used
+     */
+    public double getLookupHitRate(LookupTable table) {
+        return ratio(lookupHits[table.ordinal()], lookupMisses[table.ordinal()]);
+    }
+
+    public long getTerms(Term term) {
+        return terms[term.ordinal()];
+    }
+
+    public long getRepeatedTerms(Term term) {
+        return repeatedTerms[term.ordinal()];
+    }
+
+    public long getFrames() {
+        return frames;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getMaxFrameBytes() {
+        return maxFrameBytes;
+    }
+
+    /**
+     * Returns a copy of the frame size histogram.
+     * Bucket i counts frames with serialized size in the range [2^i, 2^(i+1)) bytes.
+     * @return histogram of frame sizes
+     */
+    public long[] getFrameSizeHistogram() {
+        return frameSizeHistogram.clone();
+    }
+
+    /**
+     * Resets all counters to zero.
+     */
+    public void reset() {
+        Arrays.fill(lookupHits, 0);
+        Arrays.fill(lookupMisses, 0);
+        Arrays.fill(lookupEvictions, 0);
+        Arrays.fill(nodeCacheHits, 0);
+        Arrays.fill(nodeCacheMisses, 0);
+        Arrays.fill(terms, 0);
+        Arrays.fill(repeatedTerms, 0);
+        Arrays.fill(frameSizeHistogram, 0);
+        frames = 0;
+        rows = 0;
+        bytes = 0;
+        maxFrameBytes = 0;
+    }
+
+    private static double ratio(long hits, long misses) {
+        final long total = hits + misses;
+        if (total == 0) {
+            return Double.NaN;
+        }
+        return (double) hits / total;
+    }
+
+    @Override
+    public String toString() {
+        final var sb = new StringBuilder("EncoderCounters{frames=")
+            .append(frames)
+            .append(", rows=")
+            .append(rows)
+            .append(", bytes=")
+            .append(bytes);
+        for (final var table : LookupTable.values()) {
+            sb
+                .append(", ")
+                .append(table.name().toLowerCase())
+                .append("Lookup=[hits=")
+                .append(getLookupHits(table))
+                .append(", misses=")
+                .append(getLookupMisses(table))
+                .append(", evictions=")
+                .append(getLookupEvictions(table))
+                .append(']');
+        }
+        for (final var cache : NodeCache.values()) {
+            sb
+                .append(", ")
+                .append(cache.name().toLowerCase())
+                .append("Cache=[hits=")
+                .append(getNodeCacheHits(cache))
+                .append(", misses=")
+                .append(getNodeCacheMisses(cache))
+                .append(']');
+        }
+        for (final var term : Term.values()) {
+            sb
+                .append(", ")
+                .append(term.name().toLowerCase())
+                .append("=[terms=")
+                .append(getTerms(term))
+                .append(", repeated=")
+                .append(getRepeatedTerms(term))
+                .append(']');
+        }
+        return sb.append('}').toString();
+    }
+}
@@ -0,0 +1,90 @@
+package eu.neverblink.jelly.core.stats;
+
+import eu.neverblink.jelly.core.ExperimentalApi;
+
+/**
+ * Receiver of statistics from the hot path of {@link eu.neverblink.jelly.core.ProtoEncoder}.
+ * <p>
+ * Statistics collection is opt-in: pass an implementation of this interface to the encoder via
+ * {@link eu.neverblink.jelly.core.JellyConverterFactory#encoder(eu.neverblink.jelly.core.ProtoEncoder.Params, EncoderStats)}.
+ * If no stats receiver is set, the encoder does not collect anything.
+ * <p>
+ * The methods are called synchronously from the encoder's thread, so they must be very cheap.
+ * For a ready-to-use, dependency-free implementation, see {@link EncoderCounters}. If you want to
+ * export the statistics to a metrics system, it's recommended to periodically poll the counters,
+ * instead of implementing this interface directly.
+ */
+@ExperimentalApi
+public interface EncoderStats {
+    /**
+     * Lookup tables maintained by the encoder.
+     */
+    enum LookupTable {
+        PREFIX,
+        NAME,
+        DATATYPE,
+    }
+
+    /**
+     * Caches of already encoded nodes maintained by the encoder.
+     */
+    enum NodeCache {
+        /** Full IRIs split into prefix and name. */
+        IRI,
+        /** Datatype literals. */
+        DATATYPE_LITERAL,
+        /** Simple and language-tagged literals. */
+        OTHER_LITERAL,
+    }
+
+    /**
+     * Positions of terms in a statement.
+     */
+    enum Term {
+        SUBJECT,
+        PREDICATE,
+        OBJECT,
+        GRAPH,
+    }
+
+    /**
+     * Called when a lookup table already contained the requested entry.
+     * @param table the lookup table
+     */
+    void onLookupHit(LookupTable table);
+
+    /**
+     * Called when a new entry was added to a lookup table.
+     * @param table the lookup table
+     * @param evicted true if an older entry had to be evicted to make room for the new one
+     */
+    void onLookupMiss(LookupTable table, boolean evicted);
+
+    /**
+     * Called when a valid encoded node was found in a node cache.
+     * @param cache the node cache
+     */
+    void onNodeCacheHit(NodeCache cache);
+
+    /**
+     * Called when a node had to be (re-)encoded, because it was not in the node cache or
+     * the cached value was invalidated by a lookup eviction.
+     * @param cache the node cache
+     */
+    void onNodeCacheMiss(NodeCache cache);
+
+    /**
+     * Called for every term of an encoded statement (not for terms of quoted triples).
+     * @param term position of the term in the statement
+     * @param repeated true if the term was the same as in the previous statement and was
+     *                 therefore elided from the output
+     */
+    void onTerm(Term term, boolean repeated);
+
+    /**
+     * Called by writers when a frame of rows is written out.
+     * @param rows number of rows in the frame
+     * @param bytes serialized size of the frame in bytes
+     */
+    void onFrame(int rows, long bytes);
+}
@@ -0,0 +1,87 @@
+package eu.neverblink.jelly.core.stats;
+
+import eu.neverblink.jelly.core.ExperimentalApi;
+import eu.neverblink.jelly.core.proto.v1.RdfStreamRow;
+import java.util.function.Consumer;
+import jdk.jfr.EventType;
+
+/**
+ * Helper for parsers that measures frames as they are read and decoded, emitting
+ * {@link FrameDecodedEvent}s and reporting them to a {@link DecoderStats} receiver (if any).
+ * <p>
+ * Usage:
+ * <pre>{@code
+ * final var recorder = new FrameDecodeRecorder(decoder.getStats());
+ * final var buffer = RowBuffer.newSingle(recorder.countRows(decoder::ingestRow));
+ * recorder.begin();
+ * readStreamWithSize(input, factory, (frame, size) -> {
+ *     buffer.clear();
+ *     recorder.frameDecoded(size);
+ * });
+ * }</pre>
+ * <p>
+ * This class is not thread-safe.
+ */
+@ExperimentalApi
+public final class FrameDecodeRecorder {
+
+    private final DecoderStats stats;
+    // Rows are only counted if someone is going to look at the count
+    private final boolean countsRows;
+    private FrameDecodedEvent event;
+    private long startNanos;
+    private int rows = 0;
+
+    /**
+     * @param stats receiver of decoder statistics, or null to only emit JFR events
+     */
+    public FrameDecodeRecorder(DecoderStats stats) {
+        this.stats = stats;
+        this.countsRows = stats != null || EventType.getEventType(FrameDecodedEvent.class).isEnabled();
+    }
+
+    /**
+     * Wraps a row consumer (usually the decoder) to count the rows of each frame.
+     * <p>
+     * If there is no stats receiver and the JFR event was not enabled when the recorder was created,
+     * the consumer is returned as-is, so that the decoding path is not affected. The JFR events then
+     * report -1 rows.
+     *
+     * @param rowConsumer the consumer to wrap
+     * @return consumer that counts the rows and passes them on, or rowConsumer itself
+     */
+    public Consumer<RdfStreamRow> countRows(Consumer<RdfStreamRow> rowConsumer) {
+        if (!countsRows) {
+            return rowConsumer;
+        }
+        return row -> {
+            rows++;
+            rowConsumer.accept(row);
+        };
+    }
+
+    /**
+     * Marks the start of reading a frame.
+     */
+    public void begin() {
+        rows = countsRows ? 0 : -1;
+        event = new FrameDecodedEvent();
+        event.begin();
+        if (stats != null) {
+            startNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * Marks the end of decoding a frame and immediately starts measuring the next one.
+     * @param bytes serialized size of the frame in bytes, or 0 if unknown
+     */
+    public void frameDecoded(long bytes) {
+        event.end();
+        event.commitIfEnabled(rows, bytes);
+        if (stats != null) {
+            stats.onFrame(rows, bytes, System.nanoTime() - startNanos);
+        }
+        begin();
+    }
+}
@@ -0,0 +1,44 @@
+package eu.neverblink.jelly.core.stats;
+
+import eu.neverblink.jelly.core.ExperimentalApi;
+import jdk.jfr.*;
+
+/**
+ * JDK Flight Recorder event emitted by Jelly parsers when a stream frame is read and decoded.
+ * The duration of the event is the time spent reading and decoding the frame.
+ * <p>
+ * The event is disabled unless a JFR recording is running, in which case creating it costs
+ * next to nothing (the JIT removes the allocation).
+ *
+ * @see FrameEncodedEvent the equivalent for writers
+ */
+@ExperimentalApi
+@Name("eu.neverblink.jelly.FrameDecoded")
+@Label("Jelly Frame Decoded")
+@Description("A Jelly RDF stream frame was read and decoded")
+@Category({ "Jelly", "Decoding" })
+@StackTrace(false)
+public final class FrameDecodedEvent extends Event {
+
+    @Label("Rows")
+    @Description("Number of rows in the frame, or -1 if not counted")
+    public int rows;
+
+    @Label("Size")
+    @Description("Serialized size of the frame")
+    @DataAmount
+    public long bytes;
+
+    /**
+     * Fills in the event fields and commits it, if the event is enabled in the current recording.
+     * @param rows number of rows in the frame, or -1 if not counted
+     * @param bytes serialized size of the frame in bytes, or 0 if unknown
+     */
+    public void commitIfEnabled(int rows, long bytes) {
+        if (shouldCommit()) {
+            this.rows = rows;
+            this.bytes = bytes;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package eu.neverblink.jelly.core.stats;
+
+import eu.neverblink.jelly.core.ExperimentalApi;
+import jdk.jfr.*;
+
+/**
+ * JDK Flight Recorder event emitted by Jelly writers when a stream frame is serialized and written out.
+ * <p>
+ * The event is disabled unless a JFR recording is running, in which case creating it costs
+ * next to nothing (the JIT removes the allocation).
+ * <p>
+ * Usage in writers:
+ * <pre>{@code
+ * final var event = new FrameEncodedEvent();
+ * event.begin();
+ * frame.writeDelimitedTo(output);
+ * event.end();
+ * event.commitIfEnabled(rowCount, frame.getSerializedSize());
+ * }</pre>
+ */
+@ExperimentalApi
+@Name("eu.neverblink.jelly.FrameEncoded")
+@Label("Jelly Frame Encoded")
+@Description("A Jelly RDF stream frame was serialized and written out")
+@Category({ "Jelly", "Encoding" })
+@StackTrace(false)
+public final class FrameEncodedEvent extends Event {
+
+    @Label("Rows")
+    @Description("Number of rows in the frame")
+    public int rows;
+
+    @Label("Size")
+    @Description("Serialized size of the frame")
+    @DataAmount
+    public long bytes;
+
+    /**
+     * Fills in the event fields and commits it, if the event is enabled in the current recording.
+     * @param rows number of rows in the frame
+     * @param bytes serialized size of the frame in bytes
+     */
+    public void commitIfEnabled(int rows, long bytes) {
+        if (shouldCommit()) {
+            this.rows = rows;
+            this.bytes = bytes;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package eu.neverblink.jelly.core.utils;
+
+import eu.neverblink.jelly.core.ExperimentalApi;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Input stream that decodes base64 data from an underlying byte stream or character reader.
+ * <p>
+ * The encoded input is read in large blocks, and decoded directly into the array passed to
+ * {@link #read(byte[], int, int)}. When wrapped in a CodedInputStream (as done by the Jelly parsers), the data
+ * is decoded straight into the parser's buffer, without intermediate copies.
+ * <p>
+ * Both the standard and the URL-safe alphabets are accepted. Whitespace, line breaks, and other characters
+ * outside the alphabet are ignored. Padding is optional, and concatenated padded base64 strings are decoded
+ * as one stream.
+ */
+@ExperimentalApi
+public final class Base64DecodingInputStream extends InputStream {
+
+    private static final int DEFAULT_BLOCK_SIZE = 8192;
+
+    private static final byte IGNORED = -1;
+    private static final byte PADDING = -2;
+    private static final byte[] DECODE_TABLE = new byte[256];
+
+    static {
+        Arrays.fill(DECODE_TABLE, IGNORED);
+        final String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+        for (int i = 0; i < alphabet.length(); i++) {
+            DECODE_TABLE[alphabet.charAt(i)] = (byte) i;
+        }
+        // URL-safe alphabet
+        DECODE_TABLE['-'] = 62;
+        DECODE_TABLE['_'] = 63;
+        DECODE_TABLE['='] = PADDING;
+    }
+
+    private final InputStream in;
+    private final Reader reader;
+    private final byte[] inBuffer;
+    private final char[] charBuffer;
+    private int inPos = 0;
+    private int inLimit = 0;
+    private boolean inputDone = false;
+
+    // Accumulated 6-bit groups of the current quantum, and their count (0-3)
+    private int quantum = 0;
+    private int quantumSize = 0;
+
+    // Decoded bytes that did not fit in the caller's array
+    private final byte[] pending = new byte[3];
+    private int pendingPos = 0;
+    private int pendingLimit = 0;
+
+    // Buffer for single-byte reads
+    private final byte[] single = new byte[1];
+
+    /**
+     * @param in stream with base64-encoded data
+     */
+    public Base64DecodingInputStream(InputStream in) {
+        this(in, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * @param in stream with base64-encoded data
+     * @param blockSize number of bytes read from the underlying stream at once
+     */
+    public Base64DecodingInputStream(InputStream in, int blockSize) {
+        this.in = Objects.requireNonNull(in);
+        this.reader = null;
+        this.inBuffer = new byte[blockSize];
+        this.charBuffer = null;
+    }
+
+    /**
+     * @param reader reader with base64-encoded data
+     */
+    public Base64DecodingInputStream(Reader reader) {
+        this(reader, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * @param reader reader with base64-encoded data
+     * @param blockSize number of characters read from the underlying reader at once
+     */
+    public Base64DecodingInputStream(Reader reader, int blockSize) {
+        this.in = null;
+        this.reader = Objects.requireNonNull(reader);
+        this.inBuffer = new byte[blockSize];
+        this.charBuffer = new char[blockSize];
+    }
+
+    @Override
+    public int read() throws IOException {
+        final int n = read(single, 0, 1);
+        return n == -1 ? -1 : single[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, b.length);
+        if (len == 0) {
+            return 0;
+        }
+        int pos = off;
+        final int end = off + len;
+
+        // First, the bytes left over from the previous call
+        while (pendingPos < pendingLimit && pos < end) {
+            b[pos++] = pending[pendingPos++];
+        }
+
+        while (pos < end) {
+            if (inPos == inLimit) {
+                if (pos > off && !ready()) {
+                    // Return what we have instead of blocking on the underlying stream
+                    break;
+                }
+                if (!fill()) {
+                    pos = flushQuantum(b, pos, end);
+                    break;
+                }
+            }
+            final byte[] input = inBuffer;
+            int i = inPos;
+            final int limit = inLimit;
+            int q = quantum;
+            int qSize = quantumSize;
+            // Decode until the input block is exhausted or the output array is full
+            while (i < limit && pos < end) {
+                final byte v = DECODE_TABLE[input[i++] & 0xff];
+                if (v >= 0) {
+                    q = (q << 6) | v;
+                    if (++qSize == 4) {
+                        qSize = 0;
+                        if (end - pos >= 3) {
+                            b[pos] = (byte) (q >> 16);
+                            b[pos + 1] = (byte) (q >> 8);
+                            b[pos + 2] = (byte) q;
+                            pos += 3;
+                        } else {
+                            pending[0] = (byte) (q >> 16);
+                            pending[1] = (byte) (q >> 8);
+                            pending[2] = (byte) q;
+                            pendingPos = 0;
+                            pendingLimit = 3;
+                            while (pos < end) {
+                                b[pos++] = pending[pendingPos++];
+                            }
+                        }
+                        q = 0;
+                    }
+                } else if (v == PADDING && qSize > 0) {
+                    quantum = q;
+                    quantumSize = qSize;
+                    pos = flushQuantum(b, pos, end);
+                    q = 0;
+                    qSize = 0;
+                }
+            }
+            inPos = i;
+            quantum = q;
+            quantumSize = qSize;
+        }
+
+        final int read = pos - off;
+        return read == 0 ? -1 : read;
+    }
+
+    /**
+     * Writes out the bytes of an incomplete quantum, at the end of the data or before padding.
+     */
+    private int flushQuantum(byte[] b, int pos, int end) {
+        final int q = quantum;
+        final int count;
+        if (quantumSize == 2) {
+            pending[0] = (byte) (q >> 4);
+            count = 1;
+        } else if (quantumSize == 3) {
+            pending[0] = (byte) (q >> 10);
+            pending[1] = (byte) (q >> 2);
+            count = 2;
+        } else {
+            // 0 groups: nothing to write. 1 group: not enough bits for a byte, so it is dropped.
+            count = 0;
+        }
+        quantum = 0;
+        quantumSize = 0;
+        pendingPos = 0;
+        pendingLimit = count;
+        while (pendingPos < pendingLimit && pos < end) {
+            b[pos++] = pending[pendingPos++];
+        }
+        return pos;
+    }
+
+    /**
+     * @return true if the underlying input can be read without blocking (as far as we know)
+     */
+    private boolean ready() throws IOException {
+        if (inputDone) {
+            return true;
+        }
+        return reader != null ? reader.ready() : in.available() > 0;
+    }
+
+    /**
+     * Reads the next block of encoded input.
+     * @return false if the input is exhausted
+     */
+    private boolean fill() throws IOException {
+        if (inputDone) {
+            return false;
+        }
+        int n;
+        if (reader != null) {
+            n = reader.read(charBuffer, 0, charBuffer.length);
+            for (int i = 0; i < n; i++) {
+                final char c = charBuffer[i];
+                // Characters outside of Latin-1 can't be in the alphabet, map them to an ignored one
+                inBuffer[i] = c < 256 ? (byte) c : (byte) ' ';
+            }
+        } else {
+            n = in.read(inBuffer, 0, inBuffer.length);
+        }
+        if (n < 0) {
+            inputDone = true;
+            inPos = 0;
+            inLimit = 0;
+            return false;
+        }
+        inPos = 0;
+        inLimit = n;
+        return true;
+    }
+
+    @Override
+    public int available() {
+        return pendingLimit - pendingPos;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (reader != null) {
+            reader.close();
+        } else {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package eu.neverblink.jelly.core.utils;
+
+import eu.neverblink.jelly.core.ExperimentalApi;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Output stream that encodes the written data as base64 (standard alphabet, with padding, without line breaks)
+ * into an underlying byte stream or character writer.
+ * <p>
+ * Data written in large chunks (e.g., by a CodedOutputStream flushing its buffer) is encoded directly
+ * from the caller's array into an output block, which is passed to the underlying stream or writer when full.
+ * <p>
+ * {@link #flush()} writes out all complete 3-byte groups. The remaining 1-2 bytes are only written, with
+ * padding, by {@link #finish()} or {@link #close()}, because base64 can only be padded at the end.
+ */
+@ExperimentalApi
+public final class Base64EncodingOutputStream extends OutputStream {
+
+    private static final int DEFAULT_BLOCK_SIZE = 8192;
+
+    private static final byte[] ALPHABET =
+        "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".getBytes(StandardCharsets.US_ASCII);
+
+    private final OutputStream out;
+    private final Writer writer;
+    private final byte[] outBuffer;
+    private final char[] charBuffer;
+    private int outPos = 0;
+
+    // Bytes of an incomplete 3-byte group
+    private final byte[] remainder = new byte[2];
+    private int remainderSize = 0;
+    private boolean finished = false;
+
+    // Buffer for single-byte writes
+    private final byte[] single = new byte[1];
+
+    /**
+     * @param out stream to write the base64 characters to (as ASCII)
+     */
+    public Base64EncodingOutputStream(OutputStream out) {
+        this(out, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * @param out stream to write the base64 characters to (as ASCII)
+     * @param blockSize number of characters written to the underlying stream at once, at least 4
+     */
+    public Base64EncodingOutputStream(OutputStream out, int blockSize) {
+        this.out = Objects.requireNonNull(out);
+        this.writer = null;
+        this.outBuffer = new byte[checkBlockSize(blockSize)];
+        this.charBuffer = null;
+    }
+
+    /**
+     * @param writer writer to write the base64 characters to
+     */
+    public Base64EncodingOutputStream(Writer writer) {
+        this(writer, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * @param writer writer to write the base64 characters to
+     * @param blockSize number of characters written to the underlying writer at once, at least 4
+     */
+    public Base64EncodingOutputStream(Writer writer, int blockSize) {
+        this.out = null;
+        this.writer = Objects.requireNonNull(writer);
+        this.outBuffer = new byte[checkBlockSize(blockSize)];
+        this.charBuffer = new char[outBuffer.length];
+    }
+
+    private static int checkBlockSize(int blockSize) {
+        if (blockSize < 4) {
+            throw new IllegalArgumentException("Block size must be at least 4, got " + blockSize);
+        }
+        // Round down to whole 4-character groups
+        return blockSize & ~3;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        single[0] = (byte) b;
+        write(single, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, b.length);
+        if (finished) {
+            throw new IOException("The base64 stream was already finished");
+        }
+        int pos = off;
+        final int end = off + len;
+
+        // Complete the group left over from the previous call
+        if (remainderSize > 0) {
+            while (remainderSize < 2 && pos < end) {
+                remainder[remainderSize++] = b[pos++];
+            }
+            if (pos == end) {
+                return;
+            }
+            encodeGroup(remainder[0], remainder[1], b[pos++]);
+            remainderSize = 0;
+        }
+
+        // Whole groups, straight from the caller's array
+        final byte[] buffer = outBuffer;
+        while (end - pos >= 3) {
+            if (outPos == buffer.length) {
+                writeBlock();
+            }
+            final int groupsInBlock = (buffer.length - outPos) >> 2;
+            final int groupsInInput = (end - pos) / 3;
+            final int groups = Math.min(groupsInBlock, groupsInInput);
+            int o = outPos;
+            for (int g = 0; g < groups; g++) {
+                final int bits = ((b[pos] & 0xff) << 16) | ((b[pos + 1] & 0xff) << 8) | (b[pos + 2] & 0xff);
+                pos += 3;
+                buffer[o] = ALPHABET[bits >>> 18];
+                buffer[o + 1] = ALPHABET[(bits >>> 12) & 0x3f];
+                buffer[o + 2] = ALPHABET[(bits >>> 6) & 0x3f];
+                buffer[o + 3] = ALPHABET[bits & 0x3f];
+                o += 4;
+            }
+            outPos = o;
+        }
+
+        while (pos < end) {
+            remainder[remainderSize++] = b[pos++];
+        }
+    }
+
+    private void encodeGroup(byte b0, byte b1, byte b2) throws IOException {
+        if (outPos == outBuffer.length) {
+            writeBlock();
+        }
+        final int bits = ((b0 & 0xff) << 16) | ((b1 & 0xff) << 8) | (b2 & 0xff);
+        outBuffer[outPos] = ALPHABET[bits >>> 18];
+        outBuffer[outPos + 1] = ALPHABET[(bits >>> 12) & 0x3f];
+        outBuffer[outPos + 2] = ALPHABET[(bits >>> 6) & 0x3f];
+        outBuffer[outPos + 3] = ALPHABET[bits & 0x3f];
+        outPos += 4;
+    }
+
+    private void writeBlock() throws IOException {
+        if (outPos == 0) {
+            return;
+        }
+        if (writer != null) {
+            for (int i = 0; i < outPos; i++) {
+                charBuffer[i] = (char) outBuffer[i];
+            }
+            writer.write(charBuffer, 0, outPos);
+        } else {
+            out.write(outBuffer, 0, outPos);
+        }
+        outPos = 0;
+    }
+
+    /**
+     * Writes out all complete groups and flushes the underlying stream. An incomplete group at the end is kept
+     * until more data is written or the stream is finished.
+     */
+    @Override
+    public void flush() throws IOException {
+        writeBlock();
+        if (writer != null) {
+            writer.flush();
+        } else {
+            out.flush();
+        }
+    }
+
+    /**
+     * Writes out the remaining data, with padding, and flushes the underlying stream, without closing it.
+     * No more data can be written afterward.
+     */
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        if (remainderSize > 0) {
+            if (outPos == outBuffer.length) {
+                writeBlock();
+            }
+            final int bits = ((remainder[0] & 0xff) << 16) | (remainderSize == 2 ? (remainder[1] & 0xff) << 8 : 0);
+            outBuffer[outPos] = ALPHABET[bits >>> 18];
+            outBuffer[outPos + 1] = ALPHABET[(bits >>> 12) & 0x3f];
+            outBuffer[outPos + 2] = remainderSize == 2 ? ALPHABET[(bits >>> 6) & 0x3f] : (byte) '=';
+            outBuffer[outPos + 3] = '=';
+            outPos += 4;
+            remainderSize = 0;
+        }
+        finished = true;
+        flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        finish();
+        if (writer != null) {
+            writer.close();
+        } else {
+            out.close();
+        }
+    }
+}
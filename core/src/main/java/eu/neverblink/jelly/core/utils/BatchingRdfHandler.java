@@ -0,0 +1,136 @@
+package eu.neverblink.jelly.core.utils;
+
+import eu.neverblink.jelly.core.BatchRdfHandler;
+import eu.neverblink.jelly.core.ExperimentalApi;
+import eu.neverblink.jelly.core.RdfHandler;
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+/**
+ * RDF handler that collects statements from the decoder into reusable arrays and passes them in batches to
+ * a {@link BatchRdfHandler}.
+ * <p>
+ * A batch is passed on when it is full, when the kind of statements changes (triples to quads or back), before
+ * a namespace declaration, and when {@link #flush()} is called. Call flush() at the end of each frame to
+ * receive one batch per frame (with the batch size at least the frame size), and always at the end of the
+ * stream.
+ * <p>
+ * Triples within a graph of a GRAPHS stream are passed on as quads with that graph.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @param <TNode> type of RDF nodes in the library
+ */
+@ExperimentalApi
+public final class BatchingRdfHandler<TNode> implements RdfHandler.AnyRdfHandler<TNode> {
+
+    private final BatchRdfHandler<TNode> delegate;
+    private final TNode[] subjects;
+    private final TNode[] predicates;
+    private final TNode[] objects;
+    private final TNode[] graphs;
+    private int size = 0;
+    private boolean isQuadBatch = false;
+
+    // Graph of the current graph block in a GRAPHS stream, null outside of graph blocks
+    private TNode currentGraph = null;
+    private boolean inGraph = false;
+
+    /**
+     * Creates a new batching handler.
+     *
+     * @param delegate handler to which the batches are passed
+     * @param batchSize maximum number of statements in a batch, at least 1
+     * @param arrayFactory factory of arrays of nodes, e.g., {@code Node[]::new}
+     * @throws IllegalArgumentException if the batch size is less than 1
+     */
+    public BatchingRdfHandler(BatchRdfHandler<TNode> delegate, int batchSize, IntFunction<TNode[]> arrayFactory) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1, got " + batchSize);
+        }
+        this.delegate = delegate;
+        this.subjects = arrayFactory.apply(batchSize);
+        this.predicates = arrayFactory.apply(batchSize);
+        this.objects = arrayFactory.apply(batchSize);
+        this.graphs = arrayFactory.apply(batchSize);
+    }
+
+    @Override
+    public void handleTriple(TNode subject, TNode predicate, TNode object) {
+        if (inGraph) {
+            handleQuad(subject, predicate, object, currentGraph);
+            return;
+        }
+        if (isQuadBatch) {
+            flush();
+            isQuadBatch = false;
+        }
+        subjects[size] = subject;
+        predicates[size] = predicate;
+        objects[size] = object;
+        if (++size == subjects.length) {
+            flush();
+        }
+    }
+
+    @Override
+    public void handleQuad(TNode subject, TNode predicate, TNode object, TNode graph) {
+        if (!isQuadBatch) {
+            flush();
+            isQuadBatch = true;
+        }
+        subjects[size] = subject;
+        predicates[size] = predicate;
+        objects[size] = object;
+        graphs[size] = graph;
+        if (++size == subjects.length) {
+            flush();
+        }
+    }
+
+    @Override
+    public void handleGraphStart(TNode graph) {
+        currentGraph = graph;
+        inGraph = true;
+    }
+
+    @Override
+    public void handleGraphEnd() {
+        currentGraph = null;
+        inGraph = false;
+    }
+
+    @Override
+    public void handleNamespace(String prefix, TNode namespace) {
+        flush();
+        delegate.handleNamespace(prefix, namespace);
+    }
+
+    /**
+     * @return number of statements currently buffered
+     */
+    public int getBufferedCount() {
+        return size;
+    }
+
+    /**
+     * Passes the buffered statements (if any) to the delegate handler.
+     * Call this at the end of each frame and at the end of the stream.
+     */
+    public void flush() {
+        if (size == 0) {
+            return;
+        }
+        if (isQuadBatch) {
+            delegate.handleQuads(subjects, predicates, objects, graphs, size);
+            Arrays.fill(graphs, 0, size, null);
+        } else {
+            delegate.handleTriples(subjects, predicates, objects, size);
+        }
+        // Clear the references, so that the nodes can be garbage-collected
+        Arrays.fill(subjects, 0, size, null);
+        Arrays.fill(predicates, 0, size, null);
+        Arrays.fill(objects, 0, size, null);
+        size = 0;
+    }
+}
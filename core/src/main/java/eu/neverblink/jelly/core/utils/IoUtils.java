@@ -7,6 +7,7 @@ import eu.neverblink.protoc.java.runtime.MessageFactory;
 import eu.neverblink.protoc.java.runtime.ProtoMessage;
 import java.io.*;
 import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
 
 public final class IoUtils {
 
@@ -117,6 +118,25 @@ public final class IoUtils {
         InputStream inputStream,
         MessageFactory<TFrame> messageFactory,
         Consumer<TFrame> frameConsumer
+    ) throws IOException {
+        readStreamWithSize(inputStream, messageFactory, (frame, frameSize) -> frameConsumer.accept(frame));
+    }
+
+    /**
+     * Reads a stream of delimited protobuf messages (frames) from an input stream, like
+     * {@link #readStream(InputStream, MessageFactory, Consumer)}, but also passes the serialized size of
+     * each frame (without the delimiter) to the consumer. This is useful for collecting statistics.
+     *
+     * @param inputStream the input stream to read from
+     * @param messageFactory the factory to create new frames
+     * @param frameConsumer the consumer to handle each processed frame and its serialized size in bytes
+     * @param <TFrame> the type of the frame
+     * @throws IOException if an I/O error occurs
+     */
+    public static <TFrame extends ProtoMessage<TFrame>> void readStreamWithSize(
+        InputStream inputStream,
+        MessageFactory<TFrame> messageFactory,
+        ObjIntConsumer<TFrame> frameConsumer
     ) throws IOException {
         final var codedInput = CodedInputStream.newInstance(inputStream, DEFAULT_INPUT_STREAM_BUFFER_SIZE);
         while (!codedInput.isAtEnd()) {
@@ -132,7 +152,7 @@ public final class IoUtils {
             codedInput.resetSizeCounter();
             // Pop the limit to be able to read the next frame's size
             codedInput.popLimit(Integer.MAX_VALUE);
-            frameConsumer.accept(frame);
+            frameConsumer.accept(frame, frameSize);
         }
     }
 }
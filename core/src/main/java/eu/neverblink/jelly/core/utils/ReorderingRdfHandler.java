@@ -0,0 +1,188 @@
+package eu.neverblink.jelly.core.utils;
+
+import eu.neverblink.jelly.core.ExperimentalApi;
+import eu.neverblink.jelly.core.RdfHandler;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * RDF handler that buffers a window of statements and passes them on to the delegate handler
+ * (usually a ProtoEncoder), reordered so that statements with equal graph, subject, and predicate
+ * are next to each other.
+ * <p>
+ * The Jelly encoder elides a term if it's equal to the term in the same position in the previous
+ * statement. Clustering the statements in this way results in many more repeated terms, and thus
+ * smaller output, in exchange for some CPU time and memory for the window. This is only valid for
+ * streams where the order of statements does not matter: FLAT_TRIPLES, FLAT_QUADS, and the triples
+ * within a graph in a GRAPHS physical stream. For streams with grouped logical types (e.g., GRAPHS,
+ * DATASETS), call {@link #flush()} before ending each frame, so that statements are not moved
+ * between frames.
+ * <p>
+ * The order of the clusters follows the order in which their keys were first seen in the window,
+ * and the relative order of statements within a cluster is kept. Nodes are compared with
+ * equals/hashCode, the same as in the encoder.
+ * <p>
+ * Namespace declarations and graph boundaries (handleGraphStart/End) flush the window, so they are
+ * never reordered relative to statements. You must call {@link #flush()} at the end of the stream.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @param <TNode> type of RDF nodes in the library
+ */
+@ExperimentalApi
+public final class ReorderingRdfHandler<TNode> implements RdfHandler.AnyRdfHandler<TNode> {
+
+    /**
+     * Maximum supported window size. Ranks of nodes in the window are packed into a single long.
+     */
+    public static final int MAX_WINDOW_SIZE = 1 << 15;
+
+    private static final int RANK_BITS = 16;
+    private static final long RANK_MASK = (1L << RANK_BITS) - 1;
+
+    /**
+     * Marker stored in place of the graph node for triples.
+     */
+    private static final Object NO_GRAPH = new Object();
+
+    private final RdfHandler.AnyRdfHandler<TNode> delegate;
+    private final boolean clusterByGraph;
+    private final Object[] subjects;
+    private final Object[] predicates;
+    private final Object[] objects;
+    private final Object[] graphs;
+    private final long[] sortKeys;
+    private final HashMap<Object, Integer> ranks;
+    private int size = 0;
+
+    /**
+     * Creates a new reordering handler.
+     *
+     * @param delegate handler to which the reordered statements are passed
+     * @param windowSize number of statements to buffer, between 1 and {@link #MAX_WINDOW_SIZE}
+     * @param clusterByGraph if true, quads are clustered by graph first, then by subject and predicate.
+     *                       If false, the graph of quads is ignored when reordering.
+     * @throws IllegalArgumentException if the window size is out of range
+     */
+    public ReorderingRdfHandler(RdfHandler.AnyRdfHandler<TNode> delegate, int windowSize, boolean clusterByGraph) {
+        if (windowSize < 1 || windowSize > MAX_WINDOW_SIZE) {
+            throw new IllegalArgumentException(
+                "Window size must be between 1 and %d, got %d".formatted(MAX_WINDOW_SIZE, windowSize)
+            );
+        }
+        this.delegate = delegate;
+        this.clusterByGraph = clusterByGraph;
+        this.subjects = new Object[windowSize];
+        this.predicates = new Object[windowSize];
+        this.objects = new Object[windowSize];
+        this.graphs = new Object[windowSize];
+        this.sortKeys = new long[windowSize];
+        this.ranks = new HashMap<>(Math.min(windowSize, 1024) * 2);
+    }
+
+    /**
+     * Creates a new reordering handler that clusters quads by graph first.
+     *
+     * @param delegate handler to which the reordered statements are passed
+     * @param windowSize number of statements to buffer, between 1 and {@link #MAX_WINDOW_SIZE}
+     */
+    public ReorderingRdfHandler(RdfHandler.AnyRdfHandler<TNode> delegate, int windowSize) {
+        this(delegate, windowSize, true);
+    }
+
+    @Override
+    public void handleTriple(TNode subject, TNode predicate, TNode object) {
+        add(subject, predicate, object, NO_GRAPH);
+    }
+
+    @Override
+    public void handleQuad(TNode subject, TNode predicate, TNode object, TNode graph) {
+        add(subject, predicate, object, graph);
+    }
+
+    @Override
+    public void handleNamespace(String prefix, TNode namespace) {
+        flush();
+        delegate.handleNamespace(prefix, namespace);
+    }
+
+    @Override
+    public void handleGraphStart(TNode graph) {
+        flush();
+        delegate.handleGraphStart(graph);
+    }
+
+    @Override
+    public void handleGraphEnd() {
+        flush();
+        delegate.handleGraphEnd();
+    }
+
+    /**
+     * @return number of statements currently buffered in the window
+     */
+    public int getBufferedCount() {
+        return size;
+    }
+
+    private void add(Object subject, Object predicate, Object object, Object graph) {
+        subjects[size] = subject;
+        predicates[size] = predicate;
+        objects[size] = object;
+        graphs[size] = graph;
+        if (++size == subjects.length) {
+            flush();
+        }
+    }
+
+    /**
+     * Reorders the buffered statements and passes them to the delegate handler.
+     * Call this at the end of the stream, and (for grouped logical stream types) at the end of each frame.
+     */
+    @SuppressWarnings("unchecked")
+    public void flush() {
+        if (size == 0) {
+            return;
+        }
+        if (size > 1) {
+            // Rank = index of the first occurrence of the node in the window. Sorting by
+            // (graph rank, subject rank, predicate rank, index) clusters equal terms together,
+            // while keeping the first-seen order of the clusters and a stable order within them.
+            for (int i = 0; i < size; i++) {
+                sortKeys[i] = i;
+            }
+            if (clusterByGraph) {
+                addRanks(graphs, 3 * RANK_BITS);
+            }
+            addRanks(subjects, 2 * RANK_BITS);
+            addRanks(predicates, RANK_BITS);
+            Arrays.sort(sortKeys, 0, size);
+        } else {
+            sortKeys[0] = 0;
+        }
+
+        for (int i = 0; i < size; i++) {
+            final int ix = (int) (sortKeys[i] & RANK_MASK);
+            final Object graph = graphs[ix];
+            if (graph == NO_GRAPH) {
+                delegate.handleTriple((TNode) subjects[ix], (TNode) predicates[ix], (TNode) objects[ix]);
+            } else {
+                delegate.handleQuad((TNode) subjects[ix], (TNode) predicates[ix], (TNode) objects[ix], (TNode) graph);
+            }
+        }
+
+        Arrays.fill(subjects, 0, size, null);
+        Arrays.fill(predicates, 0, size, null);
+        Arrays.fill(objects, 0, size, null);
+        Arrays.fill(graphs, 0, size, null);
+        size = 0;
+    }
+
+    private void addRanks(Object[] nodes, int shift) {
+        for (int i = 0; i < size; i++) {
+            final Integer rank = ranks.putIfAbsent(nodes[i], i);
+            sortKeys[i] |= (long) (rank == null ? i : rank) << shift;
+        }
+        ranks.clear();
+    }
+}
@@ -91,6 +91,87 @@ class ProtoEncoderSpec extends AnyWordSpec, Matchers:
       assertSizesPrecomputed(observed)
     }
 
+    "encode triple statements in batches" in {
+      val buffer = RowBuffer.newLazyImmutable()
+      val options = JellyOptions.SMALL_GENERALIZED.clone
+        .setPhysicalType(PhysicalStreamType.TRIPLES)
+        .setVersion(JellyConstants.PROTO_VERSION_1_0_X)
+      val encoder = MockConverterFactory.encoder(Pep.of(options, false, buffer))
+
+      // Pad the arrays, to check that the offset is respected
+      val triples = Triples1.mrl
+      val subjects = (null +: triples.map(_.s) :+ null).toArray[Node]
+      val predicates = (null +: triples.map(_.p) :+ null).toArray[Node]
+      val objects = (null +: triples.map(_.o) :+ null).toArray[Node]
+      encoder.handleTriples(subjects, predicates, objects, 1, 0, Int.MaxValue) should be(0)
+      var done = 0
+      while done < triples.size do
+        // Stop after each row
+        done += encoder.handleTriples(subjects, predicates, objects, 1 + done, triples.size - done, 1)
+
+      val observed = buffer.getRows.asScala.toSeq
+      assertEncoded(observed, Triples1.encoded(options))
+      assertSizesPrecomputed(observed)
+    }
+
+    "encode quad statements in batches" in {
+      val buffer = RowBuffer.newLazyImmutable()
+      val options = JellyOptions.SMALL_GENERALIZED.clone
+        .setPhysicalType(PhysicalStreamType.QUADS)
+        .setVersion(JellyConstants.PROTO_VERSION_1_0_X)
+      val encoder = MockConverterFactory.encoder(Pep.of(options, false, buffer))
+
+      val quads = Quads1.mrl
+      encoder.handleQuads(
+        quads.map(_.s).toArray[Node],
+        quads.map(_.p).toArray[Node],
+        quads.map(_.o).toArray[Node],
+        quads.map(_.g).toArray[Node],
+        0,
+        quads.size,
+        Int.MaxValue,
+      ) should be(quads.size)
+
+      val observed = buffer.getRows.asScala.toSeq
+      assertEncoded(observed, Quads1.encoded(options))
+      assertSizesPrecomputed(observed)
+    }
+
+    "encode triple statements from an iterator in batches" in {
+      val buffer = RowBuffer.newLazyImmutable()
+      val options = JellyOptions.SMALL_GENERALIZED.clone
+        .setPhysicalType(PhysicalStreamType.TRIPLES)
+        .setVersion(JellyConstants.PROTO_VERSION_1_0_X)
+      val encoder = MockConverterFactory.encoder(Pep.of(options, false, buffer))
+      val extractor = new utils.TripleExtractor[Node, Triple] {
+        override def getTripleSubject(triple: Triple): Node = triple.s
+        override def getTriplePredicate(triple: Triple): Node = triple.p
+        override def getTripleObject(triple: Triple): Node = triple.o
+      }
+
+      val iterator = Triples1.mrl.iterator.asJava
+      encoder.handleTriples(iterator, extractor, 8) should be < Triples1.mrl.size
+      encoder.handleTriples(iterator, extractor, Int.MaxValue) should be > 0
+      iterator.hasNext should be(false)
+
+      val observed = buffer.getRows.asScala.toSeq
+      assertEncoded(observed, Triples1.encoded(options))
+    }
+
+    "not allow batches out of bounds of the term arrays" in {
+      val encoder = MockConverterFactory.encoder(
+        Pep.of(
+          JellyOptions.SMALL_GENERALIZED.clone.setPhysicalType(PhysicalStreamType.TRIPLES),
+          false,
+          RowBuffer.newLazyImmutable(),
+        ),
+      )
+      val terms = Array[Node](Iri("http://example.org/test"))
+      intercept[IndexOutOfBoundsException] {
+        encoder.handleTriples(terms, terms, terms, 0, 2, Int.MaxValue)
+      }
+    }
+
     "encode quad statements with an external buffer" in {
       val buffer = RowBuffer.newLazyImmutable()
       val options = JellyOptions.SMALL_GENERALIZED.clone
@@ -168,4 +168,49 @@ class NameDecoderSpec extends AnyWordSpec, Matchers:
         }
       }
     }
+
+    "given a split IRI factory" should {
+      def makeSplitDecoder(): NameDecoderImpl[String] =
+        NameDecoderImpl(
+          smallOptions.getMaxPrefixTableSize(),
+          smallOptions.getMaxNameTableSize(),
+          iri => f"full($iri)",
+          (prefix, name) => f"split($prefix|$name)",
+          null,
+        )
+
+      "pass the prefix and the name of IRIs with a prefix" in {
+        val dec = makeSplitDecoder()
+        dec.updatePrefixes(rdfPrefixEntry(0, "https://test.org/"))
+        dec.updateNames(rdfNameEntry(0, "Cake"))
+        dec.updateNames(rdfNameEntry(0, ""))
+        dec.decode(1, 1) should be("split(https://test.org/|Cake)")
+        dec.decode(0, 0) should be("split(https://test.org/|)")
+      }
+
+      "use the full IRI factory for IRIs without a prefix" in {
+        val dec = makeSplitDecoder()
+        dec.updateNames(rdfNameEntry(0, "https://test.org/Cake"))
+        dec.decode(0, 1) should be("full(https://test.org/Cake)")
+      }
+
+      "cache the IRI made from the prefix and the name" in {
+        var calls = 0
+        val dec = NameDecoderImpl[String](
+          8,
+          16,
+          identity,
+          (prefix, name) => { calls += 1; prefix + name },
+          null,
+        )
+        dec.updatePrefixes(rdfPrefixEntry(0, "https://test.org/"))
+        dec.updateNames(rdfNameEntry(0, "Cake"))
+        dec.decode(1, 1) should be("https://test.org/Cake")
+        dec.decode(1, 1) should be("https://test.org/Cake")
+        calls should be(1)
+        dec.updatePrefixes(rdfPrefixEntry(1, "https://test.org/2/"))
+        dec.decode(1, 1) should be("https://test.org/2/Cake")
+        calls should be(2)
+      }
+    }
   }
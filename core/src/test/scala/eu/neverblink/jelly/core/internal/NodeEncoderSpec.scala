@@ -254,6 +254,44 @@ class NodeEncoderSpec extends AnyWordSpec, Inspectors, Matchers:
           node.getDatatype should be(i + 4)
       }
 
+      "reuse the same datatype instance across many distinct literals" in {
+        val (encoder, entryBuffer) = getEncoder()
+        val dtInteger = "http://www.w3.org/2001/XMLSchema#integer"
+        for i <- 1 to 100 do
+          val node = encoder.makeDtLiteral(
+            Mrl.DtLiteral(s"$i", Mrl.Datatype(dtInteger)),
+            s"$i",
+            dtInteger,
+          )
+          node.getLex should be(s"$i")
+          node.getDatatype should be(1)
+
+        entryBuffer.size should be(1)
+        entryBuffer.head.getDatatype should be(rdfDatatypeEntry(0, dtInteger))
+      }
+
+      "re-add a datatype instance after it was evicted" in {
+        val (encoder, entryBuffer) = getEncoder()
+        val dt1 = "dt1"
+        encoder.makeDtLiteral(Mrl.DtLiteral("v0", Mrl.Datatype(dt1)), "v0", dt1)
+          .getDatatype should be(1)
+        // Evict dt1 by filling up the table with other datatypes
+        for i <- 2 to 9 do
+          encoder.makeDtLiteral(
+            Mrl.DtLiteral(s"v$i", Mrl.Datatype(s"dt$i")),
+            s"v$i",
+            s"dt$i",
+          )
+        // Use the same instance again, twice in a row
+        encoder.makeDtLiteral(Mrl.DtLiteral("v100", Mrl.Datatype(dt1)), "v100", dt1)
+          .getDatatype should be(2)
+        encoder.makeDtLiteral(Mrl.DtLiteral("v101", Mrl.Datatype(dt1)), "v101", dt1)
+          .getDatatype should be(2)
+
+        entryBuffer.size should be(10)
+        entryBuffer.last.getDatatype.getValue should be("dt1")
+      }
+
       "throw exception if datatype table size = 0" in {
         val encoder = NodeEncoderImpl[Mrl.Node](
           16, 16, 0, 16, 16, 16, null,
@@ -0,0 +1,148 @@
+package eu.neverblink.jelly.core.sparql
+
+import eu.neverblink.jelly.core.helpers.MockConverterFactory
+import eu.neverblink.jelly.core.helpers.Mrl.*
+import eu.neverblink.jelly.core.proto.v1.{PhysicalStreamType, RdfStreamFrame}
+import eu.neverblink.jelly.core.{JellyOptions, RdfProtoDeserializationError}
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+import java.io.{ByteArrayInputStream, ByteArrayOutputStream}
+import scala.jdk.CollectionConverters.*
+
+class JellyResultsSpec extends AnyWordSpec, Matchers:
+  private val variables = Seq("s", "name", "age")
+
+  private def iri(i: Int) = Iri(f"https://test.org/person/$i")
+
+  private val solutions: Seq[Array[Node]] = Seq(
+    Array(iri(1), SimpleLiteral("Alice"), DtLiteral("30", Datatype("xsd:int"))),
+    Array(iri(1), SimpleLiteral("Alicja"), DtLiteral("30", Datatype("xsd:int"))),
+    Array(iri(2), SimpleLiteral("Bob"), null),
+    Array(iri(2), SimpleLiteral("Bob"), null), // duplicate solution
+    Array(null, null, null),
+    Array(iri(3), LangLiteral("Carol", "en"), DtLiteral("30", Datatype("xsd:int"))),
+  )
+
+  private def write(
+      solutions: Seq[Array[Node]],
+      variables: Seq[String] = variables,
+      frameSize: Int = 256,
+  ): Array[Byte] =
+    val out = ByteArrayOutputStream()
+    val writer = JellyResultsWriter[Node](
+      MockConverterFactory,
+      JellyOptions.SMALL_STRICT,
+      frameSize,
+      variables.asJava,
+      out,
+    )
+    for s <- solutions do writer.writeSolution(s)
+    writer.getSolutionCount should be(solutions.size)
+    writer.finish()
+    out.toByteArray
+
+  private def read(bytes: Array[Byte]): JellyResultsReader[Node] =
+    JellyResultsReader[Node](
+      MockConverterFactory,
+      JellyOptions.DEFAULT_SUPPORTED_OPTIONS,
+      n => new Array[Node](n),
+      ByteArrayInputStream(bytes),
+    )
+
+  private def readFrames(bytes: Array[Byte]): Seq[RdfStreamFrame] =
+    val in = ByteArrayInputStream(bytes)
+    Iterator.continually(RdfStreamFrame.parseDelimitedFrom(in)).takeWhile(_ != null).toSeq
+
+  "JellyResultsWriter and JellyResultsReader" should {
+    "round-trip solutions with unbound and repeated values" in {
+      val reader = read(write(solutions))
+      reader.isBoolean should be(false)
+      reader.getVariables.asScala should be(variables)
+      reader.asScala.map(_.toSeq).toSeq should be(solutions.map(_.toSeq))
+    }
+
+    "round-trip values equal to the IRIs used as markers in the format" in {
+      val markers = Seq(
+        Array[Node](Iri(JellyResults.UNBOUND_IRI), null, Iri(JellyResults.SOLUTION_IRI)),
+        Array[Node](null, Iri(JellyResults.UNBOUND_IRI), Iri(JellyResults.VARIABLE_NAMESPACE + "s")),
+        Array[Node](Iri(JellyResults.UNBOUND_IRI), null, null),
+      )
+      read(write(markers)).asScala.map(_.toSeq).toSeq should be(markers.map(_.toSeq))
+    }
+
+    "round-trip solutions across many frames" in {
+      val many = (1 to 1000).map(i => Array[Node](iri(i % 10), SimpleLiteral(f"name ${i % 3}"), null))
+      val bytes = write(many, frameSize = 16)
+      readFrames(bytes).size should be > 10
+      read(bytes).asScala.map(_.toSeq).toSeq should be(many.map(_.toSeq))
+    }
+
+    "write a valid TRIPLES stream" in {
+      val frames = readFrames(write(solutions))
+      val options = frames.head.getRows.asScala.head.getOptions
+      options.getPhysicalType should be(PhysicalStreamType.TRIPLES)
+      frames.head.getMetadata.asScala.map(_.getKey) should contain(JellyResults.METADATA_VARIABLES)
+    }
+
+    "only write values that changed since the previous solution" in {
+      val repeated = Seq.fill(100)(solutions.head)
+      val triples = readFrames(write(repeated))
+        .flatMap(_.getRows.asScala)
+        .count(_.hasTriple)
+      // 3 values in the first solution + 1 solution marker for each of the other 99
+      triples should be(3 + 99)
+    }
+
+    "handle empty results" in {
+      val reader = read(write(Seq()))
+      reader.getVariables.asScala should be(variables)
+      reader.hasNext should be(false)
+    }
+
+    "handle results without variables" in {
+      val reader = read(write(Seq(Array(), Array()), variables = Seq()))
+      reader.getVariables.asScala should be(empty)
+      reader.asScala.size should be(2)
+    }
+
+    "round-trip boolean results" in {
+      for result <- Seq(true, false) do
+        val out = ByteArrayOutputStream()
+        JellyResultsWriter.writeBoolean(result, out)
+        val reader = read(out.toByteArray)
+        reader.isBoolean should be(true)
+        reader.getBoolean should be(result)
+        reader.hasNext should be(false)
+    }
+
+    "reject a solution with a wrong number of values" in {
+      val writer = JellyResultsWriter[Node](
+        MockConverterFactory,
+        JellyOptions.SMALL_STRICT,
+        256,
+        variables.asJava,
+        ByteArrayOutputStream(),
+      )
+      intercept[IllegalArgumentException] {
+        writer.writeSolution(Array(iri(1)))
+      }
+    }
+
+    "reject streams without the results header" in {
+      val out = ByteArrayOutputStream()
+      RdfStreamFrame.newInstance().writeDelimitedTo(out)
+      intercept[RdfProtoDeserializationError] {
+        read(out.toByteArray)
+      }.getMessage should include("Not a Jelly SPARQL results stream")
+      intercept[RdfProtoDeserializationError] {
+        read(Array())
+      }
+    }
+
+    "throw getBoolean on a solutions stream" in {
+      intercept[IllegalStateException] {
+        read(write(solutions)).getBoolean
+      }
+    }
+  }
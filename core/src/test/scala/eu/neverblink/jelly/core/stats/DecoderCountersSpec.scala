@@ -0,0 +1,131 @@
+package eu.neverblink.jelly.core.stats
+
+import eu.neverblink.jelly.core.helpers.{MockConverterFactory, ProtoCollector}
+import eu.neverblink.jelly.core.proto.v1.{PhysicalStreamType, RdfStreamRow}
+import eu.neverblink.jelly.core.stats.DecoderStats.*
+import eu.neverblink.jelly.core.{JellyOptions, ProtoTestCases}
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+class DecoderCountersSpec extends AnyWordSpec, Matchers:
+  private val triplesOptions =
+    JellyOptions.SMALL_GENERALIZED.clone.setPhysicalType(PhysicalStreamType.TRIPLES)
+
+  "DecoderCounters" should {
+    "start with all counters at zero" in {
+      val counters = DecoderCounters()
+      counters.getFrames should be(0)
+      counters.getRows should be(0)
+      counters.getNanos should be(0)
+      counters.getIriCacheHitRate.isNaN should be(true)
+      counters.getRowsPerSecond.isNaN should be(true)
+      for table <- LookupTable.values do counters.getLookupUpdates(table) should be(0)
+    }
+
+    "record frames in the latency histogram" in {
+      val counters = DecoderCounters()
+      counters.onFrame(10, 100, 0)
+      counters.onFrame(10, 200, 1000)
+      counters.onFrame(20, 300, 1_000_000_000)
+      counters.getFrames should be(3)
+      counters.getRows should be(40)
+      counters.getBytes should be(600)
+      counters.getNanos should be(1_000_001_000)
+      counters.getMaxFrameNanos should be(1_000_000_000)
+      counters.getRowsPerSecond should be(40 * 1e9 / 1_000_001_000)
+      val histogram = counters.getFrameLatencyHistogram
+      histogram.length should be(DecoderCounters.HISTOGRAM_BUCKETS)
+      histogram(0) should be(1)
+      histogram(9) should be(1)
+      histogram(29) should be(1)
+    }
+
+    "reset all counters" in {
+      val counters = DecoderCounters()
+      counters.onTerm(Term.OBJECT, true)
+      counters.onIriCacheHit()
+      counters.onLookupUpdate(LookupTable.NAME)
+      counters.onFrame(1, 100, 100)
+      counters.reset()
+      counters.getTerms(Term.OBJECT) should be(0)
+      counters.getIriCacheHits should be(0)
+      counters.getLookupUpdates(LookupTable.NAME) should be(0)
+      counters.getFrames should be(0)
+      counters.getFrameLatencyHistogram.sum should be(0)
+    }
+
+    "collect statistics from a ProtoDecoder" in {
+      val counters = DecoderCounters()
+      val decoder = MockConverterFactory.triplesDecoder(
+        ProtoCollector(),
+        JellyOptions.DEFAULT_SUPPORTED_OPTIONS,
+        counters,
+      )
+      decoder.getStats should be theSameInstanceAs counters
+      ProtoTestCases.Triples1.encoded(triplesOptions).foreach(decoder.ingestRow)
+
+      counters.getLookupUpdates(LookupTable.PREFIX) should be(3)
+      counters.getLookupUpdates(LookupTable.NAME) should be(5)
+      counters.getLookupUpdates(LookupTable.DATATYPE) should be(1)
+      counters.getIriCacheMisses should be(5)
+      counters.getIriCacheHits should be(3)
+      counters.getTerms(Term.SUBJECT) should be(4)
+      counters.getRepeatedTerms(Term.SUBJECT) should be(2)
+      counters.getTerms(Term.PREDICATE) should be(4)
+      counters.getRepeatedTerms(Term.PREDICATE) should be(2)
+      counters.getTerms(Term.OBJECT) should be(4)
+      counters.getRepeatedTerms(Term.OBJECT) should be(1)
+      counters.getTerms(Term.GRAPH) should be(0)
+    }
+
+    "collect statistics from an AnyStatementDecoder" in {
+      val counters = DecoderCounters()
+      val decoder = MockConverterFactory.anyStatementDecoder(
+        ProtoCollector(),
+        JellyOptions.DEFAULT_SUPPORTED_OPTIONS,
+        counters,
+      )
+      ProtoTestCases.Triples1.encoded(triplesOptions).foreach(decoder.ingestRow)
+
+      counters.getLookupUpdates(LookupTable.NAME) should be(5)
+      counters.getTerms(Term.SUBJECT) should be(4)
+    }
+  }
+
+  "FrameDecodeRecorder" should {
+    "count rows and report decoded frames" in {
+      val counters = DecoderCounters()
+      val decoder = MockConverterFactory.triplesDecoder(
+        ProtoCollector(),
+        JellyOptions.DEFAULT_SUPPORTED_OPTIONS,
+        counters,
+      )
+      val recorder = FrameDecodeRecorder(counters)
+      val consumer = recorder.countRows(decoder.ingestRow)
+      val rows: Seq[RdfStreamRow] = ProtoTestCases.Triples1.encoded(triplesOptions)
+
+      recorder.begin()
+      rows.foreach(consumer.accept)
+      recorder.frameDecoded(123)
+      recorder.frameDecoded(0)
+
+      counters.getFrames should be(2)
+      counters.getRows should be(rows.size)
+      counters.getBytes should be(123)
+      counters.getNanos should be >= 0L
+      counters.getTerms(Term.SUBJECT) should be(4)
+    }
+
+    "emit JFR events without a stats receiver" in {
+      val recorder = FrameDecodeRecorder(null)
+      recorder.begin()
+      recorder.countRows(_ => ()).accept(RdfStreamRow.newInstance())
+      recorder.frameDecoded(10)
+    }
+
+    "not wrap the row consumer without a stats receiver or a JFR recording" in {
+      val recorder = FrameDecodeRecorder(null)
+      val consumer: java.util.function.Consumer[RdfStreamRow] = _ => ()
+      recorder.countRows(consumer) should be theSameInstanceAs consumer
+    }
+  }
@@ -0,0 +1,105 @@
+package eu.neverblink.jelly.core.stats
+
+import eu.neverblink.jelly.core.helpers.MockConverterFactory
+import eu.neverblink.jelly.core.memory.RowBuffer
+import eu.neverblink.jelly.core.proto.v1.PhysicalStreamType
+import eu.neverblink.jelly.core.stats.EncoderStats.*
+import eu.neverblink.jelly.core.{JellyOptions, ProtoEncoder, ProtoTestCases}
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+class EncoderCountersSpec extends AnyWordSpec, Matchers:
+  "EncoderCounters" should {
+    "start with all counters at zero" in {
+      val counters = EncoderCounters()
+      counters.getFrames should be(0)
+      counters.getRows should be(0)
+      counters.getBytes should be(0)
+      for table <- LookupTable.values do
+        counters.getLookupHits(table) should be(0)
+        counters.getLookupHitRate(table).isNaN should be(true)
+      for cache <- NodeCache.values do counters.getNodeCacheHitRate(cache).isNaN should be(true)
+    }
+
+    "count lookup hits, misses and evictions" in {
+      val counters = EncoderCounters()
+      counters.onLookupHit(LookupTable.NAME)
+      counters.onLookupMiss(LookupTable.NAME, false)
+      counters.onLookupMiss(LookupTable.NAME, true)
+      counters.onLookupMiss(LookupTable.PREFIX, true)
+      counters.getLookupHits(LookupTable.NAME) should be(1)
+      counters.getLookupMisses(LookupTable.NAME) should be(2)
+      counters.getLookupEvictions(LookupTable.NAME) should be(1)
+      counters.getLookupEvictions(LookupTable.PREFIX) should be(1)
+      counters.getLookupMisses(LookupTable.DATATYPE) should be(0)
+      counters.getLookupHitRate(LookupTable.NAME) should be(1.0 / 3)
+    }
+
+    "record frames in the size histogram" in {
+      val counters = EncoderCounters()
+      counters.onFrame(10, 0)
+      counters.onFrame(10, 1000)
+      counters.onFrame(20, 1023)
+      counters.onFrame(30, 1024)
+      counters.getFrames should be(4)
+      counters.getRows should be(70)
+      counters.getBytes should be(3047)
+      counters.getMaxFrameBytes should be(1024)
+      val histogram = counters.getFrameSizeHistogram
+      histogram.length should be(EncoderCounters.HISTOGRAM_BUCKETS)
+      histogram(0) should be(1)
+      histogram(9) should be(2)
+      histogram(10) should be(1)
+    }
+
+    "reset all counters" in {
+      val counters = EncoderCounters()
+      counters.onTerm(Term.SUBJECT, true)
+      counters.onNodeCacheHit(NodeCache.IRI)
+      counters.onFrame(1, 100)
+      counters.reset()
+      counters.getTerms(Term.SUBJECT) should be(0)
+      counters.getNodeCacheHits(NodeCache.IRI) should be(0)
+      counters.getFrames should be(0)
+      counters.getFrameSizeHistogram.sum should be(0)
+    }
+
+    "collect statistics from a ProtoEncoder" in {
+      val counters = EncoderCounters()
+      val encoder = MockConverterFactory.encoder(
+        ProtoEncoder.Params.of(
+          JellyOptions.SMALL_GENERALIZED.clone.setPhysicalType(PhysicalStreamType.TRIPLES),
+          false,
+          RowBuffer.newLazyImmutable(),
+        ),
+        counters,
+      )
+      encoder.getStats should be theSameInstanceAs counters
+      for t <- ProtoTestCases.Triples1.mrl do encoder.handleTriple(t.s, t.p, t.o)
+
+      counters.getTerms(Term.SUBJECT) should be(4)
+      counters.getRepeatedTerms(Term.SUBJECT) should be(2)
+      counters.getTerms(Term.PREDICATE) should be(4)
+      counters.getRepeatedTerms(Term.PREDICATE) should be(2)
+      counters.getTerms(Term.OBJECT) should be(4)
+      counters.getRepeatedTerms(Term.OBJECT) should be(1)
+      counters.getTerms(Term.GRAPH) should be(0)
+      counters.getLookupMisses(LookupTable.DATATYPE) should be(1)
+      counters.getLookupEvictions(LookupTable.DATATYPE) should be(0)
+      counters.getNodeCacheMisses(NodeCache.DATATYPE_LITERAL) should be(1)
+      counters.getLookupMisses(LookupTable.PREFIX) should be(3)
+      counters.getLookupMisses(LookupTable.NAME) should be(5)
+    }
+
+    "not collect anything if no stats receiver is set" in {
+      val encoder = MockConverterFactory.encoder(
+        ProtoEncoder.Params.of(
+          JellyOptions.SMALL_GENERALIZED.clone.setPhysicalType(PhysicalStreamType.TRIPLES),
+          false,
+          RowBuffer.newLazyImmutable(),
+        ),
+      )
+      encoder.getStats should be(null)
+      for t <- ProtoTestCases.Triples1.mrl do encoder.handleTriple(t.s, t.p, t.o)
+    }
+  }
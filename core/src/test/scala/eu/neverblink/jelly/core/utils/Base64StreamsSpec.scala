@@ -0,0 +1,194 @@
+package eu.neverblink.jelly.core.utils
+
+import eu.neverblink.jelly.core.JellyOptions
+import eu.neverblink.jelly.core.ProtoTestCases.*
+import eu.neverblink.jelly.core.proto.v1.{PhysicalStreamType, RdfStreamFrame}
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+import java.io.*
+import java.nio.charset.StandardCharsets
+import java.util.Base64
+import scala.util.Random
+
+class Base64StreamsSpec extends AnyWordSpec, Matchers:
+  private val random = Random(123)
+  private val sizes = Seq(0, 1, 2, 3, 4, 5, 6, 7, 100, 1000, 8191, 8192, 8193, 30_000)
+
+  private def randomBytes(size: Int): Array[Byte] =
+    val bytes = new Array[Byte](size)
+    random.nextBytes(bytes)
+    bytes
+
+  /** Reads the whole stream, with reads of at most `chunk` bytes. */
+  private def readAll(in: InputStream, chunk: Int): Array[Byte] =
+    val out = ByteArrayOutputStream()
+    val buffer = new Array[Byte](chunk)
+    Iterator.continually(in.read(buffer)).takeWhile(_ != -1).foreach(out.write(buffer, 0, _))
+    out.toByteArray
+
+  private def decode(s: String, chunk: Int = 4096, blockSize: Int = 8192): Array[Byte] =
+    readAll(
+      Base64DecodingInputStream(ByteArrayInputStream(s.getBytes(StandardCharsets.US_ASCII)), blockSize),
+      chunk,
+    )
+
+  "Base64DecodingInputStream" should {
+    for size <- sizes do
+      s"decode $size bytes like java.util.Base64" in {
+        val bytes = randomBytes(size)
+        decode(Base64.getEncoder.encodeToString(bytes)) shouldBe bytes
+      }
+
+    for chunk <- Seq(1, 2, 3, 4, 7) do
+      s"decode into arrays of $chunk bytes" in {
+        val bytes = randomBytes(1000)
+        decode(Base64.getEncoder.encodeToString(bytes), chunk = chunk) shouldBe bytes
+      }
+
+    for blockSize <- Seq(1, 3, 5, 64) do
+      s"decode with input blocks of $blockSize bytes" in {
+        val bytes = randomBytes(1000)
+        decode(Base64.getEncoder.encodeToString(bytes), blockSize = blockSize) shouldBe bytes
+      }
+
+    "decode the URL-safe alphabet" in {
+      val bytes = randomBytes(1000)
+      decode(Base64.getUrlEncoder.encodeToString(bytes)) shouldBe bytes
+    }
+
+    "decode data without padding" in {
+      for size <- Seq(1, 2, 100, 101) do
+        val bytes = randomBytes(size)
+        decode(Base64.getEncoder.withoutPadding.encodeToString(bytes)) shouldBe bytes
+    }
+
+    "ignore line breaks and whitespace" in {
+      val bytes = randomBytes(5000)
+      decode(Base64.getMimeEncoder.encodeToString(bytes)) shouldBe bytes
+      decode(" " + Base64.getEncoder.encodeToString(bytes).grouped(5).mkString(" \t") + "\n") shouldBe bytes
+    }
+
+    "decode concatenated padded strings as one stream" in {
+      val parts = Seq(randomBytes(1), randomBytes(2), randomBytes(3), randomBytes(10))
+      decode(parts.map(Base64.getEncoder.encodeToString).mkString) shouldBe parts.flatten.toArray
+    }
+
+    "decode from a Reader" in {
+      val bytes = randomBytes(20_000)
+      val in = Base64DecodingInputStream(StringReader(Base64.getMimeEncoder.encodeToString(bytes)), 100)
+      readAll(in, 1000) shouldBe bytes
+    }
+
+    "return -1 at the end of the data, also for whitespace-only input" in {
+      Base64DecodingInputStream(ByteArrayInputStream(Array.emptyByteArray)).read() shouldBe -1
+      Base64DecodingInputStream(StringReader(" \r\n ")).read() shouldBe -1
+    }
+
+    "read single bytes" in {
+      val bytes = randomBytes(10)
+      val in = Base64DecodingInputStream(StringReader(Base64.getEncoder.encodeToString(bytes)))
+      (0 until 10).map(_ => in.read().toByte) shouldBe bytes.toSeq
+      in.read() shouldBe -1
+    }
+
+    "return the decoded bytes it has instead of blocking on the underlying stream" in {
+      val encoded = Base64.getEncoder.encode(randomBytes(30))
+      // Delivers the data in two parts, and reports nothing more as available in between
+      val in = new InputStream:
+        private var part = 0
+        override def read(): Int = throw UnsupportedOperationException()
+        override def read(b: Array[Byte], off: Int, len: Int): Int =
+          part += 1
+          part match
+            case 1 =>
+              System.arraycopy(encoded, 0, b, off, 20); 20
+            case 2 => fail("Should not block on the second part")
+            case _ => -1
+        override def available(): Int = 0
+      Base64DecodingInputStream(in).read(new Array[Byte](100)) shouldBe 15
+    }
+
+    "parse a Jelly stream" in {
+      val frame = Triples1.encodedFull(
+        JellyOptions.SMALL_STRICT.clone().setPhysicalType(PhysicalStreamType.TRIPLES),
+        100,
+      ).head
+      val out = ByteArrayOutputStream()
+      frame.writeDelimitedTo(out)
+      val encoded = Base64.getEncoder.encodeToString(out.toByteArray)
+      val parsed = RdfStreamFrame.parseDelimitedFrom(
+        Base64DecodingInputStream(ByteArrayInputStream(encoded.getBytes(StandardCharsets.US_ASCII))),
+      )
+      parsed shouldBe frame
+    }
+  }
+
+  "Base64EncodingOutputStream" should {
+    for size <- sizes do
+      s"encode $size bytes like java.util.Base64" in {
+        val bytes = randomBytes(size)
+        val out = ByteArrayOutputStream()
+        val encoder = Base64EncodingOutputStream(out)
+        encoder.write(bytes)
+        encoder.close()
+        out.toString(StandardCharsets.US_ASCII) shouldBe Base64.getEncoder.encodeToString(bytes)
+      }
+
+    for chunk <- Seq(1, 2, 3, 5, 7) do
+      s"encode data written in chunks of $chunk bytes" in {
+        val bytes = randomBytes(1000)
+        val out = StringWriter()
+        val encoder = Base64EncodingOutputStream(out, 16)
+        bytes.grouped(chunk).foreach(encoder.write)
+        encoder.finish()
+        out.toString shouldBe Base64.getEncoder.encodeToString(bytes)
+      }
+
+    "write single bytes" in {
+      val bytes = randomBytes(10)
+      val out = StringWriter()
+      val encoder = Base64EncodingOutputStream(out)
+      bytes.foreach(b => encoder.write(b))
+      encoder.finish()
+      out.toString shouldBe Base64.getEncoder.encodeToString(bytes)
+    }
+
+    "write out only complete groups on flush" in {
+      val out = StringWriter()
+      val encoder = Base64EncodingOutputStream(out)
+      encoder.write(Array[Byte](1, 2, 3, 4))
+      encoder.flush()
+      out.toString shouldBe Base64.getEncoder.encodeToString(Array[Byte](1, 2, 3))
+      encoder.write(Array[Byte](5))
+      encoder.finish()
+      out.toString shouldBe Base64.getEncoder.encodeToString(Array[Byte](1, 2, 3, 4, 5))
+    }
+
+    "not close the underlying writer on finish" in {
+      var closed = false
+      val out = new StringWriter:
+        override def close(): Unit = closed = true
+      val encoder = Base64EncodingOutputStream(out)
+      encoder.write(Array[Byte](1))
+      encoder.finish()
+      closed shouldBe false
+      an[IOException] should be thrownBy encoder.write(Array[Byte](2))
+      encoder.close()
+      closed shouldBe true
+    }
+
+    "reject a block size below 4" in {
+      an[IllegalArgumentException] should be thrownBy Base64EncodingOutputStream(ByteArrayOutputStream(), 3)
+    }
+
+    "round-trip with Base64DecodingInputStream" in {
+      for size <- sizes do
+        val bytes = randomBytes(size)
+        val out = StringWriter()
+        val encoder = Base64EncodingOutputStream(out)
+        encoder.write(bytes)
+        encoder.finish()
+        readAll(Base64DecodingInputStream(StringReader(out.toString)), 4096) shouldBe bytes
+    }
+  }
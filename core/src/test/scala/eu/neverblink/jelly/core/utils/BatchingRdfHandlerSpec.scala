@@ -0,0 +1,137 @@
+package eu.neverblink.jelly.core.utils
+
+import eu.neverblink.jelly.core.helpers.Mrl.*
+import eu.neverblink.jelly.core.helpers.{MockConverterFactory, ProtoCollector}
+import eu.neverblink.jelly.core.proto.v1.PhysicalStreamType
+import eu.neverblink.jelly.core.{BatchRdfHandler, JellyOptions, ProtoTestCases}
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+import scala.collection.mutable
+
+class BatchingRdfHandlerSpec extends AnyWordSpec, Matchers:
+  private val s1 = Iri("https://test.org/s1")
+  private val p1 = Iri("https://test.org/p1")
+  private val g1 = Iri("https://test.org/g1")
+
+  private def lit(i: Int) = SimpleLiteral(i.toString)
+
+  /** Records the batches as sequences of statements, copying them out of the reused arrays. */
+  private final class BatchCollector extends BatchRdfHandler[Node]:
+    val batches: mutable.ListBuffer[Seq[Statement]] = mutable.ListBuffer.empty
+    val events: mutable.ListBuffer[Any] = mutable.ListBuffer.empty
+
+    override def handleNamespace(prefix: String, namespace: Node): Unit =
+      events += ((prefix, namespace))
+
+    override def handleTriples(s: Array[Node], p: Array[Node], o: Array[Node], count: Int): Unit =
+      val batch = (0 until count).map(i => Triple(s(i), p(i), o(i)))
+      batches += batch
+      events += batch
+
+    override def handleQuads(
+        s: Array[Node],
+        p: Array[Node],
+        o: Array[Node],
+        g: Array[Node],
+        count: Int,
+    ): Unit =
+      val batch = (0 until count).map(i => Quad(s(i), p(i), o(i), g(i)))
+      batches += batch
+      events += batch
+
+  private def newHandler(collector: BatchCollector, batchSize: Int) =
+    BatchingRdfHandler[Node](collector, batchSize, n => new Array[Node](n))
+
+  "BatchingRdfHandler" should {
+    "reject invalid batch sizes" in {
+      intercept[IllegalArgumentException] {
+        newHandler(BatchCollector(), 0)
+      }
+    }
+
+    "pass triples in full batches and the rest on flush" in {
+      val collector = BatchCollector()
+      val handler = newHandler(collector, 2)
+      for i <- 1 to 5 do handler.handleTriple(s1, p1, lit(i))
+      collector.batches.map(_.size) should be(Seq(2, 2))
+      handler.getBufferedCount should be(1)
+      handler.flush()
+      handler.flush()
+      collector.batches.flatten.toSeq should be((1 to 5).map(i => Triple(s1, p1, lit(i))))
+    }
+
+    "start a new batch when the kind of statements changes" in {
+      val collector = BatchCollector()
+      val handler = newHandler(collector, 10)
+      handler.handleTriple(s1, p1, lit(1))
+      handler.handleQuad(s1, p1, lit(2), g1)
+      handler.handleQuad(s1, p1, lit(3), null)
+      handler.handleTriple(s1, p1, lit(4))
+      handler.flush()
+      collector.batches.toSeq should be(
+        Seq(
+          Seq(Triple(s1, p1, lit(1))),
+          Seq(Quad(s1, p1, lit(2), g1), Quad(s1, p1, lit(3), null)),
+          Seq(Triple(s1, p1, lit(4))),
+        ),
+      )
+    }
+
+    "pass triples in graphs as quads" in {
+      val collector = BatchCollector()
+      val handler = newHandler(collector, 10)
+      handler.handleGraphStart(g1)
+      handler.handleTriple(s1, p1, lit(1))
+      handler.handleGraphEnd()
+      handler.handleGraphStart(null)
+      handler.handleTriple(s1, p1, lit(2))
+      handler.handleGraphEnd()
+      handler.flush()
+      collector.batches.toSeq should be(
+        Seq(Seq(Quad(s1, p1, lit(1), g1), Quad(s1, p1, lit(2), null))),
+      )
+    }
+
+    "keep namespace declarations in order with the statements" in {
+      val collector = BatchCollector()
+      val handler = newHandler(collector, 10)
+      handler.handleTriple(s1, p1, lit(1))
+      handler.handleNamespace("ex", g1)
+      handler.handleTriple(s1, p1, lit(2))
+      handler.flush()
+      collector.events.toSeq should be(
+        Seq(Seq(Triple(s1, p1, lit(1))), ("ex", g1), Seq(Triple(s1, p1, lit(2)))),
+      )
+    }
+
+    "receive statements from a ProtoDecoder" in {
+      val collector = BatchCollector()
+      val handler = newHandler(collector, 3)
+      val decoder = MockConverterFactory.triplesDecoder(handler, JellyOptions.DEFAULT_SUPPORTED_OPTIONS)
+      ProtoTestCases.Triples1
+        .encoded(JellyOptions.SMALL_GENERALIZED.clone.setPhysicalType(PhysicalStreamType.TRIPLES))
+        .foreach(decoder.ingestRow)
+      handler.flush()
+      collector.batches.flatten.toSeq should be(ProtoTestCases.Triples1.mrl)
+    }
+  }
+
+  "BatchRdfHandler.perStatement" should {
+    "pass each statement of a batch to the handler" in {
+      val collector = ProtoCollector()
+      val handler = BatchRdfHandler.perStatement[Node](collector)
+      handler.handleNamespace("ex", g1)
+      handler.handleTriples(
+        Array[Node](s1, s1, null),
+        Array[Node](p1, p1, null),
+        Array[Node](lit(1), lit(2), null),
+        2,
+      )
+      handler.handleQuads(Array[Node](s1), Array[Node](p1), Array[Node](lit(3)), Array[Node](g1), 1)
+      collector.namespaces.toSeq should be(Seq(("ex", g1)))
+      collector.statements.toSeq should be(
+        Seq(Triple(s1, p1, lit(1)), Triple(s1, p1, lit(2)), Quad(s1, p1, lit(3), g1)),
+      )
+    }
+  }
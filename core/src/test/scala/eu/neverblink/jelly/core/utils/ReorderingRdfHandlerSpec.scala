@@ -0,0 +1,164 @@
+package eu.neverblink.jelly.core.utils
+
+import eu.neverblink.jelly.core.helpers.Mrl.*
+import eu.neverblink.jelly.core.helpers.{MockConverterFactory, ProtoCollector}
+import eu.neverblink.jelly.core.memory.RowBuffer
+import eu.neverblink.jelly.core.proto.v1.PhysicalStreamType
+import eu.neverblink.jelly.core.{JellyOptions, ProtoEncoder}
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+import scala.jdk.CollectionConverters.*
+
+class ReorderingRdfHandlerSpec extends AnyWordSpec, Matchers:
+  private val s1 = Iri("https://test.org/s1")
+  private val s2 = Iri("https://test.org/s2")
+  private val p1 = Iri("https://test.org/p1")
+  private val p2 = Iri("https://test.org/p2")
+  private val g1 = Iri("https://test.org/g1")
+  private val g2 = Iri("https://test.org/g2")
+
+  private def lit(i: Int) = SimpleLiteral(i.toString)
+
+  private val interleavedTriples = Seq(
+    Triple(s1, p1, lit(1)),
+    Triple(s2, p1, lit(2)),
+    Triple(s1, p2, lit(3)),
+    Triple(s2, p2, lit(4)),
+    Triple(s1, p1, lit(5)),
+    Triple(s2, p1, lit(6)),
+  )
+
+  "ReorderingRdfHandler" should {
+    "reject invalid window sizes" in {
+      intercept[IllegalArgumentException] {
+        ReorderingRdfHandler[Node](ProtoCollector(), 0)
+      }
+      intercept[IllegalArgumentException] {
+        ReorderingRdfHandler[Node](ProtoCollector(), ReorderingRdfHandler.MAX_WINDOW_SIZE + 1)
+      }
+    }
+
+    "cluster triples by subject and predicate, keeping the first-seen order" in {
+      val collector = ProtoCollector()
+      val handler = ReorderingRdfHandler[Node](collector, 100)
+      for t <- interleavedTriples do handler.handleTriple(t.s, t.p, t.o)
+      collector.statements should be(empty)
+      handler.getBufferedCount should be(6)
+      handler.flush()
+      handler.getBufferedCount should be(0)
+
+      collector.statements.toSeq should be(
+        Seq(
+          Triple(s1, p1, lit(1)),
+          Triple(s1, p1, lit(5)),
+          Triple(s1, p2, lit(3)),
+          Triple(s2, p1, lit(2)),
+          Triple(s2, p1, lit(6)),
+          Triple(s2, p2, lit(4)),
+        ),
+      )
+    }
+
+    "flush automatically when the window is full" in {
+      val collector = ProtoCollector()
+      val handler = ReorderingRdfHandler[Node](collector, 3)
+      for t <- interleavedTriples.take(4) do handler.handleTriple(t.s, t.p, t.o)
+      collector.statements.toSeq should be(
+        Seq(Triple(s1, p1, lit(1)), Triple(s1, p2, lit(3)), Triple(s2, p1, lit(2))),
+      )
+      handler.getBufferedCount should be(1)
+    }
+
+    "cluster quads by graph first" in {
+      val collector = ProtoCollector()
+      val handler = ReorderingRdfHandler[Node](collector, 100)
+      handler.handleQuad(s1, p1, lit(1), g1)
+      handler.handleQuad(s1, p1, lit(2), g2)
+      handler.handleQuad(s1, p1, lit(3), g1)
+      handler.handleQuad(s2, p1, lit(4), g2)
+      handler.flush()
+
+      collector.statements.toSeq should be(
+        Seq(
+          Quad(s1, p1, lit(1), g1),
+          Quad(s1, p1, lit(3), g1),
+          Quad(s1, p1, lit(2), g2),
+          Quad(s2, p1, lit(4), g2),
+        ),
+      )
+    }
+
+    "ignore the graph of quads if clusterByGraph is false" in {
+      val collector = ProtoCollector()
+      val handler = ReorderingRdfHandler[Node](collector, 100, false)
+      handler.handleQuad(s1, p1, lit(1), g1)
+      handler.handleQuad(s2, p1, lit(2), g1)
+      handler.handleQuad(s1, p1, lit(3), g2)
+      handler.flush()
+
+      collector.statements.toSeq should be(
+        Seq(
+          Quad(s1, p1, lit(1), g1),
+          Quad(s1, p1, lit(3), g2),
+          Quad(s2, p1, lit(2), g1),
+        ),
+      )
+    }
+
+    "support null graph nodes" in {
+      val collector = ProtoCollector()
+      val handler = ReorderingRdfHandler[Node](collector, 100)
+      handler.handleQuad(s1, p1, lit(1), null)
+      handler.handleQuad(s1, p1, lit(2), g1)
+      handler.handleQuad(s1, p1, lit(3), null)
+      handler.flush()
+
+      collector.statements.toSeq should be(
+        Seq(Quad(s1, p1, lit(1), null), Quad(s1, p1, lit(3), null), Quad(s1, p1, lit(2), g1)),
+      )
+    }
+
+    "not reorder statements across graph boundaries and namespace declarations" in {
+      val collector = ProtoCollector()
+      val handler = ReorderingRdfHandler[Node](collector, 100)
+      handler.handleGraphStart(g1)
+      handler.handleTriple(s1, p1, lit(1))
+      handler.handleTriple(s2, p1, lit(2))
+      handler.handleTriple(s1, p1, lit(3))
+      handler.handleGraphEnd()
+      handler.handleNamespace("ex", g2)
+      handler.handleGraphStart(g2)
+      handler.handleTriple(s2, p1, lit(4))
+      handler.handleGraphEnd()
+
+      collector.namespaces.toSeq should be(Seq(("ex", g2)))
+      collector.statements.toSeq should be(
+        Seq(
+          Graph(g1, Seq(Triple(s1, p1, lit(1)), Triple(s1, p1, lit(3)), Triple(s2, p1, lit(2)))),
+          Graph(g2, Seq(Triple(s2, p1, lit(4)))),
+        ),
+      )
+    }
+
+    "produce fewer rows with explicit terms when feeding an encoder" in {
+      def encode(reorder: Boolean): Int =
+        val buffer = RowBuffer.newLazyImmutable()
+        val encoder = MockConverterFactory.encoder(
+          ProtoEncoder.Params.of(
+            JellyOptions.SMALL_STRICT.clone.setPhysicalType(PhysicalStreamType.TRIPLES),
+            false,
+            buffer,
+          ),
+        )
+        val handler = if reorder then ReorderingRdfHandler[Node](encoder, 16) else encoder
+        for t <- interleavedTriples do handler.handleTriple(t.s, t.p, t.o)
+        if reorder then handler.asInstanceOf[ReorderingRdfHandler[Node]].flush()
+        buffer.getRows.asScala
+          .filter(_.hasTriple)
+          .map(r => Seq(r.getTriple.getSubject, r.getTriple.getPredicate).count(_ != null))
+          .sum
+
+      encode(reorder = true) should be < encode(reorder = false)
+    }
+  }
@@ -0,0 +1,99 @@
+package eu.neverblink.jelly.integration_tests.patch
+
+import eu.neverblink.jelly.convert.jena.patch.{JellyPatchOps, JenaChangesCollector}
+import eu.neverblink.jelly.core.proto.v1.patch.PatchStatementType
+import org.apache.jena.graph.NodeFactory
+import org.apache.jena.rdfpatch.changes.RDFChangesApply
+import org.apache.jena.rdfpatch.text.RDFPatchReaderText
+import org.apache.jena.sparql.core.{DatasetGraph, DatasetGraphFactory, Quad}
+import org.apache.jena.system.Txn
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+import java.io.FileInputStream
+import scala.jdk.CollectionConverters.*
+import scala.util.Using
+
+/** Tests for the batched patch applier, comparing it with Jena's RDFChangesApply.
+  */
+class JenaPatchApplierSpec extends AnyWordSpec, Matchers:
+  private def quads(dataset: DatasetGraph): Set[Quad] =
+    Txn.calculateRead(dataset, () => dataset.find().asScala.toSet)
+
+  private def iri(s: String) = NodeFactory.createURI("http://example.org/" + s)
+
+  "JenaPatchApplier" should {
+    // RDF-star is not supported by the Jena version used in the tests
+    for (name, files) <- TestCases.cases if !files.exists(_.getName.startsWith("rdf-star")) do
+      for batchSize <- Seq(1, 3, 8192) do
+        s"apply test case $name like RDFChangesApply (batch size $batchSize)" in {
+          val collector = JellyPatchOps.changesCollector(PatchStatementType.QUADS)
+          for file <- files do
+            Using.resource(FileInputStream(file)) { in => RDFPatchReaderText(in).apply(collector) }
+
+          val expected = DatasetGraphFactory.createTxnMem()
+          collector.replay(RDFChangesApply(expected), true)
+          val actual = DatasetGraphFactory.createTxnMem()
+          val applier = JellyPatchOps.batchedApplier(actual, batchSize)
+          collector.replay(applier, true)
+
+          quads(actual) should be(quads(expected))
+          actual.isInTransaction should be(false)
+        }
+
+    "discard the buffered changes of an aborted transaction" in {
+      val dataset = DatasetGraphFactory.createTxnMem()
+      val applier = JellyPatchOps.batchedApplier(dataset, 2)
+      applier.start()
+      applier.txnBegin()
+      applier.add(null, iri("s"), iri("p"), iri("o1"))
+      applier.txnCommit()
+      applier.txnBegin()
+      // The first two are written into the transaction (batch is full), the third one is buffered
+      applier.add(iri("g"), iri("s"), iri("p"), iri("o2"))
+      applier.add(iri("g"), iri("s"), iri("p"), iri("o3"))
+      applier.delete(null, iri("s"), iri("p"), iri("o1"))
+      applier.txnAbort()
+      applier.finish()
+
+      quads(dataset) should be(Set(Quad(Quad.defaultGraphIRI, iri("s"), iri("p"), iri("o1"))))
+      applier.getStatementsApplied should be(3)
+    }
+
+    "write changes outside of transactions in batches" in {
+      val dataset = DatasetGraphFactory.createTxnMem()
+      val applier = JellyPatchOps.batchedApplier(dataset, 10)
+      applier.start()
+      for i <- 1 to 25 do applier.add(null, iri("s"), iri("p"), iri(s"o$i"))
+      applier.delete(null, iri("s"), iri("p"), iri("o1"))
+      applier.getStatementsApplied should be(20)
+      applier.finish()
+
+      applier.getStatementsApplied should be(26)
+      quads(dataset).size should be(24)
+      dataset.isInTransaction should be(false)
+    }
+
+    "reject a non-positive batch size" in {
+      an[IllegalArgumentException] should be thrownBy
+        JellyPatchOps.batchedApplier(DatasetGraphFactory.createTxnMem(), 0)
+    }
+  }
+
+  "JenaChangesCollector" should {
+    "replay the changes in the same order as they were collected" in {
+      val collector: JenaChangesCollector = JellyPatchOps.changesCollector(PatchStatementType.QUADS)
+      val file = TestCases.cases.find(_._1 == "quads-all-features-rdf11").get._2.head
+      Using.resource(FileInputStream(file)) { in => RDFPatchReaderText(in).apply(collector) }
+      // Capacity of the columns is exceeded several times
+      for _ <- 1 to 20 do
+        Using.resource(FileInputStream(file)) { in => RDFPatchReaderText(in).apply(collector) }
+
+      val copy = JellyPatchOps.changesCollector(PatchStatementType.QUADS)
+      collector.replay(copy, false)
+      copy.size should be(collector.size)
+      copy.statementCount should be(collector.statementCount)
+      copy.getChanges should be(collector.getChanges)
+      collector.statementCount should be < collector.size
+    }
+  }
@@ -0,0 +1,142 @@
+package eu.neverblink.jelly.integration_tests.rdf
+
+import eu.neverblink.jelly.convert.jena.fuseki.JellyFusekiModule
+import eu.neverblink.jelly.convert.jena.riot.JellyLanguage
+import eu.neverblink.jelly.convert.jena.traits.JenaTest
+import eu.neverblink.jelly.core.JellyConstants
+import eu.neverblink.jelly.core.proto.v1.{PhysicalStreamType, RdfStreamFrame}
+import org.apache.jena.fuseki.main.FusekiServer
+import org.apache.jena.fuseki.main.sys.FusekiModules
+import org.apache.jena.graph.{Graph, NodeFactory, Triple}
+import org.apache.jena.riot.RDFParser
+import org.apache.jena.sparql.core.{DatasetGraph, DatasetGraphFactory}
+import org.apache.jena.sparql.graph.GraphFactory
+import org.scalatest.BeforeAndAfterAll
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+import java.io.ByteArrayInputStream
+import java.net.URI
+import java.net.URLEncoder
+import java.net.http.{HttpClient, HttpRequest, HttpResponse}
+import java.nio.charset.StandardCharsets
+import scala.compiletime.uninitialized
+
+/** Tests for the streaming Jelly endpoint of [[JellyFusekiModule]], on an embedded Fuseki server.
+  */
+class FusekiStreamingSpec extends AnyWordSpec, Matchers, BeforeAndAfterAll, JenaTest:
+  private val graphIri = "http://example.com/graph"
+
+  private def makeGraph(size: Int, prefix: String): Graph =
+    val graph = GraphFactory.createDefaultGraph()
+    for i <- 1 to size do
+      graph.add(
+        Triple.create(
+          NodeFactory.createURI(f"http://example.com/$prefix/s${i % 1000}"),
+          NodeFactory.createURI(f"http://example.com/p${i % 7}"),
+          NodeFactory.createLiteralString(f"$prefix-$i"),
+        ),
+      )
+    graph
+
+  private val dataset: DatasetGraph = DatasetGraphFactory.createTxnMem()
+  makeGraph(20_000, "default").find().forEachRemaining(dataset.getDefaultGraph.add)
+  makeGraph(5_000, "named").find().forEachRemaining(t =>
+    dataset.add(NodeFactory.createURI(graphIri), t.getSubject, t.getPredicate, t.getObject),
+  )
+
+  private var server: FusekiServer = uninitialized
+  private val client = HttpClient.newHttpClient()
+
+  override def beforeAll(): Unit =
+    server = FusekiServer.create()
+      .port(0)
+      .add("/ds", dataset)
+      .fusekiModules(FusekiModules.create(JellyFusekiModule()))
+      .build()
+      .start()
+
+  override def afterAll(): Unit =
+    if server != null then server.stop()
+
+  private def get(params: String): HttpResponse[Array[Byte]] =
+    val uri = URI.create(f"http://localhost:${server.getHttpPort}/ds/jelly$params")
+    client.send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.ofByteArray())
+
+  private def getOk(params: String): Array[Byte] =
+    val response = get(params)
+    response.statusCode() should be(200)
+    response.headers().firstValue("Content-Type").orElse("") should
+      startWith(JellyConstants.JELLY_CONTENT_TYPE)
+    response.body()
+
+  private def query(q: String): String =
+    "?query=" + URLEncoder.encode(q, StandardCharsets.UTF_8)
+
+  private def parseDataset(bytes: Array[Byte]): DatasetGraph =
+    val result = DatasetGraphFactory.create()
+    RDFParser.source(ByteArrayInputStream(bytes)).lang(JellyLanguage.JELLY).parse(result)
+    result
+
+  private def readFrames(bytes: Array[Byte]): Seq[RdfStreamFrame] =
+    val in = ByteArrayInputStream(bytes)
+    Iterator.continually(RdfStreamFrame.parseDelimitedFrom(in)).takeWhile(_ != null).toSeq
+
+  "JellyFusekiModule" should {
+    "stream the default graph in many frames" in {
+      val bytes = getOk("?default")
+      val frames = readFrames(bytes)
+      frames.size should be > 10
+      frames.head.getRows.iterator().next().getOptions.getPhysicalType should be(
+        PhysicalStreamType.TRIPLES,
+      )
+      parseDataset(bytes).getDefaultGraph.isIsomorphicWith(dataset.getDefaultGraph) should be(true)
+    }
+
+    "stream a named graph" in {
+      val bytes = getOk("?graph=" + URLEncoder.encode(graphIri, StandardCharsets.UTF_8))
+      val expected = dataset.getGraph(NodeFactory.createURI(graphIri))
+      parseDataset(bytes).getDefaultGraph.isIsomorphicWith(expected) should be(true)
+    }
+
+    "return 404 for a missing graph" in {
+      get("?graph=" + URLEncoder.encode("http://example.com/missing", StandardCharsets.UTF_8))
+        .statusCode() should be(404)
+    }
+
+    "stream the whole dataset as quads" in {
+      val result = parseDataset(getOk(""))
+      result.getDefaultGraph.size() should be(dataset.getDefaultGraph.size())
+      result.getGraph(NodeFactory.createURI(graphIri)).isIsomorphicWith(
+        dataset.getGraph(NodeFactory.createURI(graphIri)),
+      ) should be(true)
+    }
+
+    "stream CONSTRUCT results" in {
+      val bytes = getOk(query("CONSTRUCT WHERE { ?s ?p ?o }"))
+      readFrames(bytes).size should be > 10
+      parseDataset(bytes).getDefaultGraph.isIsomorphicWith(dataset.getDefaultGraph) should be(true)
+    }
+
+    "stream CONSTRUCT results with quad templates" in {
+      val result = parseDataset(
+        getOk(query("CONSTRUCT { GRAPH ?g { ?s ?p ?o } } WHERE { GRAPH ?g { ?s ?p ?o } }")),
+      )
+      result.getDefaultGraph.isEmpty should be(true)
+      result.getGraph(NodeFactory.createURI(graphIri)).size() should be(5_000)
+    }
+
+    "stream DESCRIBE results" in {
+      val result = parseDataset(getOk(query("DESCRIBE <http://example.com/default/s1>")))
+      result.getDefaultGraph.size() should be(20)
+    }
+
+    "reject SELECT queries and invalid queries" in {
+      get(query("SELECT * WHERE { ?s ?p ?o }")).statusCode() should be(400)
+      get(query("CONSTRUCT WHERE {")).statusCode() should be(400)
+    }
+
+    "reject conflicting parameters" in {
+      get(query("CONSTRUCT WHERE { ?s ?p ?o }") + "&default").statusCode() should be(400)
+    }
+  }
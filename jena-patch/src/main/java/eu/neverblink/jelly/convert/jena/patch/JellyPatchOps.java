@@ -5,6 +5,7 @@ import eu.neverblink.jelly.core.patch.PatchHandler;
 import eu.neverblink.jelly.core.proto.v1.patch.PatchStatementType;
 import org.apache.jena.graph.Node;
 import org.apache.jena.rdfpatch.RDFChanges;
+import org.apache.jena.sparql.core.DatasetGraph;
 
 /**
  * Jelly-based operations on RDFChanges streams and RDFPatch objects from Jena.
@@ -69,7 +70,8 @@ public final class JellyPatchOps {
     /**
      * Creates a Jena RDFChanges collector that can be used to collect changes and replay them later.
      * <p>
-     * This class collects changes in a list and allows them to be replayed to a destination RDFChanges instance.
+     * This class collects changes in a compact columnar buffer and allows them to be replayed to a destination
+     * RDFChanges instance.
      * It supports both triples and quads based on the specified PatchStatementType.
      * @param stType How to interpret the statements: TRIPLES or QUADS.
      * @return A Jena RDFChanges collector that can be used to collect changes and replay them later.
@@ -77,4 +79,31 @@ public final class JellyPatchOps {
     public static JenaChangesCollector changesCollector(PatchStatementType stType) {
         return new JenaChangesCollector(stType);
     }
+
+    /**
+     * Creates a Jena RDFChanges instance that applies the changes to a dataset in batches.
+     * <p>
+     * Consecutive additions and deletions are buffered and written to the dataset together, within the
+     * write transaction of the patch (if any), or otherwise in one write transaction per batch.
+     * See {@link JenaPatchApplier} for details.
+     *
+     * @param dataset The dataset to apply the changes to.
+     * @return A Jena RDFChanges instance that applies the changes to the dataset.
+     */
+    public static JenaPatchApplier batchedApplier(DatasetGraph dataset) {
+        return new JenaPatchApplier(dataset, JenaPatchApplier.DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Creates a Jena RDFChanges instance that applies the changes to a dataset in batches.
+     * <p>
+     * See {@link JenaPatchApplier} for details.
+     *
+     * @param dataset The dataset to apply the changes to.
+     * @param batchSize Maximum number of statements buffered before they are written to the dataset.
+     * @return A Jena RDFChanges instance that applies the changes to the dataset.
+     */
+    public static JenaPatchApplier batchedApplier(DatasetGraph dataset, int batchSize) {
+        return new JenaPatchApplier(dataset, batchSize);
+    }
 }
@@ -1,9 +1,9 @@
 package eu.neverblink.jelly.convert.jena.patch;
 
 import eu.neverblink.jelly.core.ExperimentalApi;
-import eu.neverblink.jelly.core.InternalApi;
 import eu.neverblink.jelly.core.proto.v1.patch.PatchStatementType;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import org.apache.jena.graph.Node;
 import org.apache.jena.rdfpatch.RDFChanges;
@@ -12,15 +12,40 @@ import org.apache.jena.sparql.core.Quad;
 /**
  * A collector for Jena RDFChanges operations that can be replayed later.
  * <p>
- * This class collects changes in a list and allows them to be replayed to a destination RDFChanges instance.
+ * The changes are stored in a columnar layout: one opcode byte per change, and the nodes of added and
+ * deleted statements in four parallel arrays. Only the (rare) headers and prefix changes are stored as
+ * objects. This keeps the memory footprint of long patch logs low and makes replaying them a tight loop.
+ * <p>
  * It supports both triples and quads based on the specified PatchStatementType.
  */
 @ExperimentalApi
 public final class JenaChangesCollector implements RDFChanges {
 
-    private final List<JenaChangesItem> items = new ArrayList<>();
+    private static final int INITIAL_CAPACITY = 64;
+
+    private static final byte OP_ADD = 0;
+    private static final byte OP_DELETE = 1;
+    private static final byte OP_TXN_BEGIN = 2;
+    private static final byte OP_TXN_COMMIT = 3;
+    private static final byte OP_TXN_ABORT = 4;
+    private static final byte OP_SEGMENT = 5;
+    // Header, AddPrefix, DeletePrefix – stored in the `others` list
+    private static final byte OP_OTHER = 6;
+
     private final PatchStatementType stType;
 
+    private byte[] ops = new byte[INITIAL_CAPACITY];
+    private int opCount = 0;
+
+    // Columns of added/deleted statements, in order of appearance
+    private Node[] graphs = new Node[INITIAL_CAPACITY];
+    private Node[] subjects = new Node[INITIAL_CAPACITY];
+    private Node[] predicates = new Node[INITIAL_CAPACITY];
+    private Node[] objects = new Node[INITIAL_CAPACITY];
+    private int statementCount = 0;
+
+    private final List<JenaChangesItem> others = new ArrayList<>();
+
     /**
      * Creates a new JenaChangesCollector with the specified statement type.
      *
@@ -31,10 +56,38 @@ public final class JenaChangesCollector implements RDFChanges {
     }
 
     /**
-     * Returns the number of changes collected.
-     * @return The size of the collected changes.
+     * Returns the collected changes as a list of items.
+     * <p>
+     * The list is created on each call from the columnar storage. To apply the changes somewhere, use
+     * {@link #replay(RDFChanges, boolean)} instead, which does not allocate.
+     *
+     * @return A new list with the collected changes.
      */
     public List<JenaChangesItem> getChanges() {
+        final List<JenaChangesItem> items = new ArrayList<>(opCount);
+        int statement = 0;
+        int other = 0;
+        for (int i = 0; i < opCount; i++) {
+            switch (ops[i]) {
+                case OP_ADD -> {
+                    items.add(
+                        new Add(graphs[statement], subjects[statement], predicates[statement], objects[statement])
+                    );
+                    statement++;
+                }
+                case OP_DELETE -> {
+                    items.add(
+                        new Delete(graphs[statement], subjects[statement], predicates[statement], objects[statement])
+                    );
+                    statement++;
+                }
+                case OP_TXN_BEGIN -> items.add(TxnBegin.INSTANCE);
+                case OP_TXN_COMMIT -> items.add(TxnCommit.INSTANCE);
+                case OP_TXN_ABORT -> items.add(TxnAbort.INSTANCE);
+                case OP_SEGMENT -> items.add(Segment.INSTANCE);
+                default -> items.add(others.get(other++));
+            }
+        }
         return items;
     }
 
@@ -43,7 +96,15 @@ public final class JenaChangesCollector implements RDFChanges {
      * @return The size of the collected changes.
      */
     public int size() {
-        return items.size();
+        return opCount;
+    }
+
+    /**
+     * Returns the number of added and deleted statements among the collected changes.
+     * @return The number of statements.
+     */
+    public int statementCount() {
+        return statementCount;
     }
 
     /**
@@ -53,55 +114,81 @@ public final class JenaChangesCollector implements RDFChanges {
      */
     public void replay(RDFChanges destination, boolean callStartFinish) {
         if (callStartFinish) destination.start();
-        for (JenaChangesItem item : items) {
-            item.applyTo(destination);
+        final byte[] ops = this.ops;
+        final Node[] graphs = this.graphs;
+        final Node[] subjects = this.subjects;
+        final Node[] predicates = this.predicates;
+        final Node[] objects = this.objects;
+        int statement = 0;
+        int other = 0;
+        for (int i = 0; i < opCount; i++) {
+            switch (ops[i]) {
+                case OP_ADD -> {
+                    destination.add(graphs[statement], subjects[statement], predicates[statement], objects[statement]);
+                    statement++;
+                }
+                case OP_DELETE -> {
+                    destination.delete(
+                        graphs[statement],
+                        subjects[statement],
+                        predicates[statement],
+                        objects[statement]
+                    );
+                    statement++;
+                }
+                case OP_TXN_BEGIN -> destination.txnBegin();
+                case OP_TXN_COMMIT -> destination.txnCommit();
+                case OP_TXN_ABORT -> destination.txnAbort();
+                case OP_SEGMENT -> destination.segment();
+                default -> others.get(other++).applyTo(destination);
+            }
         }
         if (callStartFinish) destination.finish();
     }
 
     @Override
     public void header(String field, Node value) {
-        items.add(new Header(field, value));
+        addOther(new Header(field, value));
     }
 
     @Override
     public void add(Node g, Node s, Node p, Node o) {
-        items.add(new Add(coerceGraph(g), s, p, o));
+        addStatement(OP_ADD, coerceGraph(g), s, p, o);
     }
 
     @Override
     public void delete(Node g, Node s, Node p, Node o) {
-        items.add(new Delete(coerceGraph(g), s, p, o));
+        addStatement(OP_DELETE, coerceGraph(g), s, p, o);
     }
 
     @Override
     public void addPrefix(Node gn, String prefix, String uriStr) {
-        items.add(new AddPrefix(coerceGraph(gn), prefix, uriStr));
+        addOther(new AddPrefix(coerceGraph(gn), prefix, uriStr));
     }
 
     @Override
     public void deletePrefix(Node gn, String prefix) {
-        items.add(new DeletePrefix(coerceGraph(gn), prefix));
+        addOther(new DeletePrefix(coerceGraph(gn), prefix));
     }
 
     @Override
     public void txnBegin() {
-        items.add(TxnBegin.INSTANCE);
+        addOp(OP_TXN_BEGIN);
     }
 
     @Override
     public void txnCommit() {
-        items.add(TxnCommit.INSTANCE);
+        addOp(OP_TXN_COMMIT);
     }
 
     @Override
     public void txnAbort() {
-        items.add(TxnAbort.INSTANCE);
+        addOp(OP_TXN_ABORT);
     }
 
     @Override
     public void segment() {
-        items.add(Segment.INSTANCE);
+        addOp(OP_SEGMENT);
     }
 
     @Override
@@ -110,6 +197,35 @@ public final class JenaChangesCollector implements RDFChanges {
     @Override
     public void finish() {}
 
+    private void addOp(byte op) {
+        if (opCount == ops.length) {
+            ops = Arrays.copyOf(ops, ops.length * 2);
+        }
+        ops[opCount++] = op;
+    }
+
+    private void addOther(JenaChangesItem item) {
+        others.add(item);
+        addOp(OP_OTHER);
+    }
+
+    private void addStatement(byte op, Node g, Node s, Node p, Node o) {
+        final int i = statementCount;
+        if (i == subjects.length) {
+            final int newCapacity = i * 2;
+            graphs = Arrays.copyOf(graphs, newCapacity);
+            subjects = Arrays.copyOf(subjects, newCapacity);
+            predicates = Arrays.copyOf(predicates, newCapacity);
+            objects = Arrays.copyOf(objects, newCapacity);
+        }
+        graphs[i] = g;
+        subjects[i] = s;
+        predicates[i] = p;
+        objects[i] = o;
+        statementCount = i + 1;
+        addOp(op);
+    }
+
     private Node coerceGraph(Node g) {
         if (g == null && stType == PatchStatementType.QUADS) {
             return Quad.defaultGraphNodeGenerated;
@@ -0,0 +1,212 @@
+package eu.neverblink.jelly.convert.jena.patch;
+
+import eu.neverblink.jelly.core.ExperimentalApi;
+import java.util.Arrays;
+import org.apache.jena.graph.Node;
+import org.apache.jena.query.TxnType;
+import org.apache.jena.rdfpatch.RDFChanges;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.system.Txn;
+
+/**
+ * Applies a stream of RDFChanges to a DatasetGraph, in batches.
+ * <p>
+ * This is a replacement for Jena's RDFChangesApply, meant for replaying long patch logs (e.g., into a
+ * TDB2 replica). Added and deleted statements are buffered in columnar arrays, and written to the dataset
+ * in one tight loop when the batch is full or the patch transaction ends:
+ * <ul>
+ *     <li>Within a patch transaction (TX ... TC), the dataset's write transaction is opened on TX, and the
+ *     batches are written into it. On TA, the buffered changes are simply discarded before aborting.</li>
+ *     <li>Outside of patch transactions, each batch is written in its own write transaction, instead of
+ *     every statement being auto-committed separately.</li>
+ * </ul>
+ * The order of additions and deletions is preserved. Prefix changes are applied to the dataset's
+ * prefix map (the graph name is ignored), and headers are ignored, same as in RDFChangesApply.
+ * <p>
+ * This class is not thread-safe.
+ */
+@ExperimentalApi
+public final class JenaPatchApplier implements RDFChanges {
+
+    /**
+     * Default maximum number of statements in a batch.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 8192;
+
+    private final DatasetGraph dataset;
+    private final int batchSize;
+
+    // Columns of the current batch
+    private final boolean[] deletes;
+    private final Node[] graphs;
+    private final Node[] subjects;
+    private final Node[] predicates;
+    private final Node[] objects;
+    private int size = 0;
+
+    // True if we opened a write transaction on the dataset for a patch transaction
+    private boolean inPatchTxn = false;
+    private long statementsApplied = 0;
+
+    /**
+     * Creates a new applier.
+     *
+     * @param dataset The dataset to apply the changes to.
+     * @param batchSize Maximum number of statements buffered before they are written to the dataset.
+     */
+    JenaPatchApplier(DatasetGraph dataset, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive, got " + batchSize);
+        }
+        this.dataset = dataset;
+        this.batchSize = batchSize;
+        this.deletes = new boolean[batchSize];
+        this.graphs = new Node[batchSize];
+        this.subjects = new Node[batchSize];
+        this.predicates = new Node[batchSize];
+        this.objects = new Node[batchSize];
+    }
+
+    /**
+     * Returns the number of added and deleted statements written to the dataset so far. Statements of aborted
+     * patch transactions that were discarded before being written are not counted.
+     * @return The number of statements.
+     */
+    public long getStatementsApplied() {
+        return statementsApplied;
+    }
+
+    @Override
+    public void add(Node g, Node s, Node p, Node o) {
+        buffer(false, g, s, p, o);
+    }
+
+    @Override
+    public void delete(Node g, Node s, Node p, Node o) {
+        buffer(true, g, s, p, o);
+    }
+
+    private void buffer(boolean delete, Node g, Node s, Node p, Node o) {
+        final int i = size;
+        deletes[i] = delete;
+        graphs[i] = g == null ? Quad.defaultGraphIRI : g;
+        subjects[i] = s;
+        predicates[i] = p;
+        objects[i] = o;
+        size = i + 1;
+        if (size == batchSize) {
+            flush();
+        }
+    }
+
+    @Override
+    public void addPrefix(Node gn, String prefix, String uriStr) {
+        // Keep the order of statements and prefix changes
+        flush();
+        inWriteTxn(() -> dataset.prefixes().add(prefix, uriStr));
+    }
+
+    @Override
+    public void deletePrefix(Node gn, String prefix) {
+        flush();
+        inWriteTxn(() -> dataset.prefixes().delete(prefix));
+    }
+
+    @Override
+    public void header(String field, Node value) {}
+
+    @Override
+    public void txnBegin() {
+        flush();
+        if (dataset.supportsTransactions() && !dataset.isInTransaction()) {
+            dataset.begin(TxnType.WRITE);
+            inPatchTxn = true;
+        }
+    }
+
+    @Override
+    public void txnCommit() {
+        flush();
+        if (inPatchTxn) {
+            inPatchTxn = false;
+            try {
+                dataset.commit();
+            } finally {
+                dataset.end();
+            }
+        }
+    }
+
+    @Override
+    public void txnAbort() {
+        if (inPatchTxn) {
+            // Nothing was written of the buffered changes yet, so they can be dropped
+            clear();
+            inPatchTxn = false;
+            try {
+                dataset.abort();
+            } finally {
+                dataset.end();
+            }
+        } else {
+            // The dataset can't roll back, so keep the semantics of RDFChangesApply and apply the changes
+            flush();
+        }
+    }
+
+    @Override
+    public void segment() {
+        flush();
+    }
+
+    @Override
+    public void start() {}
+
+    @Override
+    public void finish() {
+        flush();
+    }
+
+    /**
+     * Writes the buffered statements to the dataset. If no transaction is active, a write transaction is
+     * used for the whole batch.
+     */
+    public void flush() {
+        if (size == 0) {
+            return;
+        }
+        inWriteTxn(this::writeBatch);
+        clear();
+    }
+
+    private void writeBatch() {
+        final var dataset = this.dataset;
+        final int n = size;
+        for (int i = 0; i < n; i++) {
+            if (deletes[i]) {
+                dataset.delete(graphs[i], subjects[i], predicates[i], objects[i]);
+            } else {
+                dataset.add(graphs[i], subjects[i], predicates[i], objects[i]);
+            }
+        }
+        statementsApplied += n;
+    }
+
+    private void inWriteTxn(Runnable action) {
+        if (dataset.supportsTransactions() && !dataset.isInTransaction()) {
+            Txn.executeWrite(dataset, action);
+        } else {
+            action.run();
+        }
+    }
+
+    private void clear() {
+        // Release the references, so the nodes can be garbage-collected
+        Arrays.fill(graphs, 0, size, null);
+        Arrays.fill(subjects, 0, size, null);
+        Arrays.fill(predicates, 0, size, null);
+        Arrays.fill(objects, 0, size, null);
+        size = 0;
+    }
+}
@@ -2,16 +2,14 @@ package eu.neverblink.jelly.convert.jena.patch;
 
 import com.google.protobuf.CodedOutputStream;
 import eu.neverblink.jelly.core.ExperimentalApi;
-import eu.neverblink.jelly.core.memory.EncoderAllocator;
 import eu.neverblink.jelly.core.patch.JellyPatchOptions;
 import eu.neverblink.jelly.core.patch.PatchEncoder;
+import eu.neverblink.jelly.core.patch.memory.PatchEncoderAllocator;
+import eu.neverblink.jelly.core.patch.memory.PatchRowBuffer;
 import eu.neverblink.jelly.core.proto.v1.patch.PatchStatementType;
 import eu.neverblink.jelly.core.proto.v1.patch.PatchStreamType;
 import eu.neverblink.jelly.core.proto.v1.patch.RdfPatchFrame;
 import eu.neverblink.jelly.core.proto.v1.patch.RdfPatchOptions;
-import eu.neverblink.jelly.core.proto.v1.patch.RdfPatchRow;
-import eu.neverblink.protoc.java.runtime.ArrayListMessageCollection;
-import eu.neverblink.protoc.java.runtime.MessageCollection;
 import eu.neverblink.protoc.java.runtime.ProtobufUtil;
 import java.io.IOException;
 import java.io.OutputStream;
@@ -52,11 +50,9 @@ public final class RdfPatchWriterJelly implements RDFChanges {
     private final CodedOutputStream codedOutput;
 
     private final RdfPatchOptions patchOptions;
-    private final MessageCollection<RdfPatchRow, RdfPatchRow.Mutable> buffer = new ArrayListMessageCollection<>(
-        RdfPatchRow::newInstance
-    );
-    private final RdfPatchFrame reusableFrame = RdfPatchFrame.newInstance().setRows(buffer);
-    private final EncoderAllocator allocator;
+    private final PatchRowBuffer buffer;
+    private final RdfPatchFrame reusableFrame;
+    private final PatchEncoderAllocator allocator;
 
     private final RDFChanges delegate;
 
@@ -89,7 +85,10 @@ public final class RdfPatchWriterJelly implements RDFChanges {
 
         // Arena size depends on frame size (if PUNCTUATED) or is fixed at 1024 for other cases.
         int arenaSize = this.patchOptions.getStreamType() == PatchStreamType.PUNCTUATED ? options.frameSize + 8 : 1024;
-        this.allocator = EncoderAllocator.newArenaAllocator(arenaSize);
+        this.allocator = PatchEncoderAllocator.newArenaAllocator(arenaSize);
+        // The rows are reused for each frame, as they are serialized right away
+        this.buffer = PatchRowBuffer.newReusableForEncoder(arenaSize);
+        this.reusableFrame = RdfPatchFrame.newInstance().setRows(this.buffer);
         // We don't set any options here – it is the responsibility of the caller to set
         // a valid stream and statement type here.
         final var encoder = converterFactory.encoder(
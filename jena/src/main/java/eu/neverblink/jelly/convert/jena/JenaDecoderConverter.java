@@ -4,6 +4,7 @@ import eu.neverblink.jelly.core.ProtoDecoderConverter;
 import eu.neverblink.jelly.core.utils.QuadMaker;
 import eu.neverblink.jelly.core.utils.TripleMaker;
 import org.apache.jena.datatypes.RDFDatatype;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
 import org.apache.jena.graph.JenaCompatHelper;
 import org.apache.jena.graph.Node;
 import org.apache.jena.graph.NodeFactory;
@@ -14,6 +15,12 @@ public final class JenaDecoderConverter
     implements ProtoDecoderConverter<Node, RDFDatatype>, TripleMaker<Node, Triple>, QuadMaker<Node, Quad>
 {
 
+    private static final String XSD_INTEGER = "http://www.w3.org/2001/XMLSchema#integer";
+    private static final String XSD_DECIMAL = "http://www.w3.org/2001/XMLSchema#decimal";
+    private static final String XSD_DOUBLE = "http://www.w3.org/2001/XMLSchema#double";
+    private static final String XSD_DATE_TIME = "http://www.w3.org/2001/XMLSchema#dateTime";
+    private static final String XSD_BOOLEAN = "http://www.w3.org/2001/XMLSchema#boolean";
+
     @Override
     public Node makeSimpleLiteral(String lex) {
         return NodeFactory.createLiteralString(lex);
@@ -29,9 +36,26 @@ public final class JenaDecoderConverter
         return NodeFactory.createLiteralDT(lex, dt);
     }
 
+    /**
+     * Resolves the datatype IRI to a Jena datatype. The result is cached by the decoder in its
+     * datatype lookup table, so this is only called once per datatype table entry.
+     * <p>
+     * The most common XSD datatypes (numerics, booleans, and timestamps) are resolved directly
+     * to their singletons, without going through the TypeMapper.
+     *
+     * @param dt datatype IRI
+     * @return Jena datatype
+     */
     @Override
     public RDFDatatype makeDatatype(String dt) {
-        return NodeFactory.getType(dt);
+        return switch (dt) {
+            case XSD_INTEGER -> XSDDatatype.XSDinteger;
+            case XSD_DECIMAL -> XSDDatatype.XSDdecimal;
+            case XSD_DOUBLE -> XSDDatatype.XSDdouble;
+            case XSD_DATE_TIME -> XSDDatatype.XSDdateTime;
+            case XSD_BOOLEAN -> XSDDatatype.XSDboolean;
+            default -> NodeFactory.getType(dt);
+        };
     }
 
     @Override
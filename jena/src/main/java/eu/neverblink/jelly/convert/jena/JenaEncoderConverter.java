@@ -29,10 +29,13 @@ public final class JenaEncoderConverter
             if (lang.isEmpty()) {
                 // RDF 1.1 spec: language tag MUST be non-empty. So, this is a plain or datatype literal.
                 // We compare by reference, because the datatype is a singleton.
-                if (node.getLiteralDatatype() == XSDDatatype.XSDstring) {
+                final var dt = node.getLiteralDatatype();
+                if (dt == XSDDatatype.XSDstring) {
                     return encoder.makeSimpleLiteral(node.getLiteralLexicalForm());
                 } else {
-                    return encoder.makeDtLiteral(node, node.getLiteralLexicalForm(), node.getLiteralDatatypeURI());
+                    // Pass the URI string owned by the datatype singleton, so that the encoder can
+                    // recognize repeated datatypes by identity without a table lookup.
+                    return encoder.makeDtLiteral(node, node.getLiteralLexicalForm(), dt.getURI());
                 }
             } else {
                 return encoder.makeLangLiteral(node, node.getLiteralLexicalForm(), lang);
@@ -67,10 +70,13 @@ public final class JenaEncoderConverter
             if (lang.isEmpty()) {
                 // RDF 1.1 spec: language tag MUST be non-empty. So, this is a plain or datatype literal.
                 // We compare by reference, because the datatype is a singleton.
-                if (node.getLiteralDatatype() == XSDDatatype.XSDstring) {
+                final var dt = node.getLiteralDatatype();
+                if (dt == XSDDatatype.XSDstring) {
                     return encoder.makeSimpleLiteral(node.getLiteralLexicalForm());
                 } else {
-                    return encoder.makeDtLiteral(node, node.getLiteralLexicalForm(), node.getLiteralDatatypeURI());
+                    // Pass the URI string owned by the datatype singleton, so that the encoder can
+                    // recognize repeated datatypes by identity without a table lookup.
+                    return encoder.makeDtLiteral(node, node.getLiteralLexicalForm(), dt.getURI());
                 }
             } else {
                 return encoder.makeLangLiteral(node, node.getLiteralLexicalForm(), lang);
@@ -0,0 +1,78 @@
+package eu.neverblink.jelly.convert.jena.fuseki;
+
+import eu.neverblink.jelly.convert.jena.JenaConverterFactory;
+import eu.neverblink.jelly.convert.jena.riot.JellyFormatVariant;
+import eu.neverblink.jelly.core.ExperimentalApi;
+import java.util.Set;
+import org.apache.jena.fuseki.main.FusekiServer;
+import org.apache.jena.fuseki.main.sys.FusekiModule;
+import org.apache.jena.fuseki.server.Operation;
+import org.apache.jena.rdf.model.Model;
+
+/**
+ * Fuseki module that adds a streaming Jelly endpoint to every dataset of the server.
+ * See {@link JellyStreamingService} for the supported requests.
+ * <p>
+ * Fuseki modules are only supported by Fuseki Main (not all distributions of Fuseki), so this module is not
+ * registered automatically. Add it to the server builder, for example:
+ * <pre>{@code
+ * FusekiServer.create()
+ *     .add("/ds", dataset)
+ *     .fusekiModules(FusekiModules.create(new JellyFusekiModule()))
+ *     .build();
+ * }</pre>
+ * The dataset is then available as a Jelly stream at {@code /ds/jelly}.
+ */
+@ExperimentalApi
+public final class JellyFusekiModule implements FusekiModule {
+
+    public static final String DEFAULT_ENDPOINT_NAME = "jelly";
+
+    /**
+     * Default maximum time a statement may wait in the server before it is sent to the client.
+     */
+    public static final long DEFAULT_MAX_FRAME_LATENCY_MILLIS = 500;
+
+    public static final Operation OPERATION = Operation.alloc(
+        "https://neverblink.eu/jelly/fuseki#streaming",
+        "jelly-streaming",
+        "Jelly streaming of CONSTRUCT/DESCRIBE results and graphs"
+    );
+
+    private final String endpointName;
+    private final JellyStreamingService service;
+
+    /**
+     * Creates the module with the default endpoint name and the default format variant, with frames flushed
+     * to the client at most {@link #DEFAULT_MAX_FRAME_LATENCY_MILLIS} after their first statement.
+     */
+    public JellyFusekiModule() {
+        this(
+            DEFAULT_ENDPOINT_NAME,
+            JellyFormatVariant.builder().maxFrameLatencyMillis(DEFAULT_MAX_FRAME_LATENCY_MILLIS).build()
+        );
+    }
+
+    /**
+     * @param endpointName name of the endpoint added to each dataset
+     * @param formatVariant format variant used for the responses
+     */
+    public JellyFusekiModule(String endpointName, JellyFormatVariant formatVariant) {
+        this.endpointName = endpointName;
+        this.service = new JellyStreamingService(JenaConverterFactory.getInstance(), formatVariant);
+    }
+
+    @Override
+    public String name() {
+        return "Jelly streaming";
+    }
+
+    @Override
+    public void prepare(FusekiServer.Builder serverBuilder, Set<String> datasetNames, Model configModel) {
+        // No content type – the service must not receive POSTed Jelly data meant for the dataset
+        serverBuilder.registerOperation(OPERATION, service);
+        for (final var datasetName : datasetNames) {
+            serverBuilder.addEndpoint(datasetName, endpointName, OPERATION);
+        }
+    }
+}
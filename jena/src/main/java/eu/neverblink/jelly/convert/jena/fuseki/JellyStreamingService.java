@@ -0,0 +1,164 @@
+package eu.neverblink.jelly.convert.jena.fuseki;
+
+import static eu.neverblink.jelly.core.JellyConstants.JELLY_CONTENT_TYPE;
+
+import eu.neverblink.jelly.convert.jena.JenaConverterFactory;
+import eu.neverblink.jelly.convert.jena.riot.JellyFormatVariant;
+import eu.neverblink.jelly.convert.jena.riot.JellyStreamWriter;
+import eu.neverblink.jelly.core.ExperimentalApi;
+import eu.neverblink.jelly.core.proto.v1.PhysicalStreamType;
+import eu.neverblink.jelly.core.proto.v1.RdfStreamOptions;
+import java.io.IOException;
+import java.util.Iterator;
+import org.apache.jena.fuseki.servlets.ActionService;
+import org.apache.jena.fuseki.servlets.HttpAction;
+import org.apache.jena.fuseki.servlets.ServletOps;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryFactory;
+import org.apache.jena.query.QueryParseException;
+import org.apache.jena.query.Syntax;
+import org.apache.jena.riot.web.HttpNames;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.sparql.exec.QueryExec;
+
+/**
+ * Fuseki service that streams RDF data as Jelly, without materializing it in memory.
+ * <p>
+ * Fuseki's own SPARQL and Graph Store Protocol (GSP) endpoints collect CONSTRUCT and DESCRIBE results
+ * in a model before writing the response. This service instead passes the statements from the query
+ * engine (or the dataset) directly to a {@link JellyStreamWriter}, and flushes every frame to the
+ * servlet output stream, so that the response starts streaming immediately and uses constant memory.
+ * <p>
+ * Supported requests (GET or POST with form parameters):
+ * <ul>
+ *     <li>{@code query=...} – SPARQL CONSTRUCT or DESCRIBE query. CONSTRUCT queries with quad templates
+ *     produce a QUADS stream, the others a TRIPLES stream.</li>
+ *     <li>{@code default} – the default graph, as a TRIPLES stream (like GSP GET).</li>
+ *     <li>{@code graph=<iri>} – a named graph, as a TRIPLES stream (like GSP GET).</li>
+ *     <li>no parameters – the whole dataset, as a QUADS stream.</li>
+ * </ul>
+ * The data is read in a single read transaction. Register this service with {@link JellyFusekiModule}.
+ */
+@ExperimentalApi
+public final class JellyStreamingService extends ActionService {
+
+    private final JenaConverterFactory converterFactory;
+    private final JellyFormatVariant formatVariant;
+
+    /**
+     * @param converterFactory converter factory
+     * @param formatVariant format variant used for all responses. The physical stream type in its options
+     *                      is overridden for each request. Set the maximum frame latency to flush frames
+     *                      of slow queries to the client before they are full.
+     */
+    public JellyStreamingService(JenaConverterFactory converterFactory, JellyFormatVariant formatVariant) {
+        this.converterFactory = converterFactory;
+        this.formatVariant = formatVariant;
+    }
+
+    @Override
+    public void validate(HttpAction action) {
+        final var method = action.getRequest().getMethod();
+        if (!method.equals(HttpNames.METHOD_GET) && !method.equals(HttpNames.METHOD_POST)) {
+            ServletOps.errorMethodNotAllowed(method);
+        }
+        final var params = action.getRequest().getParameterMap();
+        final int selectors =
+            (params.containsKey(HttpNames.paramQuery) ? 1 : 0) +
+            (params.containsKey(HttpNames.paramGraph) ? 1 : 0) +
+            (params.containsKey(HttpNames.paramGraphDefault) ? 1 : 0);
+        if (selectors > 1) {
+            ServletOps.errorBadRequest("Only one of 'query', 'graph', and 'default' may be given");
+        }
+    }
+
+    @Override
+    public void execute(HttpAction action) {
+        final var request = action.getRequest();
+        final String queryString = request.getParameter(HttpNames.paramQuery);
+        final Query query = queryString == null ? null : parseQuery(queryString);
+
+        action.beginRead();
+        try {
+            final DatasetGraph dataset = action.getActiveDSG();
+            if (query != null) {
+                streamQuery(action, dataset, query);
+            } else if (request.getParameter(HttpNames.paramGraphDefault) != null) {
+                streamTriples(action, dataset.getDefaultGraph().find());
+            } else if (request.getParameter(HttpNames.paramGraph) != null) {
+                final Node graphNode = NodeFactory.createURI(request.getParameter(HttpNames.paramGraph));
+                if (!dataset.containsGraph(graphNode)) {
+                    ServletOps.errorNotFound("No such graph: " + graphNode.getURI());
+                }
+                streamTriples(action, dataset.getGraph(graphNode).find());
+            } else {
+                streamQuads(action, dataset.find());
+            }
+        } finally {
+            action.endRead();
+        }
+    }
+
+    private static Query parseQuery(String queryString) {
+        final Query query;
+        try {
+            query = QueryFactory.create(queryString, Syntax.syntaxARQ);
+        } catch (QueryParseException e) {
+            ServletOps.errorBadRequest("Parse error: " + e.getMessage());
+            return null;
+        }
+        if (!query.isConstructType() && !query.isDescribeType()) {
+            ServletOps.errorBadRequest("Only CONSTRUCT and DESCRIBE queries are supported");
+        }
+        return query;
+    }
+
+    private void streamQuery(HttpAction action, DatasetGraph dataset, Query query) {
+        try (var exec = QueryExec.dataset(dataset).query(query).build()) {
+            if (query.isConstructQuad()) {
+                streamQuads(action, exec.constructQuads());
+            } else if (query.isConstructType()) {
+                streamTriples(action, exec.constructTriples());
+            } else {
+                streamTriples(action, exec.describeTriples());
+            }
+        }
+    }
+
+    private void streamTriples(HttpAction action, Iterator<Triple> triples) {
+        final var writer = startResponse(action, PhysicalStreamType.TRIPLES);
+        while (triples.hasNext()) {
+            writer.triple(triples.next());
+        }
+        writer.finish();
+    }
+
+    private void streamQuads(HttpAction action, Iterator<Quad> quads) {
+        final var writer = startResponse(action, PhysicalStreamType.QUADS);
+        while (quads.hasNext()) {
+            writer.quad(quads.next());
+        }
+        writer.finish();
+    }
+
+    private JellyStreamWriter startResponse(HttpAction action, PhysicalStreamType physicalType) {
+        final RdfStreamOptions options = formatVariant.getOptions().clone().setPhysicalType(physicalType);
+        final var response = action.getResponse();
+        response.setStatus(200);
+        response.setContentType(JELLY_CONTENT_TYPE);
+        try {
+            return JellyStreamWriter.create(
+                converterFactory,
+                formatVariant.withOptions(options),
+                response.getOutputStream()
+            );
+        } catch (IOException e) {
+            ServletOps.errorOccurred(e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package eu.neverblink.jelly.convert.jena.load;
+
+import eu.neverblink.jelly.convert.jena.JenaConverterFactory;
+import eu.neverblink.jelly.core.ExperimentalApi;
+import eu.neverblink.jelly.core.JellyOptions;
+import eu.neverblink.jelly.core.RdfHandler;
+import eu.neverblink.jelly.core.proto.v1.RdfStreamFrame;
+import eu.neverblink.jelly.core.proto.v1.RdfStreamOptions;
+import eu.neverblink.jelly.core.utils.IoUtils;
+import eu.neverblink.protoc.java.runtime.ProtoMessage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.jena.graph.Node;
+import org.apache.jena.riot.RiotException;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.system.Txn;
+
+/**
+ * Bulk loader for Jelly RDF data into a Jena DatasetGraph (e.g., an in-memory or TDB2 dataset).
+ * <p>
+ * Compared to reading the data with RIOT (RDFDataMgr, riot CLI), which parses, decodes, and inserts
+ * statement-by-statement on one thread, the loader runs a three-stage pipeline:
+ * <ol>
+ *     <li>a parser thread reads the delimited frames from the input stream,</li>
+ *     <li>a decoder thread decodes the frames into batches of Node tuples,</li>
+ *     <li>the calling thread inserts the batches into the dataset, within a single write transaction.</li>
+ * </ol>
+ * Decoding itself cannot be split across more threads, because each frame depends on the lookup state left
+ * by the previous frames.
+ * <p>
+ * Triples are loaded into the default graph. Namespace declarations are added to the dataset's prefixes.
+ * <p>
+ * Instances are immutable and can be reused, also concurrently.
+ */
+@ExperimentalApi
+public final class JellyBulkLoader {
+
+    public static final int DEFAULT_BATCH_SIZE = 8192;
+    public static final int DEFAULT_QUEUE_CAPACITY = 8;
+
+    // End-of-stream marker for the queues between the stages
+    private static final Object END = new Object();
+
+    private final JenaConverterFactory converterFactory;
+    private final RdfStreamOptions supportedOptions;
+    private final int batchSize;
+    private final int queueCapacity;
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+
+        private JenaConverterFactory converterFactory = JenaConverterFactory.getInstance();
+        private RdfStreamOptions supportedOptions = JellyOptions.DEFAULT_SUPPORTED_OPTIONS;
+        private int batchSize = DEFAULT_BATCH_SIZE;
+        private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+
+        private Builder() {}
+
+        /**
+         * Set the converter factory used to decode the data.
+         * @param converterFactory converter factory
+         * @return this
+         */
+        public Builder converterFactory(JenaConverterFactory converterFactory) {
+            this.converterFactory = converterFactory;
+            return this;
+        }
+
+        /**
+         * Set the maximum supported options of the input stream.
+         * @param supportedOptions supported options
+         * @return this
+         */
+        public Builder supportedOptions(RdfStreamOptions supportedOptions) {
+            this.supportedOptions = supportedOptions;
+            return this;
+        }
+
+        /**
+         * Set the number of statements passed to the dataset in one batch.
+         * @param batchSize number of statements, at least 1
+         * @return this
+         */
+        public Builder batchSize(int batchSize) {
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of frames and batches buffered between the stages of the pipeline.
+         * @param queueCapacity capacity of the queues, at least 1
+         * @return this
+         */
+        public Builder queueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        public JellyBulkLoader build() {
+            return new JellyBulkLoader(converterFactory, supportedOptions, batchSize, queueCapacity);
+        }
+    }
+
+    private JellyBulkLoader(
+        JenaConverterFactory converterFactory,
+        RdfStreamOptions supportedOptions,
+        int batchSize,
+        int queueCapacity
+    ) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1, got " + batchSize);
+        }
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Queue capacity must be at least 1, got " + queueCapacity);
+        }
+        this.converterFactory = converterFactory;
+        this.supportedOptions = supportedOptions;
+        this.batchSize = batchSize;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Batch of decoded statements. Statement i is stored as (subject, predicate, object, graph) at
+     * index 4 * i in the nodes array. The graph is null for triples.
+     */
+    private static final class Batch {
+
+        final Node[] nodes;
+        int size = 0;
+        final List<String> prefixes = new ArrayList<>();
+        final List<Node> namespaces = new ArrayList<>();
+
+        Batch(int batchSize) {
+            this.nodes = new Node[batchSize * 4];
+        }
+
+        boolean isFull() {
+            return size * 4 == nodes.length;
+        }
+
+        boolean isEmpty() {
+            return size == 0 && prefixes.isEmpty();
+        }
+
+        void add(Node subject, Node predicate, Node object, Node graph) {
+            final int i = size++ * 4;
+            nodes[i] = subject;
+            nodes[i + 1] = predicate;
+            nodes[i + 2] = object;
+            nodes[i + 3] = graph;
+        }
+    }
+
+    /**
+     * Loads Jelly data (delimited or not) from the input stream into the dataset.
+     * <p>
+     * If the dataset supports transactions and the calling thread is not in a transaction, all data is
+     * loaded in a single write transaction, which is aborted if loading fails. If the calling thread is already
+     * in a write transaction, it is used as-is.
+     *
+     * @param in input stream with Jelly data. It is not closed by this method.
+     * @param dataset dataset to load the data into
+     * @return number of loaded statements
+     * @throws RiotException if the data could not be read or decoded
+     */
+    public long load(InputStream in, DatasetGraph dataset) {
+        if (dataset.supportsTransactions() && !dataset.isInTransaction()) {
+            return Txn.calculateWrite(dataset, () -> loadInternal(in, dataset));
+        }
+        return loadInternal(in, dataset);
+    }
+
+    private long loadInternal(InputStream in, DatasetGraph dataset) {
+        final BlockingQueue<Object> frames = new ArrayBlockingQueue<>(queueCapacity);
+        final BlockingQueue<Object> batches = new ArrayBlockingQueue<>(queueCapacity);
+        final ExecutorService executor = Executors.newFixedThreadPool(2, runnable -> {
+            final var thread = new Thread(runnable, "jelly-bulk-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            final Future<?> parsing = executor.submit(() -> {
+                try {
+                    parseFrames(in, frames);
+                } finally {
+                    frames.put(END);
+                }
+                return null;
+            });
+            final Future<?> decoding = executor.submit(() -> {
+                try {
+                    decodeFrames(frames, batches);
+                } finally {
+                    batches.put(END);
+                }
+                return null;
+            });
+
+            long count = 0;
+            while (true) {
+                final Object next = batches.take();
+                if (next == END) {
+                    break;
+                }
+                count += insertBatch((Batch) next, dataset);
+            }
+            // Rethrow the errors from the other stages, if any. Check the decoder first: if it failed, the parser
+            // may be blocked on a full queue, and will only be stopped by shutdownNow().
+            decoding.get();
+            parsing.get();
+            return count;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RiotException riotException) {
+                throw riotException;
+            }
+            throw new RiotException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RiotException(e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void parseFrames(InputStream in, BlockingQueue<Object> frames) throws IOException {
+        final var delimitingResponse = IoUtils.autodetectDelimiting(in);
+        if (delimitingResponse.isDelimited()) {
+            IoUtils.readStream(delimitingResponse.newInput(), RdfStreamFrame::newInstance, frame -> put(frames, frame));
+        } else {
+            // Non-delimited Jelly file, only one frame
+            put(frames, ProtoMessage.parseFrom(delimitingResponse.newInput(), RdfStreamFrame::newInstance));
+        }
+    }
+
+    private void decodeFrames(BlockingQueue<Object> frames, BlockingQueue<Object> batches)
+        throws InterruptedException {
+        final var handler = new RdfHandler.AnyStatementHandler<Node>() {
+            Batch batch = new Batch(batchSize);
+
+            @Override
+            public void handleNamespace(String prefix, Node namespace) {
+                batch.prefixes.add(prefix);
+                batch.namespaces.add(namespace);
+            }
+
+            @Override
+            public void handleTriple(Node subject, Node predicate, Node object) {
+                handleQuad(subject, predicate, object, null);
+            }
+
+            @Override
+            public void handleQuad(Node subject, Node predicate, Node object, Node graph) {
+                batch.add(subject, predicate, object, graph);
+                if (batch.isFull()) {
+                    put(batches, batch);
+                    batch = new Batch(batchSize);
+                }
+            }
+        };
+        final var decoder = converterFactory.anyStatementDecoder(handler, supportedOptions);
+
+        while (true) {
+            final Object next = frames.take();
+            if (next == END) {
+                break;
+            }
+            for (final var row : ((RdfStreamFrame) next).getRows()) {
+                decoder.ingestRow(row);
+            }
+        }
+        if (!handler.batch.isEmpty()) {
+            batches.put(handler.batch);
+        }
+    }
+
+    private static int insertBatch(Batch batch, DatasetGraph dataset) {
+        for (int i = 0; i < batch.prefixes.size(); i++) {
+            dataset.prefixes().add(batch.prefixes.get(i), batch.namespaces.get(i).getURI());
+        }
+        final Node[] nodes = batch.nodes;
+        final int end = batch.size * 4;
+        for (int i = 0; i < end; i += 4) {
+            final Node graph = nodes[i + 3];
+            dataset.add(graph == null ? Quad.defaultGraphIRI : graph, nodes[i], nodes[i + 1], nodes[i + 2]);
+        }
+        return batch.size;
+    }
+
+    /**
+     * Puts an element in the queue from a callback that can't throw checked exceptions.
+     */
+    private static void put(BlockingQueue<Object> queue, Object element) {
+        try {
+            queue.put(element);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Bulk loading was interrupted");
+        }
+    }
+}
@@ -10,10 +10,20 @@ import org.apache.jena.riot.RiotException;
 import org.apache.jena.riot.system.PrefixMap;
 import org.apache.jena.riot.writer.WriterDatasetRIOTBase;
 import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.Quad;
 import org.apache.jena.sparql.util.Context;
 
 /**
  * A Jena writer that writes RDF datasets in Jelly format.
+ * <p>
+ * If {@link JellyFormatVariant#isGroupBySubject()} is set, the dataset is written graph by graph (default
+ * graph first), with the quads in each graph grouped by subject and predicate. In this mode, the physical
+ * stream type in the options may be set to GRAPHS, so that each graph is written once as a graph block,
+ * instead of repeating the graph term in every quad.
+ * <p>
+ * If {@link JellyFormatVariant#getParallelism()} is greater than 1 and the output is delimited, the dataset is
+ * read from one snapshot and cut into segments of graphs, which are encoded in parallel, each by a worker with its
+ * own encoder, and merged into one stream in a deterministic order.
  */
 public final class JellyDatasetWriter extends WriterDatasetRIOTBase {
 
@@ -40,14 +50,21 @@ public final class JellyDatasetWriter extends WriterDatasetRIOTBase {
     @Override
     public void write(OutputStream out, DatasetGraph dataset, PrefixMap prefixMap, String baseURI, Context context) {
         var variant = formatVariant.withContext(context);
+        final boolean asGraphs =
+            variant.isGroupBySubject() && variant.getOptions().getPhysicalType() == PhysicalStreamType.GRAPHS;
         variant = variant.withOptions(
             variant
                 .getOptions()
                 .clone()
-                .setPhysicalType(PhysicalStreamType.QUADS)
+                .setPhysicalType(asGraphs ? PhysicalStreamType.GRAPHS : PhysicalStreamType.QUADS)
                 .setLogicalType(LogicalStreamType.FLAT_QUADS)
         );
 
+        if (ParallelDatasetEncoder.isApplicable(variant)) {
+            new ParallelDatasetEncoder(converterFactory, variant).write(dataset, prefixMap, out);
+            return;
+        }
+
         var inner = JellyStreamWriter.create(converterFactory, variant, out);
 
         if (variant.isEnableNamespaceDeclarations() && prefixMap != null) {
@@ -56,9 +73,22 @@ public final class JellyDatasetWriter extends WriterDatasetRIOTBase {
             }
         }
 
-        final var quads = dataset.find();
-        while (quads.hasNext()) {
-            inner.quad(quads.next());
+        if (variant.isGroupBySubject()) {
+            JellyGraphWriter.writeGroupedBySubject(dataset.getDefaultGraph(), triple ->
+                inner.quad(Quad.create(Quad.defaultGraphIRI, triple))
+            );
+            final var graphNodes = dataset.listGraphNodes();
+            while (graphNodes.hasNext()) {
+                final var graphNode = graphNodes.next();
+                JellyGraphWriter.writeGroupedBySubject(dataset.getGraph(graphNode), triple ->
+                    inner.quad(Quad.create(graphNode, triple))
+                );
+            }
+        } else {
+            final var quads = dataset.find();
+            while (quads.hasNext()) {
+                inner.quad(quads.next());
+            }
         }
 
         inner.finish();
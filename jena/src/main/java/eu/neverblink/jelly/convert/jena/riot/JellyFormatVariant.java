@@ -2,6 +2,7 @@ package eu.neverblink.jelly.convert.jena.riot;
 
 import eu.neverblink.jelly.core.JellyOptions;
 import eu.neverblink.jelly.core.proto.v1.RdfStreamOptions;
+import eu.neverblink.jelly.core.stats.EncoderStats;
 import org.apache.jena.riot.RDFFormat;
 import org.apache.jena.riot.RDFFormatVariant;
 import org.apache.jena.riot.RiotException;
@@ -18,6 +19,10 @@ public final class JellyFormatVariant extends RDFFormatVariant {
     public static final int DEFAULT_FRAME_SIZE = 256;
     public static final boolean DEFAULT_ENABLE_NAMESPACE_DECLARATIONS = false;
     public static final boolean DEFAULT_DELIMITED = true;
+    public static final boolean DEFAULT_GROUP_BY_SUBJECT = false;
+    public static final int DEFAULT_PARALLELISM = 1;
+    public static final int DEFAULT_MAX_FRAME_BYTES = 0;
+    public static final long DEFAULT_MAX_FRAME_LATENCY_MILLIS = 0;
     // Constant name for all variants of the Jelly format, as all writers can handle all variants.
     public static final String VARIANT_NAME = "Variant";
 
@@ -25,6 +30,11 @@ public final class JellyFormatVariant extends RDFFormatVariant {
     private final boolean enableNamespaceDeclarations;
     private final boolean isDelimited;
     private final int frameSize;
+    private final EncoderStats encoderStats;
+    private final boolean groupBySubject;
+    private final int parallelism;
+    private final int maxFrameBytes;
+    private final long maxFrameLatencyMillis;
 
     public static Builder builder() {
         return new Builder();
@@ -40,6 +50,11 @@ public final class JellyFormatVariant extends RDFFormatVariant {
         private boolean enableNamespaceDeclarations = DEFAULT_ENABLE_NAMESPACE_DECLARATIONS;
         private boolean isDelimited = DEFAULT_DELIMITED;
         private int frameSize = DEFAULT_FRAME_SIZE;
+        private EncoderStats encoderStats = null;
+        private boolean groupBySubject = DEFAULT_GROUP_BY_SUBJECT;
+        private int parallelism = DEFAULT_PARALLELISM;
+        private int maxFrameBytes = DEFAULT_MAX_FRAME_BYTES;
+        private long maxFrameLatencyMillis = DEFAULT_MAX_FRAME_LATENCY_MILLIS;
 
         private Builder() {}
 
@@ -91,8 +106,88 @@ public final class JellyFormatVariant extends RDFFormatVariant {
             return this;
         }
 
+        /**
+         * Set the receiver of encoder statistics (e.g., EncoderCounters).
+         * By default, no statistics are collected.
+         * @param encoderStats statistics receiver, or null to disable statistics
+         * @return this
+         */
+        public Builder encoderStats(EncoderStats encoderStats) {
+            this.encoderStats = encoderStats;
+            return this;
+        }
+
+        /**
+         * Set whether JellyGraphWriter and JellyDatasetWriter should write the statements grouped by
+         * graph, subject, and predicate, instead of in the graph's iteration order.
+         * <p>
+         * This makes the output smaller (repeated terms are elided by the encoder), in exchange for
+         * one lookup in the graph's subject index per subject. Graphs without a subject index (other than
+         * Jena's in-memory graphs and the graphs of a dataset) are written in their iteration order.
+         * Does not affect JellyStreamWriter.
+         * @param groupBySubject whether to group the statements by subject
+         * @return this
+         */
+        public Builder groupBySubject(boolean groupBySubject) {
+            this.groupBySubject = groupBySubject;
+            return this;
+        }
+
+        /**
+         * Set the number of threads JellyDatasetWriter uses to encode the graphs of a dataset.
+         * <p>
+         * With more than one thread, the dataset is cut into segments (large graphs into several), each
+         * encoded by a worker with its own encoder, and the results are merged into one stream in the order
+         * of the graphs in the dataset.
+         * This only applies to delimited output. Does not affect JellyGraphWriter and JellyStreamWriter.
+         * @param parallelism number of threads, 1 (default) to encode on the calling thread
+         * @return this
+         */
+        public Builder parallelism(int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Set the byte budget of each RdfStreamFrame written by JellyStreamWriter.
+         * <p>
+         * The frame is closed as soon as its serialized size reaches the budget, or when it reaches
+         * the frame size in rows, whichever comes first. Frames may exceed the budget by at most the
+         * rows of one statement. This only applies to delimited output.
+         * @param maxFrameBytes byte budget of each frame, or 0 (default) to cut frames only by row count
+         * @return this
+         */
+        public Builder maxFrameBytes(int maxFrameBytes) {
+            this.maxFrameBytes = maxFrameBytes;
+            return this;
+        }
+
+        /**
+         * Set the maximum time a statement may wait in JellyStreamWriter's buffer before its frame
+         * is written and the output stream is flushed. Useful for live streams with a slow producer.
+         * <p>
+         * No timer thread is used: the deadline is checked on every write, and can be checked
+         * between writes with {@link JellyStreamWriter#flushIfDue()}. This only applies to delimited output.
+         * @param maxFrameLatencyMillis maximum latency in milliseconds, or 0 (default) to disable
+         * @return this
+         */
+        public Builder maxFrameLatencyMillis(long maxFrameLatencyMillis) {
+            this.maxFrameLatencyMillis = maxFrameLatencyMillis;
+            return this;
+        }
+
         public JellyFormatVariant build() {
-            return new JellyFormatVariant(options, enableNamespaceDeclarations, isDelimited, frameSize);
+            return new JellyFormatVariant(
+                options,
+                enableNamespaceDeclarations,
+                isDelimited,
+                frameSize,
+                encoderStats,
+                groupBySubject,
+                parallelism,
+                maxFrameBytes,
+                maxFrameLatencyMillis
+            );
         }
     }
 
@@ -107,12 +202,22 @@ public final class JellyFormatVariant extends RDFFormatVariant {
      *                    In a non-delimited file you can have ONLY ONE FRAME. If the input data is large,
      *                    this will lead to an out-of-memory error. So, this makes sense only for small data.
      *                    **Disable this only if you know what you are doing.**
+     * @param encoderStats receiver of encoder statistics, or null to disable statistics
+     * @param groupBySubject whether the graph and dataset writers should group statements by subject
+     * @param parallelism number of threads the dataset writer uses to encode graphs
+     * @param maxFrameBytes byte budget of each frame of the stream writer, or 0 to disable
+     * @param maxFrameLatencyMillis maximum latency of the stream writer's frames, or 0 to disable
      */
     private JellyFormatVariant(
         RdfStreamOptions options,
         boolean enableNamespaceDeclarations,
         boolean isDelimited,
-        int frameSize
+        int frameSize,
+        EncoderStats encoderStats,
+        boolean groupBySubject,
+        int parallelism,
+        int maxFrameBytes,
+        long maxFrameLatencyMillis
     ) {
         // Constant, because all writers can handle all variants
         super(VARIANT_NAME);
@@ -120,6 +225,11 @@ public final class JellyFormatVariant extends RDFFormatVariant {
         this.enableNamespaceDeclarations = enableNamespaceDeclarations;
         this.isDelimited = isDelimited;
         this.frameSize = frameSize;
+        this.encoderStats = encoderStats;
+        this.groupBySubject = groupBySubject;
+        this.parallelism = parallelism;
+        this.maxFrameBytes = maxFrameBytes;
+        this.maxFrameLatencyMillis = maxFrameLatencyMillis;
     }
 
     /**
@@ -160,7 +270,12 @@ public final class JellyFormatVariant extends RDFFormatVariant {
             context.get(JellyLanguage.SYMBOL_STREAM_OPTIONS, preset),
             context.isTrue(JellyLanguage.SYMBOL_ENABLE_NAMESPACE_DECLARATIONS) || this.isEnableNamespaceDeclarations(),
             context.isTrueOrUndef(JellyLanguage.SYMBOL_DELIMITED_OUTPUT),
-            context.getInt(JellyLanguage.SYMBOL_FRAME_SIZE, this.getFrameSize())
+            context.getInt(JellyLanguage.SYMBOL_FRAME_SIZE, this.getFrameSize()),
+            context.get(JellyLanguage.SYMBOL_ENCODER_STATS, this.encoderStats),
+            context.isTrue(JellyLanguage.SYMBOL_GROUP_BY_SUBJECT) || this.groupBySubject,
+            context.getInt(JellyLanguage.SYMBOL_PARALLELISM, this.parallelism),
+            context.getInt(JellyLanguage.SYMBOL_MAX_FRAME_BYTES, this.maxFrameBytes),
+            context.getLong(JellyLanguage.SYMBOL_MAX_FRAME_LATENCY_MILLIS, this.maxFrameLatencyMillis)
         );
     }
 
@@ -180,7 +295,52 @@ public final class JellyFormatVariant extends RDFFormatVariant {
         return frameSize;
     }
 
+    /**
+     * @return receiver of encoder statistics, or null if statistics are disabled
+     */
+    public EncoderStats getEncoderStats() {
+        return encoderStats;
+    }
+
+    /**
+     * @return whether the graph and dataset writers group statements by graph, subject, and predicate
+     */
+    public boolean isGroupBySubject() {
+        return groupBySubject;
+    }
+
+    /**
+     * @return number of threads the dataset writer uses to encode graphs
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * @return byte budget of each frame written by the stream writer, or 0 if frames are cut only by row count
+     */
+    public int getMaxFrameBytes() {
+        return maxFrameBytes;
+    }
+
+    /**
+     * @return maximum time in milliseconds a statement may wait in the stream writer's buffer, or 0 if disabled
+     */
+    public long getMaxFrameLatencyMillis() {
+        return maxFrameLatencyMillis;
+    }
+
     public JellyFormatVariant withOptions(RdfStreamOptions options) {
-        return new JellyFormatVariant(options, enableNamespaceDeclarations, isDelimited, frameSize);
+        return new JellyFormatVariant(
+            options,
+            enableNamespaceDeclarations,
+            isDelimited,
+            frameSize,
+            encoderStats,
+            groupBySubject,
+            parallelism,
+            maxFrameBytes,
+            maxFrameLatencyMillis
+        );
     }
 }
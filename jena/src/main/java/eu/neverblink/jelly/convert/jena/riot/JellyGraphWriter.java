@@ -5,15 +5,26 @@ import eu.neverblink.jelly.core.proto.v1.LogicalStreamType;
 import eu.neverblink.jelly.core.proto.v1.PhysicalStreamType;
 import java.io.OutputStream;
 import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.function.Consumer;
 import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.mem2.GraphMem2;
 import org.apache.jena.riot.Lang;
 import org.apache.jena.riot.RiotException;
 import org.apache.jena.riot.system.PrefixMap;
 import org.apache.jena.riot.writer.WriterGraphRIOTBase;
+import org.apache.jena.sparql.core.GraphView;
 import org.apache.jena.sparql.util.Context;
 
 /**
  * A Jena writer that writes RDF graphs in Jelly format.
+ * <p>
+ * If {@link JellyFormatVariant#isGroupBySubject()} is set and the graph has a subject index, the triples are
+ * written grouped by subject and predicate, which makes the output smaller.
  */
 public final class JellyGraphWriter extends WriterGraphRIOTBase {
 
@@ -56,11 +67,99 @@ public final class JellyGraphWriter extends WriterGraphRIOTBase {
             }
         }
 
-        final var triples = graph.find();
-        while (triples.hasNext()) {
-            inner.triple(triples.next());
+        if (variant.isGroupBySubject()) {
+            writeGroupedBySubject(graph, inner::triple);
+        } else {
+            final var triples = graph.find();
+            while (triples.hasNext()) {
+                inner.triple(triples.next());
+            }
         }
 
         inner.finish();
     }
+
+    /**
+     * Orders triples by the string form of the predicate (the IRI, for IRI predicates).
+     */
+    private static final Comparator<Triple> PREDICATE_ORDER = Comparator.comparing(t ->
+        predicateKey(t.getPredicate())
+    );
+
+    private static String predicateKey(Node predicate) {
+        return predicate.isURI() ? predicate.getURI() : predicate.toString();
+    }
+
+    /**
+     * Checks if looking up the triples of one subject in the graph uses an index. This is the case for Jena's
+     * in-memory graphs and the graphs of a dataset (GraphView, e.g., of DatasetGraphInMemory or TDB2), which
+     * look up the subject in the dataset's indexes.
+     *
+     * @param graph graph
+     * @return true if the graph has a subject index
+     */
+    static boolean isSubjectIndexed(Graph graph) {
+        return graph instanceof GraphMem2 || graph instanceof GraphView;
+    }
+
+    /**
+     * Passes all triples of the graph to the sink. If the graph has a subject index
+     * ({@link #isSubjectIndexed(Graph)}), the triples are grouped by subject, and within a subject by predicate.
+     * Otherwise, they are passed in the graph's iteration order.
+     * <p>
+     * The graph is scanned once to find the subjects. The triples of each new subject are looked up in the
+     * subject index and sorted with {@link #PREDICATE_ORDER}. Only the triples of one subject and the set of
+     * subjects already written are kept in memory.
+     *
+     * @param graph graph to write
+     * @param sink consumer of the triples
+     */
+    static void writeGroupedBySubject(Graph graph, Consumer<Triple> sink) {
+        if (!isSubjectIndexed(graph)) {
+            writeUngrouped(graph, sink);
+            return;
+        }
+        final var written = new HashSet<Node>();
+        final var subjectTriples = new ArrayList<Triple>();
+        Node lastSubject = null;
+        final var triples = graph.find();
+        try {
+            while (triples.hasNext()) {
+                final Node subject = triples.next().getSubject();
+                // Indexed graphs mostly return the triples of a subject in one run
+                if (subject.equals(lastSubject) || !written.add(subject)) {
+                    continue;
+                }
+                lastSubject = subject;
+                final var found = graph.find(subject, Node.ANY, Node.ANY);
+                try {
+                    while (found.hasNext()) {
+                        subjectTriples.add(found.next());
+                    }
+                } finally {
+                    found.close();
+                }
+                if (subjectTriples.size() > 1) {
+                    subjectTriples.sort(PREDICATE_ORDER);
+                }
+                for (final var triple : subjectTriples) {
+                    sink.accept(triple);
+                }
+                subjectTriples.clear();
+            }
+        } finally {
+            triples.close();
+        }
+    }
+
+    private static void writeUngrouped(Graph graph, Consumer<Triple> sink) {
+        final var triples = graph.find();
+        try {
+            while (triples.hasNext()) {
+                sink.accept(triples.next());
+            }
+        } finally {
+            triples.close();
+        }
+    }
 }
@@ -3,11 +3,15 @@ package eu.neverblink.jelly.convert.jena.riot;
 import static eu.neverblink.jelly.convert.jena.riot.JellyFormat.*;
 import static eu.neverblink.jelly.core.JellyConstants.*;
 
+import eu.neverblink.jelly.convert.jena.JenaConverterFactory;
 import eu.neverblink.jelly.core.JellyOptions;
 import eu.neverblink.jelly.core.proto.v1.RdfStreamOptions;
+import eu.neverblink.jelly.core.sparql.JellyResults;
 import java.util.List;
 import java.util.Map;
 import org.apache.jena.riot.*;
+import org.apache.jena.riot.resultset.ResultSetReaderRegistry;
+import org.apache.jena.riot.resultset.ResultSetWriterRegistry;
 import org.apache.jena.riot.system.StreamRDFWriter;
 import org.apache.jena.sparql.util.Symbol;
 
@@ -24,6 +28,10 @@ public final class JellyLanguage {
             .addAltNames("JELLY")
             .addFileExtensions(JELLY_FILE_EXTENSION)
             .build();
+        JELLY_RESULTS = LangBuilder.create(JELLY_NAME + "-Results", JellyResults.CONTENT_TYPE)
+            .addAltNames("JELLY-RESULTS")
+            .addFileExtensions(JellyResults.FILE_EXTENSION)
+            .build();
 
         // Register the language and formats on static initialization
         register();
@@ -40,6 +48,12 @@ public final class JellyLanguage {
      */
     public static final Lang JELLY;
 
+    /**
+     * Jelly SPARQL results format, for SELECT and ASK query results.
+     * See {@link eu.neverblink.jelly.core.sparql.JellyResults} for details.
+     */
+    public static final Lang JELLY_RESULTS;
+
     private static final String SYMBOL_NS = "https://neverblink.eu/jelly/riot/symbols#";
 
     /**
@@ -126,6 +140,64 @@ public final class JellyLanguage {
      */
     public static final Symbol SYMBOL_DELIMITED_OUTPUT = Symbol.create(SYMBOL_NS + "delimitedOutput");
 
+    /**
+     * Symbol for collecting encoder statistics (lookup hits, node cache hit rates, repeated terms,
+     * frame sizes) while writing RDF data.
+     * <p>
+     * Set this in Jena's Context to an instance of EncoderStats, e.g., EncoderCounters.
+     * The instance must not be shared between writers running concurrently.
+     */
+    public static final Symbol SYMBOL_ENCODER_STATS = Symbol.create(SYMBOL_NS + "encoderStats");
+
+    /**
+     * Symbol for collecting decoder statistics (lookup updates, IRI cache hit rate, repeated terms,
+     * frame sizes and decoding latency) while reading RDF data.
+     * <p>
+     * Set this in Jena's Context to an instance of DecoderStats, e.g., DecoderCounters.
+     * The instance must not be shared between readers running concurrently.
+     */
+    public static final Symbol SYMBOL_DECODER_STATS = Symbol.create(SYMBOL_NS + "decoderStats");
+
+    /**
+     * Symbol for writing graphs and datasets grouped by graph, subject, and predicate, instead of in the
+     * graph's iteration order. This results in smaller output, as the encoder elides repeated terms.
+     * Graphs without a subject index are written in their iteration order.
+     * <p>
+     * Set this to a boolean value in Jena's Context. Disabled by default.
+     * <p>
+     * When writing a dataset with this option enabled, you can additionally set the physical stream type in
+     * the stream options to GRAPHS, to write each named graph once, without repeating the graph term in every quad.
+     */
+    public static final Symbol SYMBOL_GROUP_BY_SUBJECT = Symbol.create(SYMBOL_NS + "groupBySubject");
+
+    /**
+     * Symbol for the number of threads used to encode the graphs of a dataset in parallel, when writing
+     * a dataset to delimited output. The dataset is read from one snapshot and cut into segments (large graphs
+     * into several), each encoded by a worker with its own encoder. The results are merged into one stream in
+     * the order of the graphs in the dataset.
+     * <p>
+     * Set this in Jena's Context to an integer (not long!) value. The default is 1 (no parallelism).
+     * Encoder statistics are not collected when writing in parallel.
+     */
+    public static final Symbol SYMBOL_PARALLELISM = Symbol.create(SYMBOL_NS + "parallelism");
+
+    /**
+     * Symbol for the byte budget of each frame written by the stream writer (delimited output only).
+     * A frame is closed when its serialized size reaches the budget, or when it reaches the frame size
+     * in rows, whichever comes first.
+     * <p>
+     * Set this in Jena's Context to an integer (not long!) value. The default is 0 (no byte budget).
+     */
+    public static final Symbol SYMBOL_MAX_FRAME_BYTES = Symbol.create(SYMBOL_NS + "maxFrameBytes");
+
+    /**
+     * Symbol for the maximum time, in milliseconds, a statement may wait in the stream writer's buffer
+     * before its frame is written and the output is flushed (delimited output only).
+     * <p>
+     * Set this in Jena's Context to a long value. The default is 0 (disabled).
+     */
+    public static final Symbol SYMBOL_MAX_FRAME_LATENCY_MILLIS = Symbol.create(SYMBOL_NS + "maxFrameLatencyMillis");
+
     private static volatile boolean isRegistered = false;
 
     /**
@@ -172,5 +244,14 @@ public final class JellyLanguage {
         // Register the parser factory
         RDFParserRegistry.registerLangTriples(JELLY, new JellyReaderFactory());
         RDFParserRegistry.registerLangQuads(JELLY, new JellyReaderFactory());
+
+        // Register the SPARQL results format
+        RDFLanguages.register(JELLY_RESULTS);
+        ResultSetWriterRegistry.register(JELLY_RESULTS, lang ->
+            new JellyResultSetWriter(JenaConverterFactory.getInstance(), JellyFormatVariant.getDefault())
+        );
+        ResultSetReaderRegistry.register(JELLY_RESULTS, lang ->
+            new JellyResultSetReader(JenaConverterFactory.getInstance())
+        );
     }
 }
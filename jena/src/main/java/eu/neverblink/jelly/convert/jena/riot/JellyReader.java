@@ -1,6 +1,6 @@
 package eu.neverblink.jelly.convert.jena.riot;
 
-import static eu.neverblink.jelly.core.utils.IoUtils.readStream;
+import static eu.neverblink.jelly.core.utils.IoUtils.readStreamWithSize;
 
 import eu.neverblink.jelly.convert.jena.JenaConverterFactory;
 import eu.neverblink.jelly.core.JellyOptions;
@@ -8,6 +8,8 @@ import eu.neverblink.jelly.core.RdfHandler;
 import eu.neverblink.jelly.core.memory.RowBuffer;
 import eu.neverblink.jelly.core.proto.v1.RdfStreamFrame;
 import eu.neverblink.jelly.core.proto.v1.RdfStreamOptions;
+import eu.neverblink.jelly.core.stats.DecoderStats;
+import eu.neverblink.jelly.core.stats.FrameDecodeRecorder;
 import eu.neverblink.jelly.core.utils.IoUtils;
 import eu.neverblink.protoc.java.runtime.MessageFactory;
 import eu.neverblink.protoc.java.runtime.ProtoMessage;
@@ -39,6 +41,7 @@ public final class JellyReader implements ReaderRIOT {
             JellyLanguage.SYMBOL_SUPPORTED_OPTIONS,
             JellyOptions.DEFAULT_SUPPORTED_OPTIONS
         );
+        final DecoderStats stats = context.get(JellyLanguage.SYMBOL_DECODER_STATS);
 
         final var handler = new RdfHandler.AnyStatementHandler<Node>() {
             @Override
@@ -57,24 +60,30 @@ public final class JellyReader implements ReaderRIOT {
             }
         };
 
-        final var decoder = converterFactory.anyStatementDecoder(handler, supportedOptions);
+        final var decoder = converterFactory.anyStatementDecoder(handler, supportedOptions, stats);
+        final var recorder = new FrameDecodeRecorder(stats);
         // Single row buffer -- rows are passed to the decoder immediately after being read
-        final RowBuffer buffer = RowBuffer.newSingle(decoder::ingestRow);
+        final RowBuffer buffer = RowBuffer.newSingle(recorder.countRows(decoder::ingestRow));
         final RdfStreamFrame.Mutable reusableFrame = RdfStreamFrame.newInstance().setRows(buffer);
         final MessageFactory<RdfStreamFrame> getReusableFrame = () -> reusableFrame;
 
         output.start();
         try {
             final var delimitingResponse = IoUtils.autodetectDelimiting(in);
+            recorder.begin();
             if (delimitingResponse.isDelimited()) {
                 // Delimited Jelly file
                 // In this case, we can read multiple frames
-                readStream(delimitingResponse.newInput(), getReusableFrame, frame -> buffer.clear());
+                readStreamWithSize(delimitingResponse.newInput(), getReusableFrame, (frame, frameSize) -> {
+                    buffer.clear();
+                    recorder.frameDecoded(frameSize);
+                });
             } else {
                 // Non-delimited Jelly file
                 // In this case, we can only read one frame
                 ProtoMessage.parseFrom(delimitingResponse.newInput(), getReusableFrame);
                 buffer.clear();
+                recorder.frameDecoded(0);
             }
         } catch (IOException e) {
             throw new RiotException(e);
@@ -0,0 +1,97 @@
+package eu.neverblink.jelly.convert.jena.riot;
+
+import eu.neverblink.jelly.convert.jena.JenaConverterFactory;
+import eu.neverblink.jelly.core.ExperimentalApi;
+import eu.neverblink.jelly.core.JellyOptions;
+import eu.neverblink.jelly.core.RdfProtoDeserializationError;
+import eu.neverblink.jelly.core.proto.v1.RdfStreamOptions;
+import eu.neverblink.jelly.core.sparql.JellyResultsReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+import org.apache.jena.graph.Node;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.riot.RiotException;
+import org.apache.jena.riot.resultset.ResultSetReader;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.exec.RowSetStream;
+import org.apache.jena.sparql.resultset.SPARQLResult;
+import org.apache.jena.sparql.util.Context;
+
+/**
+ * Reader of SPARQL results in the Jelly SPARQL results format ({@link JellyLanguage#JELLY_RESULTS}).
+ * <p>
+ * The solutions are decoded lazily, while iterating over the result set. The maximum supported stream options
+ * can be set in the context with {@link JellyLanguage#SYMBOL_SUPPORTED_OPTIONS}.
+ */
+@ExperimentalApi
+public final class JellyResultSetReader implements ResultSetReader {
+
+    private final JenaConverterFactory converterFactory;
+
+    public JellyResultSetReader(JenaConverterFactory converterFactory) {
+        this.converterFactory = converterFactory;
+    }
+
+    @Override
+    public ResultSet read(InputStream in, Context context) {
+        final var result = readAny(in, context);
+        if (!result.isResultSet()) {
+            throw new RiotException("Jelly SPARQL results: expected a result set, got a boolean result.");
+        }
+        return result.getResultSet();
+    }
+
+    @Override
+    public ResultSet read(Reader in, Context context) {
+        throw new RiotException(
+            "Jelly SPARQL results: Reading binary data from a java.io.Reader is not supported. " +
+                "Please use an InputStream."
+        );
+    }
+
+    @Override
+    public SPARQLResult readAny(InputStream in, Context context) {
+        final RdfStreamOptions supportedOptions = context == null
+            ? JellyOptions.DEFAULT_SUPPORTED_OPTIONS
+            : context.get(JellyLanguage.SYMBOL_SUPPORTED_OPTIONS, JellyOptions.DEFAULT_SUPPORTED_OPTIONS);
+        final JellyResultsReader<Node> reader;
+        try {
+            reader = new JellyResultsReader<>(converterFactory, supportedOptions, Node[]::new, in);
+        } catch (IOException | RdfProtoDeserializationError e) {
+            throw new RiotException(e);
+        }
+        if (reader.isBoolean()) {
+            return new SPARQLResult(reader.getBoolean());
+        }
+
+        final List<Var> vars = Var.varList(reader.getVariables());
+        final Iterator<Binding> bindings = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                try {
+                    return reader.hasNext();
+                } catch (UncheckedIOException | RdfProtoDeserializationError e) {
+                    throw new RiotException(e);
+                }
+            }
+
+            @Override
+            public Binding next() {
+                final Node[] values = reader.next();
+                final var builder = Binding.builder();
+                for (int i = 0; i < values.length; i++) {
+                    if (values[i] != null) {
+                        builder.add(vars.get(i), values[i]);
+                    }
+                }
+                return builder.build();
+            }
+        };
+        return new SPARQLResult(ResultSet.adapt(RowSetStream.create(vars, bindings)));
+    }
+}
@@ -0,0 +1,80 @@
+package eu.neverblink.jelly.convert.jena.riot;
+
+import eu.neverblink.jelly.convert.jena.JenaConverterFactory;
+import eu.neverblink.jelly.core.ExperimentalApi;
+import eu.neverblink.jelly.core.sparql.JellyResultsWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import org.apache.jena.graph.Node;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.riot.RiotException;
+import org.apache.jena.riot.resultset.ResultSetWriter;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.util.Context;
+
+/**
+ * Writer of SPARQL results in the Jelly SPARQL results format ({@link JellyLanguage#JELLY_RESULTS}).
+ * <p>
+ * The stream options and the frame size are taken from the format variant and the context, like in the RDF writers.
+ */
+@ExperimentalApi
+public final class JellyResultSetWriter implements ResultSetWriter {
+
+    private final JenaConverterFactory converterFactory;
+    private final JellyFormatVariant formatVariant;
+
+    public JellyResultSetWriter(JenaConverterFactory converterFactory, JellyFormatVariant formatVariant) {
+        this.converterFactory = converterFactory;
+        this.formatVariant = formatVariant;
+    }
+
+    @Override
+    public void write(OutputStream out, ResultSet resultSet, Context context) {
+        final var variant = context == null ? formatVariant : formatVariant.withContext(context);
+        final var names = resultSet.getResultVars();
+        final var vars = new Var[names.size()];
+        for (int i = 0; i < vars.length; i++) {
+            vars[i] = Var.alloc(names.get(i));
+        }
+
+        final var writer = new JellyResultsWriter<>(
+            converterFactory,
+            variant.getOptions(),
+            variant.getFrameSize(),
+            names,
+            out
+        );
+        final var values = new Node[vars.length];
+        try {
+            while (resultSet.hasNext()) {
+                final Binding binding = resultSet.nextBinding();
+                for (int i = 0; i < vars.length; i++) {
+                    values[i] = binding.get(vars[i]);
+                }
+                writer.writeSolution(values);
+            }
+            writer.finish();
+        } catch (IOException e) {
+            throw new RiotException(e);
+        }
+    }
+
+    @Override
+    public void write(Writer out, ResultSet resultSet, Context context) {
+        throw new RiotException(
+            "Jelly SPARQL results: Writing binary data to a java.io.Writer is not supported. " +
+                "Please use an OutputStream."
+        );
+    }
+
+    @Override
+    public void write(OutputStream out, boolean result, Context context) {
+        try {
+            JellyResultsWriter.writeBoolean(result, out);
+        } catch (IOException e) {
+            throw new RiotException(e);
+        }
+    }
+}
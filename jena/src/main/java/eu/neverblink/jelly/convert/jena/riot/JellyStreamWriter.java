@@ -8,6 +8,7 @@ import eu.neverblink.jelly.core.memory.ReusableRowBuffer;
 import eu.neverblink.jelly.core.memory.RowBuffer;
 import eu.neverblink.jelly.core.proto.v1.PhysicalStreamType;
 import eu.neverblink.jelly.core.proto.v1.RdfStreamFrame;
+import eu.neverblink.jelly.core.stats.FrameEncodedEvent;
 import eu.neverblink.protoc.java.runtime.ProtobufUtil;
 import java.io.IOException;
 import java.io.OutputStream;
@@ -23,7 +24,13 @@ import org.apache.jena.sparql.core.Quad;
  * <p>
  * It assumes that the caller has already set the correct stream type in the options.
  * <p>
- * It will output the statements as in a TRIPLES/QUADS stream.
+ * It will output the statements as in a TRIPLES/QUADS stream, or as in a GRAPHS stream if the physical
+ * stream type is set to GRAPHS. In the latter case, a new graph is started whenever the graph of the
+ * incoming quad differs from the previous one, so the quads should be grouped by graph.
+ * <p>
+ * In delimited output, a frame is written when it reaches the frame size in rows, or optionally when it reaches
+ * a byte budget ({@link JellyFormatVariant#getMaxFrameBytes()}), or when its oldest statement has waited longer
+ * than the maximum latency ({@link JellyFormatVariant#getMaxFrameLatencyMillis()}).
  */
 public sealed class JellyStreamWriter implements StreamRDF {
 
@@ -36,13 +43,25 @@ public sealed class JellyStreamWriter implements StreamRDF {
     protected final ProtoEncoder<Node> encoder;
     protected final RdfStreamFrame.Mutable reusableFrame;
 
+    private final int maxFrameBytes;
+    private final long maxFrameLatencyNanos;
+    // Serialized size of the first countedRows rows in the buffer, including their tags and length prefixes
+    private long bufferedBytes = 0;
+    private int countedRows = 0;
+    // Whether the latency deadline of the current frame is set, and the System.nanoTime() it was set at
+    private boolean frameTimed = false;
+    private long frameStartNanos = 0;
+
     public static JellyStreamWriter create(
         JenaConverterFactory converterFactory,
         JellyFormatVariant formatVariant,
         OutputStream outputStream
     ) {
-        if (formatVariant.getOptions().getPhysicalType() == PhysicalStreamType.TRIPLES) {
+        final var physicalType = formatVariant.getOptions().getPhysicalType();
+        if (physicalType == PhysicalStreamType.TRIPLES) {
             return new TriplesWriter(converterFactory, formatVariant, outputStream);
+        } else if (physicalType == PhysicalStreamType.GRAPHS) {
+            return new GraphsWriter(converterFactory, formatVariant, outputStream);
         } else {
             return new QuadsWriter(converterFactory, formatVariant, outputStream);
         }
@@ -67,6 +86,10 @@ public sealed class JellyStreamWriter implements StreamRDF {
         this.buffer = RowBuffer.newReusableForEncoder(formatVariant.getFrameSize() + 8);
         this.allocator = EncoderAllocator.newArenaAllocator(formatVariant.getFrameSize() + 8);
         this.reusableFrame = RdfStreamFrame.newInstance().setRows(buffer);
+        this.maxFrameBytes = formatVariant.isDelimited() ? formatVariant.getMaxFrameBytes() : 0;
+        this.maxFrameLatencyNanos = formatVariant.isDelimited()
+            ? formatVariant.getMaxFrameLatencyMillis() * 1_000_000
+            : 0;
 
         this.encoder = converterFactory.encoder(
             ProtoEncoder.Params.of(
@@ -74,7 +97,8 @@ public sealed class JellyStreamWriter implements StreamRDF {
                 formatVariant.isEnableNamespaceDeclarations(),
                 buffer,
                 allocator
-            )
+            ),
+            formatVariant.getEncoderStats()
         );
     }
 
@@ -113,9 +137,56 @@ public sealed class JellyStreamWriter implements StreamRDF {
         public void triple(Triple triple) {
             // Coerce triple to quad with default graph
             encoder.handleQuad(triple.getSubject(), triple.getPredicate(), triple.getObject(), null);
-            if (formatVariant.isDelimited() && buffer.size() >= formatVariant.getFrameSize()) {
-                flushBuffer();
+            maybeFlush();
+        }
+    }
+
+    private static final class GraphsWriter extends JellyStreamWriter {
+
+        // Graph of the currently open graph block, or null if no graph is open
+        private Node currentGraph = null;
+
+        GraphsWriter(
+            JenaConverterFactory converterFactory,
+            JellyFormatVariant formatVariant,
+            OutputStream outputStream
+        ) {
+            super(converterFactory, formatVariant, outputStream);
+        }
+
+        @Override
+        public void triple(Triple triple) {
+            // Coerce triple to quad with default graph
+            writeInGraph(Quad.defaultGraphIRI, triple.getSubject(), triple.getPredicate(), triple.getObject());
+        }
+
+        @Override
+        public void quad(Quad quad) {
+            writeInGraph(quad.getGraph(), quad.getSubject(), quad.getPredicate(), quad.getObject());
+        }
+
+        @Override
+        public void finish() {
+            if (currentGraph != null) {
+                encoder.handleGraphEnd();
+                currentGraph = null;
+            }
+            super.finish();
+        }
+
+        private void writeInGraph(Node graph, Node subject, Node predicate, Node object) {
+            if (graph == null) {
+                graph = Quad.defaultGraphIRI;
             }
+            if (!graph.equals(currentGraph)) {
+                if (currentGraph != null) {
+                    encoder.handleGraphEnd();
+                }
+                encoder.handleGraphStart(graph);
+                currentGraph = graph;
+            }
+            encoder.handleTriple(subject, predicate, object);
+            maybeFlush();
         }
     }
 
@@ -127,17 +198,13 @@ public sealed class JellyStreamWriter implements StreamRDF {
     @Override
     public void triple(Triple triple) {
         encoder.handleTriple(triple.getSubject(), triple.getPredicate(), triple.getObject());
-        if (formatVariant.isDelimited() && buffer.size() >= formatVariant.getFrameSize()) {
-            flushBuffer();
-        }
+        maybeFlush();
     }
 
     @Override
     public void quad(Quad quad) {
         encoder.handleQuad(quad.getSubject(), quad.getPredicate(), quad.getObject(), quad.getGraph());
-        if (formatVariant.isDelimited() && buffer.size() >= formatVariant.getFrameSize()) {
-            flushBuffer();
-        }
+        maybeFlush();
     }
 
     @Override
@@ -152,9 +219,7 @@ public sealed class JellyStreamWriter implements StreamRDF {
         }
 
         encoder.handleNamespace(prefix, NodeFactory.createURI(iri));
-        if (formatVariant.isDelimited() && buffer.size() >= formatVariant.getFrameSize()) {
-            flushBuffer();
-        }
+        maybeFlush();
     }
 
     @Override
@@ -162,11 +227,15 @@ public sealed class JellyStreamWriter implements StreamRDF {
         // Flush the buffer and finish the stream
         if (!formatVariant.isDelimited()) {
             // Non-delimited variant – whole stream in one frame
+            final var event = new FrameEncodedEvent();
+            event.begin();
             try {
                 reusableFrame.writeTo(codedOutput);
             } catch (IOException e) {
                 throw new RiotException(e);
             }
+            event.end();
+            onFrameWritten(event);
             buffer.clear();
             allocator.releaseAll();
         } else if (!buffer.isEmpty()) {
@@ -183,15 +252,102 @@ public sealed class JellyStreamWriter implements StreamRDF {
         }
     }
 
+    /**
+     * Writes the current frame if its oldest statement has waited longer than the maximum frame latency
+     * ({@link JellyFormatVariant#getMaxFrameLatencyMillis()}), and flushes the output stream.
+     * <p>
+     * The deadline is checked on every write, so this is only needed when the producer of the statements
+     * may be idle for a long time. Call it from the thread that writes to this writer – the writer is not
+     * thread-safe.
+     *
+     * @return true if a frame was written
+     */
+    public boolean flushIfDue() {
+        if (maxFrameLatencyNanos > 0 && isFrameDue()) {
+            flushBuffer();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Writes the current frame if it is complete: it has reached the frame size, the byte budget,
+     * or the maximum latency. Called after every write.
+     */
+    protected final void maybeFlush() {
+        if (!formatVariant.isDelimited()) {
+            return;
+        }
+        if (
+            buffer.size() >= formatVariant.getFrameSize() ||
+            (maxFrameBytes > 0 && countBufferedBytes() >= maxFrameBytes) ||
+            (maxFrameLatencyNanos > 0 && isFrameDue())
+        ) {
+            flushBuffer();
+        }
+    }
+
+    /**
+     * Adds the sizes of the rows appended since the last call to the running size of the frame.
+     * Rows are sized when they are appended by the encoder, so getSerializedSize() only reads the cached value.
+     */
+    private long countBufferedBytes() {
+        final int size = buffer.size();
+        for (int i = countedRows; i < size; i++) {
+            final int rowSize = buffer.get(i).getSerializedSize();
+            // 1 byte for the tag of the rows field + length prefix + row
+            bufferedBytes += 1 + CodedOutputStream.computeUInt32SizeNoTag(rowSize) + rowSize;
+        }
+        countedRows = size;
+        return bufferedBytes;
+    }
+
+    private boolean isFrameDue() {
+        if (buffer.isEmpty()) {
+            return false;
+        }
+        final long now = System.nanoTime();
+        if (!frameTimed) {
+            frameTimed = true;
+            frameStartNanos = now;
+            return false;
+        }
+        return now - frameStartNanos >= maxFrameLatencyNanos;
+    }
+
     protected void flushBuffer() {
         reusableFrame.resetCachedSize();
+        final var event = new FrameEncodedEvent();
+        event.begin();
         try {
             reusableFrame.writeDelimitedTo(codedOutput);
+            event.end();
+            onFrameWritten(event);
+            if (maxFrameLatencyNanos > 0) {
+                // Live stream – deliver the frame to the reader right away
+                codedOutput.flush();
+                outputStream.flush();
+            }
         } catch (IOException e) {
             throw new RiotException(e);
         } finally {
             buffer.clear();
             allocator.releaseAll();
+            bufferedBytes = 0;
+            countedRows = 0;
+            frameTimed = false;
+        }
+    }
+
+    /**
+     * Reports the frame that was just written to JFR and the encoder statistics receiver (if any).
+     * The frame's serialized size is already cached at this point, so this is cheap.
+     */
+    private void onFrameWritten(FrameEncodedEvent event) {
+        event.commitIfEnabled(buffer.size(), reusableFrame.getSerializedSize());
+        final var stats = encoder.getStats();
+        if (stats != null) {
+            stats.onFrame(buffer.size(), reusableFrame.getSerializedSize());
         }
     }
 }
@@ -108,6 +108,14 @@ public final class JellyStreamWriterAutodetectType implements StreamRDF {
         }
     }
 
+    /**
+     * See {@link JellyStreamWriter#flushIfDue()}.
+     * @return true if a frame was written
+     */
+    public boolean flushIfDue() {
+        return delegatedWriter != null && delegatedWriter.flushIfDue();
+    }
+
     private void clearPrefixBacklog() {
         for (final var backlog : prefixBacklog) {
             delegatedWriter.prefix(backlog.prefix(), backlog.iri());
@@ -0,0 +1,336 @@
+package eu.neverblink.jelly.convert.jena.riot;
+
+import com.google.protobuf.CodedOutputStream;
+import eu.neverblink.jelly.convert.jena.JenaConverterFactory;
+import eu.neverblink.jelly.core.JellyTranscoderFactory;
+import eu.neverblink.jelly.core.ProtoEncoder;
+import eu.neverblink.jelly.core.ProtoTranscoder;
+import eu.neverblink.jelly.core.memory.LazyImmutableRowBuffer;
+import eu.neverblink.jelly.core.memory.RowBuffer;
+import eu.neverblink.jelly.core.proto.v1.PhysicalStreamType;
+import eu.neverblink.jelly.core.proto.v1.RdfStreamFrame;
+import eu.neverblink.protoc.java.runtime.ProtobufUtil;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.RiotException;
+import org.apache.jena.riot.system.PrefixMap;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.system.Txn;
+
+/**
+ * Encodes the graphs of a dataset in parallel and writes them as one delimited Jelly stream.
+ * Used by JellyDatasetWriter when {@link JellyFormatVariant#getParallelism()} is greater than 1.
+ * <p>
+ * The calling thread reads the dataset (the default graph first, then the named graphs in the dataset's
+ * order) and cuts it into segments of at most {@link #DEFAULT_SEGMENT_SIZE} triples, so that large graphs
+ * are also split between workers. When grouping by subject, segments are only cut between subjects. Each
+ * segment is encoded by a worker with its own ProtoEncoder into a self-contained run of QUADS or GRAPHS
+ * frames. The calling thread passes the frames, in the order of the segments, through a merging
+ * ProtoTranscoder and writes them out. Because of this, the output is deterministic and is a single valid
+ * Jelly stream – independently encoded segments cannot simply be concatenated, as the decoder's lookup
+ * state carries over between them.
+ * <p>
+ * The whole dataset is read by the calling thread in one read transaction (or the caller's own transaction,
+ * if there is one), so all graphs come from the same snapshot. At most two segments per worker are in flight,
+ * and the workers hand over their frames through bounded queues. When grouping by subject, the reader also
+ * keeps the set of subjects of the current graph (see {@link JellyGraphWriter#writeGroupedBySubject}), and
+ * a segment may exceed the segment size by the triples of one subject.
+ * <p>
+ * Encoder statistics are not collected.
+ */
+final class ParallelDatasetEncoder {
+
+    /**
+     * Default maximum number of triples in a segment.
+     */
+    static final int DEFAULT_SEGMENT_SIZE = 16_384;
+
+    // Maximum number of encoded frames of a segment waiting to be written
+    private static final int FRAMES_IN_FLIGHT = 8;
+
+    // Marks the end of a segment's frames in its queue
+    private static final Object END_OF_SEGMENT = new Object();
+
+    private final JenaConverterFactory converterFactory;
+    private final JellyFormatVariant variant;
+    private final boolean asGraphs;
+    private final int segmentSize;
+
+    /**
+     * @param converterFactory converter factory
+     * @param variant format variant, with the physical stream type set to QUADS or GRAPHS
+     */
+    ParallelDatasetEncoder(JenaConverterFactory converterFactory, JellyFormatVariant variant) {
+        this(converterFactory, variant, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * @param converterFactory converter factory
+     * @param variant format variant, with the physical stream type set to QUADS or GRAPHS
+     * @param segmentSize maximum number of triples in a segment
+     */
+    ParallelDatasetEncoder(JenaConverterFactory converterFactory, JellyFormatVariant variant, int segmentSize) {
+        if (segmentSize < 1) {
+            throw new IllegalArgumentException("Segment size must be positive, got " + segmentSize);
+        }
+        this.converterFactory = converterFactory;
+        this.variant = variant;
+        this.asGraphs = variant.getOptions().getPhysicalType() == PhysicalStreamType.GRAPHS;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Checks if datasets can be written in parallel with this variant. Parallel writing requires delimited
+     * output.
+     */
+    static boolean isApplicable(JellyFormatVariant variant) {
+        return variant.getParallelism() > 1 && variant.isDelimited();
+    }
+
+    void write(DatasetGraph dataset, PrefixMap prefixMap, OutputStream out) {
+        if (dataset.supportsTransactions() && !dataset.isInTransaction()) {
+            Txn.executeRead(dataset, () -> writeSnapshot(dataset, prefixMap, out));
+        } else {
+            writeSnapshot(dataset, prefixMap, out);
+        }
+    }
+
+    private void writeSnapshot(DatasetGraph dataset, PrefixMap prefixMap, OutputStream out) {
+        final int parallelism = variant.getParallelism();
+        final ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            final var thread = new Thread(runnable, "jelly-dataset-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        final var writer = new SegmentWriter(executor, 2 * parallelism, ProtobufUtil.createCodedOutputStream(out));
+
+        try {
+            // Namespace declarations go at the start of the first segment
+            if (prefixMap != null && variant.isEnableNamespaceDeclarations() && !prefixMap.isEmpty()) {
+                writer.prefixes = prefixMap;
+            }
+            readGraph(dataset.getDefaultGraph(), Quad.defaultGraphIRI, writer);
+            final var graphNodes = dataset.listGraphNodes();
+            while (graphNodes.hasNext()) {
+                final var graphNode = graphNodes.next();
+                readGraph(dataset.getGraph(graphNode), graphNode, writer);
+            }
+            writer.finish();
+            out.flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RiotException(e);
+        } catch (IOException e) {
+            throw new RiotException(e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void readGraph(Graph graph, Node graphNode, SegmentWriter writer) {
+        writer.startGraph(graphNode);
+        if (variant.isGroupBySubject()) {
+            JellyGraphWriter.writeGroupedBySubject(graph, writer);
+        } else {
+            final var triples = graph.find();
+            try {
+                while (triples.hasNext()) {
+                    writer.accept(triples.next());
+                }
+            } finally {
+                triples.close();
+            }
+        }
+        writer.endGraph();
+    }
+
+    /**
+     * Collects the triples read by the calling thread into segments, submits them to the workers, and writes
+     * the encoded frames of the finished segments in order.
+     */
+    private final class SegmentWriter implements Consumer<Triple> {
+
+        private final ExecutorService executor;
+        private final int maxSegmentsInFlight;
+        private final CodedOutputStream codedOutput;
+        private final ProtoTranscoder transcoder = JellyTranscoderFactory.fastMergingTranscoderUnsafe(
+            variant.getOptions()
+        );
+        private final ArrayDeque<Segment> pending = new ArrayDeque<>();
+
+        // Namespace declarations not yet written, if any
+        PrefixMap prefixes = null;
+        private Node graphNode;
+        private ArrayList<Triple> triples;
+
+        SegmentWriter(ExecutorService executor, int maxSegmentsInFlight, CodedOutputStream codedOutput) {
+            this.executor = executor;
+            this.maxSegmentsInFlight = maxSegmentsInFlight;
+            this.codedOutput = codedOutput;
+        }
+
+        void startGraph(Node graphNode) {
+            this.graphNode = graphNode;
+            this.triples = new ArrayList<>();
+        }
+
+        @Override
+        public void accept(Triple triple) {
+            // When grouping by subject, keep all triples of a subject in one segment
+            if (triples.size() >= segmentSize && (!variant.isGroupBySubject() || isNewSubject(triple))) {
+                submitSegment();
+                triples = new ArrayList<>();
+            }
+            triples.add(triple);
+        }
+
+        private boolean isNewSubject(Triple triple) {
+            return !triple.getSubject().equals(triples.get(triples.size() - 1).getSubject());
+        }
+
+        void endGraph() {
+            if (!triples.isEmpty()) {
+                submitSegment();
+            }
+            triples = null;
+        }
+
+        void finish() throws InterruptedException, IOException {
+            if (prefixes != null) {
+                // Empty dataset, but the namespaces still need to be written
+                triples = new ArrayList<>();
+                submitSegment();
+            }
+            while (!pending.isEmpty()) {
+                writeSegment(pending.remove());
+            }
+            // !!! CodedOutputStream.flush() does not flush the underlying OutputStream,
+            // so we need to do it explicitly.
+            codedOutput.flush();
+        }
+
+        private void submitSegment() {
+            try {
+                while (pending.size() >= maxSegmentsInFlight) {
+                    writeSegment(pending.remove());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RiotException(e);
+            } catch (IOException e) {
+                throw new RiotException(e);
+            }
+            final var segment = new Segment(graphNode, triples, prefixes);
+            prefixes = null;
+            pending.add(segment);
+            executor.execute(segment);
+        }
+
+        private void writeSegment(Segment segment) throws InterruptedException, IOException {
+            while (true) {
+                final Object item = segment.frames.take();
+                if (item == END_OF_SEGMENT) {
+                    return;
+                }
+                if (item instanceof Throwable e) {
+                    throw new RiotException(e);
+                }
+                final var merged = transcoder.ingestFrame((RdfStreamFrame) item);
+                if (!merged.getRows().isEmpty()) {
+                    merged.writeDelimitedTo(codedOutput);
+                }
+            }
+        }
+    }
+
+    /**
+     * Triples of one graph, encoded by a worker. The frames are handed over to the calling thread through
+     * a bounded queue, followed by END_OF_SEGMENT or the exception that stopped the encoding.
+     */
+    private final class Segment implements Runnable {
+
+        private final Node graphNode;
+        private final PrefixMap prefixes;
+        private ArrayList<Triple> triples;
+        final BlockingQueue<Object> frames = new ArrayBlockingQueue<>(FRAMES_IN_FLIGHT);
+
+        Segment(Node graphNode, ArrayList<Triple> triples, PrefixMap prefixes) {
+            this.graphNode = graphNode;
+            this.triples = triples;
+            this.prefixes = prefixes;
+        }
+
+        @Override
+        public void run() {
+            Object last;
+            try {
+                encode();
+                last = END_OF_SEGMENT;
+            } catch (InterruptedException e) {
+                // The writer gave up, nobody is waiting for the frames
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Throwable e) {
+                last = e;
+            } finally {
+                // The triples are not needed anymore, even if the segment waits to be written
+                triples = null;
+            }
+            try {
+                frames.put(last);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void encode() throws InterruptedException {
+            final int frameSize = variant.getFrameSize();
+            final LazyImmutableRowBuffer buffer = RowBuffer.newLazyImmutable(frameSize + 8);
+            final ProtoEncoder<Node> encoder = converterFactory.encoder(
+                ProtoEncoder.Params.of(variant.getOptions(), variant.isEnableNamespaceDeclarations(), buffer)
+            );
+
+            if (prefixes != null) {
+                for (var entry : prefixes.getMapping().entrySet()) {
+                    encoder.handleNamespace(entry.getKey(), NodeFactory.createURI(entry.getValue()));
+                }
+            }
+
+            if (!triples.isEmpty()) {
+                if (asGraphs) {
+                    encoder.handleGraphStart(graphNode);
+                }
+                for (int i = 0; i < triples.size(); i++) {
+                    final var triple = triples.get(i);
+                    if (asGraphs) {
+                        encoder.handleTriple(triple.getSubject(), triple.getPredicate(), triple.getObject());
+                    } else {
+                        encoder.handleQuad(triple.getSubject(), triple.getPredicate(), triple.getObject(), graphNode);
+                    }
+                    if (buffer.size() >= frameSize) {
+                        frames.put(RdfStreamFrame.newInstance().setRows(buffer.getRows()));
+                    }
+                }
+                if (asGraphs) {
+                    encoder.handleGraphEnd();
+                }
+            }
+
+            if (!buffer.isEmpty()) {
+                frames.put(RdfStreamFrame.newInstance().setRows(buffer.getRows()));
+            }
+        }
+    }
+}
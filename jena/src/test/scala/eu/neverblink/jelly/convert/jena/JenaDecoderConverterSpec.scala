@@ -1,6 +1,8 @@
 package eu.neverblink.jelly.convert.jena
 
 import eu.neverblink.jelly.convert.jena.traits.JenaTest
+import org.apache.jena.datatypes.xsd.XSDDatatype
+import org.apache.jena.graph.NodeFactory
 import org.apache.jena.sparql.core.Quad
 import org.scalatest.matchers.should.Matchers
 import org.scalatest.wordspec.AnyWordSpec
@@ -12,4 +14,21 @@ class JenaDecoderConverterSpec extends AnyWordSpec, Matchers, JenaTest:
     "make a default graph node" in {
       instance.makeDefaultGraphNode() should be(Quad.defaultGraphNodeGenerated)
     }
+
+    "resolve common XSD datatypes to their singletons" in {
+      for dt <- Seq(
+          XSDDatatype.XSDinteger,
+          XSDDatatype.XSDdecimal,
+          XSDDatatype.XSDdouble,
+          XSDDatatype.XSDdateTime,
+          XSDDatatype.XSDboolean,
+        )
+      do instance.makeDatatype(dt.getURI) should be theSameInstanceAs dt
+    }
+
+    "resolve other datatypes through the type mapper" in {
+      val uri = "https://example.org/dt"
+      instance.makeDatatype(uri) should be(NodeFactory.getType(uri))
+      instance.makeDatatype(XSDDatatype.XSDfloat.getURI) should be(XSDDatatype.XSDfloat)
+    }
   }
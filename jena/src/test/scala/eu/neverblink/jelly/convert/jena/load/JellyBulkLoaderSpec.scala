@@ -0,0 +1,109 @@
+package eu.neverblink.jelly.convert.jena.load
+
+import eu.neverblink.jelly.convert.jena.riot.{JellyFormatVariant, JellyLanguage}
+import eu.neverblink.jelly.convert.jena.traits.JenaTest
+import org.apache.jena.graph.{Graph, NodeFactory, Triple}
+import org.apache.jena.riot.{RDFWriter, RDFWriterBuilder, RiotException}
+import org.apache.jena.sparql.core.{DatasetGraph, DatasetGraphFactory}
+import org.apache.jena.sparql.graph.GraphFactory
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+import java.io.{ByteArrayInputStream, ByteArrayOutputStream}
+import scala.jdk.CollectionConverters.*
+
+class JellyBulkLoaderSpec extends AnyWordSpec, Matchers, JenaTest:
+  private def makeGraph(graphIx: Int): Graph =
+    val graph = GraphFactory.createDefaultGraph()
+    for i <- 1 to 500 do
+      graph.add(
+        Triple.create(
+          NodeFactory.createURI(f"http://example.com/s${i % 50}"),
+          NodeFactory.createURI(f"http://example.com/p${i % 7}"),
+          NodeFactory.createLiteralString(f"$graphIx-$i"),
+        ),
+      )
+    graph
+
+  private val dataset: DatasetGraph = DatasetGraphFactory.create(makeGraph(0))
+  for i <- 1 to 3 do
+    dataset.addGraph(NodeFactory.createURI(f"http://example.com/g$i"), makeGraph(i))
+  dataset.prefixes().add("ex", "http://example.com/")
+
+  private def writeJelly(source: RDFWriterBuilder => RDFWriterBuilder): Array[Byte] =
+    val out = ByteArrayOutputStream()
+    source(RDFWriter.create())
+      .lang(JellyLanguage.JELLY)
+      .set(JellyLanguage.SYMBOL_FRAME_SIZE, 64)
+      .set(JellyLanguage.SYMBOL_ENABLE_NAMESPACE_DECLARATIONS, true)
+      .output(out)
+    out.toByteArray
+
+  private val datasetBytes = writeJelly(_.source(dataset))
+
+  private def checkSameDataset(loaded: DatasetGraph): Unit =
+    loaded.getDefaultGraph.isIsomorphicWith(dataset.getDefaultGraph) should be(true)
+    loaded.listGraphNodes().asScala.toSet should be(dataset.listGraphNodes().asScala.toSet)
+    for g <- dataset.listGraphNodes().asScala do
+      loaded.getGraph(g).isIsomorphicWith(dataset.getGraph(g)) should be(true)
+
+  "JellyBulkLoader" should {
+    "reject invalid settings" in {
+      intercept[IllegalArgumentException] {
+        JellyBulkLoader.builder().batchSize(0).build()
+      }
+      intercept[IllegalArgumentException] {
+        JellyBulkLoader.builder().queueCapacity(0).build()
+      }
+    }
+
+    for batchSize <- Seq(1, 100, JellyBulkLoader.DEFAULT_BATCH_SIZE) do
+      f"load quads into a dataset (batch size $batchSize)" in {
+        val loaded = DatasetGraphFactory.createTxnMem()
+        val count = JellyBulkLoader.builder().batchSize(batchSize).queueCapacity(2).build()
+          .load(ByteArrayInputStream(datasetBytes), loaded)
+        count should be(2000)
+        loaded.isInTransaction should be(false)
+        checkSameDataset(loaded)
+        loaded.prefixes().get("ex") should be("http://example.com/")
+      }
+
+    "load triples into the default graph" in {
+      val bytes = writeJelly(_.source(dataset.getGraph(NodeFactory.createURI("http://example.com/g1"))))
+      val loaded = DatasetGraphFactory.create()
+      JellyBulkLoader.builder().build().load(ByteArrayInputStream(bytes), loaded) should be(500)
+      loaded.getDefaultGraph.isIsomorphicWith(makeGraph(1)) should be(true)
+      loaded.listGraphNodes().hasNext should be(false)
+    }
+
+    "load a non-delimited file" in {
+      val out = ByteArrayOutputStream()
+      RDFWriter.source(dataset)
+        .lang(JellyLanguage.JELLY)
+        .set(JellyLanguage.SYMBOL_DELIMITED_OUTPUT, false)
+        .output(out)
+      val loaded = DatasetGraphFactory.create()
+      JellyBulkLoader.builder().build().load(ByteArrayInputStream(out.toByteArray), loaded)
+      checkSameDataset(loaded)
+    }
+
+    "use the write transaction of the calling thread" in {
+      val loaded = DatasetGraphFactory.createTxnMem()
+      loaded.executeWrite(() => {
+        JellyBulkLoader.builder().build().load(ByteArrayInputStream(datasetBytes), loaded)
+        loaded.isInTransaction should be(true)
+      })
+      checkSameDataset(loaded)
+    }
+
+    "abort the transaction on malformed input" in {
+      val loaded = DatasetGraphFactory.createTxnMem()
+      // Cut the stream in the middle of a frame
+      val truncated = datasetBytes.take(datasetBytes.length - 10)
+      intercept[RiotException] {
+        JellyBulkLoader.builder().batchSize(10).build().load(ByteArrayInputStream(truncated), loaded)
+      }
+      loaded.isInTransaction should be(false)
+      loaded.executeRead(() => loaded.isEmpty should be(true))
+    }
+  }
@@ -0,0 +1,104 @@
+package eu.neverblink.jelly.convert.jena.riot
+
+import eu.neverblink.jelly.convert.jena.JenaConverterFactory
+import eu.neverblink.jelly.convert.jena.traits.JenaTest
+import org.apache.commons.io.output.ByteArrayOutputStream
+import org.apache.jena.query.{QueryExecutionFactory, ResultSetFactory, ResultSetRewindable}
+import org.apache.jena.rdf.model.{Model, ModelFactory}
+import org.apache.jena.riot.resultset.ResultSetLang
+import org.apache.jena.riot.{Lang, RDFLanguages, ResultSetMgr, RiotException}
+import org.apache.jena.sparql.resultset.ResultSetCompare
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+import java.io.{ByteArrayInputStream, StringWriter}
+
+class JellyResultSetSpec extends AnyWordSpec, Matchers, JenaTest:
+  private val model: Model =
+    val m = ModelFactory.createDefaultModel()
+    for i <- 1 to 500 do
+      val s = m.createResource(f"http://example.com/s${i % 50}")
+      s.addProperty(m.createProperty("http://example.com/name"), f"name ${i % 7}")
+      if i % 3 == 0 then s.addLiteral(m.createProperty("http://example.com/age"), i.toLong)
+      if i % 5 == 0 then s.addProperty(m.createProperty("http://example.com/label"), f"label $i", "en")
+    m
+
+  private def select(query: String): ResultSetRewindable =
+    val exec = QueryExecutionFactory.create(query, model)
+    try ResultSetFactory.copyResults(exec.execSelect())
+    finally exec.close()
+
+  private def roundTrip(results: ResultSetRewindable, lang: Lang): ResultSetRewindable =
+    val out = ByteArrayOutputStream()
+    results.reset()
+    ResultSetMgr.write(out, results, lang)
+    results.reset()
+    ResultSetFactory.copyResults(ResultSetMgr.read(ByteArrayInputStream(out.toByteArray), lang))
+
+  "JellyLanguage.JELLY_RESULTS" should {
+    "be registered with its content type" in {
+      RDFLanguages.contentTypeToLang("application/x-jelly-sparql-results") should be(
+        JellyLanguage.JELLY_RESULTS,
+      )
+    }
+  }
+
+  "JellyResultSetWriter and JellyResultSetReader" should {
+    val queries = Seq(
+      "SELECT * WHERE { ?s ?p ?o }",
+      "SELECT ?s ?age ?label WHERE { ?s <http://example.com/name> ?n " +
+        "OPTIONAL { ?s <http://example.com/age> ?age } OPTIONAL { ?s <http://example.com/label> ?label } }",
+      "SELECT ?s WHERE { ?s <http://example.com/missing> ?o }",
+      "SELECT (COUNT(*) AS ?c) WHERE { ?s ?p ?o }",
+    )
+
+    for query <- queries do
+      f"round-trip results of: $query" in {
+        val results = select(query)
+        val decoded = roundTrip(results, JellyLanguage.JELLY_RESULTS)
+        decoded.getResultVars should be(results.getResultVars)
+        decoded.size() should be(results.size())
+        results.reset()
+        decoded.reset()
+        ResultSetCompare.equalsByTerm(results, decoded) should be(true)
+      }
+
+    "produce smaller output than SPARQL JSON and TSV" in {
+      val results = select("SELECT * WHERE { ?s ?p ?o } ORDER BY ?s ?p")
+      def size(lang: Lang): Int =
+        val out = ByteArrayOutputStream()
+        results.reset()
+        ResultSetMgr.write(out, results, lang)
+        out.size()
+      val jellySize = size(JellyLanguage.JELLY_RESULTS)
+      jellySize should be < size(ResultSetLang.RS_JSON)
+      jellySize should be < size(ResultSetLang.RS_TSV)
+    }
+
+    "round-trip boolean results" in {
+      val writer = JellyResultSetWriter(JenaConverterFactory.getInstance(), JellyFormatVariant.getDefault)
+      val reader = JellyResultSetReader(JenaConverterFactory.getInstance())
+      for result <- Seq(true, false) do
+        val out = ByteArrayOutputStream()
+        writer.write(out, result, null)
+        val decoded = reader.readAny(ByteArrayInputStream(out.toByteArray), null)
+        decoded.isBoolean should be(true)
+        decoded.getBooleanResult should be(result)
+        intercept[RiotException] {
+          reader.read(ByteArrayInputStream(out.toByteArray), null)
+        }
+    }
+
+    "refuse to write to a java.io.Writer" in {
+      val writer = JellyResultSetWriter(JenaConverterFactory.getInstance(), JellyFormatVariant.getDefault)
+      intercept[RiotException] {
+        writer.write(StringWriter(), select("SELECT * WHERE { ?s ?p ?o }"), null)
+      }
+    }
+
+    "reject input that is not a Jelly results stream" in {
+      intercept[RiotException] {
+        ResultSetMgr.read(ByteArrayInputStream(Array[Byte](2, 0x7a, 0)), JellyLanguage.JELLY_RESULTS)
+      }
+    }
+  }
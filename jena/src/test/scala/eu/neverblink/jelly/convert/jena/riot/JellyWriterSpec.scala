@@ -3,15 +3,20 @@ package eu.neverblink.jelly.convert.jena.riot
 import eu.neverblink.jelly.convert.jena.JenaConverterFactory
 import eu.neverblink.jelly.convert.jena.traits.JenaTest
 import eu.neverblink.jelly.core.utils.IoUtils
-import eu.neverblink.jelly.core.proto.v1.{RdfStreamFrame, RdfStreamRow}
+import eu.neverblink.jelly.core.{JellyConstants, JellyOptions}
+import eu.neverblink.jelly.core.proto.v1.{LogicalStreamType, PhysicalStreamType, RdfStreamFrame, RdfStreamRow}
 import org.apache.commons.io.output.{ByteArrayOutputStream, NullWriter}
-import org.apache.jena.graph.{NodeFactory, Triple}
-import org.apache.jena.riot.RiotException
-import org.apache.jena.sparql.core.Quad
+import org.apache.jena.graph.{Graph, NodeFactory, Triple}
+import org.apache.jena.riot.system.PrefixMapFactory
+import org.apache.jena.riot.{RDFDataMgr, RiotException}
+import org.apache.jena.sparql.core.{DatasetGraph, DatasetGraphFactory, Quad}
+import org.apache.jena.sparql.graph.{GraphFactory, GraphWrapper}
+import org.apache.jena.sparql.util.Context
 import org.scalatest.matchers.should.Matchers
 import org.scalatest.wordspec.AnyWordSpec
 
 import java.io.{ByteArrayInputStream, OutputStream}
+import scala.jdk.CollectionConverters.*
 
 /** Tests covering rare edge cases in the Jelly writer. The main tests are done in the
   * integration-tests module.
@@ -131,6 +136,79 @@ class JellyWriterSpec extends AnyWordSpec, Matchers, JenaTest:
       }
     }
 
+  "JellyStreamWriter" should {
+    "cut frames by the byte budget" in {
+      val triples = makeGraph(0).find().asScala.toSeq
+      val out = new ByteArrayOutputStream()
+      val writer = JellyStreamWriter.create(
+        converterFactory,
+        JellyFormatVariant.builder.frameSize(10_000).maxFrameBytes(300).build(),
+        out,
+      )
+      for t <- triples do writer.triple(t)
+      writer.finish()
+
+      val in = ByteArrayInputStream(out.toByteArray)
+      val frames = Iterator
+        .continually(RdfStreamFrame.parseDelimitedFrom(in))
+        .takeWhile(_ != null)
+        .toSeq
+      frames.size should be > 1
+      // Every frame but the last is closed by the budget, right after the row that reached it
+      for f <- frames.init do
+        f.getSerializedSize should be >= 300
+        f.getSerializedSize should be < 300 + 100
+      frames.map(_.getRows.asScala.count(_.hasTriple)).sum should be(triples.size)
+    }
+
+    "flush frames by time when requested" in {
+      val out = new ByteArrayOutputStream()
+      val writer = JellyStreamWriter.create(
+        converterFactory,
+        JellyFormatVariant.builder.maxFrameLatencyMillis(1).build(),
+        out,
+      )
+      writer.flushIfDue() should be(false)
+      writer.triple(testTriple)
+      out.size should be(0)
+      Thread.sleep(10)
+      writer.flushIfDue() should be(true)
+      // The frame is delivered to the output stream without waiting for finish()
+      val firstFrame = RdfStreamFrame.parseDelimitedFrom(ByteArrayInputStream(out.toByteArray))
+      firstFrame.getRows.asScala.count(_.hasTriple) should be(1)
+      writer.flushIfDue() should be(false)
+
+      // The deadline is also checked on writes
+      writer.triple(testTriple)
+      Thread.sleep(10)
+      writer.triple(testTriple)
+      readRows(out.toByteArray).count(_.hasTriple) should be(3)
+      writer.finish()
+    }
+
+    "not flush frames by time if the latency is not set" in {
+      val out = new ByteArrayOutputStream()
+      val writer = JellyStreamWriter.create(converterFactory, JellyFormatVariant.getDefault, out)
+      writer.triple(testTriple)
+      Thread.sleep(5)
+      writer.flushIfDue() should be(false)
+      writer.triple(testTriple)
+      out.size should be(0)
+    }
+
+    "read the byte budget and latency from the context" in {
+      val context = Context()
+      context.set(JellyLanguage.SYMBOL_MAX_FRAME_BYTES, 1000)
+      context.set(JellyLanguage.SYMBOL_MAX_FRAME_LATENCY_MILLIS, 50L)
+      val variant = JellyFormatVariant.getDefault.withContext(context)
+      variant.getMaxFrameBytes should be(1000)
+      variant.getMaxFrameLatencyMillis should be(50L)
+      val defaults = JellyFormatVariant.getDefault.withContext(Context())
+      defaults.getMaxFrameBytes should be(0)
+      defaults.getMaxFrameLatencyMillis should be(0L)
+    }
+  }
+
   "JellyStreamWriterAutodetectType" should {
     "do nothing if the stream was not started" in {
       val out = new OutputStream {
@@ -217,3 +295,234 @@ class JellyWriterSpec extends AnyWordSpec, Matchers, JenaTest:
             datasetWriter.getLang should be(JellyLanguage.JELLY)
       }
     }
+
+  // Interleaved subjects and predicates, as they could come out of an unordered graph
+  private def makeGraph(graphIx: Int): Graph =
+    val graph = GraphFactory.createDefaultGraph()
+    for i <- 1 to 200 do
+      graph.add(
+        Triple.create(
+          NodeFactory.createURI(f"http://example.com/s${i % 20}"),
+          NodeFactory.createURI(f"http://example.com/p${i % 3}"),
+          NodeFactory.createLiteralString(f"$graphIx-$i"),
+        ),
+      )
+    graph
+
+  private def readRows(bytes: Array[Byte]): Seq[RdfStreamRow] =
+    val in = ByteArrayInputStream(bytes)
+    Iterator
+      .continually(RdfStreamFrame.parseDelimitedFrom(in))
+      .takeWhile(_ != null)
+      .flatMap(_.getRows.asScala)
+      .toSeq
+
+  "JellyGraphWriter" should {
+    "write triples grouped by subject if requested" in {
+      val graph = makeGraph(0)
+      def write(grouped: Boolean): Array[Byte] =
+        val out = new ByteArrayOutputStream()
+        val context = Context()
+        context.set(JellyLanguage.SYMBOL_GROUP_BY_SUBJECT, grouped)
+        JellyGraphWriter(converterFactory, JellyFormatVariant.getDefault)
+          .write(out, graph, null, null, context)
+        out.toByteArray
+
+      val groupedBytes = write(grouped = true)
+      val triples = readRows(groupedBytes).filter(_.hasTriple).map(_.getTriple)
+      triples.size should be(200)
+      // Each subject is written explicitly only once
+      triples.count(_.getSubject != null) should be(20)
+      groupedBytes.length should be < write(grouped = false).length
+
+      val graph2 = GraphFactory.createDefaultGraph()
+      RDFDataMgr.read(graph2, ByteArrayInputStream(groupedBytes), JellyLanguage.JELLY)
+      graph2.isIsomorphicWith(graph) should be(true)
+    }
+
+    "group the triples of a subject by predicate, also with colliding predicate hashes" in {
+      // "Aa" and "BB" have the same String hash code
+      val predicates = Seq("Aa", "BB", "Aa", "BB", "Aa").map(p => NodeFactory.createURI(s"http://example.com/$p"))
+      val graph = GraphFactory.createDefaultGraph()
+      val s = NodeFactory.createURI("http://example.com/s")
+      for (p, i) <- predicates.zipWithIndex do
+        graph.add(Triple.create(s, p, NodeFactory.createLiteralString(s"o$i")))
+
+      val written = scala.collection.mutable.ArrayBuffer[Triple]()
+      JellyGraphWriter.writeGroupedBySubject(graph, t => written += t)
+      written.size should be(5)
+      // Each predicate forms one contiguous run
+      written.map(_.getPredicate).distinct.size should be(2)
+      val runs = written.map(_.getPredicate).foldLeft(List.empty[org.apache.jena.graph.Node]) {
+        case (last :: rest, p) if last == p => last :: rest
+        case (acc, p) => p :: acc
+      }
+      runs.size should be(2)
+    }
+
+    "group the triples of the graphs of a dataset by subject" in {
+      val dataset = DatasetGraphFactory.createTxnMem()
+      val graph = dataset.getDefaultGraph
+      makeGraph(0).find().forEachRemaining(graph.add)
+      JellyGraphWriter.isSubjectIndexed(graph) should be(true)
+      val written = scala.collection.mutable.ArrayBuffer[Triple]()
+      JellyGraphWriter.writeGroupedBySubject(graph, t => written += t)
+      written.size should be(200)
+      // Each of the 20 subjects forms one contiguous run
+      written.map(_.getSubject).sliding(2).count(w => w.head != w.last) should be(19)
+    }
+
+    "write the triples of a graph without a subject index in iteration order" in {
+      val graph = GraphWrapper(makeGraph(0))
+      JellyGraphWriter.isSubjectIndexed(graph) should be(false)
+      val written = scala.collection.mutable.ArrayBuffer[Triple]()
+      JellyGraphWriter.writeGroupedBySubject(graph, t => written += t)
+      written.toSeq should be(graph.find().toList.asScala.toSeq)
+    }
+  }
+
+  "JellyDatasetWriter" should {
+    val dataset: DatasetGraph = DatasetGraphFactory.create(makeGraph(0))
+    for i <- 1 to 3 do
+      dataset.addGraph(NodeFactory.createURI(f"http://example.com/g$i"), makeGraph(i))
+
+    def write(variant: JellyFormatVariant): Array[Byte] =
+      val out = new ByteArrayOutputStream()
+      JellyDatasetWriter(converterFactory, variant).write(out, dataset, null, null, Context())
+      out.toByteArray
+
+    def checkRoundTrip(bytes: Array[Byte]): Unit =
+      val dataset2 = DatasetGraphFactory.create()
+      RDFDataMgr.read(dataset2, ByteArrayInputStream(bytes), JellyLanguage.JELLY)
+      dataset2.getDefaultGraph.isIsomorphicWith(dataset.getDefaultGraph) should be(true)
+      dataset2.listGraphNodes().asScala.toSet should be(dataset.listGraphNodes().asScala.toSet)
+      for g <- dataset.listGraphNodes().asScala do
+        dataset2.getGraph(g).isIsomorphicWith(dataset.getGraph(g)) should be(true)
+
+    "write quads grouped by graph and subject if requested" in {
+      val bytes = write(JellyFormatVariant.builder().groupBySubject(true).build())
+      val quads = readRows(bytes).filter(_.hasQuad).map(_.getQuad)
+      quads.size should be(800)
+      quads.count(_.getGraph != null) should be(4)
+      // Each subject is written explicitly at most once per graph
+      quads.count(_.getSubject != null) should be <= 80
+      bytes.length should be < write(JellyFormatVariant.getDefault).length
+      checkRoundTrip(bytes)
+    }
+
+    "write a GRAPHS stream if requested" in {
+      val variant = JellyFormatVariant.builder()
+        .groupBySubject(true)
+        .options(JellyOptions.BIG_STRICT.clone().setPhysicalType(PhysicalStreamType.GRAPHS))
+        .build()
+      val bytes = write(variant)
+      val rows = readRows(bytes)
+      rows.head.getOptions.getPhysicalType should be(PhysicalStreamType.GRAPHS)
+      rows.count(_.hasGraphStart) should be(4)
+      rows.count(_.hasGraphEnd) should be(4)
+      rows.count(_.hasTriple) should be(800)
+      rows.count(_.hasQuad) should be(0)
+      checkRoundTrip(bytes)
+    }
+
+    for (grouped, physicalType) <- Seq(
+        (false, PhysicalStreamType.QUADS),
+        (true, PhysicalStreamType.QUADS),
+        (true, PhysicalStreamType.GRAPHS),
+      )
+    do
+      f"write graphs in parallel (grouped: $grouped, $physicalType)" in {
+        val variant = JellyFormatVariant.builder()
+          .groupBySubject(grouped)
+          .parallelism(4)
+          .frameSize(64)
+          .options(JellyOptions.BIG_STRICT.clone().setPhysicalType(physicalType))
+          .build()
+        val bytes = write(variant)
+        val rows = readRows(bytes)
+        rows.count(_.hasOptions) should be(1)
+        rows.head.getOptions.getPhysicalType should be(physicalType)
+        (rows.count(_.hasQuad) + rows.count(_.hasTriple)) should be(800)
+        checkRoundTrip(bytes)
+        // The output does not depend on the scheduling of the workers
+        write(variant) should be(bytes)
+      }
+
+    "write namespace declarations at the start when writing in parallel" in {
+      val prefixes = PrefixMapFactory.create()
+      prefixes.add("ex", "http://example.com/")
+      val out = new ByteArrayOutputStream()
+      val variant = JellyFormatVariant.builder()
+        .parallelism(2)
+        .enableNamespaceDeclarations(true)
+        .build()
+      JellyDatasetWriter(converterFactory, variant).write(out, dataset, prefixes, null, Context())
+      val rows = readRows(out.toByteArray)
+      rows.head.getOptions.getVersion should be(JellyConstants.PROTO_VERSION)
+      rows.filter(_.hasNamespace).map(_.getNamespace.getName) should be(Seq("ex"))
+      rows.indexWhere(_.hasNamespace) should be < rows.indexWhere(_.hasQuad)
+      checkRoundTrip(out.toByteArray)
+    }
+
+    for (grouped, physicalType) <- Seq(
+        (false, PhysicalStreamType.QUADS),
+        (true, PhysicalStreamType.QUADS),
+        (true, PhysicalStreamType.GRAPHS),
+      )
+    do
+      f"split large graphs into segments when writing in parallel (grouped: $grouped, $physicalType)" in {
+        val variant = JellyFormatVariant.builder()
+          .groupBySubject(grouped)
+          .parallelism(4)
+          .frameSize(16)
+          .options(
+            JellyOptions.BIG_STRICT.clone()
+              .setPhysicalType(physicalType)
+              .setLogicalType(LogicalStreamType.FLAT_QUADS),
+          )
+          .build()
+        def writeSegmented(): Array[Byte] =
+          val out = new ByteArrayOutputStream()
+          // 200 triples per graph, so each graph is split into 7 segments
+          ParallelDatasetEncoder(converterFactory, variant, 30).write(dataset, null, out)
+          out.toByteArray
+        val bytes = writeSegmented()
+        val rows = readRows(bytes)
+        rows.count(_.hasOptions) should be(1)
+        (rows.count(_.hasQuad) + rows.count(_.hasTriple)) should be(800)
+        if physicalType == PhysicalStreamType.GRAPHS then rows.count(_.hasGraphStart) should be > 4
+        checkRoundTrip(bytes)
+        writeSegmented() should be(bytes)
+      }
+
+    "write in parallel from one snapshot of a transactional dataset" in {
+      val txnDataset = DatasetGraphFactory.createTxnMem()
+      txnDataset.executeWrite(() => dataset.find().forEachRemaining(q => txnDataset.add(q)))
+      val out = new ByteArrayOutputStream()
+      JellyDatasetWriter(converterFactory, JellyFormatVariant.builder().parallelism(4).build())
+        .write(out, txnDataset, null, null, Context())
+      txnDataset.isInTransaction should be(false)
+      readRows(out.toByteArray).count(_.hasQuad) should be(800)
+      checkRoundTrip(out.toByteArray)
+    }
+
+    "write in the caller's write transaction, even if parallelism is set" in {
+      val txnDataset = DatasetGraphFactory.createTxnMem()
+      txnDataset.executeWrite(() => {
+        dataset.find().forEachRemaining(q => txnDataset.add(q))
+        val out = new ByteArrayOutputStream()
+        JellyDatasetWriter(converterFactory, JellyFormatVariant.builder().parallelism(4).build())
+          .write(out, txnDataset, null, null, Context())
+        readRows(out.toByteArray).count(_.hasQuad) should be(800)
+      })
+    }
+
+    "ignore the GRAPHS physical type if not grouping by subject" in {
+      val variant = JellyFormatVariant.builder()
+        .options(JellyOptions.BIG_STRICT.clone().setPhysicalType(PhysicalStreamType.GRAPHS))
+        .build()
+      val rows = readRows(write(variant))
+      rows.head.getOptions.getPhysicalType should be(PhysicalStreamType.QUADS)
+      rows.count(_.hasQuad) should be(800)
+    }
+  }
@@ -0,0 +1,88 @@
+package eu.neverblink.jelly.jmh
+
+import eu.neverblink.jelly.core.proto.v1.RdfStreamFrame
+import eu.neverblink.jelly.core.utils.{Base64DecodingInputStream, Base64EncodingOutputStream}
+import org.apache.commons.codec.binary.{Base64InputStream, Base64OutputStream}
+import org.apache.commons.io.input.ReaderInputStream
+import org.apache.commons.io.output.WriterOutputStream
+import org.openjdk.jmh.annotations.*
+import org.openjdk.jmh.infra.Blackhole
+
+import java.io.{ByteArrayInputStream, InputStream, OutputStream, StringReader, StringWriter}
+import java.nio.charset.StandardCharsets
+import java.util.Base64
+import java.util.concurrent.TimeUnit
+import scala.compiletime.uninitialized
+
+/** Reading and writing Jelly-base64 (as used by the Neo4j plugin) with the commons-codec/commons-io
+  * stream chain versus the block-based [[Base64DecodingInputStream]] and
+  * [[Base64EncodingOutputStream]]. The payload is the IoT dataset from [[TypedLiteralBench]],
+  * which is about the size of a large n10s.rdf.collect.jelly_base64 result.
+  */
+object Base64Bench:
+  @State(Scope.Benchmark)
+  class Base64Input:
+    var bytes: Array[Byte] = uninitialized
+    var encoded: Array[Byte] = uninitialized
+    var encodedString: String = uninitialized
+
+    @Setup(Level.Trial)
+    def setup(input: BulkLoaderBench.FileInput): Unit =
+      bytes = input.bytes
+      encoded = Base64.getEncoder.encode(bytes)
+      encodedString = String(encoded, StandardCharsets.US_ASCII)
+
+class Base64Bench:
+  import Base64Bench.*
+
+  @Param(Array("commons", "streaming"))
+  var implementation: String = uninitialized
+
+  private def parseFrames(blackhole: Blackhole, in: InputStream): Unit =
+    Iterator.continually(RdfStreamFrame.parseDelimitedFrom(in))
+      .takeWhile(_ != null)
+      .foreach(blackhole.consume)
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @BenchmarkMode(Array(Mode.AverageTime))
+  def decodeStream(blackhole: Blackhole, input: Base64Input): Unit =
+    val in = ByteArrayInputStream(input.encoded)
+    val decoded =
+      if implementation == "commons" then Base64InputStream(in)
+      else Base64DecodingInputStream(in)
+    parseFrames(blackhole, decoded)
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @BenchmarkMode(Array(Mode.AverageTime))
+  def decodeReader(blackhole: Blackhole, input: Base64Input): Unit =
+    val reader = StringReader(input.encodedString)
+    val decoded =
+      if implementation == "commons" then
+        Base64InputStream(ReaderInputStream.builder().setReader(reader).get())
+      else Base64DecodingInputStream(reader)
+    parseFrames(blackhole, decoded)
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @BenchmarkMode(Array(Mode.AverageTime))
+  def encodeWriter(blackhole: Blackhole, input: Base64Input): Unit =
+    val writer = StringWriter(input.encoded.length)
+    val bytes = input.bytes
+    // Write in 4 KiB chunks, like the CodedOutputStream of the Jelly writer
+    def writeAll(out: OutputStream): Unit =
+      var pos = 0
+      while pos < bytes.length do
+        val len = math.min(4096, bytes.length - pos)
+        out.write(bytes, pos, len)
+        pos += len
+    if implementation == "commons" then
+      val out = Base64OutputStream(WriterOutputStream.builder().setWriter(writer).get(), true, 0, null)
+      writeAll(out)
+      out.close()
+    else
+      val out = Base64EncodingOutputStream(writer)
+      writeAll(out)
+      out.close()
+    blackhole.consume(writer.toString)
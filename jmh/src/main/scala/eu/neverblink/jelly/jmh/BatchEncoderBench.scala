@@ -0,0 +1,82 @@
+package eu.neverblink.jelly.jmh
+
+import eu.neverblink.jelly.convert.jena.JenaConverterFactory
+import eu.neverblink.jelly.core.memory.{EncoderAllocator, RowBuffer}
+import eu.neverblink.jelly.core.proto.v1.{PhysicalStreamType, RdfStreamFrame}
+import eu.neverblink.jelly.core.{JellyOptions, ProtoEncoder}
+import org.apache.jena.graph.Node
+import org.openjdk.jmh.annotations.*
+import org.openjdk.jmh.infra.Blackhole
+
+import java.util.concurrent.TimeUnit
+import scala.compiletime.uninitialized
+
+/** Encoding statements one call at a time (with a frame size check after each statement) versus
+  * encoding them in batches from parallel arrays with ProtoEncoder.handleTriples.
+  */
+object BatchEncoderBench:
+  @State(Scope.Benchmark)
+  class ColumnInput:
+    var subjects: Array[Node] = uninitialized
+    var predicates: Array[Node] = uninitialized
+    var objects: Array[Node] = uninitialized
+
+    @Setup(Level.Trial)
+    def setup(input: TypedLiteralBench.BenchInput): Unit =
+      subjects = input.triples.map(_.getSubject)
+      predicates = input.triples.map(_.getPredicate)
+      objects = input.triples.map(_.getObject)
+
+class BatchEncoderBench:
+  import BatchEncoderBench.*
+
+  private def newEncoder(buffer: RowBuffer, allocator: EncoderAllocator) =
+    JenaConverterFactory.getInstance().encoder(
+      ProtoEncoder.Params.of(
+        JellyOptions.BIG_STRICT.clone().setPhysicalType(PhysicalStreamType.TRIPLES),
+        false,
+        buffer,
+        allocator,
+      ),
+    )
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  @BenchmarkMode(Array(Mode.AverageTime))
+  def perCall(blackhole: Blackhole, input: ColumnInput): Unit =
+    val buffer = RowBuffer.newReusableForEncoder(264)
+    val allocator = EncoderAllocator.newArenaAllocator(264)
+    val frame = RdfStreamFrame.newInstance().setRows(buffer)
+    val encoder = newEncoder(buffer, allocator)
+    var i = 0
+    while i < input.subjects.length do
+      encoder.handleTriple(input.subjects(i), input.predicates(i), input.objects(i))
+      if buffer.size() >= 256 then
+        blackhole.consume(frame)
+        buffer.clear()
+        allocator.releaseAll()
+      i += 1
+    blackhole.consume(frame)
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  @BenchmarkMode(Array(Mode.AverageTime))
+  def batched(blackhole: Blackhole, input: ColumnInput): Unit =
+    val buffer = RowBuffer.newReusableForEncoder(264)
+    val allocator = EncoderAllocator.newArenaAllocator(264)
+    val frame = RdfStreamFrame.newInstance().setRows(buffer)
+    val encoder = newEncoder(buffer, allocator)
+    val total = input.subjects.length
+    var done = 0
+    while done < total do
+      done += encoder.handleTriples(
+        input.subjects,
+        input.predicates,
+        input.objects,
+        done,
+        total - done,
+        256,
+      )
+      blackhole.consume(frame)
+      buffer.clear()
+      allocator.releaseAll()
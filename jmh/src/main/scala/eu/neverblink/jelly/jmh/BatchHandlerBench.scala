@@ -0,0 +1,68 @@
+package eu.neverblink.jelly.jmh
+
+import eu.neverblink.jelly.convert.jena.JenaConverterFactory
+import eu.neverblink.jelly.core.RdfHandler.TripleHandler
+import eu.neverblink.jelly.core.utils.BatchingRdfHandler
+import eu.neverblink.jelly.core.{BatchRdfHandler, JellyOptions}
+import org.apache.jena.graph.Node
+import org.openjdk.jmh.annotations.*
+import org.openjdk.jmh.infra.Blackhole
+
+import java.util.concurrent.TimeUnit
+
+/** Decoding with a per-statement handler versus receiving the statements in batches (one batch per
+  * frame) through BatchingRdfHandler. The consumer does the same work in both cases.
+  */
+class BatchHandlerBench:
+  import TypedLiteralBench.BenchInput
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  @BenchmarkMode(Array(Mode.AverageTime))
+  def perStatement(blackhole: Blackhole, input: BenchInput): Unit =
+    val handler = new TripleHandler[Node] {
+      override def handleTriple(subject: Node, predicate: Node, `object`: Node): Unit =
+        blackhole.consume(`object`)
+    }
+    val decoder = JenaConverterFactory.getInstance().triplesDecoder(
+      handler,
+      JellyOptions.DEFAULT_SUPPORTED_OPTIONS,
+    )
+    for i <- input.frames.indices do input.frames(i).getRows.forEach(decoder.ingestRow)
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  @BenchmarkMode(Array(Mode.AverageTime))
+  def batched(blackhole: Blackhole, input: BenchInput): Unit =
+    val batchHandler = new BatchRdfHandler[Node] {
+      override def handleTriples(
+          subjects: Array[Node],
+          predicates: Array[Node],
+          objects: Array[Node],
+          count: Int,
+      ): Unit =
+        var i = 0
+        while i < count do
+          blackhole.consume(objects(i))
+          i += 1
+
+      override def handleQuads(
+          subjects: Array[Node],
+          predicates: Array[Node],
+          objects: Array[Node],
+          graphs: Array[Node],
+          count: Int,
+      ): Unit =
+        var i = 0
+        while i < count do
+          blackhole.consume(objects(i))
+          i += 1
+    }
+    val handler = BatchingRdfHandler[Node](batchHandler, 1024, n => new Array[Node](n))
+    val decoder = JenaConverterFactory.getInstance().triplesDecoder(
+      handler,
+      JellyOptions.DEFAULT_SUPPORTED_OPTIONS,
+    )
+    for i <- input.frames.indices do
+      input.frames(i).getRows.forEach(decoder.ingestRow)
+      handler.flush()
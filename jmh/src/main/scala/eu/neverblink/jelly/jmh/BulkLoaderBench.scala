@@ -0,0 +1,52 @@
+package eu.neverblink.jelly.jmh
+
+import eu.neverblink.jelly.convert.jena.load.JellyBulkLoader
+import eu.neverblink.jelly.convert.jena.riot.JellyLanguage
+import org.apache.jena.riot.RDFDataMgr
+import org.apache.jena.sparql.core.DatasetGraphFactory
+import org.apache.jena.system.Txn
+import org.openjdk.jmh.annotations.*
+import org.openjdk.jmh.infra.Blackhole
+
+import java.io.{ByteArrayInputStream, ByteArrayOutputStream}
+import java.util.concurrent.TimeUnit
+import scala.compiletime.uninitialized
+
+/** Loading a Jelly file into an in-memory transactional dataset with RIOT (as done by riot
+  * --loader-like tools, one statement at a time on one thread) versus JellyBulkLoader.
+  */
+object BulkLoaderBench:
+  @State(Scope.Benchmark)
+  class FileInput:
+    var bytes: Array[Byte] = uninitialized
+
+    @Setup(Level.Trial)
+    def setup(input: TypedLiteralBench.BenchInput): Unit =
+      val out = ByteArrayOutputStream()
+      input.frames.foreach(_.writeDelimitedTo(out))
+      bytes = out.toByteArray
+
+class BulkLoaderBench:
+  import BulkLoaderBench.*
+
+  @Param(Array("1024", "8192"))
+  var batchSize: Int = uninitialized
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @BenchmarkMode(Array(Mode.AverageTime))
+  def riot(blackhole: Blackhole, input: FileInput): Unit =
+    val dataset = DatasetGraphFactory.createTxnMem()
+    Txn.executeWrite(
+      dataset,
+      () => RDFDataMgr.read(dataset, ByteArrayInputStream(input.bytes), JellyLanguage.JELLY),
+    )
+    blackhole.consume(dataset)
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @BenchmarkMode(Array(Mode.AverageTime))
+  def bulkLoader(blackhole: Blackhole, input: FileInput): Unit =
+    val dataset = DatasetGraphFactory.createTxnMem()
+    val loader = JellyBulkLoader.builder().batchSize(batchSize).build()
+    blackhole.consume(loader.load(ByteArrayInputStream(input.bytes), dataset))
@@ -0,0 +1,47 @@
+package eu.neverblink.jelly.jmh
+
+import eu.neverblink.jelly.convert.jena.JenaConverterFactory
+import eu.neverblink.jelly.core.JellyOptions
+import eu.neverblink.jelly.core.RdfHandler.TripleHandler
+import eu.neverblink.jelly.core.stats.{DecoderCounters, FrameDecodeRecorder}
+import org.apache.jena.graph.Node
+import org.openjdk.jmh.annotations.*
+import org.openjdk.jmh.infra.Blackhole
+
+import java.util.concurrent.TimeUnit
+
+/** Overhead of collecting decoder statistics with DecoderCounters, as compared to the default (no
+  * statistics) decoding path.
+  */
+class DecoderStatsBench:
+  import TypedLiteralBench.BenchInput
+
+  private def decode(blackhole: Blackhole, input: BenchInput, stats: DecoderCounters): Unit =
+    val handler = new TripleHandler[Node] {
+      override def handleTriple(subject: Node, predicate: Node, `object`: Node): Unit =
+        blackhole.consume(`object`)
+    }
+    val decoder = JenaConverterFactory.getInstance().triplesDecoder(
+      handler,
+      JellyOptions.DEFAULT_SUPPORTED_OPTIONS,
+      stats,
+    )
+    val recorder = FrameDecodeRecorder(stats)
+    val consumer = recorder.countRows(decoder.ingestRow)
+    recorder.begin()
+    for i <- input.frames.indices do
+      input.frames(i).getRows.forEach(consumer)
+      recorder.frameDecoded(0)
+    blackhole.consume(stats)
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  @BenchmarkMode(Array(Mode.AverageTime))
+  def noStats(blackhole: Blackhole, input: BenchInput): Unit =
+    decode(blackhole, input, null)
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  @BenchmarkMode(Array(Mode.AverageTime))
+  def withCounters(blackhole: Blackhole, input: BenchInput): Unit =
+    decode(blackhole, input, DecoderCounters())
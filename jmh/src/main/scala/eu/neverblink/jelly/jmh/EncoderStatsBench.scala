@@ -0,0 +1,51 @@
+package eu.neverblink.jelly.jmh
+
+import eu.neverblink.jelly.convert.jena.JenaConverterFactory
+import eu.neverblink.jelly.core.memory.{EncoderAllocator, RowBuffer}
+import eu.neverblink.jelly.core.proto.v1.PhysicalStreamType
+import eu.neverblink.jelly.core.stats.EncoderCounters
+import eu.neverblink.jelly.core.{JellyOptions, ProtoEncoder}
+import org.openjdk.jmh.annotations.*
+import org.openjdk.jmh.infra.Blackhole
+
+import java.util.concurrent.TimeUnit
+
+/** Overhead of collecting encoder statistics with EncoderCounters, as compared to the default
+  * (no statistics) encoding path.
+  */
+class EncoderStatsBench:
+  import TypedLiteralBench.BenchInput
+
+  private def encode(blackhole: Blackhole, input: BenchInput, stats: EncoderCounters): Unit =
+    val buffer = RowBuffer.newReusableForEncoder(264)
+    val allocator = EncoderAllocator.newArenaAllocator(264)
+    val encoder = JenaConverterFactory.getInstance().encoder(
+      ProtoEncoder.Params.of(
+        JellyOptions.BIG_STRICT.clone().setPhysicalType(PhysicalStreamType.TRIPLES),
+        false,
+        buffer,
+        allocator,
+      ),
+      stats,
+    )
+    for i <- input.triples.indices do
+      val t = input.triples(i)
+      encoder.handleTriple(t.getSubject, t.getPredicate, t.getObject)
+      if buffer.size() >= 256 then
+        if stats != null then stats.onFrame(buffer.size(), 0)
+        blackhole.consume(buffer.size())
+        buffer.clear()
+        allocator.releaseAll()
+    blackhole.consume(stats)
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  @BenchmarkMode(Array(Mode.AverageTime))
+  def noStats(blackhole: Blackhole, input: BenchInput): Unit =
+    encode(blackhole, input, null)
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  @BenchmarkMode(Array(Mode.AverageTime))
+  def withCounters(blackhole: Blackhole, input: BenchInput): Unit =
+    encode(blackhole, input, EncoderCounters())
@@ -0,0 +1,52 @@
+package eu.neverblink.jelly.jmh
+
+import eu.neverblink.jelly.convert.jena.JenaConverterFactory
+import eu.neverblink.jelly.convert.jena.riot.{JellyFormatVariant, JellyGraphWriter}
+import org.apache.jena.graph.Graph
+import org.apache.jena.sparql.graph.GraphFactory
+import org.apache.jena.sparql.util.Context
+import org.openjdk.jmh.annotations.*
+
+import java.io.OutputStream
+import java.util.concurrent.TimeUnit
+import scala.compiletime.uninitialized
+
+/** Size and throughput of writing an in-memory Jena graph with JellyGraphWriter, in the graph's
+  * iteration order versus grouped by subject. The output size is reported in the `bytes` secondary
+  * result.
+  */
+object GroupedWriterBench:
+  @State(Scope.Benchmark)
+  class GraphInput:
+    var graph: Graph = uninitialized
+
+    @Setup(Level.Trial)
+    def setup(input: TypedLiteralBench.BenchInput): Unit =
+      graph = GraphFactory.createDefaultGraph()
+      input.triples.foreach(t => graph.add(t))
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  class OutputSize:
+    var bytes: Long = 0
+
+    @Setup(Level.Iteration)
+    def reset(): Unit = bytes = 0
+
+class GroupedWriterBench:
+  import GroupedWriterBench.*
+
+  @Param(Array("false", "true"))
+  var groupBySubject: Boolean = uninitialized
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @BenchmarkMode(Array(Mode.AverageTime))
+  def write(input: GraphInput, output: OutputSize): Unit =
+    val out = new OutputStream {
+      override def write(b: Int): Unit = output.bytes += 1
+      override def write(b: Array[Byte], off: Int, len: Int): Unit = output.bytes += len
+    }
+    val variant = JellyFormatVariant.builder().groupBySubject(groupBySubject).build()
+    JellyGraphWriter(JenaConverterFactory.getInstance(), variant)
+      .write(out, input.graph, null, null, Context())
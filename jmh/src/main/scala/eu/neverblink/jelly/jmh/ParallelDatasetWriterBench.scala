@@ -0,0 +1,58 @@
+package eu.neverblink.jelly.jmh
+
+import eu.neverblink.jelly.convert.jena.JenaConverterFactory
+import eu.neverblink.jelly.convert.jena.riot.{JellyDatasetWriter, JellyFormatVariant}
+import org.apache.jena.graph.NodeFactory
+import org.apache.jena.sparql.core.{DatasetGraph, DatasetGraphFactory, Quad}
+import org.apache.jena.sparql.util.Context
+import org.openjdk.jmh.annotations.*
+
+import java.io.OutputStream
+import java.util.concurrent.TimeUnit
+import scala.compiletime.uninitialized
+
+/** Scaling of JellyDatasetWriter with the number of threads used to encode the graphs of a
+  * dataset. Parallelism 1 is the sequential writer.
+  *
+  * The dataset is the IoT dataset repeated in 64 named graphs. The output size is reported in the
+  * `bytes` secondary result.
+  */
+object ParallelDatasetWriterBench:
+  val graphCount = 64
+
+  @State(Scope.Benchmark)
+  class DatasetInput:
+    var dataset: DatasetGraph = uninitialized
+
+    @Setup(Level.Trial)
+    def setup(input: TypedLiteralBench.BenchInput): Unit =
+      dataset = DatasetGraphFactory.create()
+      for i <- 0 until graphCount do
+        val graph = NodeFactory.createURI(s"https://example.org/graph/$i")
+        input.triples.foreach(t => dataset.add(Quad.create(graph, t)))
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  class OutputSize:
+    var bytes: Long = 0
+
+    @Setup(Level.Iteration)
+    def reset(): Unit = bytes = 0
+
+class ParallelDatasetWriterBench:
+  import ParallelDatasetWriterBench.*
+
+  @Param(Array("1", "2", "4", "8", "16"))
+  var parallelism: Int = uninitialized
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @BenchmarkMode(Array(Mode.AverageTime))
+  def write(input: DatasetInput, output: OutputSize): Unit =
+    val out = new OutputStream {
+      override def write(b: Int): Unit = output.bytes += 1
+      override def write(b: Array[Byte], off: Int, len: Int): Unit = output.bytes += len
+    }
+    val variant = JellyFormatVariant.builder().parallelism(parallelism).build()
+    JellyDatasetWriter(JenaConverterFactory.getInstance(), variant)
+      .write(out, input.dataset, null, null, Context())
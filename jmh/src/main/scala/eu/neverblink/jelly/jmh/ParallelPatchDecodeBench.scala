@@ -0,0 +1,118 @@
+package eu.neverblink.jelly.jmh
+
+import eu.neverblink.jelly.convert.jena.patch.{JenaPatchConverterFactory, RdfPatchWriterJelly}
+import eu.neverblink.jelly.core.patch.{JellyPatchOptions, ParallelPatchDecoder, PatchHandler}
+import eu.neverblink.jelly.core.proto.v1.patch.{PatchStreamType, RdfPatchFrame}
+import eu.neverblink.jelly.core.utils.IoUtils
+import org.apache.jena.graph.{Node, NodeFactory}
+import org.openjdk.jmh.annotations.*
+import org.openjdk.jmh.infra.Blackhole
+
+import java.io.{ByteArrayInputStream, ByteArrayOutputStream}
+import java.util.concurrent.{ExecutorService, Executors, TimeUnit}
+import scala.collection.mutable.ArrayBuffer
+import scala.compiletime.uninitialized
+
+/** Decoding a Jelly-Patch log of many transactions with the sequential decoder versus the parallel
+  * decoder that splits the stream at transaction boundaries.
+  *
+  * The frames are parsed in the setup, so only decoding and the delivery to the handler are measured.
+  */
+object ParallelPatchDecodeBench:
+  @State(Scope.Benchmark)
+  class PatchLog:
+    @Param(Array("1000000"))
+    var changes: Int = uninitialized
+
+    /** Number of changes in one patch transaction. */
+    @Param(Array("10", "1000"))
+    var transactionSize: Int = uninitialized
+
+    @Param(Array("FRAME", "PUNCTUATED"))
+    var streamType: String = uninitialized
+
+    var frames: Array[RdfPatchFrame] = uninitialized
+
+    @Setup(Level.Trial)
+    def setup(): Unit =
+      val random = scala.util.Random(42)
+      def iri(kind: String, i: Int): Node = NodeFactory.createURI(s"https://example.org/$kind/$i")
+      val out = ByteArrayOutputStream()
+      val writer = RdfPatchWriterJelly(
+        RdfPatchWriterJelly.Options(
+          JellyPatchOptions.BIG_STRICT.clone().setStreamType(PatchStreamType.valueOf(streamType)),
+          512,
+          true,
+        ),
+        JenaPatchConverterFactory.getInstance(),
+        out,
+      )
+      writer.start()
+      var i = 0
+      while i < changes do
+        writer.txnBegin()
+        for _ <- 0 until transactionSize do
+          val n = random.nextInt(1_000_000)
+          val s = iri("s", n / 10)
+          val p = iri("p", n % 20)
+          val o =
+            if n % 3 == 0 then iri("o", n)
+            else NodeFactory.createLiteralString(s"value $n")
+          val g = iri("g", n % 4)
+          if random.nextInt(10) == 0 then writer.delete(g, s, p, o)
+          else writer.add(g, s, p, o)
+        writer.txnCommit()
+        if streamType == "PUNCTUATED" then writer.segment()
+        i += transactionSize
+      writer.finish()
+
+      val parsed = ArrayBuffer[RdfPatchFrame]()
+      IoUtils.readStream(ByteArrayInputStream(out.toByteArray), RdfPatchFrame.getFactory, parsed += _)
+      frames = parsed.toArray
+
+class ParallelPatchDecodeBench:
+  import ParallelPatchDecodeBench.*
+
+  /** Number of decoding threads. 0 means the sequential decoder. */
+  @Param(Array("0", "1", "2", "4", "8"))
+  var threads: Int = uninitialized
+
+  private var executor: ExecutorService = uninitialized
+
+  @Setup(Level.Trial)
+  def setup(): Unit =
+    if threads > 0 then executor = Executors.newFixedThreadPool(threads)
+
+  @TearDown(Level.Trial)
+  def tearDown(): Unit =
+    if executor != null then executor.shutdown()
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @BenchmarkMode(Array(Mode.AverageTime))
+  def decode(blackhole: Blackhole, input: PatchLog): Unit =
+    val handler = new PatchHandler.AnyPatchHandler[Node]:
+      override def addTriple(s: Node, p: Node, o: Node): Unit = blackhole.consume(o)
+      override def deleteTriple(s: Node, p: Node, o: Node): Unit = blackhole.consume(o)
+      override def addQuad(s: Node, p: Node, o: Node, g: Node): Unit = blackhole.consume(o)
+      override def deleteQuad(s: Node, p: Node, o: Node, g: Node): Unit = blackhole.consume(o)
+      override def transactionStart(): Unit = ()
+      override def transactionCommit(): Unit = ()
+      override def transactionAbort(): Unit = ()
+      override def addNamespace(name: String, iriValue: Node, graph: Node): Unit = ()
+      override def deleteNamespace(name: String, iriValue: Node, graph: Node): Unit = ()
+      override def header(key: String, value: Node): Unit = ()
+      override def punctuation(): Unit = ()
+
+    val factory = JenaPatchConverterFactory.getInstance()
+    if threads == 0 then
+      val decoder = factory.anyStatementDecoder(handler, JellyPatchOptions.DEFAULT_SUPPORTED_OPTIONS)
+      input.frames.foreach(decoder.ingestFrame)
+    else
+      val decoder = factory.parallelDecoder(
+        handler,
+        JellyPatchOptions.DEFAULT_SUPPORTED_OPTIONS,
+        ParallelPatchDecoder.Params.of(executor, ParallelPatchDecoder.Params.DEFAULT_MIN_CHUNK_ROWS, 2 * threads),
+      )
+      input.frames.foreach(decoder.ingestFrame)
+      decoder.finish()
@@ -0,0 +1,107 @@
+package eu.neverblink.jelly.jmh
+
+import eu.neverblink.jelly.convert.jena.patch.{JenaPatchConverterFactory, RdfPatchWriterJelly}
+import eu.neverblink.jelly.core.patch.{JellyPatchOptions, PatchCompactor, PatchHandler}
+import eu.neverblink.jelly.core.proto.v1.patch.{PatchStreamType, RdfPatchFrame}
+import eu.neverblink.jelly.core.utils.IoUtils
+import org.apache.jena.graph.{Node, NodeFactory}
+import org.openjdk.jmh.annotations.*
+import org.openjdk.jmh.infra.Blackhole
+
+import java.io.{ByteArrayInputStream, ByteArrayOutputStream}
+import java.util.concurrent.TimeUnit
+import scala.compiletime.uninitialized
+
+/** Compacting a Jelly-Patch replication log with PatchCompactor: decoding, compaction, and the
+  * output of the net changes. The log is a sequence of transactions that add and delete statements
+  * from a fixed pool, with some aborted transactions.
+  *
+  * The aux counters report the input and output statements per second. The compaction ratio is
+  * their quotient.
+  */
+object PatchCompactionBench:
+  @State(Scope.Benchmark)
+  class PatchLog:
+    @Param(Array("1000000"))
+    var changes: Int = uninitialized
+
+    /** Size of the pool of statements the changes are drawn from. */
+    @Param(Array("10000", "1000000"))
+    var distinctStatements: Int = uninitialized
+
+    var bytes: Array[Byte] = uninitialized
+
+    @Setup(Level.Trial)
+    def setup(): Unit =
+      val random = scala.util.Random(42)
+      def iri(kind: String, i: Int): Node = NodeFactory.createURI(s"https://example.org/$kind/$i")
+      val out = ByteArrayOutputStream()
+      val writer = RdfPatchWriterJelly(
+        RdfPatchWriterJelly.Options(
+          JellyPatchOptions.BIG_STRICT.clone().setStreamType(PatchStreamType.FLAT),
+          512,
+          true,
+        ),
+        JenaPatchConverterFactory.getInstance(),
+        out,
+      )
+      writer.start()
+      var i = 0
+      while i < changes do
+        writer.txnBegin()
+        for _ <- 0 until 100 do
+          val n = random.nextInt(distinctStatements)
+          val s = iri("s", n / 10)
+          val p = iri("p", n % 10)
+          val o = NodeFactory.createLiteralString(s"value $n")
+          val g = iri("g", n % 4)
+          if random.nextInt(4) == 0 then writer.delete(g, s, p, o)
+          else writer.add(g, s, p, o)
+        if random.nextInt(20) == 0 then writer.txnAbort()
+        else writer.txnCommit()
+        i += 100
+      writer.finish()
+      bytes = out.toByteArray
+
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  @State(Scope.Thread)
+  class Counters:
+    var inputStatements: Long = 0
+    var outputStatements: Long = 0
+
+class PatchCompactionBench:
+  import PatchCompactionBench.*
+
+  @Param(Array("1000000", "10000"))
+  var maxStatementsInMemory: Int = uninitialized
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  @BenchmarkMode(Array(Mode.Throughput))
+  def compact(blackhole: Blackhole, input: PatchLog, counters: Counters): Unit =
+    val destination = new PatchHandler.AnyPatchHandler[Node]:
+      override def addTriple(s: Node, p: Node, o: Node): Unit = blackhole.consume(o)
+      override def deleteTriple(s: Node, p: Node, o: Node): Unit = blackhole.consume(o)
+      override def addQuad(s: Node, p: Node, o: Node, g: Node): Unit = blackhole.consume(o)
+      override def deleteQuad(s: Node, p: Node, o: Node, g: Node): Unit = blackhole.consume(o)
+      override def transactionStart(): Unit = ()
+      override def transactionCommit(): Unit = ()
+      override def transactionAbort(): Unit = ()
+      override def addNamespace(name: String, iriValue: Node, graph: Node): Unit = ()
+      override def deleteNamespace(name: String, iriValue: Node, graph: Node): Unit = ()
+      override def header(key: String, value: Node): Unit = ()
+      override def punctuation(): Unit = ()
+
+    val compactor = PatchCompactor.builder(destination)
+      .maxStatementsInMemory(maxStatementsInMemory)
+      .build()
+    val decoder = JenaPatchConverterFactory.getInstance()
+      .anyStatementDecoder(compactor, JellyPatchOptions.DEFAULT_SUPPORTED_OPTIONS)
+    IoUtils.readStream(
+      ByteArrayInputStream(input.bytes),
+      RdfPatchFrame.getFactory,
+      frame => decoder.ingestFrame(frame),
+    )
+    compactor.finish()
+    counters.inputStatements += compactor.getInputStatementCount
+    counters.outputStatements += compactor.getOutputStatementCount
@@ -0,0 +1,74 @@
+package eu.neverblink.jelly.jmh
+
+import eu.neverblink.jelly.convert.jena.patch.{JellyPatchOps, JenaChangesCollector}
+import eu.neverblink.jelly.core.proto.v1.patch.PatchStatementType
+import org.apache.jena.graph.{Node, NodeFactory}
+import org.apache.jena.rdfpatch.changes.RDFChangesApply
+import org.apache.jena.sparql.core.{DatasetGraph, DatasetGraphFactory}
+import org.apache.jena.tdb2.TDB2Factory
+import org.openjdk.jmh.annotations.*
+import org.openjdk.jmh.infra.Blackhole
+
+import java.util.concurrent.TimeUnit
+import scala.compiletime.uninitialized
+
+/** Replaying a long patch log (transactions of mostly additions, with some deletions) into a dataset
+  * with Jena's RDFChangesApply versus the batched JenaPatchApplier.
+  */
+object PatchReplayBench:
+  @State(Scope.Benchmark)
+  class PatchLog:
+    @Param(Array("1000000", "10000000"))
+    var changes: Int = uninitialized
+
+    /** Number of changes in one patch transaction. 0 means no transactions. */
+    @Param(Array("0", "1000"))
+    var transactionSize: Int = uninitialized
+
+    var log: JenaChangesCollector = uninitialized
+
+    @Setup(Level.Trial)
+    def setup(): Unit =
+      val random = scala.util.Random(42)
+      val subjects = Array.tabulate(100_000)(i => NodeFactory.createURI(s"https://example.org/s/$i"))
+      val predicates = Array.tabulate(50)(i => NodeFactory.createURI(s"https://example.org/p/$i"))
+      val graphs = Array.tabulate(10)(i => NodeFactory.createURI(s"https://example.org/g/$i"))
+      def obj(i: Int): Node =
+        if i % 3 == 0 then subjects(i % subjects.length)
+        else NodeFactory.createLiteralString(s"value ${i % 200_000}")
+
+      log = JellyPatchOps.changesCollector(PatchStatementType.QUADS)
+      for i <- 0 until changes do
+        if transactionSize > 0 && i % transactionSize == 0 then log.txnBegin()
+        val g = graphs(random.nextInt(graphs.length))
+        val s = subjects(random.nextInt(subjects.length))
+        val p = predicates(random.nextInt(predicates.length))
+        val o = obj(random.nextInt(changes))
+        if random.nextInt(10) == 0 then log.delete(g, s, p, o)
+        else log.add(g, s, p, o)
+        if transactionSize > 0 && (i + 1) % transactionSize == 0 then log.txnCommit()
+      if transactionSize > 0 && changes % transactionSize != 0 then log.txnCommit()
+
+class PatchReplayBench:
+  import PatchReplayBench.*
+
+  @Param(Array("RDFChangesApply", "batched"))
+  var applier: String = uninitialized
+
+  @Param(Array("mem", "tdb2"))
+  var dataset: String = uninitialized
+
+  private def newDataset(): DatasetGraph =
+    if dataset == "tdb2" then TDB2Factory.createDataset().asDatasetGraph()
+    else DatasetGraphFactory.createTxnMem()
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @BenchmarkMode(Array(Mode.AverageTime))
+  def replay(blackhole: Blackhole, input: PatchLog): Unit =
+    val dsg = newDataset()
+    val destination =
+      if applier == "batched" then JellyPatchOps.batchedApplier(dsg)
+      else RDFChangesApply(dsg)
+    input.log.replay(destination, true)
+    blackhole.consume(dsg)
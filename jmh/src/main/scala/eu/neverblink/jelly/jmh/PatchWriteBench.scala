@@ -0,0 +1,99 @@
+package eu.neverblink.jelly.jmh
+
+import eu.neverblink.jelly.convert.jena.patch.JenaPatchConverterFactory
+import eu.neverblink.jelly.core.memory.EncoderAllocator
+import eu.neverblink.jelly.core.patch.{JellyPatchOptions, PatchEncoder}
+import eu.neverblink.jelly.core.patch.memory.{PatchEncoderAllocator, PatchRowBuffer}
+import eu.neverblink.jelly.core.proto.v1.patch.{PatchStreamType, RdfPatchFrame, RdfPatchRow}
+import eu.neverblink.protoc.java.runtime.{ArrayListMessageCollection, MessageCollection, ProtobufUtil}
+import org.apache.jena.graph.{Node, NodeFactory}
+import org.openjdk.jmh.annotations.*
+import org.openjdk.jmh.infra.Blackhole
+
+import java.io.OutputStream
+import java.util.concurrent.TimeUnit
+import scala.compiletime.uninitialized
+
+/** Writing a Jelly-Patch stream with a new RdfPatchRow per row and heap-allocated messages, versus the
+  * reusable patch row buffer with the patch arena allocator (as in RdfPatchWriterJelly).
+  *
+  * The stream has transactions with a header and a namespace, and statements drawn from a fixed pool.
+  * Run with `-prof gc` to compare the allocation rates.
+  */
+object PatchWriteBench:
+  @State(Scope.Benchmark)
+  class Changes:
+    @Param(Array("1000000"))
+    var changes: Int = uninitialized
+
+    var quads: Array[Array[Node]] = uninitialized
+    var deletes: Array[Boolean] = uninitialized
+
+    @Setup(Level.Trial)
+    def setup(): Unit =
+      val random = scala.util.Random(42)
+      def iri(kind: String, i: Int): Node = NodeFactory.createURI(s"https://example.org/$kind/$i")
+      quads = Array.tabulate(changes)(_ =>
+        val n = random.nextInt(100_000)
+        Array(iri("s", n / 10), iri("p", n % 10), NodeFactory.createLiteralString(s"value $n"), iri("g", n % 4))
+      )
+      deletes = Array.fill(changes)(random.nextInt(4) == 0)
+
+class PatchWriteBench:
+  import PatchWriteBench.*
+
+  @Param(Array("arrayList", "reusable"))
+  var buffer: String = uninitialized
+
+  @Param(Array("256", "1024"))
+  var frameSize: Int = uninitialized
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @BenchmarkMode(Array(Mode.AverageTime))
+  def write(blackhole: Blackhole, input: Changes): Unit =
+    val (rows, allocator): (MessageCollection[RdfPatchRow, RdfPatchRow.Mutable], EncoderAllocator) =
+      if buffer == "reusable" then
+        (PatchRowBuffer.newReusableForEncoder(frameSize + 8), PatchEncoderAllocator.newArenaAllocator(frameSize + 8))
+      else
+        (
+          ArrayListMessageCollection[RdfPatchRow, RdfPatchRow.Mutable](() => RdfPatchRow.newInstance()),
+          EncoderAllocator.newHeapAllocator(),
+        )
+    val frame = RdfPatchFrame.newInstance().setRows(rows)
+    val output = ProtobufUtil.createCodedOutputStream(OutputStream.nullOutputStream())
+    val encoder = JenaPatchConverterFactory.getInstance().encoder(
+      PatchEncoder.Params.of(
+        JellyPatchOptions.BIG_STRICT.clone().setStreamType(PatchStreamType.FLAT),
+        rows,
+        allocator,
+      ),
+    )
+    val ns = NodeFactory.createURI("https://example.org/")
+
+    def afterWrite(): Unit =
+      if rows.size() >= frameSize then
+        frame.resetCachedSize()
+        frame.writeDelimitedTo(output)
+        rows.clear()
+        allocator.releaseAll()
+
+    var i = 0
+    while i < input.quads.length do
+      if i % 100 == 0 then
+        encoder.transactionStart()
+        encoder.header("id", NodeFactory.createLiteralString(s"tx-$i"))
+        encoder.addNamespace("ex", ns, null)
+        afterWrite()
+      val q = input.quads(i)
+      if input.deletes(i) then encoder.deleteQuad(q(0), q(1), q(2), q(3))
+      else encoder.addQuad(q(0), q(1), q(2), q(3))
+      afterWrite()
+      if i % 100 == 99 then
+        encoder.transactionCommit()
+        afterWrite()
+      i += 1
+    frame.resetCachedSize()
+    frame.writeDelimitedTo(output)
+    output.flush()
+    blackhole.consume(output.getTotalBytesWritten)
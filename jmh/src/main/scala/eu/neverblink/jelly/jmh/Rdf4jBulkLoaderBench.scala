@@ -0,0 +1,46 @@
+package eu.neverblink.jelly.jmh
+
+import eu.neverblink.jelly.convert.rdf4j.load.JellyBulkLoader
+import eu.neverblink.jelly.convert.rdf4j.rio.JellyFormat
+import org.eclipse.rdf4j.repository.sail.SailRepository
+import org.eclipse.rdf4j.sail.memory.MemoryStore
+import org.openjdk.jmh.annotations.*
+import org.openjdk.jmh.infra.Blackhole
+
+import java.io.ByteArrayInputStream
+import java.util.concurrent.TimeUnit
+
+/** Loading a Jelly file into an RDF4J MemoryStore through Rio (RepositoryConnection.add with the
+  * Jelly format) versus the RDF4J JellyBulkLoader. Both load the data in a single transaction.
+  */
+class Rdf4jBulkLoaderBench:
+  import BulkLoaderBench.*
+
+  private def withRepository(f: SailRepository => Unit): Unit =
+    val repository = SailRepository(MemoryStore())
+    repository.init()
+    try f(repository)
+    finally repository.shutDown()
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @BenchmarkMode(Array(Mode.AverageTime))
+  def rio(blackhole: Blackhole, input: FileInput): Unit =
+    withRepository { repository =>
+      val connection = repository.getConnection
+      try
+        connection.begin()
+        connection.add(ByteArrayInputStream(input.bytes), JellyFormat.JELLY)
+        connection.commit()
+        blackhole.consume(connection.size())
+      finally connection.close()
+    }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @BenchmarkMode(Array(Mode.AverageTime))
+  def bulkLoader(blackhole: Blackhole, input: FileInput): Unit =
+    withRepository { repository =>
+      val loader = JellyBulkLoader.builder().build()
+      blackhole.consume(loader.load(ByteArrayInputStream(input.bytes), repository))
+    }
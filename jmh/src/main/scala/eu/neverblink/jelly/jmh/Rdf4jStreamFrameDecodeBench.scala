@@ -0,0 +1,36 @@
+package eu.neverblink.jelly.jmh
+
+import eu.neverblink.jelly.convert.rdf4j.Rdf4jConverterFactory
+import eu.neverblink.jelly.core.JellyOptions
+import eu.neverblink.jelly.core.RdfHandler.TripleHandler
+import org.eclipse.rdf4j.model.Value
+import org.openjdk.jmh.annotations.*
+import org.openjdk.jmh.infra.Blackhole
+
+import scala.compiletime.uninitialized
+
+/** Same as [[RdfStreamFrameDecodeBench]], but decoding into RDF4J values, with SimpleValueFactory
+  * or with the lightweight Jelly values.
+  */
+class Rdf4jStreamFrameDecodeBench:
+  import RdfStreamFrameDecodeBench.*
+
+  @Param(Array("simple", "lightweight"))
+  var values: String = uninitialized
+
+  @Benchmark
+  @OutputTimeUnit(java.util.concurrent.TimeUnit.MICROSECONDS)
+  @BenchmarkMode(Array(Mode.AverageTime))
+  def triplesDecoder(blackhole: Blackhole, input: BenchInput): Unit =
+    val factory =
+      if values == "lightweight" then Rdf4jConverterFactory.getLightweightInstance()
+      else Rdf4jConverterFactory.getInstance()
+    val converter = factory.decoderConverter()
+    val handler = new TripleHandler[Value] {
+      override def handleTriple(subject: Value, predicate: Value, `object`: Value): Unit =
+        blackhole.consume(converter.makeTriple(subject, predicate, `object`))
+    }
+    val decoder = factory.triplesDecoder(handler, JellyOptions.DEFAULT_SUPPORTED_OPTIONS)
+    for i <- input.toDecode.indices do
+      val frame = input.toDecode(i)
+      frame.getRows.forEach(decoder.ingestRow(_))
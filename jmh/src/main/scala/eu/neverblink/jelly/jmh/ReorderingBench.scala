@@ -0,0 +1,95 @@
+package eu.neverblink.jelly.jmh
+
+import eu.neverblink.jelly.convert.jena.JenaConverterFactory
+import eu.neverblink.jelly.core.RdfHandler.AnyRdfHandler
+import eu.neverblink.jelly.core.memory.{EncoderAllocator, RowBuffer}
+import eu.neverblink.jelly.core.proto.v1.{PhysicalStreamType, RdfStreamFrame}
+import eu.neverblink.jelly.core.utils.ReorderingRdfHandler
+import eu.neverblink.jelly.core.{JellyOptions, ProtoEncoder}
+import org.apache.jena.graph.{Node, Triple}
+import org.openjdk.jmh.annotations.*
+import org.openjdk.jmh.infra.Blackhole
+
+import java.util.concurrent.TimeUnit
+import scala.compiletime.uninitialized
+
+/** Size and throughput tradeoff of reordering statements in a window before encoding, for
+  * different window sizes. Window size 0 means no reordering.
+  *
+  * The input is the IoT dataset shuffled with a fixed seed, which simulates iterating over an
+  * unordered graph (e.g., Jena's graph.find()). The output size is reported in the `bytes`
+  * secondary result.
+  */
+object ReorderingBench:
+  @State(Scope.Benchmark)
+  class ShuffledInput:
+    var triples: Array[Triple] = uninitialized
+
+    @Setup(Level.Trial)
+    def setup(input: TypedLiteralBench.BenchInput): Unit =
+      triples = scala.util.Random(42).shuffle(input.triples.toSeq).toArray
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  class OutputSize:
+    var bytes: Long = 0
+
+    @Setup(Level.Iteration)
+    def reset(): Unit = bytes = 0
+
+class ReorderingBench:
+  import ReorderingBench.*
+
+  @Param(Array("0", "256", "1024", "4096", "16384"))
+  var windowSize: Int = uninitialized
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @BenchmarkMode(Array(Mode.AverageTime))
+  def encode(blackhole: Blackhole, input: ShuffledInput, output: OutputSize): Unit =
+    val buffer = RowBuffer.newReusableForEncoder(264)
+    val allocator = EncoderAllocator.newArenaAllocator(264)
+    val frame = RdfStreamFrame.newInstance().setRows(buffer)
+    val encoder = JenaConverterFactory.getInstance().encoder(
+      ProtoEncoder.Params.of(
+        JellyOptions.BIG_STRICT.clone().setPhysicalType(PhysicalStreamType.TRIPLES),
+        false,
+        buffer,
+        allocator,
+      ),
+    )
+
+    def flushFrame(): Unit =
+      frame.resetCachedSize()
+      output.bytes += frame.getSerializedSize
+      blackhole.consume(frame)
+      buffer.clear()
+      allocator.releaseAll()
+
+    // Check the frame size after every statement, also when the reorderer emits a whole window
+    val framing = new AnyRdfHandler[Node] {
+      override def handleTriple(subject: Node, predicate: Node, `object`: Node): Unit =
+        encoder.handleTriple(subject, predicate, `object`)
+        if buffer.size() >= 256 then flushFrame()
+
+      override def handleQuad(subject: Node, predicate: Node, `object`: Node, graph: Node): Unit =
+        encoder.handleQuad(subject, predicate, `object`, graph)
+        if buffer.size() >= 256 then flushFrame()
+
+      override def handleGraphStart(graph: Node): Unit =
+        encoder.handleGraphStart(graph)
+        if buffer.size() >= 256 then flushFrame()
+
+      override def handleGraphEnd(): Unit =
+        encoder.handleGraphEnd()
+        if buffer.size() >= 256 then flushFrame()
+    }
+
+    val reorderer =
+      if windowSize > 0 then ReorderingRdfHandler[Node](framing, windowSize) else null
+    val handler: AnyRdfHandler[Node] = if reorderer != null then reorderer else framing
+    for i <- input.triples.indices do
+      val t = input.triples(i)
+      handler.handleTriple(t.getSubject, t.getPredicate, t.getObject)
+    if reorderer != null then reorderer.flush()
+    flushFrame()
@@ -0,0 +1,84 @@
+package eu.neverblink.jelly.jmh
+
+import eu.neverblink.jelly.convert.jena.riot.JellyLanguage
+import org.apache.jena.query.ResultSet
+import org.apache.jena.riot.Lang
+import org.apache.jena.riot.resultset.{ResultSetLang, ResultSetMgr}
+import org.apache.jena.sparql.core.Var
+import org.apache.jena.sparql.engine.binding.{Binding, BindingFactory}
+import org.apache.jena.sparql.exec.RowSetStream
+import org.openjdk.jmh.annotations.*
+import org.openjdk.jmh.infra.Blackhole
+
+import java.io.{ByteArrayInputStream, ByteArrayOutputStream, OutputStream}
+import java.util.concurrent.TimeUnit
+import scala.compiletime.uninitialized
+import scala.jdk.CollectionConverters.*
+
+/** Writing and reading SPARQL SELECT results in the Jelly SPARQL results format, compared with
+  * SPARQL JSON and TSV.
+  *
+  * The results are the `?s ?p ?o` solutions of the IoT dataset, in the order of the dataset (like
+  * a SELECT over a graph grouped by subject). The output size is reported in the `bytes` secondary
+  * result.
+  */
+object ResultSetBench:
+  @State(Scope.Benchmark)
+  class ResultsInput:
+    @Param(Array("jelly", "json", "tsv"))
+    var format: String = uninitialized
+
+    var lang: Lang = uninitialized
+    var vars: java.util.List[Var] = uninitialized
+    var bindings: java.util.List[Binding] = uninitialized
+    var serialized: Array[Byte] = uninitialized
+
+    @Setup(Level.Trial)
+    def setup(input: TypedLiteralBench.BenchInput): Unit =
+      JellyLanguage.register()
+      lang = format match
+        case "jelly" => JellyLanguage.JELLY_RESULTS
+        case "json" => ResultSetLang.RS_JSON
+        case "tsv" => ResultSetLang.RS_TSV
+      val s = Var.alloc("s")
+      val p = Var.alloc("p")
+      val o = Var.alloc("o")
+      vars = java.util.List.of(s, p, o)
+      bindings = input.triples
+        .map(t => BindingFactory.binding(s, t.getSubject, p, t.getPredicate, o, t.getObject))
+        .toSeq
+        .asJava
+      val os = ByteArrayOutputStream()
+      ResultSetMgr.write(os, resultSet(), lang)
+      serialized = os.toByteArray
+
+    def resultSet(): ResultSet =
+      ResultSet.adapt(RowSetStream.create(vars, bindings.iterator()))
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  class OutputSize:
+    var bytes: Long = 0
+
+    @Setup(Level.Iteration)
+    def reset(): Unit = bytes = 0
+
+class ResultSetBench:
+  import ResultSetBench.*
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @BenchmarkMode(Array(Mode.AverageTime))
+  def write(blackhole: Blackhole, input: ResultsInput, output: OutputSize): Unit =
+    val os = new OutputStream:
+      override def write(b: Int): Unit = output.bytes += 1
+      override def write(b: Array[Byte], off: Int, len: Int): Unit = output.bytes += len
+    ResultSetMgr.write(os, input.resultSet(), input.lang)
+    blackhole.consume(os)
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @BenchmarkMode(Array(Mode.AverageTime))
+  def read(blackhole: Blackhole, input: ResultsInput): Unit =
+    val results = ResultSetMgr.read(ByteArrayInputStream(input.serialized), input.lang)
+    while results.hasNext do blackhole.consume(results.nextBinding())
@@ -0,0 +1,95 @@
+package eu.neverblink.jelly.jmh
+
+import eu.neverblink.jelly.convert.titanium.TitaniumJellyEncoder
+import eu.neverblink.jelly.convert.titanium.internal.{TitaniumConverterFactory, TitaniumLiteral}
+import eu.neverblink.jelly.core.memory.{EncoderAllocator, RowBuffer}
+import eu.neverblink.jelly.core.proto.v1.PhysicalStreamType
+import eu.neverblink.jelly.core.{JellyOptions, ProtoEncoder}
+import org.apache.jena.graph.Node
+import org.openjdk.jmh.annotations.*
+import org.openjdk.jmh.infra.Blackhole
+
+import java.util.concurrent.TimeUnit
+import scala.compiletime.uninitialized
+
+/** Encoding of the IoT dataset from [[TypedLiteralBench]] through the Titanium RDF API, as a
+  * Titanium producer (e.g., a JSON-LD processor) would call it – with seven strings per quad.
+  *
+  * "allocating" creates a new literal object for every literal, which is what the Titanium encoder
+  * did before the string-keyed literal cache was added. "cached" uses TitaniumJellyEncoder.
+  */
+object TitaniumEncodeBench:
+  private val XsdString = "http://www.w3.org/2001/XMLSchema#string"
+  private val RdfLangString = "http://www.w3.org/1999/02/22-rdf-syntax-ns#langString"
+
+  @State(Scope.Benchmark)
+  class StringInput:
+    // subject, predicate, object, datatype, language for each quad
+    var quads: Array[Array[String]] = uninitialized
+
+    @Setup(Level.Trial)
+    def setup(input: TypedLiteralBench.BenchInput): Unit =
+      def iriLike(node: Node): String =
+        if node.isBlank then "_:" + node.getBlankNodeLabel else node.getURI
+      quads = input.triples.map { t =>
+        val o = t.getObject
+        if o.isLiteral then
+          val lang = o.getLiteralLanguage
+          if lang.nonEmpty then
+            Array(iriLike(t.getSubject), iriLike(t.getPredicate), o.getLiteralLexicalForm, RdfLangString, lang)
+          else
+            Array(
+              iriLike(t.getSubject),
+              iriLike(t.getPredicate),
+              o.getLiteralLexicalForm,
+              o.getLiteralDatatypeURI,
+              null,
+            )
+        else Array(iriLike(t.getSubject), iriLike(t.getPredicate), iriLike(o), null, null)
+      }
+
+class TitaniumEncodeBench:
+  import TitaniumEncodeBench.*
+
+  @Param(Array("allocating", "cached"))
+  var mode: String = uninitialized
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  @BenchmarkMode(Array(Mode.AverageTime))
+  def encode(blackhole: Blackhole, input: StringInput): Unit =
+    if mode == "cached" then encodeCached(blackhole, input)
+    else encodeAllocating(blackhole, input)
+
+  private def encodeCached(blackhole: Blackhole, input: StringInput): Unit =
+    val encoder = TitaniumJellyEncoder.factory(JellyOptions.BIG_STRICT)
+    for i <- input.quads.indices do
+      val q = input.quads(i)
+      encoder.quad(q(0), q(1), q(2), q(3), q(4), null, null)
+      if encoder.getRowCount >= 256 then
+        blackhole.consume(encoder.getRowCount)
+        encoder.clearRows()
+
+  private def encodeAllocating(blackhole: Blackhole, input: StringInput): Unit =
+    val buffer = RowBuffer.newReusableForEncoder(264)
+    val allocator = EncoderAllocator.newArenaAllocator(264)
+    val encoder = TitaniumConverterFactory.getInstance().encoder(
+      ProtoEncoder.Params.of(
+        JellyOptions.BIG_STRICT.clone().setPhysicalType(PhysicalStreamType.QUADS),
+        false,
+        buffer,
+        allocator,
+      ),
+    )
+    for i <- input.quads.indices do
+      val q = input.quads(i)
+      val o: Object =
+        if q(3) == null then q(2)
+        else if q(4) != null then TitaniumLiteral.LangLiteral(q(2), q(4))
+        else if q(3) == XsdString then TitaniumLiteral.SimpleLiteral(q(2))
+        else TitaniumLiteral.DtLiteral(q(2), q(3))
+      encoder.handleQuad(q(0), q(1), o, null)
+      if buffer.size() >= 256 then
+        blackhole.consume(buffer.size())
+        buffer.clear()
+        allocator.releaseAll()
@@ -0,0 +1,48 @@
+package eu.neverblink.jelly.jmh
+
+import com.apicatalog.rdf.api.RdfQuadConsumer
+import eu.neverblink.jelly.convert.titanium.TitaniumJellyReader
+import eu.neverblink.jelly.core.JellyOptions
+import org.openjdk.jmh.annotations.*
+import org.openjdk.jmh.infra.Blackhole
+
+import java.io.ByteArrayInputStream
+import java.util.concurrent.TimeUnit
+import scala.compiletime.uninitialized
+
+/** Reading the IoT dataset from [[TypedLiteralBench]] with the sequential and the parallel Titanium
+  * reader. The consumer simulates some work per quad (e.g., JSON-LD processing), which the parallel
+  * reader overlaps with parsing and decoding.
+  */
+class TitaniumReadBench:
+  import BulkLoaderBench.FileInput
+
+  @Param(Array("sequential", "parallel"))
+  var reader: String = uninitialized
+
+  @Param(Array("0", "50"))
+  var consumerWork: Int = uninitialized
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @BenchmarkMode(Array(Mode.AverageTime))
+  def parseAll(blackhole: Blackhole, input: FileInput): Unit =
+    val jellyReader =
+      if reader == "parallel" then TitaniumJellyReader.factoryParallel()
+      else TitaniumJellyReader.factory()
+    val work = consumerWork
+    val consumer = new RdfQuadConsumer {
+      override def quad(
+          subject: String,
+          predicate: String,
+          `object`: String,
+          datatype: String,
+          language: String,
+          direction: String,
+          graph: String,
+      ): RdfQuadConsumer =
+        blackhole.consume(`object`)
+        if work > 0 then Blackhole.consumeCPU(work)
+        this
+    }
+    jellyReader.parseAll(consumer, ByteArrayInputStream(input.bytes))
@@ -0,0 +1,81 @@
+package eu.neverblink.jelly.jmh
+
+import eu.neverblink.jelly.convert.jena.JenaConverterFactory
+import eu.neverblink.jelly.core.RdfHandler.TripleHandler
+import eu.neverblink.jelly.core.memory.{EncoderAllocator, RowBuffer}
+import eu.neverblink.jelly.core.proto.v1.{PhysicalStreamType, RdfStreamFrame}
+import eu.neverblink.jelly.core.{JellyOptions, ProtoEncoder}
+import org.apache.jena.graph.{Node, Triple}
+import org.openjdk.jmh.annotations.*
+import org.openjdk.jmh.infra.Blackhole
+
+import java.util.concurrent.TimeUnit
+import scala.collection.mutable.ArrayBuffer
+import scala.compiletime.uninitialized
+
+/** Encoding and decoding of a numeric-heavy IoT dataset (weather sensor readings), which consists
+  * mostly of xsd:double, xsd:dateTime and other typed literals.
+  */
+object TypedLiteralBench:
+  @State(Scope.Benchmark)
+  class BenchInput:
+    var frames: Array[RdfStreamFrame] = uninitialized
+    var triples: Array[Triple] = uninitialized
+
+    @Setup(Level.Trial)
+    def setup(): Unit =
+      val is = getClass.getResourceAsStream("/assist-iot-weather_100kt.jelly.gz")
+      val gzis = new java.util.zip.GZIPInputStream(is)
+      frames = Iterator
+        .continually(RdfStreamFrame.parseDelimitedFrom(gzis))
+        .takeWhile(_ != null)
+        .toArray
+      val buffer = ArrayBuffer[Triple]()
+      val decoder = JenaConverterFactory.getInstance().triplesDecoder(
+        new TripleHandler[Node] {
+          override def handleTriple(subject: Node, predicate: Node, `object`: Node): Unit =
+            buffer += Triple.create(subject, predicate, `object`)
+        },
+        JellyOptions.DEFAULT_SUPPORTED_OPTIONS,
+      )
+      frames.foreach(_.getRows.forEach(decoder.ingestRow(_)))
+      triples = buffer.toArray
+
+class TypedLiteralBench:
+  import TypedLiteralBench.*
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  @BenchmarkMode(Array(Mode.AverageTime))
+  def encode(blackhole: Blackhole, input: BenchInput): Unit =
+    val buffer = RowBuffer.newReusableForEncoder(264)
+    val allocator = EncoderAllocator.newArenaAllocator(264)
+    val encoder = JenaConverterFactory.getInstance().encoder(
+      ProtoEncoder.Params.of(
+        JellyOptions.BIG_STRICT.clone().setPhysicalType(PhysicalStreamType.TRIPLES),
+        false,
+        buffer,
+        allocator,
+      ),
+    )
+    for i <- input.triples.indices do
+      val t = input.triples(i)
+      encoder.handleTriple(t.getSubject, t.getPredicate, t.getObject)
+      if buffer.size() >= 256 then
+        blackhole.consume(buffer.size())
+        buffer.clear()
+        allocator.releaseAll()
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  @BenchmarkMode(Array(Mode.AverageTime))
+  def decode(blackhole: Blackhole, input: BenchInput): Unit =
+    val handler = new TripleHandler[Node] {
+      override def handleTriple(subject: Node, predicate: Node, `object`: Node): Unit =
+        blackhole.consume(`object`)
+    }
+    val decoder = JenaConverterFactory.getInstance().triplesDecoder(
+      handler,
+      JellyOptions.DEFAULT_SUPPORTED_OPTIONS,
+    )
+    for i <- input.frames.indices do input.frames(i).getRows.forEach(decoder.ingestRow(_))
@@ -0,0 +1,304 @@
+package eu.neverblink.jelly.convert.neo4j;
+
+import eu.neverblink.jelly.convert.rdf4j.Rdf4jConverterFactory;
+import eu.neverblink.jelly.core.JellyOptions;
+import eu.neverblink.jelly.core.ProtoEncoder;
+import eu.neverblink.jelly.core.memory.EncoderAllocator;
+import eu.neverblink.jelly.core.memory.RowBuffer;
+import eu.neverblink.jelly.core.proto.v1.LogicalStreamType;
+import eu.neverblink.jelly.core.proto.v1.PhysicalStreamType;
+import eu.neverblink.jelly.core.proto.v1.RdfStreamFrame;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Result;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.logging.Log;
+import org.neo4j.procedure.Context;
+import org.neo4j.procedure.Description;
+import org.neo4j.procedure.Mode;
+import org.neo4j.procedure.Name;
+import org.neo4j.procedure.Procedure;
+
+/**
+ * Procedures for exporting the results of n10s.rdf.export.cypher as Jelly, frame by frame.
+ * <p>
+ * Unlike the n10s.rdf.collect.jelly_base64 aggregation, which builds the whole serialized result as one
+ * base64 string, these procedures encode the triples with a single arena-allocated encoder and write out
+ * each frame as soon as it is full. Memory usage does not depend on the size of the export.
+ */
+public final class JellyExportProcedures {
+
+    static {
+        // Call the initializer of the plugin to ensure any setup is done
+        JellyPlugin.getInstance().initialize();
+    }
+
+    /**
+     * Default maximum number of rows in one frame.
+     */
+    public static final long DEFAULT_FRAME_SIZE = 256;
+
+    private static final String EXPORT_QUERY =
+        "CALL n10s.rdf.export.cypher($cypher, $params) " +
+        "YIELD subject, predicate, object, isLiteral, literalType, literalLang " +
+        "RETURN subject, predicate, object, isLiteral, literalType, literalLang";
+
+    @Context
+    public GraphDatabaseService db;
+
+    @Context
+    public Transaction tx;
+
+    @Context
+    public Log log;
+
+    /**
+     * Result of an export to a file.
+     */
+    public static final class FileExportResult {
+
+        public String terminationStatus = "OK";
+        public long triples = 0;
+        public long frames = 0;
+        public long bytes = 0;
+        public String extraInfo = "";
+    }
+
+    /**
+     * One delimited Jelly frame. Concatenating the frames in order gives a delimited Jelly stream.
+     */
+    public static final class FrameResult {
+
+        public byte[] frame;
+
+        public FrameResult(byte[] frame) {
+            this.frame = frame;
+        }
+    }
+
+    // Not READ, as it writes to the file system of the server
+    @Procedure(name = "n10s.rdf.export.jelly.file", mode = Mode.WRITE)
+    @Description(
+        "n10s.rdf.export.jelly.file(cypher, path, params) - exports the triples returned by " +
+            "n10s.rdf.export.cypher(cypher, params) to a Jelly file (path or file: URL, relative to the import " +
+            "directory), writing one frame at a time. Requires jelly.export.file.enabled=true. The frameSize " +
+            "param sets the maximum number of rows in a frame (default: 256)."
+    )
+    public Stream<FileExportResult> exportToFile(
+        @Name("cypher") String cypher,
+        @Name("path") String path,
+        @Name(value = "params", defaultValue = "{}") Map<String, Object> params
+    ) {
+        final var result = new FileExportResult();
+        final Path file;
+        try {
+            file = JellyFileAccess.resolve(JellyFileAccess.config(db), path, JellySettings.EXPORT_FILE_ENABLED);
+        } catch (Exception e) {
+            result.terminationStatus = "KO";
+            result.extraInfo = e.getMessage();
+            return Stream.of(result);
+        }
+        try (
+            Result rows = executeExport(cypher, params);
+            OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))
+        ) {
+            final var encoder = new FrameEncoder(frameSize(params));
+            while (rows.hasNext()) {
+                encoder.addRow(rows.next());
+                if (encoder.isFrameFull()) {
+                    encoder.writeFrame(out);
+                }
+            }
+            if (!encoder.isEmpty()) {
+                encoder.writeFrame(out);
+            }
+            result.triples = encoder.triples;
+            result.frames = encoder.frames;
+        } catch (Exception e) {
+            result.terminationStatus = "KO";
+            result.extraInfo = e.getMessage();
+            return Stream.of(result);
+        }
+        try {
+            result.bytes = Files.size(file);
+        } catch (IOException e) {
+            log.warn("Could not read the size of the exported file %s: %s", path, e.getMessage());
+        }
+        return Stream.of(result);
+    }
+
+    @Procedure(name = "n10s.rdf.export.jelly.stream", mode = Mode.READ)
+    @Description(
+        "n10s.rdf.export.jelly.stream(cypher, params) - exports the triples returned by " +
+            "n10s.rdf.export.cypher(cypher, params) as a stream of rows, each with one delimited Jelly frame " +
+            "(as bytes). Concatenating the frames gives a delimited Jelly stream. The frameSize param sets the " +
+            "maximum number of rows in a frame (default: 256)."
+    )
+    public Stream<FrameResult> exportToStream(
+        @Name("cypher") String cypher,
+        @Name(value = "params", defaultValue = "{}") Map<String, Object> params
+    ) {
+        final Result rows = executeExport(cypher, params);
+        final var encoder = new FrameEncoder(frameSize(params));
+        final var out = new ByteArrayOutputStream();
+        // Frames are encoded lazily, as Neo4j pulls the rows from the stream
+        final Iterator<FrameResult> frames = new Iterator<>() {
+            private FrameResult next = null;
+
+            @Override
+            public boolean hasNext() {
+                if (next == null) {
+                    next = encodeNextFrame();
+                }
+                return next != null;
+            }
+
+            @Override
+            public FrameResult next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                final var frame = next;
+                next = null;
+                return frame;
+            }
+
+            private FrameResult encodeNextFrame() {
+                while (rows.hasNext() && !encoder.isFrameFull()) {
+                    encoder.addRow(rows.next());
+                }
+                if (encoder.isEmpty()) {
+                    return null;
+                }
+                out.reset();
+                try {
+                    encoder.writeFrame(out);
+                } catch (IOException e) {
+                    // Not possible with a ByteArrayOutputStream
+                    throw new IllegalStateException(e);
+                }
+                return new FrameResult(out.toByteArray());
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(frames, Spliterator.ORDERED), false).onClose(
+            rows::close
+        );
+    }
+
+    private Result executeExport(String cypher, Map<String, Object> params) {
+        final var exportParams = new HashMap<>(params);
+        exportParams.remove("frameSize");
+        return tx.execute(EXPORT_QUERY, Map.of("cypher", cypher, "params", exportParams));
+    }
+
+    private static int frameSize(Map<String, Object> params) {
+        final Object frameSize = params.get("frameSize");
+        final long size = frameSize == null ? DEFAULT_FRAME_SIZE : ((Number) frameSize).longValue();
+        if (size < 1 || size > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("frameSize must be a positive integer, got " + size);
+        }
+        return (int) size;
+    }
+
+    /**
+     * Encodes the rows of n10s.rdf.export.cypher into Jelly frames, reusing the row buffer and the arena
+     * allocator between frames.
+     */
+    private static final class FrameEncoder {
+
+        private final ValueFactory vf = SimpleValueFactory.getInstance();
+        private final int frameSize;
+        private final RowBuffer buffer;
+        private final EncoderAllocator allocator;
+        private final RdfStreamFrame.Mutable frame;
+        private final ProtoEncoder<Value> encoder;
+
+        long triples = 0;
+        long frames = 0;
+
+        FrameEncoder(int frameSize) {
+            this.frameSize = frameSize;
+            this.buffer = RowBuffer.newReusableForEncoder(frameSize + 8);
+            this.allocator = EncoderAllocator.newArenaAllocator(frameSize + 8);
+            this.frame = RdfStreamFrame.newInstance().setRows(buffer);
+            this.encoder = Rdf4jConverterFactory.getInstance(vf).encoder(
+                ProtoEncoder.Params.of(
+                    JellyOptions.BIG_STRICT.clone()
+                        .setPhysicalType(PhysicalStreamType.TRIPLES)
+                        .setLogicalType(LogicalStreamType.FLAT_TRIPLES),
+                    false,
+                    buffer,
+                    allocator
+                )
+            );
+        }
+
+        void addRow(Map<String, Object> row) {
+            final Resource subject = toResource((String) row.get("subject"));
+            final var predicate = vf.createIRI((String) row.get("predicate"));
+            final String object = String.valueOf(row.get("object"));
+            final Value objectValue;
+            if (Boolean.TRUE.equals(row.get("isLiteral"))) {
+                final var lang = (String) row.get("literalLang");
+                final var datatype = (String) row.get("literalType");
+                if (lang != null && !lang.isEmpty()) {
+                    objectValue = vf.createLiteral(object, lang);
+                } else if (datatype != null) {
+                    objectValue = vf.createLiteral(object, vf.createIRI(datatype));
+                } else {
+                    objectValue = vf.createLiteral(object);
+                }
+            } else {
+                objectValue = toResource(object);
+            }
+            encoder.handleTriple(subject, predicate, objectValue);
+            triples++;
+        }
+
+        private Resource toResource(String uri) {
+            if (uri.startsWith("_:")) {
+                return vf.createBNode(uri.substring(2));
+            }
+            if (uri.startsWith("bnode://")) {
+                return vf.createBNode(uri.substring(8));
+            }
+            return vf.createIRI(uri);
+        }
+
+        boolean isFrameFull() {
+            return buffer.size() >= frameSize;
+        }
+
+        boolean isEmpty() {
+            return buffer.isEmpty();
+        }
+
+        void writeFrame(OutputStream out) throws IOException {
+            try {
+                frame.resetCachedSize();
+                frame.writeDelimitedTo(out);
+                frames++;
+            } finally {
+                buffer.clear();
+                allocator.releaseAll();
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package eu.neverblink.jelly.convert.neo4j;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseSettings;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.config.Setting;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+
+/**
+ * Checks the access of the import and export procedures to files on the server, with the same rules as
+ * LOAD CSV: the paths are resolved against the import directory, and paths outside of it are rejected.
+ * In addition, file access must be enabled explicitly with a {@link JellySettings} setting.
+ */
+final class JellyFileAccess {
+
+    private JellyFileAccess() {}
+
+    /**
+     * Returns the configuration of the DBMS the procedure runs in.
+     */
+    static Config config(GraphDatabaseService db) {
+        return ((GraphDatabaseAPI) db).getDependencyResolver().resolveDependency(Config.class);
+    }
+
+    /**
+     * Resolves a plain path or a file: URL against the import directory.
+     * <p>
+     * As in LOAD CSV, absolute paths are also taken as relative to the import directory, so
+     * 'file:///data.jelly' and '/data.jelly' both refer to 'data.jelly' in the import directory.
+     *
+     * @param config DBMS configuration
+     * @param path path or file: URL given by the user
+     * @param enabled setting that enables this kind of file access
+     * @return the resolved path, inside the import directory
+     * @throws SecurityException if file access is disabled or the path is outside the import directory
+     * @throws IOException if the path cannot be resolved
+     */
+    static Path resolve(Config config, String path, Setting<Boolean> enabled) throws IOException {
+        if (!config.get(enabled)) {
+            throw new SecurityException(
+                "Access to files on the server is disabled. Set " + enabled.name() + "=true in neo4j.conf to enable it."
+            );
+        }
+        if (!config.get(GraphDatabaseSettings.allow_file_urls)) {
+            throw new SecurityException(
+                "Access to files on the server is disabled by " + GraphDatabaseSettings.allow_file_urls.name() + "."
+            );
+        }
+        final Path root = config.get(GraphDatabaseSettings.load_csv_file_url_root);
+        if (root == null) {
+            throw new SecurityException(
+                "The import directory (" + GraphDatabaseSettings.load_csv_file_url_root.name() + ") is not set."
+            );
+        }
+
+        final String relative = (path.startsWith("file:") ? URI.create(path).getPath() : path).replaceFirst("^/+", "");
+        final Path importDir = root.toAbsolutePath().normalize();
+        final Path file = importDir.resolve(relative).normalize();
+        if (!file.startsWith(importDir)) {
+            throw new SecurityException("The path " + path + " is outside of the import directory.");
+        }
+        // Also follow symbolic links, as far as the path exists
+        Path existing = file;
+        while (existing != null && !Files.exists(existing, LinkOption.NOFOLLOW_LINKS)) {
+            existing = existing.getParent();
+        }
+        if (existing != null && Files.exists(importDir)) {
+            if (!existing.toRealPath().startsWith(importDir.toRealPath())) {
+                throw new SecurityException("The path " + path + " is outside of the import directory.");
+            }
+        }
+        return file;
+    }
+}
@@ -0,0 +1,262 @@
+package eu.neverblink.jelly.convert.neo4j;
+
+import eu.neverblink.jelly.convert.rdf4j.Rdf4jConverterFactory;
+import eu.neverblink.jelly.core.BatchRdfHandler;
+import eu.neverblink.jelly.core.JellyOptions;
+import eu.neverblink.jelly.core.RdfProtoDeserializationError;
+import eu.neverblink.jelly.core.memory.RowBuffer;
+import eu.neverblink.jelly.core.proto.v1.RdfStreamFrame;
+import eu.neverblink.jelly.core.utils.BatchingRdfHandler;
+import eu.neverblink.jelly.core.utils.IoUtils;
+import eu.neverblink.protoc.java.runtime.MessageFactory;
+import eu.neverblink.protoc.java.runtime.ProtoMessage;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import n10s.graphconfig.GraphConfig;
+import n10s.graphconfig.RDFParserConfig;
+import n10s.rdf.load.DirectStatementLoader;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.schema.ConstraintDefinition;
+import org.neo4j.graphdb.schema.ConstraintType;
+import org.neo4j.logging.Log;
+import org.neo4j.procedure.Context;
+import org.neo4j.procedure.Description;
+import org.neo4j.procedure.Mode;
+import org.neo4j.procedure.Name;
+import org.neo4j.procedure.Procedure;
+
+/**
+ * Procedures for importing Jelly data into Neo4j without going through Rio and base64.
+ * <p>
+ * The data is decoded with the RDF4J converter and passed directly to neosemantics' statement loader,
+ * so the mapping to nodes and relationships is the same as with n10s.rdf.import.fetch and follows the
+ * graph config. The statements are committed in batches, each in its own transaction, so the memory used by
+ * the import does not depend on the size of the file. If the import fails, the batches committed before the
+ * error are kept.
+ */
+public final class JellyImportProcedures {
+
+    static {
+        // Call the initializer of the plugin to ensure any setup is done
+        JellyPlugin.getInstance().initialize();
+    }
+
+    /**
+     * Default number of triples committed in one transaction.
+     */
+    public static final long DEFAULT_BATCH_SIZE = 25_000;
+
+    // The statements of a batch are buffered in arrays of this size
+    private static final long MAX_BATCH_SIZE = 10_000_000;
+
+    @Context
+    public GraphDatabaseService db;
+
+    @Context
+    public Transaction tx;
+
+    @Context
+    public Log log;
+
+    /**
+     * Result of a Jelly import.
+     */
+    public static final class ImportResult {
+
+        public String terminationStatus = "OK";
+        public long triplesLoaded = 0;
+        public long triplesParsed = 0;
+        public long elapsedMillis = 0;
+        public double triplesPerSecond = 0;
+        public String extraInfo = "";
+    }
+
+    @Procedure(name = "n10s.rdf.import.jelly", mode = Mode.WRITE)
+    @Description(
+        "n10s.rdf.import.jelly(path, params) - imports raw (not base64-encoded) Jelly RDF data from a file " +
+            "in the import directory (path or file: URL, optionally gzipped) into Neo4j, committing every " +
+            "batchSize triples (default: 25000) in its own transaction. Requires jelly.import.file.enabled=true. " +
+            "Other params are the same as in n10s.rdf.import.fetch."
+    )
+    public Stream<ImportResult> importJelly(
+        @Name("path") String path,
+        @Name(value = "params", defaultValue = "{}") Map<String, Object> params
+    ) {
+        final var result = new ImportResult();
+        final long start = System.nanoTime();
+        try {
+            checkConstraintExists();
+            final var props = new HashMap<>(params);
+            final Object batchSize = props.remove("batchSize");
+            final long commitSize = batchSize == null ? DEFAULT_BATCH_SIZE : ((Number) batchSize).longValue();
+            if (commitSize < 1 || commitSize > MAX_BATCH_SIZE) {
+                throw new IllegalArgumentException(
+                    "batchSize must be between 1 and " + MAX_BATCH_SIZE + ", got " + commitSize
+                );
+            }
+            props.put("commitSize", commitSize);
+            final var config = new RDFParserConfig(props, new GraphConfig(tx));
+            try (InputStream in = openInput(path)) {
+                load(in, new BatchCommitter(config, result), (int) commitSize);
+            }
+        } catch (Exception e) {
+            result.terminationStatus = "KO";
+            result.extraInfo = e.getMessage();
+        }
+        final long elapsedNanos = System.nanoTime() - start;
+        result.elapsedMillis = elapsedNanos / 1_000_000;
+        if (elapsedNanos > 0) {
+            result.triplesPerSecond = result.triplesParsed * 1e9 / elapsedNanos;
+        }
+        log.info(
+            "Jelly import from %s finished with status %s: %d triples loaded, %.0f triples/s",
+            path,
+            result.terminationStatus,
+            result.triplesLoaded,
+            result.triplesPerSecond
+        );
+        return Stream.of(result);
+    }
+
+    private void checkConstraintExists() {
+        for (final ConstraintDefinition constraint : tx.schema().getConstraints(Label.label("Resource"))) {
+            if (
+                constraint.isConstraintType(ConstraintType.UNIQUENESS) &&
+                constraint.getPropertyKeys().iterator().next().equals("uri")
+            ) {
+                return;
+            }
+        }
+        throw new IllegalStateException(
+            "The following constraint is required for importing RDF. Please run " +
+                "'CREATE CONSTRAINT n10s_unique_uri FOR (r:Resource) REQUIRE r.uri IS UNIQUE' and try again."
+        );
+    }
+
+    private InputStream openInput(String path) throws IOException {
+        final Path file = JellyFileAccess.resolve(JellyFileAccess.config(db), path, JellySettings.IMPORT_FILE_ENABLED);
+        final InputStream in = new BufferedInputStream(Files.newInputStream(file));
+        if (file.getFileName().toString().endsWith(".gz")) {
+            return new GZIPInputStream(in);
+        }
+        return in;
+    }
+
+    /**
+     * Loads each batch of statements with a new neosemantics loader, in a new transaction, and commits it.
+     * The procedure's own transaction cannot be committed, so it is only used to read the graph config.
+     */
+    private final class BatchCommitter implements BatchRdfHandler<Value> {
+
+        private final ValueFactory vf = SimpleValueFactory.getInstance();
+        private final RDFParserConfig config;
+        private final ImportResult result;
+        // Namespaces declared since the last batch, passed to the loader of the next one
+        private final Map<String, String> namespaces = new LinkedHashMap<>();
+
+        BatchCommitter(RDFParserConfig config, ImportResult result) {
+            this.config = config;
+            this.result = result;
+        }
+
+        @Override
+        public void handleNamespace(String prefix, Value namespace) {
+            namespaces.put(prefix, namespace.stringValue());
+        }
+
+        @Override
+        public void handleTriples(Value[] subjects, Value[] predicates, Value[] objects, int count) {
+            commitBatch(loader -> {
+                for (int i = 0; i < count; i++) {
+                    loader.handleStatement(
+                        vf.createStatement((Resource) subjects[i], (IRI) predicates[i], objects[i])
+                    );
+                }
+            });
+        }
+
+        @Override
+        public void handleQuads(Value[] subjects, Value[] predicates, Value[] objects, Value[] graphs, int count) {
+            commitBatch(loader -> {
+                for (int i = 0; i < count; i++) {
+                    final var graph = (Resource) graphs[i];
+                    loader.handleStatement(
+                        vf.createStatement((Resource) subjects[i], (IRI) predicates[i], objects[i], graph)
+                    );
+                }
+            });
+        }
+
+        /**
+         * Commits the namespaces declared after the last statement, if any.
+         */
+        void finish() {
+            if (!namespaces.isEmpty()) {
+                commitBatch(loader -> {});
+            }
+        }
+
+        private void commitBatch(Consumer<DirectStatementLoader> statements) {
+            try (Transaction batchTx = db.beginTx()) {
+                final var loader = new DirectStatementLoader(db, batchTx, config, log);
+                loader.startRDF();
+                for (final var namespace : namespaces.entrySet()) {
+                    loader.handleNamespace(namespace.getKey(), namespace.getValue());
+                }
+                statements.accept(loader);
+                loader.endRDF();
+                batchTx.commit();
+                namespaces.clear();
+                result.triplesLoaded += loader.getTotalTriplesMapped();
+                result.triplesParsed += loader.getTriplesParsed();
+            }
+        }
+    }
+
+    /**
+     * Decodes the Jelly stream and passes the statements in batches to the committer.
+     */
+    private static void load(InputStream in, BatchCommitter committer, int batchSize) throws IOException {
+        final var batching = new BatchingRdfHandler<>(committer, batchSize, Value[]::new);
+        final var decoder = Rdf4jConverterFactory.getInstance(SimpleValueFactory.getInstance()).anyStatementDecoder(
+            batching,
+            JellyOptions.DEFAULT_SUPPORTED_OPTIONS
+        );
+        // Single row buffer -- rows are passed to the decoder immediately after being read
+        final RowBuffer buffer = RowBuffer.newSingle(decoder::ingestRow);
+        final RdfStreamFrame.Mutable reusableFrame = RdfStreamFrame.newInstance().setRows(buffer);
+        final MessageFactory<RdfStreamFrame> getReusableFrame = () -> reusableFrame;
+
+        try {
+            final var delimitingResponse = IoUtils.autodetectDelimiting(in);
+            if (delimitingResponse.isDelimited()) {
+                IoUtils.readStream(delimitingResponse.newInput(), getReusableFrame, frame -> buffer.clear());
+            } else {
+                // Non-delimited Jelly file, only one frame
+                ProtoMessage.parseFrom(delimitingResponse.newInput(), getReusableFrame);
+                buffer.clear();
+            }
+        } catch (RdfProtoDeserializationError e) {
+            throw new IOException("Could not decode the Jelly data: " + e.getMessage(), e);
+        }
+        // Commits the last batch
+        batching.flush();
+        committer.finish();
+    }
+}
@@ -0,0 +1,35 @@
+package eu.neverblink.jelly.convert.neo4j;
+
+import static org.neo4j.configuration.SettingValueParsers.BOOL;
+
+import org.neo4j.configuration.Description;
+import org.neo4j.configuration.SettingImpl;
+import org.neo4j.configuration.SettingsDeclaration;
+import org.neo4j.graphdb.config.Setting;
+
+/**
+ * Settings of the Jelly plugin, set in neo4j.conf.
+ * <p>
+ * Reading and writing files on the server is disabled by default, like in LOAD CSV and APOC. When enabled,
+ * the files must be in the import directory (server.directories.import).
+ */
+public final class JellySettings implements SettingsDeclaration {
+
+    @Description(
+        "Allow n10s.rdf.import.jelly to read Jelly files from the import directory (server.directories.import)."
+    )
+    public static final Setting<Boolean> IMPORT_FILE_ENABLED = SettingImpl.newBuilder(
+        "jelly.import.file.enabled",
+        BOOL,
+        false
+    ).build();
+
+    @Description(
+        "Allow n10s.rdf.export.jelly.file to write Jelly files to the import directory (server.directories.import)."
+    )
+    public static final Setting<Boolean> EXPORT_FILE_ENABLED = SettingImpl.newBuilder(
+        "jelly.export.file.enabled",
+        BOOL,
+        false
+    ).build();
+}
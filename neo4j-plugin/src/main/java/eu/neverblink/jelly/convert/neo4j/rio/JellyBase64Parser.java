@@ -1,11 +1,10 @@
 package eu.neverblink.jelly.convert.neo4j.rio;
 
+import eu.neverblink.jelly.core.utils.Base64DecodingInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
 import java.util.Collection;
-import org.apache.commons.codec.binary.Base64InputStream;
-import org.apache.commons.io.input.ReaderInputStream;
 import org.eclipse.rdf4j.model.ValueFactory;
 import org.eclipse.rdf4j.rio.*;
 import org.eclipse.rdf4j.rio.helpers.AbstractRDFParser;
@@ -53,14 +52,13 @@ public final class JellyBase64Parser extends AbstractRDFParser {
     @Override
     public void parse(InputStream inputStream, String baseURI)
         throws IOException, RDFParseException, RDFHandlerException {
-        final var decoded = new Base64InputStream(inputStream);
-        delegate.parse(decoded, baseURI);
+        delegate.parse(new Base64DecodingInputStream(inputStream), baseURI);
     }
 
     @Override
     public void parse(Reader reader, String baseURI) throws IOException, RDFParseException, RDFHandlerException {
-        final var is = ReaderInputStream.builder().setReader(reader).get();
-        parse(is, baseURI);
+        // Decode the characters directly, without first converting them back to bytes
+        delegate.parse(new Base64DecodingInputStream(reader), baseURI);
     }
 
     @Override
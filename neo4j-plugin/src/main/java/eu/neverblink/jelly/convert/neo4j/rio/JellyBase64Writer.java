@@ -2,9 +2,9 @@ package eu.neverblink.jelly.convert.neo4j.rio;
 
 import static eu.neverblink.jelly.convert.neo4j.rio.JellyBase64Format.JELLY_BASE64;
 
+import eu.neverblink.jelly.core.utils.Base64EncodingOutputStream;
 import java.io.IOException;
 import java.util.Collection;
-import org.apache.commons.codec.binary.Base64OutputStream;
 import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.rio.*;
 import org.eclipse.rdf4j.rio.helpers.AbstractRDFWriter;
@@ -15,9 +15,9 @@ import org.eclipse.rdf4j.rio.helpers.AbstractRDFWriter;
 public final class JellyBase64Writer extends AbstractRDFWriter {
 
     private final RDFWriter delegate;
-    private final Base64OutputStream output;
+    private final Base64EncodingOutputStream output;
 
-    JellyBase64Writer(RDFWriter delegate, Base64OutputStream output) {
+    JellyBase64Writer(RDFWriter delegate, Base64EncodingOutputStream output) {
         this.delegate = delegate;
         this.output = output;
     }
@@ -41,8 +41,7 @@ public final class JellyBase64Writer extends AbstractRDFWriter {
         delegate.endRDF();
         try {
             // Make sure the data is terminated properly.
-            this.output.eof();
-            this.output.flush();
+            this.output.finish();
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
@@ -3,11 +3,9 @@ package eu.neverblink.jelly.convert.neo4j.rio;
 import static eu.neverblink.jelly.convert.neo4j.rio.JellyBase64Format.JELLY_BASE64;
 
 import eu.neverblink.jelly.convert.rdf4j.rio.JellyWriterFactory;
-import java.io.IOException;
+import eu.neverblink.jelly.core.utils.Base64EncodingOutputStream;
 import java.io.OutputStream;
 import java.io.Writer;
-import org.apache.commons.codec.binary.Base64OutputStream;
-import org.apache.commons.io.output.WriterOutputStream;
 import org.eclipse.rdf4j.rio.RDFFormat;
 import org.eclipse.rdf4j.rio.RDFWriter;
 import org.eclipse.rdf4j.rio.RDFWriterFactory;
@@ -23,9 +21,7 @@ public final class JellyBase64WriterFactory implements RDFWriterFactory {
 
     @Override
     public RDFWriter getWriter(OutputStream out) {
-        final var encoderOut = new Base64OutputStream(out, true, 0, null);
-        final var delegate = innerFactory.getWriter(encoderOut);
-        return new JellyBase64Writer(delegate, encoderOut);
+        return createWriter(new Base64EncodingOutputStream(out));
     }
 
     @Override
@@ -35,16 +31,17 @@ public final class JellyBase64WriterFactory implements RDFWriterFactory {
 
     @Override
     public RDFWriter getWriter(Writer writer) {
-        try {
-            final var out = WriterOutputStream.builder().setWriter(writer).get();
-            return getWriter(out);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+        // Encode directly into characters, without a charset encoder in between
+        return createWriter(new Base64EncodingOutputStream(writer));
     }
 
     @Override
     public RDFWriter getWriter(Writer writer, String baseURI) {
         return getWriter(writer);
     }
+
+    private RDFWriter createWriter(Base64EncodingOutputStream encoderOut) {
+        final var delegate = innerFactory.getWriter(encoderOut);
+        return new JellyBase64Writer(delegate, encoderOut);
+    }
 }
@@ -0,0 +1,147 @@
+package eu.neverblink.jelly.convert.neo4j
+
+import eu.neverblink.jelly.convert.neo4j.rio.JellyBase64Format
+import eu.neverblink.jelly.convert.rdf4j.rio.JellyFormat
+import eu.neverblink.jelly.core.proto.v1.RdfStreamFrame
+import n10s.graphconfig.GraphConfigProcedures
+import n10s.rdf.`export`.RDFExportProcedures
+import n10s.rdf.load.RDFLoadProcedures
+import org.eclipse.rdf4j.model.Model
+import org.eclipse.rdf4j.model.util.Models
+import org.eclipse.rdf4j.rio.Rio
+import org.neo4j.harness.Neo4jBuilder
+
+import java.io.{ByteArrayInputStream, ByteArrayOutputStream, FileInputStream, StringReader}
+import java.nio.file.{Files, Path}
+import scala.jdk.CollectionConverters.*
+import scala.util.Using
+
+class JellyExportProceduresSpec extends Neo4jSpec:
+  override val aggregations: Seq[Class[?]] = Seq(classOf[JellyTripleCollector])
+  override val procedures: Seq[Class[?]] = Seq(
+    classOf[JellyExportProcedures],
+    classOf[RDFLoadProcedures],
+    classOf[RDFExportProcedures],
+    classOf[GraphConfigProcedures],
+  )
+
+  override protected def configure(builder: Neo4jBuilder): Neo4jBuilder =
+    builder.withConfig(JellySettings.EXPORT_FILE_ENABLED, java.lang.Boolean.TRUE)
+
+  private val rbFileUri = getClass.getResource("/riverbench_main_v1_1_1.jelly").toURI.toString
+  private val base64FileUri = getClass.getResource("/riverbench_nanopubs.jelly_b64").toURI.toString
+
+  private val query = "MATCH (p) RETURN p"
+
+  /** Reference result, from the n10s.rdf.collect.jelly_base64 aggregation. */
+  private lazy val expected: Model = withSession { session =>
+    val rdf = session.run(
+      s"""
+         |CALL n10s.rdf.export.cypher("$query")
+         |yield subject, predicate, object, isLiteral, literalType, literalLang
+         |return n10s.rdf.collect.jelly_base64(subject, predicate, object, isLiteral, literalType, literalLang) as rdf
+         |""".stripMargin,
+    ).single().get("rdf").asString()
+    Rio.parse(StringReader(rdf), "", JellyBase64Format.JELLY_BASE64)
+  }
+
+  override def beforeAll(): Unit =
+    super.beforeAll()
+    withSession { session =>
+      session.run("CREATE CONSTRAINT n10s_unique_uri FOR (r:Resource) REQUIRE r.uri IS UNIQUE")
+      session.run("CALL n10s.graphconfig.init({ handleVocabUris: 'SHORTEN' })")
+      session.run(s"CALL n10s.rdf.import.fetch('$rbFileUri', 'Jelly')").consume()
+      session.run(s"CALL n10s.rdf.import.fetch('$base64FileUri', 'Jelly-base64')").consume()
+    }
+
+  /** New file in the import directory, with its path relative to it. */
+  private def newExportFile(): (Path, String) =
+    val file = Files.createTempFile(importDir, "jelly-export", ".jelly")
+    file.toFile.deleteOnExit()
+    (file, file.getFileName.toString)
+
+  "Neo4j" should {
+    "have the test data loaded" in {
+      expected should have size 573
+    }
+  }
+
+  "n10s.rdf.export.jelly.file" should {
+    for frameSize <- Seq(16, 256, 10_000) do
+      f"export the same triples as the base64 aggregation (frame size $frameSize)" in {
+        val (file, name) = newExportFile()
+        val record = withSession { session =>
+          session.run(
+            s"CALL n10s.rdf.export.jelly.file('$query', '$name', { frameSize: $frameSize })",
+          ).single().asMap()
+        }
+        record.get("terminationStatus") shouldBe "OK"
+        record.get("triples") shouldBe java.lang.Long.valueOf(573)
+        record.get("bytes") shouldBe java.lang.Long.valueOf(Files.size(file))
+        val frames = Using.resource(FileInputStream(file.toFile)) { in =>
+          Iterator.continually(RdfStreamFrame.parseDelimitedFrom(in)).takeWhile(_ != null).toSeq
+        }
+        record.get("frames") shouldBe java.lang.Long.valueOf(frames.size)
+        // A frame is cut after the triple that fills it, which may add a few lookup entries on top
+        frames.foreach(_.getRows.size should be <= frameSize + 8)
+        val model = Using.resource(FileInputStream(file.toFile)) { in =>
+          Rio.parse(in, "", JellyFormat.JELLY)
+        }
+        Models.isomorphic(model, expected) should be(true)
+      }
+
+    "accept a file: URL, relative to the import directory" in {
+      val (file, name) = newExportFile()
+      val record = withSession { session =>
+        session.run(s"CALL n10s.rdf.export.jelly.file('$query', 'file:///$name')").single().asMap()
+      }
+      record.get("terminationStatus") shouldBe "OK"
+      record.get("frames").asInstanceOf[Long] should be >= 3L
+      record.get("bytes") shouldBe java.lang.Long.valueOf(Files.size(file))
+    }
+
+    "reject a path outside of the import directory" in {
+      val outside = Files.createTempFile("jelly-export", ".jelly")
+      outside.toFile.deleteOnExit()
+      for path <- Seq(s"../${outside.getFileName}", s"file:///../${outside.getFileName}") do
+        val record = withSession { session =>
+          session.run(s"CALL n10s.rdf.export.jelly.file('$query', '$path')").single().asMap()
+        }
+        record.get("terminationStatus") shouldBe "KO"
+        record.get("extraInfo").asInstanceOf[String] should include("outside of the import directory")
+      Files.size(outside) shouldBe 0
+    }
+
+    "report an invalid path" in {
+      val record = withSession { session =>
+        session.run(
+          s"CALL n10s.rdf.export.jelly.file('$query', 'does/not/exist/out.jelly')",
+        ).single().asMap()
+      }
+      record.get("terminationStatus") shouldBe "KO"
+    }
+  }
+
+  "n10s.rdf.export.jelly.stream" should {
+    "export the same triples as the base64 aggregation, frame by frame" in {
+      val frames = withSession { session =>
+        session.run(
+          s"CALL n10s.rdf.export.jelly.stream('$query', { frameSize: 100 }) YIELD frame RETURN frame",
+        ).list().asScala.map(_.get("frame").asByteArray()).toSeq
+      }
+      frames.size should be >= 6
+      val out = ByteArrayOutputStream()
+      frames.foreach(out.write)
+      val model = Rio.parse(ByteArrayInputStream(out.toByteArray), "", JellyFormat.JELLY)
+      Models.isomorphic(model, expected) should be(true)
+    }
+
+    "return no frames for an empty result" in {
+      val frames = withSession { session =>
+        session.run(
+          "CALL n10s.rdf.export.jelly.stream('MATCH (p:DoesNotExist) RETURN p') YIELD frame RETURN frame",
+        ).list()
+      }
+      frames shouldBe empty
+    }
+  }
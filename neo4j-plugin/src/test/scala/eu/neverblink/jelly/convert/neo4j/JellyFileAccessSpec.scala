@@ -0,0 +1,81 @@
+package eu.neverblink.jelly.convert.neo4j
+
+import org.neo4j.configuration.{Config, GraphDatabaseSettings}
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+import java.nio.file.{Files, Path}
+
+class JellyFileAccessSpec extends AnyWordSpec, Matchers:
+  private val importDir = Files.createTempDirectory("neo4j-import").toRealPath()
+  importDir.toFile.deleteOnExit()
+
+  private def config(enabled: Boolean): Config = Config.newBuilder()
+    .set(GraphDatabaseSettings.load_csv_file_url_root, importDir)
+    .set(JellySettings.EXPORT_FILE_ENABLED, java.lang.Boolean.valueOf(enabled))
+    .build()
+
+  private def resolve(path: String, conf: Config = config(true)): Path =
+    JellyFileAccess.resolve(conf, path, JellySettings.EXPORT_FILE_ENABLED)
+
+  "JellyFileAccess" should {
+    "disable file access by default" in {
+      val conf = Config.newBuilder().set(GraphDatabaseSettings.load_csv_file_url_root, importDir).build()
+      val e = intercept[SecurityException] {
+        resolve("out.jelly", conf)
+      }
+      e.getMessage should include("jelly.export.file.enabled")
+    }
+
+    "reject access if it is not enabled" in {
+      intercept[SecurityException] {
+        resolve("out.jelly", config(false))
+      }
+    }
+
+    "enable reading and writing separately" in {
+      val e = intercept[SecurityException] {
+        JellyFileAccess.resolve(config(true), "in.jelly", JellySettings.IMPORT_FILE_ENABLED)
+      }
+      e.getMessage should include("jelly.import.file.enabled")
+    }
+
+    "reject access if file URLs are not allowed" in {
+      val conf = Config.newBuilder()
+        .set(GraphDatabaseSettings.load_csv_file_url_root, importDir)
+        .set(GraphDatabaseSettings.allow_file_urls, java.lang.Boolean.FALSE)
+        .set(JellySettings.EXPORT_FILE_ENABLED, java.lang.Boolean.TRUE)
+        .build()
+      intercept[SecurityException] {
+        resolve("out.jelly", conf)
+      }
+    }
+
+    "resolve paths and file: URLs against the import directory" in {
+      resolve("out.jelly") shouldBe importDir.resolve("out.jelly")
+      resolve("dir/out.jelly") shouldBe importDir.resolve("dir/out.jelly")
+      resolve("/dir/out.jelly") shouldBe importDir.resolve("dir/out.jelly")
+      resolve("dir/../out.jelly") shouldBe importDir.resolve("out.jelly")
+      resolve("file:///dir/out.jelly") shouldBe importDir.resolve("dir/out.jelly")
+      resolve("file:/out.jelly") shouldBe importDir.resolve("out.jelly")
+    }
+
+    "reject paths outside of the import directory" in {
+      for path <- Seq("../out.jelly", "dir/../../out.jelly", "/../out.jelly", "file:///../out.jelly") do
+        withClue(path) {
+          intercept[SecurityException] {
+            resolve(path)
+          }
+        }
+    }
+
+    "reject symbolic links to outside of the import directory" in {
+      val outside = Files.createTempDirectory("neo4j-outside")
+      outside.toFile.deleteOnExit()
+      val link = Files.createSymbolicLink(importDir.resolve("link"), outside)
+      link.toFile.deleteOnExit()
+      intercept[SecurityException] {
+        resolve("link/out.jelly")
+      }
+    }
+  }
@@ -0,0 +1,198 @@
+package eu.neverblink.jelly.convert.neo4j
+
+import eu.neverblink.jelly.convert.rdf4j.rio.JellyFormat
+import n10s.graphconfig.GraphConfigProcedures
+import n10s.rdf.load.RDFLoadProcedures
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory
+import org.eclipse.rdf4j.rio.Rio
+import org.neo4j.graphdb.GraphDatabaseService
+import org.neo4j.graphdb.event.{TransactionData, TransactionEventListenerAdapter}
+import org.neo4j.harness.Neo4jBuilder
+
+import java.io.FileOutputStream
+import java.nio.file.{Files, Path}
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.zip.GZIPOutputStream
+import scala.util.Using
+
+class JellyImportProceduresSpec extends Neo4jSpec:
+  override val procedures: Seq[Class[?]] = Seq(
+    classOf[JellyImportProcedures],
+    classOf[RDFLoadProcedures],
+    classOf[GraphConfigProcedures],
+  )
+
+  override protected def configure(builder: Neo4jBuilder): Neo4jBuilder =
+    builder.withConfig(JellySettings.IMPORT_FILE_ENABLED, java.lang.Boolean.TRUE)
+
+  private val rbResource = Path.of(getClass.getResource("/riverbench_main_v1_1_1.jelly").toURI)
+
+  /** The test file, copied to the import directory. Path relative to the import directory. */
+  private val rbFile = "riverbench_main_v1_1_1.jelly"
+
+  private val createConstraint =
+    "CREATE CONSTRAINT n10s_unique_uri IF NOT EXISTS FOR (r:Resource) REQUIRE r.uri IS UNIQUE"
+
+  override def beforeAll(): Unit =
+    super.beforeAll()
+    val copy = Files.copy(rbResource, importDir.resolve(rbFile))
+    copy.toFile.deleteOnExit()
+    withSession { session =>
+      session.run(createConstraint).consume()
+      session.run("CALL n10s.graphconfig.init({ handleVocabUris: 'SHORTEN' })").consume()
+    }
+
+  private def writeJellyFile(count: Int, gzip: Boolean, uriPrefix: String = "http://example.com/big/"): Path =
+    val file = Files.createTempFile(importDir, "jelly-import", if gzip then ".jelly.gz" else ".jelly")
+    file.toFile.deleteOnExit()
+    Using.resource(FileOutputStream(file.toFile)) { fileOut =>
+      val out = if gzip then GZIPOutputStream(fileOut) else fileOut
+      val vf = SimpleValueFactory.getInstance()
+      val writer = Rio.createWriter(JellyFormat.JELLY, out)
+      writer.startRDF()
+      for i <- 1 to count do
+        writer.handleStatement(vf.createStatement(
+          vf.createIRI(f"${uriPrefix}s${i / 10}"),
+          vf.createIRI(s"${uriPrefix}p"),
+          vf.createIRI(f"${uriPrefix}o$i"),
+        ))
+      writer.endRDF()
+      out.close()
+    }
+    file
+
+  private def countNodes(uriPrefix: String): Long = withSession { session =>
+    session.run(
+      s"MATCH (r:Resource) WHERE r.uri STARTS WITH '$uriPrefix' RETURN count(r) AS c",
+    ).single().get("c").asLong()
+  }
+
+  "n10s.rdf.import.jelly" should {
+    "fail without the n10s constraint" in {
+      withSession { session =>
+        session.run("DROP CONSTRAINT n10s_unique_uri").consume()
+        try
+          val record = session.run(s"CALL n10s.rdf.import.jelly('$rbFile')").single().asMap()
+          record.get("terminationStatus") shouldBe "KO"
+          record.get("extraInfo").asInstanceOf[String] should include("n10s_unique_uri")
+        finally session.run(createConstraint).consume()
+      }
+    }
+
+    "import a Jelly file from a path relative to the import directory" in {
+      withSession { session =>
+        val record = session.run(s"CALL n10s.rdf.import.jelly('$rbFile')").single().asMap()
+        record.get("terminationStatus") shouldBe "OK"
+        record.get("triplesLoaded") shouldBe java.lang.Long.valueOf(23)
+        record.get("triplesParsed") shouldBe java.lang.Long.valueOf(23)
+        record.get("triplesPerSecond").asInstanceOf[Double] should be > 0.0
+      }
+    }
+
+    "map the data in the same way as n10s.rdf.import.fetch" in {
+      withSession { session =>
+        session.run(s"CALL n10s.rdf.import.jelly('$rbFile')").single()
+          .get("terminationStatus").asString() shouldBe "OK"
+      }
+      val nodesBefore = countNodes("")
+      nodesBefore should be > 0L
+      withSession { session =>
+        val record = session.run(
+          s"CALL n10s.rdf.import.fetch('${rbResource.toUri}', 'Jelly')",
+        ).single().asMap()
+        record.get("terminationStatus") shouldBe "OK"
+        record.get("triplesLoaded") shouldBe java.lang.Long.valueOf(23)
+      }
+      // Importing the same data again must not create any new nodes
+      countNodes("") shouldBe nodesBefore
+    }
+
+    "import a gzipped file from a file: URL in many batches" in {
+      val file = writeJellyFile(10_000, gzip = true)
+      withSession { session =>
+        val record = session.run(
+          s"CALL n10s.rdf.import.jelly('file:///${file.getFileName}', { batchSize: 1000 })",
+        ).single().asMap()
+        record.get("terminationStatus") shouldBe "OK"
+        record.get("triplesLoaded") shouldBe java.lang.Long.valueOf(10_000)
+        record.get("triplesParsed") shouldBe java.lang.Long.valueOf(10_000)
+      }
+      // 1001 subjects (s0 to s1000) and 10000 objects
+      countNodes("http://example.com/big/") shouldBe 11_001L
+    }
+
+    "commit each batch in its own transaction" in {
+      val file = writeJellyFile(10_000, gzip = false, uriPrefix = "http://example.com/batches/")
+      // Count the committed transactions that created nodes
+      val commits = AtomicInteger(0)
+      val listener = new TransactionEventListenerAdapter[AnyRef]:
+        override def afterCommit(data: TransactionData, state: AnyRef, db: GraphDatabaseService): Unit =
+          if data.createdNodes().iterator().hasNext then commits.incrementAndGet()
+      val dbName = neo4j.defaultDatabaseService().databaseName()
+      neo4j.databaseManagementService().registerTransactionEventListener(dbName, listener)
+      try
+        withSession { session =>
+          val record = session.run(
+            s"CALL n10s.rdf.import.jelly('${file.getFileName}', { batchSize: 1000 })",
+          ).single().asMap()
+          record.get("terminationStatus") shouldBe "OK"
+          record.get("triplesLoaded") shouldBe java.lang.Long.valueOf(10_000)
+        }
+      finally neo4j.databaseManagementService().unregisterTransactionEventListener(dbName, listener)
+      commits.get() should be >= 10
+      countNodes("http://example.com/batches/") shouldBe 11_001L
+    }
+
+    "keep the batches committed before an error" in {
+      val file = writeJellyFile(10_000, gzip = false, uriPrefix = "http://example.com/partial/")
+      // Cut the file in the middle of the stream
+      val bytes = Files.readAllBytes(file)
+      Files.write(file, bytes.take(bytes.length / 2))
+      withSession { session =>
+        val record = session.run(
+          s"CALL n10s.rdf.import.jelly('${file.getFileName}', { batchSize: 1000 })",
+        ).single().asMap()
+        record.get("terminationStatus") shouldBe "KO"
+        record.get("triplesLoaded").asInstanceOf[Long] should be > 0L
+      }
+      countNodes("http://example.com/partial/") should be > 0L
+    }
+
+    "report a missing file" in {
+      withSession { session =>
+        val record = session.run(
+          "CALL n10s.rdf.import.jelly('this/file/does/not/exist.jelly')",
+        ).single().asMap()
+        record.get("terminationStatus") shouldBe "KO"
+        record.get("triplesLoaded") shouldBe java.lang.Long.valueOf(0)
+      }
+    }
+
+    "reject a path outside of the import directory" in {
+      for path <- Seq(s"../$rbFile", s"file:///../$rbFile") do
+        withSession { session =>
+          val record = session.run(s"CALL n10s.rdf.import.jelly('$path')").single().asMap()
+          record.get("terminationStatus") shouldBe "KO"
+          record.get("extraInfo").asInstanceOf[String] should include("outside of the import directory")
+        }
+    }
+
+    "resolve absolute paths against the import directory" in {
+      withSession { session =>
+        // The file exists on the server, but not in the import directory
+        val record = session.run(s"CALL n10s.rdf.import.jelly('$rbResource')").single().asMap()
+        record.get("terminationStatus") shouldBe "KO"
+        record.get("triplesLoaded") shouldBe java.lang.Long.valueOf(0)
+      }
+    }
+
+    "reject an invalid batch size" in {
+      withSession { session =>
+        val record = session.run(
+          s"CALL n10s.rdf.import.jelly('$rbFile', { batchSize: 0 })",
+        ).single().asMap()
+        record.get("terminationStatus") shouldBe "KO"
+        record.get("extraInfo").asInstanceOf[String] should include("batchSize")
+      }
+    }
+  }
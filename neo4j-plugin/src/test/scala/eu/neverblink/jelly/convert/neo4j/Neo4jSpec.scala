@@ -1,11 +1,13 @@
 package eu.neverblink.jelly.convert.neo4j
 
+import org.neo4j.configuration.GraphDatabaseSettings
 import org.neo4j.driver.GraphDatabase
-import org.neo4j.harness.{Neo4j, Neo4jBuilders}
+import org.neo4j.harness.{Neo4j, Neo4jBuilder, Neo4jBuilders}
 import org.scalatest.BeforeAndAfterAll
 import org.scalatest.matchers.should.Matchers
 import org.scalatest.wordspec.AnyWordSpec
 
+import java.nio.file.{Files, Path}
 import scala.util.Using
 
 abstract class Neo4jSpec extends AnyWordSpec, Matchers, BeforeAndAfterAll:
@@ -23,6 +25,20 @@ abstract class Neo4jSpec extends AnyWordSpec, Matchers, BeforeAndAfterAll:
     */
   protected val procedures: Seq[Class[?]] = Seq()
 
+  /** Import directory of the test database (server.directories.import), a fresh temporary directory.
+    */
+  protected lazy val importDir: Path =
+    val dir = Files.createTempDirectory("neo4j-import")
+    dir.toFile.deleteOnExit()
+    dir
+
+  /** Override this to set additional configuration of the test database.
+    * @param builder
+    *   builder of the test database
+    * @return
+    */
+  protected def configure(builder: Neo4jBuilder): Neo4jBuilder = builder
+
   /** Helper to get a Neo4j session and run some code with it.
     * @param testCode
     *   code to run with the session
@@ -40,10 +56,11 @@ abstract class Neo4jSpec extends AnyWordSpec, Matchers, BeforeAndAfterAll:
   override def beforeAll(): Unit =
     val builder = Neo4jBuilders.newInProcessBuilder()
       .withDisabledServer()
+      .withConfig(GraphDatabaseSettings.load_csv_file_url_root, importDir)
     for cls <- functions do builder.withFunction(cls)
     for cls <- aggregations do builder.withAggregationFunction(cls)
     for cls <- procedures do builder.withProcedure(cls)
-    neo4j = builder.build()
+    neo4j = configure(builder).build()
 
   override def afterAll(): Unit =
     if neo4j != null then neo4j.close()
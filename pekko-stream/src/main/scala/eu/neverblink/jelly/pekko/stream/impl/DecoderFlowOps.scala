@@ -1,6 +1,7 @@
 package eu.neverblink.jelly.pekko.stream.impl
 
 import eu.neverblink.jelly.core.proto.v1.*
+import eu.neverblink.jelly.core.stats.{DecoderStats, FrameDecodedEvent}
 import eu.neverblink.jelly.core.utils.{QuadMaker, TripleMaker}
 import eu.neverblink.jelly.core.{
   JellyConverterFactory,
@@ -78,22 +79,54 @@ trait DecoderFlowOps:
         .toMat(Sink.headOption)(Keep.right),
     )(Keep.right)
 
+  /** Returns flow operations that report decoder statistics to the given receiver.
+    *
+    * Each flow created from the returned object gets a decoder that reports to `stats`. The flow
+    * also reports every decoded frame (row count, serialized size, decoding time) and emits a
+    * [[FrameDecodedEvent]] for JFR. To measure frames, flat (non-grouped) streams decode whole
+    * frames at a time when statistics are enabled, instead of row by row.
+    *
+    * The receiver (e.g., [[eu.neverblink.jelly.core.stats.DecoderCounters]]) is not thread-safe,
+    * so the created flows must not be materialized more than once at a time.
+    *
+    * @param stats
+    *   receiver of decoder statistics
+    * @return
+    *   flow operations with statistics enabled
+    */
+  final def withStats(stats: DecoderStats): DecoderFlowOps =
+    new DecoderFlowOps:
+      override protected def decoderStats: DecoderStats = stats
+
+  /** Receiver of decoder statistics for the created decoders, or null if statistics are disabled.
+    */
+  protected def decoderStats: DecoderStats = null
+
   // *** Private API ***
 
   private def flatStream[TOut](
       buffer: util.Collection[TOut],
       decoder: ProtoDecoder[?, ?],
   ): Flow[RdfStreamFrame, TOut, NotUsed] =
-    Flow[RdfStreamFrame]
-      .mapConcat(frame => frame.getRows.asScala)
-      // We use the null-safe ingestRow here to play nice with Pekko Streams
-      // The alternative would be a custom flow stage... but that's a bit overkill
-      .mapConcat(row => {
-        decoder.ingestRow(row)
-        val output = buffer.asScala.toList
-        buffer.clear()
-        output
-      })
+    if decoder.getStats != null then
+      Flow[RdfStreamFrame]
+        .mapConcat(frame => {
+          ingestFrame(frame, decoder)
+          val output = buffer.asScala.toList
+          buffer.clear()
+          output
+        })
+    else
+      Flow[RdfStreamFrame]
+        .mapConcat(frame => frame.getRows.asScala)
+        // We use the null-safe ingestRow here to play nice with Pekko Streams
+        // The alternative would be a custom flow stage... but that's a bit overkill
+        .mapConcat(row => {
+          decoder.ingestRow(row)
+          val output = buffer.asScala.toList
+          buffer.clear()
+          output
+        })
 
   private def groupedStream[TOut](
       buffer: util.Collection[TOut],
@@ -101,14 +134,32 @@ trait DecoderFlowOps:
   ): Flow[RdfStreamFrame, Seq[TOut], NotUsed] =
     Flow[RdfStreamFrame]
       .map(frame => {
-        frame.getRows.asScala.foreach(row => {
-          decoder.ingestRow(row)
-        })
+        ingestFrame(frame, decoder)
         val output = buffer.asScala.toList
         buffer.clear()
         output
       })
 
+  /** Ingests all rows of the frame, emitting a JFR event and reporting the frame to the decoder's
+    * statistics receiver (if any).
+    */
+  private def ingestFrame(frame: RdfStreamFrame, decoder: ProtoDecoder[?, ?]): Unit =
+    val stats = decoder.getStats
+    val event = FrameDecodedEvent()
+    event.begin()
+    val start = if stats != null then System.nanoTime() else 0L
+    frame.getRows.asScala.foreach(row => {
+      decoder.ingestRow(row)
+    })
+    event.end()
+    val nanos = if stats != null then System.nanoTime() - start else 0L
+    // Computing the serialized size is not free, so only do it if it's needed
+    if stats != null || event.shouldCommit() then
+      val rows = frame.getRows.size()
+      val bytes = frame.getSerializedSize.toLong
+      event.commitIfEnabled(rows, bytes)
+      if stats != null then stats.onFrame(rows, bytes, nanos)
+
   private sealed trait DecoderIngestFlowOps:
     protected final inline def s(
         strict: Boolean,
@@ -144,7 +195,7 @@ trait DecoderFlowOps:
           }
         }
 
-        flatStream(buffer, converterFactory.triplesDecoder(handler, supportedOptions))
+        flatStream(buffer, converterFactory.triplesDecoder(handler, supportedOptions, decoderStats))
       }
 
       /** @inheritdoc */
@@ -166,7 +217,7 @@ trait DecoderFlowOps:
           }
         }
 
-        groupedStream(buffer, converterFactory.triplesDecoder(handler, supportedOptions))
+        groupedStream(buffer, converterFactory.triplesDecoder(handler, supportedOptions, decoderStats))
       }
 
     end TriplesIngestFlowOps
@@ -202,7 +253,7 @@ trait DecoderFlowOps:
           }
         }
 
-        flatStream(buffer, converterFactory.quadsDecoder(handler, supportedOptions))
+        flatStream(buffer, converterFactory.quadsDecoder(handler, supportedOptions, decoderStats))
       }
 
       /** @inheritdoc */
@@ -230,7 +281,7 @@ trait DecoderFlowOps:
           }
         }
 
-        groupedStream(buffer, converterFactory.quadsDecoder(handler, supportedOptions))
+        groupedStream(buffer, converterFactory.quadsDecoder(handler, supportedOptions, decoderStats))
       }
 
     end QuadsIngestFlowOps
@@ -267,7 +318,7 @@ trait DecoderFlowOps:
           }
         }
 
-        flatStream(buffer, converterFactory.graphsAsQuadsDecoder(handler, supportedOptions))
+        flatStream(buffer, converterFactory.graphsAsQuadsDecoder(handler, supportedOptions, decoderStats))
       }
 
       /** @inheritdoc */
@@ -295,7 +346,7 @@ trait DecoderFlowOps:
           }
         }
 
-        groupedStream(buffer, converterFactory.graphsAsQuadsDecoder(handler, supportedOptions))
+        groupedStream(buffer, converterFactory.graphsAsQuadsDecoder(handler, supportedOptions, decoderStats))
       }
 
       /** @inheritdoc */
@@ -341,7 +392,7 @@ trait DecoderFlowOps:
           }
         }
 
-        groupedStream(buffer, converterFactory.graphsDecoder(handler, supportedOptions))
+        groupedStream(buffer, converterFactory.graphsDecoder(handler, supportedOptions, decoderStats))
       }
 
       /** @inheritdoc */
@@ -388,7 +439,7 @@ trait DecoderFlowOps:
           }
         }
 
-        flatStream(buffer, converterFactory.graphsDecoder(handler, supportedOptions))
+        flatStream(buffer, converterFactory.graphsDecoder(handler, supportedOptions, decoderStats))
       }
 
     end GraphsIngestFlowOps
@@ -427,7 +478,7 @@ trait DecoderFlowOps:
           }
         }
 
-        groupedStream(buffer, converterFactory.anyStatementDecoder(handler, supportedOptions))
+        groupedStream(buffer, converterFactory.anyStatementDecoder(handler, supportedOptions, decoderStats))
       }
 
       /** @inheritdoc */
@@ -460,7 +511,7 @@ trait DecoderFlowOps:
           }
         }
 
-        flatStream(buffer, converterFactory.anyStatementDecoder(handler, supportedOptions))
+        flatStream(buffer, converterFactory.anyStatementDecoder(handler, supportedOptions, decoderStats))
       }
 
   private object InterpretableAs:
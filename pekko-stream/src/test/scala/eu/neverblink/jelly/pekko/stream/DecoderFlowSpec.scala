@@ -5,6 +5,7 @@ import eu.neverblink.jelly.core.ProtoTestCases.*
 import eu.neverblink.jelly.core.helpers.Assertions.*
 import eu.neverblink.jelly.core.helpers.MockConverterFactory
 import eu.neverblink.jelly.core.proto.v1.*
+import eu.neverblink.jelly.core.stats.{DecoderCounters, DecoderStats}
 import eu.neverblink.jelly.core.utils.LogicalStreamTypeUtils
 import org.apache.pekko.NotUsed
 import org.apache.pekko.actor.ActorSystem
@@ -332,3 +333,41 @@ class DecoderFlowSpec extends AnyWordSpec, Matchers, ScalaFutures:
           decoded.size should be(encoded.size)
         }
   }
+
+  "DecoderFlow.withStats" should {
+    for n <- Seq(1, 2, 100) do
+      s"decode triples and report statistics, frame size: $n" in {
+        val counters = DecoderCounters()
+        val encoded = Triples1.encodedFull(
+          JellyOptions.SMALL_GENERALIZED.clone().setPhysicalType(PhysicalStreamType.TRIPLES),
+          n,
+        )
+        val decoded: Seq[Triple] = Source(encoded)
+          .via(DecoderFlow.withStats(counters).decodeTriples.asFlatTripleStream)
+          .toMat(Sink.seq)(Keep.right)
+          .run().futureValue
+
+        assertDecoded(decoded, Triples1.mrl)
+        counters.getFrames should be(encoded.size)
+        counters.getRows should be(encoded.map(_.getRows.size).sum)
+        counters.getBytes should be(encoded.map(_.getSerializedSize.toLong).sum)
+        counters.getTerms(DecoderStats.Term.SUBJECT) should be(4)
+        counters.getRepeatedTerms(DecoderStats.Term.SUBJECT) should be(2)
+      }
+
+    "report statistics for grouped streams" in {
+      val counters = DecoderCounters()
+      val encoded = Quads1.encodedFull(
+        JellyOptions.SMALL_GENERALIZED.clone().setPhysicalType(PhysicalStreamType.QUADS),
+        2,
+      )
+      val decoded = Source(encoded)
+        .via(DecoderFlow.withStats(counters).decodeQuads.asDatasetStreamOfQuads)
+        .toMat(Sink.seq)(Keep.right)
+        .run().futureValue
+
+      assertDecoded(decoded.flatten, Quads1.mrl)
+      counters.getFrames should be(encoded.size)
+      counters.getTerms(DecoderStats.Term.GRAPH) should be(Quads1.mrl.size)
+    }
+  }
@@ -0,0 +1,205 @@
+package eu.neverblink.jelly.convert.rdf4j.patch;
+
+import eu.neverblink.jelly.core.ExperimentalApi;
+import java.util.ArrayList;
+import java.util.BitSet;
+import org.eclipse.rdf4j.common.transaction.IsolationLevel;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.sail.NotifyingSail;
+import org.eclipse.rdf4j.sail.NotifyingSailConnection;
+import org.eclipse.rdf4j.sail.SailConnectionListener;
+import org.eclipse.rdf4j.sail.SailException;
+import org.eclipse.rdf4j.sail.helpers.NotifyingSailConnectionWrapper;
+import org.eclipse.rdf4j.sail.helpers.NotifyingSailWrapper;
+
+/**
+ * Sail wrapper that records all committed changes to the underlying sail as a Jelly-Patch stream, for
+ * example to replicate an RDF4J store.
+ * <p>
+ * Each connection listens to the statementAdded and statementRemoved notifications of the underlying
+ * connection, and records the namespace changes. The changes are buffered until the sail transaction
+ * ends. On commit, they are written to the {@link Rdf4jPatchWriter} as one patch transaction (TX ... TC).
+ * Rolled back transactions and transactions without changes are not written. Commits are serialized, so
+ * the patch transactions are in the same order as the commits.
+ * <p>
+ * By default, the writer is flushed after each committed transaction, so that the changes are available
+ * to the replicas right away. With {@code flushOnCommit = false}, frames are only written when they are
+ * full, which is more efficient for many small transactions.
+ * <p>
+ * The writer is finished when the sail is shut down. The output stream is not closed.
+ */
+@ExperimentalApi
+public final class JellyPatchSail extends NotifyingSailWrapper {
+
+    // Recorded namespace change. A null name means that the namespace was removed.
+    private record NamespaceChange(String prefix, String name) {}
+
+    private final Rdf4jPatchWriter writer;
+    private final boolean flushOnCommit;
+    // Guards the writer and the order of commits
+    private final Object commitLock = new Object();
+
+    /**
+     * Creates a new sail that writes the changes to the writer, flushing it after each transaction.
+     *
+     * @param baseSail sail to wrap
+     * @param writer writer of the patch stream
+     */
+    public JellyPatchSail(NotifyingSail baseSail, Rdf4jPatchWriter writer) {
+        this(baseSail, writer, true);
+    }
+
+    /**
+     * Creates a new sail that writes the changes to the writer.
+     *
+     * @param baseSail sail to wrap
+     * @param writer writer of the patch stream
+     * @param flushOnCommit whether to flush the writer after each committed transaction
+     */
+    public JellyPatchSail(NotifyingSail baseSail, Rdf4jPatchWriter writer, boolean flushOnCommit) {
+        super(baseSail);
+        this.writer = writer;
+        this.flushOnCommit = flushOnCommit;
+    }
+
+    @Override
+    public NotifyingSailConnection getConnection() throws SailException {
+        return new PatchConnection(super.getConnection());
+    }
+
+    @Override
+    public void shutDown() throws SailException {
+        try {
+            super.shutDown();
+        } finally {
+            synchronized (commitLock) {
+                writer.finish();
+            }
+        }
+    }
+
+    /**
+     * Connection that records the changes of its transaction.
+     */
+    private final class PatchConnection extends NotifyingSailConnectionWrapper implements SailConnectionListener {
+
+        // Statements and namespace changes, in order. The statements in removed positions are deletions.
+        private final ArrayList<Object> changes = new ArrayList<>();
+        private final BitSet removed = new BitSet();
+
+        PatchConnection(NotifyingSailConnection wrappedCon) {
+            super(wrappedCon);
+            wrappedCon.addConnectionListener(this);
+        }
+
+        @Override
+        public void statementAdded(Statement st) {
+            changes.add(st);
+        }
+
+        @Override
+        public void statementRemoved(Statement st) {
+            removed.set(changes.size());
+            changes.add(st);
+        }
+
+        @Override
+        public void begin() throws SailException {
+            clearChanges();
+            super.begin();
+        }
+
+        @Override
+        public void begin(IsolationLevel level) throws SailException {
+            clearChanges();
+            super.begin(level);
+        }
+
+        @Override
+        public void setNamespace(String prefix, String name) throws SailException {
+            super.setNamespace(prefix, name);
+            changes.add(new NamespaceChange(prefix, name));
+        }
+
+        @Override
+        public void removeNamespace(String prefix) throws SailException {
+            super.removeNamespace(prefix);
+            changes.add(new NamespaceChange(prefix, null));
+        }
+
+        @Override
+        public void clearNamespaces() throws SailException {
+            final var prefixes = new ArrayList<String>();
+            try (var namespaces = getNamespaces()) {
+                while (namespaces.hasNext()) {
+                    prefixes.add(namespaces.next().getPrefix());
+                }
+            }
+            super.clearNamespaces();
+            for (final var prefix : prefixes) {
+                changes.add(new NamespaceChange(prefix, null));
+            }
+        }
+
+        @Override
+        public void commit() throws SailException {
+            try {
+                synchronized (commitLock) {
+                    super.commit();
+                    writeChanges();
+                }
+            } finally {
+                clearChanges();
+            }
+        }
+
+        @Override
+        public void rollback() throws SailException {
+            try {
+                super.rollback();
+            } finally {
+                clearChanges();
+            }
+        }
+
+        @Override
+        public void close() throws SailException {
+            getWrappedConnection().removeConnectionListener(this);
+            super.close();
+        }
+
+        private void writeChanges() {
+            if (changes.isEmpty()) {
+                return;
+            }
+            final ValueFactory vf = getValueFactory();
+            writer.transactionStart();
+            for (int i = 0; i < changes.size(); i++) {
+                final Object change = changes.get(i);
+                if (change instanceof Statement st) {
+                    if (removed.get(i)) {
+                        writer.deleteStatement(st);
+                    } else {
+                        writer.addStatement(st);
+                    }
+                } else if (change instanceof NamespaceChange ns) {
+                    if (ns.name() == null) {
+                        writer.deleteNamespace(ns.prefix(), null, null);
+                    } else {
+                        writer.addNamespace(ns.prefix(), vf.createIRI(ns.name()), null);
+                    }
+                }
+            }
+            writer.transactionCommit();
+            if (flushOnCommit) {
+                writer.flush();
+            }
+        }
+
+        private void clearChanges() {
+            changes.clear();
+            removed.clear();
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package eu.neverblink.jelly.convert.rdf4j.patch;
+
+import eu.neverblink.jelly.core.ExperimentalApi;
+import eu.neverblink.jelly.core.patch.PatchHandler;
+import java.util.ArrayList;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+
+/**
+ * Applies a decoded Jelly-Patch stream to an RDF4J RepositoryConnection, in batches.
+ * <p>
+ * Added and deleted statements are buffered, and written to the connection when the batch is full or the
+ * patch transaction ends. Each run of additions is passed to the connection in one add() call.
+ * The transactions are handled as follows:
+ * <ul>
+ *     <li>Within a patch transaction (TX ... TC), the connection's transaction is begun on TX, and the
+ *     batches are written into it. On TA, the buffered changes are simply discarded before rolling back.</li>
+ *     <li>Outside of patch transactions, each batch is written in its own transaction, instead of
+ *     every statement being auto-committed separately.</li>
+ * </ul>
+ * If the connection is already in a transaction, it is used as-is and not committed or rolled back.
+ * <p>
+ * The order of additions and deletions is preserved. Triples are applied to the default graph.
+ * Namespace changes are applied to the repository's namespaces (the graph is ignored), and headers
+ * are ignored.
+ * <p>
+ * You MUST call `finish()` at the end of the stream to ensure that all changes are written.
+ * <p>
+ * This class is not thread-safe.
+ */
+@ExperimentalApi
+public final class Rdf4jPatchApplier implements PatchHandler.AnyPatchHandler<Value> {
+
+    /**
+     * Default maximum number of statements in a batch.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 8192;
+
+    private final RepositoryConnection connection;
+    private final ValueFactory vf;
+    private final int batchSize;
+
+    // Statements of the current batch and whether they are deleted
+    private final ArrayList<Statement> statements;
+    private final boolean[] deletes;
+
+    // True if we began the connection's transaction for a patch transaction
+    private boolean inPatchTxn = false;
+    private long statementsApplied = 0;
+
+    /**
+     * Creates a new applier with the default batch size.
+     *
+     * @param connection The connection to apply the changes to.
+     */
+    public Rdf4jPatchApplier(RepositoryConnection connection) {
+        this(connection, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Creates a new applier.
+     *
+     * @param connection The connection to apply the changes to.
+     * @param batchSize Maximum number of statements buffered before they are written to the connection.
+     */
+    public Rdf4jPatchApplier(RepositoryConnection connection, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive, got " + batchSize);
+        }
+        this.connection = connection;
+        this.vf = connection.getValueFactory();
+        this.batchSize = batchSize;
+        this.statements = new ArrayList<>(batchSize);
+        this.deletes = new boolean[batchSize];
+    }
+
+    /**
+     * Returns the number of added and deleted statements written to the connection so far. Statements of
+     * aborted patch transactions that were discarded before being written are not counted.
+     * @return The number of statements.
+     */
+    public long getStatementsApplied() {
+        return statementsApplied;
+    }
+
+    @Override
+    public void addTriple(Value subject, Value predicate, Value object) {
+        buffer(false, vf.createStatement((Resource) subject, (IRI) predicate, object));
+    }
+
+    @Override
+    public void deleteTriple(Value subject, Value predicate, Value object) {
+        buffer(true, vf.createStatement((Resource) subject, (IRI) predicate, object));
+    }
+
+    @Override
+    public void addQuad(Value subject, Value predicate, Value object, Value graph) {
+        buffer(false, vf.createStatement((Resource) subject, (IRI) predicate, object, (Resource) graph));
+    }
+
+    @Override
+    public void deleteQuad(Value subject, Value predicate, Value object, Value graph) {
+        buffer(true, vf.createStatement((Resource) subject, (IRI) predicate, object, (Resource) graph));
+    }
+
+    private void buffer(boolean delete, Statement statement) {
+        deletes[statements.size()] = delete;
+        statements.add(statement);
+        if (statements.size() == batchSize) {
+            flush();
+        }
+    }
+
+    @Override
+    public void addNamespace(String name, Value iriValue, Value graph) {
+        // Keep the order of statements and namespace changes
+        flush();
+        inTransaction(() -> connection.setNamespace(name, iriValue.stringValue()));
+    }
+
+    @Override
+    public void deleteNamespace(String name, Value iriValue, Value graph) {
+        flush();
+        inTransaction(() -> connection.removeNamespace(name));
+    }
+
+    @Override
+    public void header(String key, Value value) {}
+
+    @Override
+    public void transactionStart() {
+        flush();
+        if (!connection.isActive()) {
+            connection.begin();
+            inPatchTxn = true;
+        }
+    }
+
+    @Override
+    public void transactionCommit() {
+        flush();
+        if (inPatchTxn) {
+            inPatchTxn = false;
+            connection.commit();
+        }
+    }
+
+    @Override
+    public void transactionAbort() {
+        if (inPatchTxn) {
+            // Nothing was written of the buffered changes yet, so they can be dropped
+            statements.clear();
+            inPatchTxn = false;
+            connection.rollback();
+        } else {
+            // We can't roll back someone else's transaction, so apply the changes
+            flush();
+        }
+    }
+
+    @Override
+    public void punctuation() {
+        flush();
+    }
+
+    /**
+     * Writes the buffered statements to the connection, and rolls back the patch transaction if the stream
+     * ended inside of it.
+     */
+    public void finish() {
+        if (inPatchTxn) {
+            transactionAbort();
+        } else {
+            flush();
+        }
+    }
+
+    /**
+     * Discards the buffered statements, and rolls back the patch transaction if one is open. Used when
+     * reading the stream fails.
+     */
+    void abort() {
+        statements.clear();
+        if (inPatchTxn) {
+            inPatchTxn = false;
+            connection.rollback();
+        }
+    }
+
+    /**
+     * Writes the buffered statements to the connection. If no transaction is active, a transaction is
+     * used for the whole batch.
+     */
+    public void flush() {
+        if (statements.isEmpty()) {
+            return;
+        }
+        inTransaction(this::writeBatch);
+        statements.clear();
+    }
+
+    private void writeBatch() {
+        final int n = statements.size();
+        int start = 0;
+        while (start < n) {
+            final boolean delete = deletes[start];
+            int end = start + 1;
+            while (end < n && deletes[end] == delete) {
+                end++;
+            }
+            if (delete) {
+                // Remove the statements one by one with an explicit context. remove(Iterable) would remove
+                // the statements in the default graph from all contexts.
+                for (int i = start; i < end; i++) {
+                    final Statement st = statements.get(i);
+                    connection.remove(st.getSubject(), st.getPredicate(), st.getObject(), st.getContext());
+                }
+            } else {
+                connection.add(statements.subList(start, end));
+            }
+            start = end;
+        }
+        statementsApplied += n;
+    }
+
+    private void inTransaction(Runnable action) {
+        if (connection.isActive()) {
+            action.run();
+            return;
+        }
+        connection.begin();
+        try {
+            action.run();
+            connection.commit();
+        } catch (Throwable e) {
+            connection.rollback();
+            throw e;
+        }
+    }
+}
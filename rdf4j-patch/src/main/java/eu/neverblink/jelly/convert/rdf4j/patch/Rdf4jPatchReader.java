@@ -0,0 +1,85 @@
+package eu.neverblink.jelly.convert.rdf4j.patch;
+
+import static eu.neverblink.jelly.core.utils.IoUtils.readStream;
+
+import eu.neverblink.jelly.core.ExperimentalApi;
+import eu.neverblink.jelly.core.patch.JellyPatchOptions;
+import eu.neverblink.jelly.core.patch.PatchHandler;
+import eu.neverblink.jelly.core.proto.v1.patch.RdfPatchFrame;
+import eu.neverblink.jelly.core.proto.v1.patch.RdfPatchOptions;
+import eu.neverblink.jelly.core.utils.IoUtils;
+import java.io.IOException;
+import java.io.InputStream;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+
+/**
+ * Reader for Jelly-Patch byte streams with RDF4J values. Use the `apply()` methods to read the stream
+ * and send the changes to a PatchHandler, or to apply them to a repository connection.
+ */
+@ExperimentalApi
+public final class Rdf4jPatchReader {
+
+    /**
+     * Options for the Jelly-Patch reader.
+     * @param supportedOptions The options supported by the reader. Default: `JellyPatchOptions.DEFAULT_SUPPORTED_OPTIONS`.
+     * @param batchSize The maximum number of statements written to a repository connection at once.
+     *                  Default: `Rdf4jPatchApplier.DEFAULT_BATCH_SIZE`.
+     */
+    public record Options(RdfPatchOptions supportedOptions, int batchSize) {
+        public Options() {
+            this(JellyPatchOptions.DEFAULT_SUPPORTED_OPTIONS, Rdf4jPatchApplier.DEFAULT_BATCH_SIZE);
+        }
+    }
+
+    private final Options options;
+    private final Rdf4jPatchConverterFactory converterFactory;
+    private final InputStream inputStream;
+
+    public Rdf4jPatchReader(Options options, Rdf4jPatchConverterFactory converterFactory, InputStream inputStream) {
+        this.options = options;
+        this.converterFactory = converterFactory;
+        this.inputStream = inputStream;
+    }
+
+    /**
+     * Read the stream and send the changes to the destination.
+     * @param destination handler of the changes
+     */
+    public void apply(PatchHandler.AnyPatchHandler<Value> destination) {
+        final var decoder = converterFactory.anyStatementDecoder(destination, options.supportedOptions());
+        try {
+            final var delimitingResponse = IoUtils.autodetectDelimiting(inputStream);
+            if (!delimitingResponse.isDelimited()) {
+                // Non-delimited Jelly-Patch file, read only one frame
+                decoder.ingestFrame(RdfPatchFrame.parseFrom(delimitingResponse.newInput()));
+            } else {
+                // Delimited Jelly-Patch file, we can read multiple frames
+                readStream(delimitingResponse.newInput(), RdfPatchFrame.getFactory(), decoder::ingestFrame);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Read the stream and apply the changes to the repository connection, in batched transactions.
+     * If reading fails, the open patch transaction is rolled back, but the transactions committed
+     * before stay committed.
+     *
+     * @see Rdf4jPatchApplier
+     * @param connection connection to apply the changes to
+     * @return number of added and deleted statements written to the connection
+     */
+    public long apply(RepositoryConnection connection) {
+        final var applier = new Rdf4jPatchApplier(connection, options.batchSize());
+        try {
+            apply(applier);
+        } catch (Throwable e) {
+            applier.abort();
+            throw e;
+        }
+        applier.finish();
+        return applier.getStatementsApplied();
+    }
+}
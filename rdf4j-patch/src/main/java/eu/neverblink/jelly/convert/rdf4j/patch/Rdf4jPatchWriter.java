@@ -0,0 +1,265 @@
+package eu.neverblink.jelly.convert.rdf4j.patch;
+
+import com.google.protobuf.CodedOutputStream;
+import eu.neverblink.jelly.core.ExperimentalApi;
+import eu.neverblink.jelly.core.patch.JellyPatchOptions;
+import eu.neverblink.jelly.core.patch.PatchEncoder;
+import eu.neverblink.jelly.core.patch.PatchHandler;
+import eu.neverblink.jelly.core.patch.memory.PatchEncoderAllocator;
+import eu.neverblink.jelly.core.patch.memory.PatchRowBuffer;
+import eu.neverblink.jelly.core.proto.v1.patch.PatchStatementType;
+import eu.neverblink.jelly.core.proto.v1.patch.PatchStreamType;
+import eu.neverblink.jelly.core.proto.v1.patch.RdfPatchFrame;
+import eu.neverblink.jelly.core.proto.v1.patch.RdfPatchOptions;
+import eu.neverblink.protoc.java.runtime.ProtobufUtil;
+import java.io.IOException;
+import java.io.OutputStream;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+
+/**
+ * Writer for Jelly-Patch byte streams with RDF4J values. It exposes the Jelly PatchHandler interface, plus
+ * convenience methods for RDF4J statements.
+ * <p>
+ * The rows are encoded with an arena allocator, and written to the output stream in frames. For the FLAT
+ * and PUNCTUATED stream types, a frame is written when it reaches the frame size. For the FRAME stream
+ * type, frames are written on punctuation() calls. {@link #flush()} writes the buffered rows as a frame
+ * right away, which is useful for low-latency replication.
+ * <p>
+ * You MUST call `finish()` at the end of the stream to ensure that all data is written.
+ * <p>
+ * This class is not thread-safe.
+ */
+@ExperimentalApi
+public final class Rdf4jPatchWriter implements PatchHandler.AnyPatchHandler<Value> {
+
+    /**
+     * Options for the Jelly-Patch writer.
+     *
+     * @param patchOptions The options for the Jelly-Patch stream. Default: `JellyPatchOptions.BIG_ALL_FEATURES`.
+     *                     The default stream type is PUNCTUATED and the default statement type is QUADS.
+     * @param frameSize The maximum number of rows in a frame. This is ignored for the FRAME stream
+     *                  type, where frames are decided by punctuation() calls. Default: 512.
+     * @param delimited Whether to write the stream in delimited format. Setting this to false will
+     *                  force the entire patch to be in a single stream frame, which may cause
+     *                  out-of-memory errors. Disable this only if you know what you are doing.
+     *                  Default: true.
+     */
+    public record Options(RdfPatchOptions patchOptions, int frameSize, boolean delimited) {
+        public Options() {
+            this(JellyPatchOptions.BIG_ALL_FEATURES, 512, true);
+        }
+    }
+
+    private final Options options;
+    private final OutputStream outputStream;
+    private final CodedOutputStream codedOutput;
+
+    private final RdfPatchOptions patchOptions;
+    private final PatchRowBuffer buffer;
+    private final RdfPatchFrame reusableFrame;
+    private final PatchEncoderAllocator allocator;
+    private final PatchEncoder<Value> encoder;
+    private final boolean quads;
+
+    // For the FLAT and PUNCTUATED types, we will split the stream in frames by row count.
+    // This does not apply if we are doing an undelimited stream.
+    private final boolean shouldSplitByCount;
+
+    public Rdf4jPatchWriter(Options options, Rdf4jPatchConverterFactory converterFactory, OutputStream outputStream) {
+        this.options = options;
+        this.outputStream = outputStream;
+        this.codedOutput = ProtobufUtil.createCodedOutputStream(outputStream);
+
+        this.patchOptions = options
+            .patchOptions()
+            .clone()
+            .setStreamType(
+                options.patchOptions().getStreamType() == PatchStreamType.UNSPECIFIED
+                    ? PatchStreamType.PUNCTUATED
+                    : options.patchOptions().getStreamType()
+            )
+            // RDF4J statements always have a context (possibly the default graph), so go for QUADS
+            .setStatementType(
+                options.patchOptions().getStatementType() == PatchStatementType.UNSPECIFIED
+                    ? PatchStatementType.QUADS
+                    : options.patchOptions().getStatementType()
+            );
+        this.quads = this.patchOptions.getStatementType() == PatchStatementType.QUADS;
+
+        // Arena size depends on frame size (if not FRAME) or is fixed at 1024 for the FRAME type.
+        int arenaSize = this.patchOptions.getStreamType() == PatchStreamType.FRAME ? 1024 : options.frameSize + 8;
+        this.allocator = PatchEncoderAllocator.newArenaAllocator(arenaSize);
+        // The rows are reused for each frame, as they are serialized right away
+        this.buffer = PatchRowBuffer.newReusableForEncoder(arenaSize);
+        this.reusableFrame = RdfPatchFrame.newInstance().setRows(this.buffer);
+        this.encoder = converterFactory.encoder(PatchEncoder.Params.of(this.patchOptions, this.buffer, this.allocator));
+        this.shouldSplitByCount = this.patchOptions.getStreamType() != PatchStreamType.FRAME && options.delimited;
+    }
+
+    /**
+     * Returns the options of the written stream, with the stream and statement types resolved.
+     * @return options
+     */
+    public RdfPatchOptions getPatchOptions() {
+        return patchOptions;
+    }
+
+    /**
+     * Add a statement, as a triple or a quad depending on the statement type of the stream.
+     * @param statement statement to add
+     */
+    public void addStatement(Statement statement) {
+        if (quads) {
+            addQuad(statement.getSubject(), statement.getPredicate(), statement.getObject(), statement.getContext());
+        } else {
+            addTriple(statement.getSubject(), statement.getPredicate(), statement.getObject());
+        }
+    }
+
+    /**
+     * Delete a statement, as a triple or a quad depending on the statement type of the stream.
+     * @param statement statement to delete
+     */
+    public void deleteStatement(Statement statement) {
+        if (quads) {
+            deleteQuad(statement.getSubject(), statement.getPredicate(), statement.getObject(), statement.getContext());
+        } else {
+            deleteTriple(statement.getSubject(), statement.getPredicate(), statement.getObject());
+        }
+    }
+
+    @Override
+    public void addTriple(Value subject, Value predicate, Value object) {
+        encoder.addTriple(subject, predicate, object);
+        afterWrite();
+    }
+
+    @Override
+    public void deleteTriple(Value subject, Value predicate, Value object) {
+        encoder.deleteTriple(subject, predicate, object);
+        afterWrite();
+    }
+
+    @Override
+    public void addQuad(Value subject, Value predicate, Value object, Value graph) {
+        encoder.addQuad(subject, predicate, object, graph);
+        afterWrite();
+    }
+
+    @Override
+    public void deleteQuad(Value subject, Value predicate, Value object, Value graph) {
+        encoder.deleteQuad(subject, predicate, object, graph);
+        afterWrite();
+    }
+
+    @Override
+    public void transactionStart() {
+        encoder.transactionStart();
+        afterWrite();
+    }
+
+    @Override
+    public void transactionCommit() {
+        encoder.transactionCommit();
+        afterWrite();
+    }
+
+    @Override
+    public void transactionAbort() {
+        encoder.transactionAbort();
+        afterWrite();
+    }
+
+    @Override
+    public void addNamespace(String name, Value iriValue, Value graph) {
+        encoder.addNamespace(name, iriValue, graph);
+        afterWrite();
+    }
+
+    @Override
+    public void deleteNamespace(String name, Value iriValue, Value graph) {
+        encoder.deleteNamespace(name, iriValue, graph);
+        afterWrite();
+    }
+
+    @Override
+    public void header(String key, Value value) {
+        encoder.header(key, value);
+        afterWrite();
+    }
+
+    @Override
+    public void punctuation() {
+        if (patchOptions.getStreamType() == PatchStreamType.PUNCTUATED) {
+            encoder.punctuation();
+            afterWrite();
+        } else if (options.delimited) {
+            // If FRAME or FLAT intercept and emit frame
+            // Only if the stream is delimited, otherwise we wait for finish()
+            flushBuffer();
+        }
+    }
+
+    /**
+     * Write the buffered rows as a frame and flush the output stream. Has no effect for
+     * non-delimited streams, which are written in finish().
+     */
+    public void flush() {
+        if (!options.delimited) {
+            return;
+        }
+        if (!buffer.isEmpty()) {
+            flushBuffer();
+        }
+        flushOutput();
+    }
+
+    /**
+     * Write all buffered rows and flush the output stream. The output stream is not closed.
+     */
+    public void finish() {
+        if (!options.delimited) {
+            // Non-delimited variant, whole stream in one frame
+            try {
+                reusableFrame.writeTo(codedOutput);
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to write frame to output stream", e);
+            }
+            buffer.clear();
+            allocator.releaseAll();
+        } else if (!buffer.isEmpty()) {
+            flushBuffer();
+        }
+        flushOutput();
+    }
+
+    private void afterWrite() {
+        if (shouldSplitByCount && buffer.size() >= options.frameSize) {
+            flushBuffer();
+        }
+    }
+
+    private void flushBuffer() {
+        reusableFrame.resetCachedSize();
+        try {
+            reusableFrame.writeDelimitedTo(codedOutput);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to write frame to output stream", e);
+        } finally {
+            buffer.clear();
+            allocator.releaseAll();
+        }
+    }
+
+    private void flushOutput() {
+        try {
+            // !!! CodedOutputStream.flush() does not flush the underlying OutputStream,
+            // so we need to do it explicitly.
+            codedOutput.flush();
+            outputStream.flush();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to flush output stream", e);
+        }
+    }
+}
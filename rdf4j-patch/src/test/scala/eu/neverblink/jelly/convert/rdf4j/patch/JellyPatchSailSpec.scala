@@ -0,0 +1,132 @@
+package eu.neverblink.jelly.convert.rdf4j.patch
+
+import eu.neverblink.jelly.core.patch.{JellyPatchOptions, PatchHandler}
+import eu.neverblink.jelly.core.proto.v1.patch.PatchStreamType
+import org.eclipse.rdf4j.model.{Model, Value}
+import org.eclipse.rdf4j.model.impl.{LinkedHashModel, SimpleValueFactory}
+import org.eclipse.rdf4j.repository.sail.SailRepository
+import org.eclipse.rdf4j.sail.memory.MemoryStore
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+import java.io.{ByteArrayInputStream, ByteArrayOutputStream}
+import scala.jdk.CollectionConverters.*
+
+/** Tests for replicating an RDF4J store with JellyPatchSail, Rdf4jPatchReader, and Rdf4jPatchApplier.
+  */
+class JellyPatchSailSpec extends AnyWordSpec, Matchers:
+  private val vf = SimpleValueFactory.getInstance()
+  private def iri(s: String) = vf.createIRI("http://example.org/" + s)
+
+  private def withRepository[T](repository: SailRepository)(f: SailRepository => T): T =
+    repository.init()
+    try f(repository)
+    finally repository.shutDown()
+
+  private def contents(repository: SailRepository): Model =
+    val connection = repository.getConnection
+    try LinkedHashModel(connection.getStatements(null, null, null).asScala.toSeq.asJava)
+    finally connection.close()
+
+  private def namespaces(repository: SailRepository): Map[String, String] =
+    val connection = repository.getConnection
+    try connection.getNamespaces.asScala.map(ns => ns.getPrefix -> ns.getName).toMap
+    finally connection.close()
+
+  /** Makes some changes to the repository, with a mix of transactions, named graphs, and namespaces. */
+  private def makeChanges(repository: SailRepository): Unit =
+    val connection = repository.getConnection
+    try
+      // Auto-commit
+      connection.add(iri("s1"), iri("p"), vf.createLiteral("o1"))
+      connection.add(iri("s1"), iri("p"), vf.createLiteral("o1"), iri("g1"))
+      connection.setNamespace("ex", "http://example.org/")
+      connection.begin()
+      for i <- 1 to 100 do
+        connection.add(iri(s"s${i % 10}"), iri("p"), vf.createLiteral(i), iri(s"g${i % 3}"))
+      connection.remove(iri("s1"), iri("p"), vf.createLiteral("o1"))
+      connection.setNamespace("ex2", "http://example.org/2/")
+      connection.commit()
+      // Rolled back
+      connection.begin()
+      connection.add(iri("s-rollback"), iri("p"), iri("o"))
+      connection.remove(iri("s1"), null, null)
+      connection.rollback()
+      connection.begin()
+      connection.remove(iri("s5"), null, null, iri("g2"))
+      connection.removeNamespace("ex")
+      connection.add(iri("s-new"), iri("p"), iri("o"))
+      connection.commit()
+      // Transaction without changes
+      connection.begin()
+      connection.commit()
+    finally connection.close()
+
+  private def replicate(
+      streamType: PatchStreamType,
+      flushOnCommit: Boolean,
+      frameSize: Int = 16,
+  ): Array[Byte] =
+    val out = ByteArrayOutputStream()
+    val writer = Rdf4jPatchWriter(
+      Rdf4jPatchWriter.Options(
+        JellyPatchOptions.BIG_STRICT.clone().setStreamType(streamType),
+        frameSize,
+        true,
+      ),
+      Rdf4jPatchConverterFactory.getInstance(),
+      out,
+    )
+    val primary = SailRepository(JellyPatchSail(MemoryStore(), writer, flushOnCommit))
+    withRepository(primary)(makeChanges)
+    out.toByteArray
+
+  private def reader(bytes: Array[Byte]) =
+    Rdf4jPatchReader(
+      Rdf4jPatchReader.Options(),
+      Rdf4jPatchConverterFactory.getInstance(),
+      ByteArrayInputStream(bytes),
+    )
+
+  "JellyPatchSail" should {
+    for
+      streamType <- Seq(PatchStreamType.FLAT, PatchStreamType.FRAME, PatchStreamType.PUNCTUATED)
+      flushOnCommit <- Seq(true, false)
+    do
+      s"record the committed changes for replication ($streamType, flush on commit: $flushOnCommit)" in {
+        val bytes = replicate(streamType, flushOnCommit)
+        val expected = withRepository(SailRepository(MemoryStore())) { reference =>
+          makeChanges(reference)
+          (contents(reference), namespaces(reference))
+        }
+        val actual = withRepository(SailRepository(MemoryStore())) { replica =>
+          val connection = replica.getConnection
+          try reader(bytes).apply(connection)
+          finally connection.close()
+          (contents(replica), namespaces(replica))
+        }
+        actual._1 should be(expected._1)
+        actual._2 should be(expected._2)
+        actual._1.contains(iri("s-rollback"), null, null) should be(false)
+      }
+
+    "write one patch transaction per committed sail transaction with changes" in {
+      val bytes = replicate(PatchStreamType.PUNCTUATED, true)
+      var transactions = 0
+      val counter = new PatchHandler.AnyPatchHandler[Value]:
+        override def addTriple(s: Value, p: Value, o: Value): Unit = ()
+        override def deleteTriple(s: Value, p: Value, o: Value): Unit = ()
+        override def addQuad(s: Value, p: Value, o: Value, g: Value): Unit = ()
+        override def deleteQuad(s: Value, p: Value, o: Value, g: Value): Unit = ()
+        override def transactionStart(): Unit = ()
+        override def transactionCommit(): Unit = transactions += 1
+        override def transactionAbort(): Unit = ()
+        override def addNamespace(name: String, iriValue: Value, graph: Value): Unit = ()
+        override def deleteNamespace(name: String, iriValue: Value, graph: Value): Unit = ()
+        override def header(key: String, value: Value): Unit = ()
+        override def punctuation(): Unit = ()
+      reader(bytes).apply(counter)
+      // 3 auto-committed changes, 2 explicit transactions. The rolled back and empty ones are skipped.
+      transactions should be(5)
+    }
+  }
@@ -0,0 +1,91 @@
+package eu.neverblink.jelly.convert.rdf4j.patch
+
+import org.eclipse.rdf4j.model.Statement
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory
+import org.eclipse.rdf4j.repository.RepositoryConnection
+import org.eclipse.rdf4j.repository.sail.SailRepository
+import org.eclipse.rdf4j.sail.memory.MemoryStore
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+import scala.jdk.CollectionConverters.*
+
+class Rdf4jPatchApplierSpec extends AnyWordSpec, Matchers:
+  private val vf = SimpleValueFactory.getInstance()
+  private def iri(s: String) = vf.createIRI("http://example.org/" + s)
+
+  private def withConnection[T](f: RepositoryConnection => T): T =
+    val repository = SailRepository(MemoryStore())
+    repository.init()
+    val connection = repository.getConnection
+    try f(connection)
+    finally
+      connection.close()
+      repository.shutDown()
+
+  private def statements(connection: RepositoryConnection): Set[Statement] =
+    connection.getStatements(null, null, null).asScala.toSet
+
+  "Rdf4jPatchApplier" should {
+    for batchSize <- Seq(1, 3, 8192) do
+      s"apply additions and deletions in order (batch size $batchSize)" in withConnection { connection =>
+        val applier = Rdf4jPatchApplier(connection, batchSize)
+        applier.addQuad(iri("s"), iri("p"), iri("o1"), null)
+        applier.addQuad(iri("s"), iri("p"), iri("o1"), iri("g"))
+        applier.addTriple(iri("s"), iri("p"), iri("o2"))
+        applier.deleteQuad(iri("s"), iri("p"), iri("o2"), null)
+        applier.addQuad(iri("s"), iri("p"), iri("o2"), null)
+        // Only removed from the default graph
+        applier.deleteTriple(iri("s"), iri("p"), iri("o1"))
+        applier.finish()
+
+        statements(connection) should be(
+          Set(
+            vf.createStatement(iri("s"), iri("p"), iri("o1"), iri("g")),
+            vf.createStatement(iri("s"), iri("p"), iri("o2")),
+          ),
+        )
+        applier.getStatementsApplied should be(6)
+        connection.isActive should be(false)
+      }
+
+    "discard the buffered changes of an aborted transaction" in withConnection { connection =>
+      val applier = Rdf4jPatchApplier(connection, 2)
+      applier.transactionStart()
+      applier.addTriple(iri("s"), iri("p"), iri("o1"))
+      applier.transactionCommit()
+      applier.transactionStart()
+      // The first two are written into the transaction (batch is full), the third one is buffered
+      applier.addQuad(iri("s"), iri("p"), iri("o2"), iri("g"))
+      applier.addQuad(iri("s"), iri("p"), iri("o3"), iri("g"))
+      applier.deleteTriple(iri("s"), iri("p"), iri("o1"))
+      applier.transactionAbort()
+      applier.finish()
+
+      statements(connection) should be(Set(vf.createStatement(iri("s"), iri("p"), iri("o1"))))
+      applier.getStatementsApplied should be(3)
+    }
+
+    "roll back a transaction that is not finished at the end of the stream" in withConnection { connection =>
+      val applier = Rdf4jPatchApplier(connection)
+      applier.transactionStart()
+      applier.addTriple(iri("s"), iri("p"), iri("o1"))
+      applier.finish()
+      statements(connection) shouldBe empty
+      connection.isActive should be(false)
+    }
+
+    "apply namespace changes" in withConnection { connection =>
+      val applier = Rdf4jPatchApplier(connection)
+      applier.addNamespace("ex", iri(""), null)
+      applier.addNamespace("ex2", iri("2/"), null)
+      applier.deleteNamespace("ex", null, null)
+      applier.finish()
+      connection.getNamespace("ex") should be(null)
+      connection.getNamespace("ex2") should be("http://example.org/2/")
+    }
+
+    "reject a non-positive batch size" in withConnection { connection =>
+      an[IllegalArgumentException] should be thrownBy Rdf4jPatchApplier(connection, 0)
+    }
+  }
@@ -1,5 +1,6 @@
 package eu.neverblink.jelly.convert.rdf4j;
 
+import eu.neverblink.jelly.core.ExperimentalApi;
 import eu.neverblink.jelly.core.JellyConverterFactory;
 import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.model.ValueFactory;
@@ -15,6 +16,10 @@ public final class Rdf4jConverterFactory
 {
 
     private static final Rdf4jConverterFactory INSTANCE = new Rdf4jConverterFactory();
+    private static final Rdf4jConverterFactory LIGHTWEIGHT_INSTANCE = new Rdf4jConverterFactory(
+        SimpleValueFactory.getInstance(),
+        true
+    );
 
     private final Rdf4jEncoderConverter encoderConverter;
     private final Rdf4jDecoderConverter decoderConverter;
@@ -24,8 +29,12 @@ public final class Rdf4jConverterFactory
     }
 
     private Rdf4jConverterFactory(ValueFactory valueFactory) {
+        this(valueFactory, false);
+    }
+
+    private Rdf4jConverterFactory(ValueFactory valueFactory, boolean lightweightValues) {
         this.encoderConverter = new Rdf4jEncoderConverter();
-        this.decoderConverter = new Rdf4jDecoderConverter(valueFactory);
+        this.decoderConverter = new Rdf4jDecoderConverter(valueFactory, lightweightValues);
     }
 
     /**
@@ -49,6 +58,21 @@ public final class Rdf4jConverterFactory
         return new Rdf4jConverterFactory(vf);
     }
 
+    /**
+     * Returns the singleton instance of the {@link Rdf4jConverterFactory} that decodes IRIs and literals
+     * into lightweight values ({@link eu.neverblink.jelly.convert.rdf4j.values.JellyIri} and
+     * {@link eu.neverblink.jelly.convert.rdf4j.values.JellyLiteral}).
+     * <p>
+     * These values are not validated and are cheaper to create than the values of {@link SimpleValueFactory},
+     * which is used for the other values (blank nodes, quoted triples, statements).
+     *
+     * @return the singleton instance of the lightweight {@link Rdf4jConverterFactory}
+     */
+    @ExperimentalApi
+    public static Rdf4jConverterFactory getLightweightInstance() {
+        return LIGHTWEIGHT_INSTANCE;
+    }
+
     @Override
     public Rdf4jEncoderConverter encoderConverter() {
         return encoderConverter;
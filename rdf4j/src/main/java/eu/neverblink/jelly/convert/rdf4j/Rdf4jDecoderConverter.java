@@ -1,10 +1,19 @@
 package eu.neverblink.jelly.convert.rdf4j;
 
+import eu.neverblink.jelly.convert.rdf4j.values.JellyIri;
+import eu.neverblink.jelly.convert.rdf4j.values.JellyLiteral;
+import eu.neverblink.jelly.core.ExperimentalApi;
+import eu.neverblink.jelly.core.SplitIriDecoderConverter;
 import org.eclipse.rdf4j.model.*;
 import org.eclipse.rdf4j.model.base.CoreDatatype;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 
-public final class Rdf4jDecoderConverter extends BaseRdf4jDecoderConverter {
+public final class Rdf4jDecoderConverter
+    extends BaseRdf4jDecoderConverter
+    implements SplitIriDecoderConverter<Value, Rdf4jDatatype>
+{
+
+    private final boolean lightweightValues;
 
     /**
      * Creates a new Rdf4jDecoderConverter.
@@ -13,7 +22,7 @@ public final class Rdf4jDecoderConverter extends BaseRdf4jDecoderConverter {
      * used the one-parameter constructor that takes a {@link ValueFactory} instance.
      */
     public Rdf4jDecoderConverter() {
-        super(SimpleValueFactory.getInstance());
+        this(SimpleValueFactory.getInstance(), false);
     }
 
     /**
@@ -22,21 +31,54 @@ public final class Rdf4jDecoderConverter extends BaseRdf4jDecoderConverter {
      * @param vf the ValueFactory to use for creating RDF4J values
      */
     public Rdf4jDecoderConverter(ValueFactory vf) {
+        this(vf, false);
+    }
+
+    /**
+     * Creates a new Rdf4jDecoderConverter with a custom ValueFactory, optionally using lightweight values.
+     * <p>
+     * With lightweight values, IRIs and literals are created as {@link JellyIri} and {@link JellyLiteral},
+     * which skip the validation and normalization done by value factories. Blank nodes, quoted triples, and
+     * statements are still created with the ValueFactory.
+     *
+     * @param vf the ValueFactory to use for creating RDF4J values
+     * @param lightweightValues whether to create IRIs and literals as lightweight values
+     */
+    @ExperimentalApi
+    public Rdf4jDecoderConverter(ValueFactory vf, boolean lightweightValues) {
         super(vf);
+        this.lightweightValues = lightweightValues;
+    }
+
+    /**
+     * @return whether this converter creates IRIs and literals as lightweight values
+     */
+    @ExperimentalApi
+    public boolean usesLightweightValues() {
+        return lightweightValues;
     }
 
     @Override
     public Value makeSimpleLiteral(String lex) {
+        if (lightweightValues) {
+            return JellyLiteral.simple(lex);
+        }
         return vf.createLiteral(lex);
     }
 
     @Override
     public Value makeLangLiteral(String lex, String lang) {
+        if (lightweightValues) {
+            return JellyLiteral.lang(lex, lang);
+        }
         return vf.createLiteral(lex, lang);
     }
 
     @Override
     public Value makeDtLiteral(String lex, Rdf4jDatatype dt) {
+        if (lightweightValues) {
+            return JellyLiteral.typed(lex, dt.dt(), dt.coreDatatype());
+        }
         return vf.createLiteral(lex, dt.dt(), dt.coreDatatype());
     }
 
@@ -58,9 +100,24 @@ public final class Rdf4jDecoderConverter extends BaseRdf4jDecoderConverter {
 
     @Override
     public Value makeIriNode(String iri) {
+        if (lightweightValues) {
+            return new JellyIri(iri);
+        }
         return vf.createIRI(iri);
     }
 
+    /**
+     * With lightweight values, the IRI keeps the prefix and the name separately, until its string value
+     * is requested. Otherwise, the IRI is created with the ValueFactory from the concatenated string.
+     */
+    @Override
+    public Value makeIriNode(String prefix, String name) {
+        if (lightweightValues) {
+            return new JellyIri(prefix, name);
+        }
+        return vf.createIRI(prefix.concat(name));
+    }
+
     @Override
     public Value makeDefaultGraphNode() {
         return null;
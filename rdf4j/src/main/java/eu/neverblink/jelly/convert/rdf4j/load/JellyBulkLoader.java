@@ -0,0 +1,485 @@
+package eu.neverblink.jelly.convert.rdf4j.load;
+
+import eu.neverblink.jelly.convert.rdf4j.Rdf4jConverterFactory;
+import eu.neverblink.jelly.convert.rdf4j.Rdf4jDecoderConverter;
+import eu.neverblink.jelly.core.BatchRdfHandler;
+import eu.neverblink.jelly.core.ExperimentalApi;
+import eu.neverblink.jelly.core.JellyOptions;
+import eu.neverblink.jelly.core.RdfProtoDeserializationError;
+import eu.neverblink.jelly.core.memory.RowBuffer;
+import eu.neverblink.jelly.core.proto.v1.RdfStreamFrame;
+import eu.neverblink.jelly.core.proto.v1.RdfStreamOptions;
+import eu.neverblink.jelly.core.utils.BatchingRdfHandler;
+import eu.neverblink.jelly.core.utils.IoUtils;
+import eu.neverblink.protoc.java.runtime.MessageFactory;
+import eu.neverblink.protoc.java.runtime.ProtoMessage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.rdf4j.common.exception.RDF4JException;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.eclipse.rdf4j.rio.RDFParseException;
+
+/**
+ * Bulk loader for Jelly RDF data into an RDF4J repository (e.g., a MemoryStore or NativeStore).
+ * <p>
+ * Compared to adding the data with {@code RepositoryConnection.add(InputStream, RDFFormat)}, which goes through
+ * Rio's parser machinery (value validation, parse error and location listeners, one handler call per
+ * statement), the loader decodes the data with the non-checking {@link Rdf4jDecoderConverter}, collects the
+ * statements in batches with a {@link BatchingRdfHandler}, and adds each batch to the connection in one call,
+ * in large transactions.
+ * <p>
+ * With {@link Builder#parallelism(int)} greater than 1, {@link #load(InputStream, Repository)} spreads the
+ * named graphs over several worker threads, each with its own connection and transactions. The calling thread
+ * decodes the data. Statements in the default graph (including all statements of a triple stream) are
+ * always loaded by the same worker, so this only helps for datasets with many named graphs, in stores that
+ * accept concurrent write transactions.
+ * <p>
+ * Namespace declarations are added to the repository's namespaces.
+ * <p>
+ * Instances are immutable and can be reused, also concurrently.
+ */
+@ExperimentalApi
+public final class JellyBulkLoader {
+
+    public static final int DEFAULT_BATCH_SIZE = 8192;
+    public static final int DEFAULT_QUEUE_CAPACITY = 8;
+
+    // End-of-stream marker for the queues of the workers
+    private static final Object END = new Object();
+
+    private final Rdf4jConverterFactory converterFactory;
+    private final RdfStreamOptions supportedOptions;
+    private final int batchSize;
+    private final long transactionSize;
+    private final int parallelism;
+    private final int queueCapacity;
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+
+        private Rdf4jConverterFactory converterFactory = Rdf4jConverterFactory.getInstance();
+        private RdfStreamOptions supportedOptions = JellyOptions.DEFAULT_SUPPORTED_OPTIONS;
+        private int batchSize = DEFAULT_BATCH_SIZE;
+        private long transactionSize = 0;
+        private int parallelism = 1;
+        private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+
+        private Builder() {}
+
+        /**
+         * Set the converter factory used to decode the data. Use
+         * {@link Rdf4jConverterFactory#getInstance(org.eclipse.rdf4j.model.ValueFactory)} to create the values
+         * with the value factory of the store.
+         * @param converterFactory converter factory
+         * @return this
+         */
+        public Builder converterFactory(Rdf4jConverterFactory converterFactory) {
+            this.converterFactory = converterFactory;
+            return this;
+        }
+
+        /**
+         * Set the maximum supported options of the input stream.
+         * @param supportedOptions supported options
+         * @return this
+         */
+        public Builder supportedOptions(RdfStreamOptions supportedOptions) {
+            this.supportedOptions = supportedOptions;
+            return this;
+        }
+
+        /**
+         * Set the number of statements passed to the connection in one call.
+         * @param batchSize number of statements, at least 1
+         * @return this
+         */
+        public Builder batchSize(int batchSize) {
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * Set the number of statements after which the transaction is committed and a new one is started.
+         * 0 (default) means that all data is loaded in a single transaction.
+         * @param transactionSize number of statements, 0 or more
+         * @return this
+         */
+        public Builder transactionSize(long transactionSize) {
+            this.transactionSize = transactionSize;
+            return this;
+        }
+
+        /**
+         * Set the number of worker threads used by {@link #load(InputStream, Repository)}.
+         * 1 (default) means that the data is loaded on the calling thread.
+         * @param parallelism number of workers, at least 1
+         * @return this
+         */
+        public Builder parallelism(int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of batches buffered for each worker, when parallelism is greater than 1.
+         * @param queueCapacity capacity of the queues, at least 1
+         * @return this
+         */
+        public Builder queueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        public JellyBulkLoader build() {
+            return new JellyBulkLoader(
+                converterFactory,
+                supportedOptions,
+                batchSize,
+                transactionSize,
+                parallelism,
+                queueCapacity
+            );
+        }
+    }
+
+    private JellyBulkLoader(
+        Rdf4jConverterFactory converterFactory,
+        RdfStreamOptions supportedOptions,
+        int batchSize,
+        long transactionSize,
+        int parallelism,
+        int queueCapacity
+    ) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1, got " + batchSize);
+        }
+        if (transactionSize < 0) {
+            throw new IllegalArgumentException("Transaction size must not be negative, got " + transactionSize);
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1, got " + parallelism);
+        }
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Queue capacity must be at least 1, got " + queueCapacity);
+        }
+        this.converterFactory = converterFactory;
+        this.supportedOptions = supportedOptions;
+        this.batchSize = batchSize;
+        this.transactionSize = transactionSize;
+        this.parallelism = parallelism;
+        this.queueCapacity = queueCapacity;
+    }
+
+    private record Namespace(String prefix, String name) {}
+
+    /**
+     * Adds batches of statements to a connection, and begins and commits the transactions.
+     */
+    private final class Inserter {
+
+        private final RepositoryConnection connection;
+        // If the caller already started a transaction, we leave it to them to commit it
+        private final boolean ownsTransaction;
+        private long inTransaction = 0;
+        private long count = 0;
+
+        Inserter(RepositoryConnection connection) {
+            this.connection = connection;
+            this.ownsTransaction = !connection.isActive();
+        }
+
+        void insert(Object item) {
+            if (ownsTransaction && !connection.isActive()) {
+                connection.begin();
+            }
+            if (item instanceof Namespace namespace) {
+                connection.setNamespace(namespace.prefix(), namespace.name());
+                return;
+            }
+            @SuppressWarnings("unchecked")
+            final var batch = (List<Statement>) item;
+            connection.add(batch);
+            count += batch.size();
+            inTransaction += batch.size();
+            if (ownsTransaction && transactionSize > 0 && inTransaction >= transactionSize) {
+                connection.commit();
+                inTransaction = 0;
+            }
+        }
+
+        long finish() {
+            if (ownsTransaction && connection.isActive()) {
+                connection.commit();
+            }
+            return count;
+        }
+
+        void abort() {
+            if (ownsTransaction && connection.isActive()) {
+                connection.rollback();
+            }
+        }
+    }
+
+    /**
+     * Loads Jelly data (delimited or not) from the input stream into the repository, on the calling thread.
+     * <p>
+     * If the connection is not in a transaction, the data is loaded in transactions of
+     * {@link Builder#transactionSize(long)} statements (by default a single transaction). If loading fails,
+     * the current transaction is rolled back, but the transactions committed before stay committed.
+     * If the connection is already in a transaction, it is used as-is and not committed.
+     *
+     * @param in input stream with Jelly data. It is not closed by this method.
+     * @param connection connection to the repository
+     * @return number of loaded statements
+     * @throws IOException if the data could not be read
+     * @throws RDFParseException if the data could not be decoded
+     * @throws RepositoryException if the statements could not be added
+     */
+    public long load(InputStream in, RepositoryConnection connection) throws IOException {
+        final var inserter = new Inserter(connection);
+        try {
+            final Rdf4jDecoderConverter converter = converterFactory.decoderConverter();
+            final var batch = new ArrayList<Statement>(batchSize);
+            decode(in, new BatchRdfHandler<>() {
+                @Override
+                public void handleNamespace(String prefix, Value namespace) {
+                    inserter.insert(new Namespace(prefix, namespace.stringValue()));
+                }
+
+                @Override
+                public void handleTriples(Value[] subjects, Value[] predicates, Value[] objects, int count) {
+                    for (int i = 0; i < count; i++) {
+                        batch.add(converter.makeTriple(subjects[i], predicates[i], objects[i]));
+                    }
+                    inserter.insert(batch);
+                    batch.clear();
+                }
+
+                @Override
+                public void handleQuads(
+                    Value[] subjects,
+                    Value[] predicates,
+                    Value[] objects,
+                    Value[] graphs,
+                    int count
+                ) {
+                    for (int i = 0; i < count; i++) {
+                        batch.add(converter.makeQuad(subjects[i], predicates[i], objects[i], graphs[i]));
+                    }
+                    inserter.insert(batch);
+                    batch.clear();
+                }
+            });
+            return inserter.finish();
+        } catch (Throwable e) {
+            inserter.abort();
+            throw e;
+        }
+    }
+
+    /**
+     * Loads Jelly data (delimited or not) from the input stream into the repository.
+     * <p>
+     * With parallelism 1, this opens a connection and calls {@link #load(InputStream, RepositoryConnection)}.
+     * Otherwise, the named graphs are spread over the worker threads, and each worker loads its statements
+     * in its own connection and transactions. If loading fails, the current transactions of all workers are
+     * rolled back, but the transactions committed before stay committed.
+     *
+     * @param in input stream with Jelly data. It is not closed by this method.
+     * @param repository repository to load the data into
+     * @return number of loaded statements
+     * @throws IOException if the data could not be read
+     * @throws RDFParseException if the data could not be decoded
+     * @throws RepositoryException if the statements could not be added
+     */
+    public long load(InputStream in, Repository repository) throws IOException {
+        if (parallelism == 1) {
+            try (final var connection = repository.getConnection()) {
+                return load(in, connection);
+            }
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            final var thread = new Thread(runnable, "jelly-bulk-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        final List<BlockingQueue<Object>> queues = new ArrayList<>(parallelism);
+        final List<Future<Long>> workers = new ArrayList<>(parallelism);
+        try {
+            for (int i = 0; i < parallelism; i++) {
+                final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(queueCapacity);
+                queues.add(queue);
+                workers.add(executor.submit(() -> runWorker(repository, queue)));
+            }
+
+            final List<List<Statement>> batches = new ArrayList<>(parallelism);
+            for (int i = 0; i < parallelism; i++) {
+                batches.add(new ArrayList<>(batchSize));
+            }
+            final Rdf4jDecoderConverter converter = converterFactory.decoderConverter();
+            decode(in, new BatchRdfHandler<>() {
+                @Override
+                public void handleNamespace(String prefix, Value namespace) {
+                    send(queues.get(0), workers.get(0), new Namespace(prefix, namespace.stringValue()));
+                }
+
+                @Override
+                public void handleTriples(Value[] subjects, Value[] predicates, Value[] objects, int count) {
+                    // Default graph statements all go to the first worker
+                    for (int i = 0; i < count; i++) {
+                        route(0, converter.makeTriple(subjects[i], predicates[i], objects[i]));
+                    }
+                }
+
+                @Override
+                public void handleQuads(
+                    Value[] subjects,
+                    Value[] predicates,
+                    Value[] objects,
+                    Value[] graphs,
+                    int count
+                ) {
+                    for (int i = 0; i < count; i++) {
+                        final var statement = converter.makeQuad(subjects[i], predicates[i], objects[i], graphs[i]);
+                        final var context = statement.getContext();
+                        route(context == null ? 0 : Math.floorMod(context.hashCode(), parallelism), statement);
+                    }
+                }
+
+                private void route(int worker, Statement statement) {
+                    final var batch = batches.get(worker);
+                    batch.add(statement);
+                    if (batch.size() >= batchSize) {
+                        send(queues.get(worker), workers.get(worker), batch);
+                        batches.set(worker, new ArrayList<>(batchSize));
+                    }
+                }
+            });
+            for (int i = 0; i < parallelism; i++) {
+                if (!batches.get(i).isEmpty()) {
+                    send(queues.get(i), workers.get(i), batches.get(i));
+                }
+                send(queues.get(i), workers.get(i), END);
+            }
+
+            long count = 0;
+            for (final var worker : workers) {
+                count += worker.get();
+            }
+            return count;
+        } catch (ExecutionException e) {
+            throw unwrapWorkerError(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RepositoryException("Bulk loading was interrupted", e);
+        } catch (CancellationException e) {
+            // Thrown by send() when a worker failed – report the worker's error instead
+            for (final var worker : workers) {
+                if (worker.isDone() && !worker.isCancelled()) {
+                    try {
+                        worker.get();
+                    } catch (ExecutionException executionException) {
+                        throw unwrapWorkerError(executionException);
+                    } catch (InterruptedException ignored) {
+                        // Not possible, the worker is done
+                    }
+                }
+            }
+            throw e;
+        } finally {
+            // Interrupts the workers if we failed, and waits for them to roll back their transactions
+            executor.shutdownNow();
+            try {
+                executor.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private long runWorker(Repository repository, BlockingQueue<Object> queue) throws InterruptedException {
+        try (final var connection = repository.getConnection()) {
+            final var inserter = new Inserter(connection);
+            try {
+                while (true) {
+                    final Object next = queue.take();
+                    if (next == END) {
+                        return inserter.finish();
+                    }
+                    inserter.insert(next);
+                }
+            } catch (Throwable e) {
+                inserter.abort();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Passes an item to a worker, unless the worker has already stopped (because of an error).
+     */
+    private static void send(BlockingQueue<Object> queue, Future<Long> worker, Object item) {
+        try {
+            while (!queue.offer(item, 100, TimeUnit.MILLISECONDS)) {
+                if (worker.isDone()) {
+                    throw new CancellationException("A bulk loader worker failed");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Bulk loading was interrupted");
+        }
+    }
+
+    private static RuntimeException unwrapWorkerError(ExecutionException e) {
+        if (e.getCause() instanceof RDF4JException rdf4jException) {
+            return rdf4jException;
+        }
+        return new RepositoryException(e.getCause());
+    }
+
+    /**
+     * Decodes the data and passes the statements in batches of {@link Builder#batchSize(int)} to the handler.
+     */
+    private void decode(InputStream in, BatchRdfHandler<Value> handler) throws IOException {
+        final var batching = new BatchingRdfHandler<>(handler, batchSize, Value[]::new);
+        final var decoder = converterFactory.anyStatementDecoder(batching, supportedOptions);
+        // Single row buffer -- rows are passed to the decoder immediately after being read
+        final RowBuffer buffer = RowBuffer.newSingle(decoder::ingestRow);
+        final RdfStreamFrame.Mutable reusableFrame = RdfStreamFrame.newInstance().setRows(buffer);
+        final MessageFactory<RdfStreamFrame> getReusableFrame = () -> reusableFrame;
+
+        try {
+            final var delimitingResponse = IoUtils.autodetectDelimiting(in);
+            if (delimitingResponse.isDelimited()) {
+                IoUtils.readStream(delimitingResponse.newInput(), getReusableFrame, frame -> buffer.clear());
+            } else {
+                // Non-delimited Jelly file, only one frame
+                ProtoMessage.parseFrom(delimitingResponse.newInput(), getReusableFrame);
+                buffer.clear();
+            }
+        } catch (RdfProtoDeserializationError e) {
+            throw new RDFParseException(e.getMessage(), e.getCause());
+        }
+        batching.flush();
+    }
+}
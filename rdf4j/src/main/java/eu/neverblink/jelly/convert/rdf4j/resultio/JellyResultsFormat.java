@@ -0,0 +1,24 @@
+package eu.neverblink.jelly.convert.rdf4j.resultio;
+
+import static eu.neverblink.jelly.core.JellyConstants.JELLY_NAME;
+
+import eu.neverblink.jelly.core.ExperimentalApi;
+import eu.neverblink.jelly.core.sparql.JellyResults;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultFormat;
+
+/**
+ * Jelly SPARQL results format for tuple (SELECT) query results.
+ * See {@link JellyResults} for details.
+ */
+@ExperimentalApi
+public final class JellyResultsFormat {
+
+    private JellyResultsFormat() {}
+
+    public static final TupleQueryResultFormat JELLY_RESULTS = new TupleQueryResultFormat(
+        JELLY_NAME + " SPARQL Results",
+        JellyResults.CONTENT_TYPE,
+        null, // binary format
+        JellyResults.FILE_EXTENSION
+    );
+}
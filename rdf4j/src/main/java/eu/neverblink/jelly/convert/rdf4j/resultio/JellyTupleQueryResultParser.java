@@ -0,0 +1,87 @@
+package eu.neverblink.jelly.convert.rdf4j.resultio;
+
+import eu.neverblink.jelly.convert.rdf4j.Rdf4jConverterFactory;
+import eu.neverblink.jelly.core.ExperimentalApi;
+import eu.neverblink.jelly.core.JellyOptions;
+import eu.neverblink.jelly.core.RdfProtoDeserializationError;
+import eu.neverblink.jelly.core.sparql.JellyResultsReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.query.QueryResultHandler;
+import org.eclipse.rdf4j.query.QueryResultHandlerException;
+import org.eclipse.rdf4j.query.impl.ListBindingSet;
+import org.eclipse.rdf4j.query.resultio.AbstractTupleQueryResultParser;
+import org.eclipse.rdf4j.query.resultio.QueryResultParseException;
+import org.eclipse.rdf4j.query.resultio.QueryResultParser;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultFormat;
+
+/**
+ * Parser of tuple query results in the Jelly SPARQL results format.
+ * <p>
+ * The solutions are decoded one frame at a time and passed to the handler as they are decoded.
+ */
+@ExperimentalApi
+public final class JellyTupleQueryResultParser extends AbstractTupleQueryResultParser {
+
+    private final Rdf4jConverterFactory converterFactory;
+    private QueryResultHandler resultHandler;
+
+    public JellyTupleQueryResultParser(Rdf4jConverterFactory converterFactory) {
+        this.converterFactory = converterFactory;
+    }
+
+    @Override
+    public TupleQueryResultFormat getTupleQueryResultFormat() {
+        return JellyResultsFormat.JELLY_RESULTS;
+    }
+
+    @Override
+    public QueryResultParser setQueryResultHandler(QueryResultHandler handler) {
+        super.setQueryResultHandler(handler);
+        this.resultHandler = handler;
+        return this;
+    }
+
+    @Override
+    public void parse(InputStream in) throws IOException, QueryResultParseException, QueryResultHandlerException {
+        parseQueryResult(in);
+    }
+
+    @Override
+    public void parseQueryResult(InputStream in)
+        throws IOException, QueryResultParseException, QueryResultHandlerException {
+        try {
+            final var reader = new JellyResultsReader<>(
+                converterFactory,
+                JellyOptions.DEFAULT_SUPPORTED_OPTIONS,
+                Value[]::new,
+                in
+            );
+            if (reader.isBoolean()) {
+                if (resultHandler != null) {
+                    resultHandler.handleBoolean(reader.getBoolean());
+                }
+                return;
+            }
+            final var bindingNames = reader.getVariables();
+            if (resultHandler != null) {
+                resultHandler.startQueryResult(bindingNames);
+            }
+            while (reader.hasNext()) {
+                final Value[] values = reader.next();
+                if (resultHandler != null) {
+                    resultHandler.handleSolution(new ListBindingSet(bindingNames, values));
+                }
+            }
+            if (resultHandler != null) {
+                resultHandler.endQueryResult();
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (RdfProtoDeserializationError e) {
+            throw new QueryResultParseException(e);
+        }
+    }
+}
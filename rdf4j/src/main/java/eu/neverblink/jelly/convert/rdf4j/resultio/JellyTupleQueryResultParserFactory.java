@@ -0,0 +1,21 @@
+package eu.neverblink.jelly.convert.rdf4j.resultio;
+
+import eu.neverblink.jelly.convert.rdf4j.Rdf4jConverterFactory;
+import eu.neverblink.jelly.core.ExperimentalApi;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultFormat;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultParser;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultParserFactory;
+
+@ExperimentalApi
+public final class JellyTupleQueryResultParserFactory implements TupleQueryResultParserFactory {
+
+    @Override
+    public TupleQueryResultFormat getTupleQueryResultFormat() {
+        return JellyResultsFormat.JELLY_RESULTS;
+    }
+
+    @Override
+    public TupleQueryResultParser getParser() {
+        return new JellyTupleQueryResultParser(Rdf4jConverterFactory.getInstance());
+    }
+}
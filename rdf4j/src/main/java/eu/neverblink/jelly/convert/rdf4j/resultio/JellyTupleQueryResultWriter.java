@@ -0,0 +1,159 @@
+package eu.neverblink.jelly.convert.rdf4j.resultio;
+
+import eu.neverblink.jelly.convert.rdf4j.Rdf4jConverterFactory;
+import eu.neverblink.jelly.convert.rdf4j.rio.JellyWriterSettings;
+import eu.neverblink.jelly.core.ExperimentalApi;
+import eu.neverblink.jelly.core.proto.v1.RdfStreamOptions;
+import eu.neverblink.jelly.core.sparql.JellyResultsWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryResultHandlerException;
+import org.eclipse.rdf4j.query.TupleQueryResultHandlerException;
+import org.eclipse.rdf4j.query.resultio.QueryResultFormat;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultFormat;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultWriter;
+import org.eclipse.rdf4j.rio.RioSetting;
+import org.eclipse.rdf4j.rio.WriterConfig;
+
+/**
+ * Writer of tuple query results in the Jelly SPARQL results format.
+ * <p>
+ * Supports these settings from {@link JellyWriterSettings}: FRAME_SIZE, ALLOW_RDF_STAR, MAX_NAME_TABLE_SIZE,
+ * MAX_PREFIX_TABLE_SIZE, MAX_DATATYPE_TABLE_SIZE. Namespaces, stylesheets, and links are ignored.
+ */
+@ExperimentalApi
+public final class JellyTupleQueryResultWriter implements TupleQueryResultWriter {
+
+    private final Rdf4jConverterFactory converterFactory;
+    private final OutputStream outputStream;
+    private WriterConfig writerConfig = JellyWriterSettings.empty();
+
+    private List<String> bindingNames;
+    private Value[] values;
+    private JellyResultsWriter<Value> writer;
+
+    public JellyTupleQueryResultWriter(Rdf4jConverterFactory converterFactory, OutputStream outputStream) {
+        this.converterFactory = converterFactory;
+        this.outputStream = outputStream;
+    }
+
+    @Override
+    public QueryResultFormat getQueryResultFormat() {
+        return getTupleQueryResultFormat();
+    }
+
+    @Override
+    public TupleQueryResultFormat getTupleQueryResultFormat() {
+        return JellyResultsFormat.JELLY_RESULTS;
+    }
+
+    @Override
+    public void setWriterConfig(WriterConfig config) {
+        this.writerConfig = config;
+    }
+
+    @Override
+    public WriterConfig getWriterConfig() {
+        return writerConfig;
+    }
+
+    @Override
+    public Collection<RioSetting<?>> getSupportedSettings() {
+        return Set.of(
+            JellyWriterSettings.FRAME_SIZE,
+            JellyWriterSettings.ALLOW_RDF_STAR,
+            JellyWriterSettings.MAX_NAME_TABLE_SIZE,
+            JellyWriterSettings.MAX_PREFIX_TABLE_SIZE,
+            JellyWriterSettings.MAX_DATATYPE_TABLE_SIZE
+        );
+    }
+
+    @Override
+    public void startDocument() {
+        // No-op
+    }
+
+    @Override
+    public void handleStylesheet(String stylesheetUrl) {
+        // Not supported
+    }
+
+    @Override
+    public void startHeader() {
+        // No-op
+    }
+
+    @Override
+    public void endHeader() {
+        // No-op
+    }
+
+    @Override
+    public void handleNamespace(String prefix, String uri) {
+        // Not supported
+    }
+
+    @Override
+    public void handleLinks(List<String> linkUrls) {
+        // Not supported
+    }
+
+    @Override
+    public void handleBoolean(boolean value) throws QueryResultHandlerException {
+        try {
+            JellyResultsWriter.writeBoolean(value, outputStream);
+        } catch (IOException e) {
+            throw new QueryResultHandlerException(e);
+        }
+    }
+
+    @Override
+    public void startQueryResult(List<String> bindingNames) {
+        final var options = RdfStreamOptions.newInstance()
+            .setRdfStar(writerConfig.get(JellyWriterSettings.ALLOW_RDF_STAR))
+            .setMaxNameTableSize(writerConfig.get(JellyWriterSettings.MAX_NAME_TABLE_SIZE))
+            .setMaxPrefixTableSize(writerConfig.get(JellyWriterSettings.MAX_PREFIX_TABLE_SIZE))
+            .setMaxDatatypeTableSize(writerConfig.get(JellyWriterSettings.MAX_DATATYPE_TABLE_SIZE));
+        this.bindingNames = bindingNames;
+        this.values = new Value[bindingNames.size()];
+        this.writer = new JellyResultsWriter<>(
+            converterFactory,
+            options,
+            writerConfig.get(JellyWriterSettings.FRAME_SIZE),
+            bindingNames,
+            outputStream
+        );
+    }
+
+    @Override
+    public void handleSolution(BindingSet bindingSet) throws TupleQueryResultHandlerException {
+        if (writer == null) {
+            throw new TupleQueryResultHandlerException("Must call startQueryResult before handleSolution");
+        }
+        for (int i = 0; i < values.length; i++) {
+            values[i] = bindingSet.getValue(bindingNames.get(i));
+        }
+        try {
+            writer.writeSolution(values);
+        } catch (IOException e) {
+            throw new TupleQueryResultHandlerException(e);
+        }
+    }
+
+    @Override
+    public void endQueryResult() throws TupleQueryResultHandlerException {
+        if (writer == null) {
+            throw new TupleQueryResultHandlerException("Must call startQueryResult before endQueryResult");
+        }
+        try {
+            writer.finish();
+        } catch (IOException e) {
+            throw new TupleQueryResultHandlerException(e);
+        }
+    }
+}
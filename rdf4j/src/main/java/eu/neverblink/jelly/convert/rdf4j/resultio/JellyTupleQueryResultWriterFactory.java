@@ -0,0 +1,22 @@
+package eu.neverblink.jelly.convert.rdf4j.resultio;
+
+import eu.neverblink.jelly.convert.rdf4j.Rdf4jConverterFactory;
+import eu.neverblink.jelly.core.ExperimentalApi;
+import java.io.OutputStream;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultFormat;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultWriter;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultWriterFactory;
+
+@ExperimentalApi
+public final class JellyTupleQueryResultWriterFactory implements TupleQueryResultWriterFactory {
+
+    @Override
+    public TupleQueryResultFormat getTupleQueryResultFormat() {
+        return JellyResultsFormat.JELLY_RESULTS;
+    }
+
+    @Override
+    public TupleQueryResultWriter getWriter(OutputStream out) {
+        return new JellyTupleQueryResultWriter(Rdf4jConverterFactory.getInstance(), out);
+    }
+}
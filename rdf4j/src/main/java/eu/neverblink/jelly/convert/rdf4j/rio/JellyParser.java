@@ -1,7 +1,7 @@
 package eu.neverblink.jelly.convert.rdf4j.rio;
 
 import static eu.neverblink.jelly.convert.rdf4j.rio.JellyFormat.JELLY;
-import static eu.neverblink.jelly.core.utils.IoUtils.readStream;
+import static eu.neverblink.jelly.core.utils.IoUtils.readStreamWithSize;
 
 import eu.neverblink.jelly.convert.rdf4j.*;
 import eu.neverblink.jelly.core.RdfHandler;
@@ -10,6 +10,7 @@ import eu.neverblink.jelly.core.internal.ProtoDecoderImpl;
 import eu.neverblink.jelly.core.memory.RowBuffer;
 import eu.neverblink.jelly.core.proto.v1.RdfStreamFrame;
 import eu.neverblink.jelly.core.proto.v1.RdfStreamOptions;
+import eu.neverblink.jelly.core.stats.FrameDecodeRecorder;
 import eu.neverblink.jelly.core.utils.IoUtils;
 import eu.neverblink.protoc.java.runtime.MessageFactory;
 import eu.neverblink.protoc.java.runtime.ProtoMessage;
@@ -78,6 +79,7 @@ public final class JellyParser extends AbstractRDFParser {
         settings.add(JellyParserSettings.MAX_NAME_TABLE_SIZE);
         settings.add(JellyParserSettings.MAX_PREFIX_TABLE_SIZE);
         settings.add(JellyParserSettings.MAX_DATATYPE_TABLE_SIZE);
+        settings.add(JellyParserSettings.DECODER_STATS);
         return settings;
     }
 
@@ -158,24 +160,31 @@ public final class JellyParser extends AbstractRDFParser {
             }
         };
 
-        final var decoder = new ProtoDecoderImpl.AnyStatementDecoder<>(decoderConverter, handler, options);
+        final var stats = config.get(JellyParserSettings.DECODER_STATS);
+        final var decoder = new ProtoDecoderImpl.AnyStatementDecoder<>(decoderConverter, handler, options, stats);
+        final var recorder = new FrameDecodeRecorder(stats);
         // Single row buffer -- rows are passed to the decoder immediately after being read
-        final RowBuffer buffer = RowBuffer.newSingle(decoder::ingestRow);
+        final RowBuffer buffer = RowBuffer.newSingle(recorder.countRows(decoder::ingestRow));
         final RdfStreamFrame.Mutable reusableFrame = RdfStreamFrame.newInstance().setRows(buffer);
         final MessageFactory<RdfStreamFrame> getReusableFrame = () -> reusableFrame;
 
         rdfHandler.startRDF();
         try {
             final var delimitingResponse = IoUtils.autodetectDelimiting(in);
+            recorder.begin();
             if (delimitingResponse.isDelimited()) {
                 // Delimited Jelly file
                 // In this case, we can read multiple frames
-                readStream(delimitingResponse.newInput(), getReusableFrame, frame -> buffer.clear());
+                readStreamWithSize(delimitingResponse.newInput(), getReusableFrame, (frame, frameSize) -> {
+                    buffer.clear();
+                    recorder.frameDecoded(frameSize);
+                });
             } else {
                 // Non-delimited Jelly file
                 // In this case, we can only read one frame
                 ProtoMessage.parseFrom(delimitingResponse.newInput(), getReusableFrame);
                 buffer.clear();
+                recorder.frameDecoded(0);
             }
         } catch (RdfProtoDeserializationError e) {
             // Rewrap exceptions
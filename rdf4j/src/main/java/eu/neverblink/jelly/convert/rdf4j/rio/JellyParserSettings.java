@@ -3,6 +3,7 @@ package eu.neverblink.jelly.convert.rdf4j.rio;
 import static eu.neverblink.jelly.core.JellyOptions.DEFAULT_SUPPORTED_OPTIONS;
 
 import eu.neverblink.jelly.core.proto.v1.RdfStreamOptions;
+import eu.neverblink.jelly.core.stats.DecoderStats;
 import org.eclipse.rdf4j.rio.ParserConfig;
 import org.eclipse.rdf4j.rio.helpers.*;
 
@@ -64,4 +65,11 @@ public final class JellyParserSettings {
         "Maximum size of the datatype table",
         DEFAULT_SUPPORTED_OPTIONS.getMaxDatatypeTableSize()
     );
+
+    public static final ClassRioSetting<DecoderStats> DECODER_STATS = new ClassRioSetting<>(
+        "eu.neverblink.jelly.convert.rdf4j.rio.decoderStats",
+        "Receiver of decoder statistics (e.g., DecoderCounters). Statistics are not collected by default. " +
+            "The instance must not be shared between parsers running concurrently.",
+        null
+    );
 }
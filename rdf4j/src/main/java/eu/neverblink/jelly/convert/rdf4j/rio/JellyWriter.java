@@ -12,6 +12,7 @@ import eu.neverblink.jelly.core.proto.v1.LogicalStreamType;
 import eu.neverblink.jelly.core.proto.v1.PhysicalStreamType;
 import eu.neverblink.jelly.core.proto.v1.RdfStreamFrame;
 import eu.neverblink.jelly.core.proto.v1.RdfStreamOptions;
+import eu.neverblink.jelly.core.stats.FrameEncodedEvent;
 import eu.neverblink.protoc.java.runtime.ProtobufUtil;
 import java.io.IOException;
 import java.io.OutputStream;
@@ -77,6 +78,7 @@ public final class JellyWriter extends AbstractRDFWriter {
         settings.add(JellyWriterSettings.FRAME_SIZE);
         settings.add(JellyWriterSettings.ENABLE_NAMESPACE_DECLARATIONS);
         settings.add(JellyWriterSettings.DELIMITED_OUTPUT);
+        settings.add(JellyWriterSettings.ENCODER_STATS);
         return settings;
     }
 
@@ -121,7 +123,8 @@ public final class JellyWriter extends AbstractRDFWriter {
         allocator = EncoderAllocator.newArenaAllocator(frameSize + 8);
         reusableFrame.setRows(buffer);
         encoder = converterFactory.encoder(
-            ProtoEncoder.Params.of(options, enableNamespaceDeclarations, buffer, allocator)
+            ProtoEncoder.Params.of(options, enableNamespaceDeclarations, buffer, allocator),
+            config.get(JellyWriterSettings.ENCODER_STATS)
         );
     }
 
@@ -144,11 +147,15 @@ public final class JellyWriter extends AbstractRDFWriter {
         checkWritingStarted();
         if (!isDelimited) {
             // Non-delimited variant – whole stream in one frame
+            final var event = new FrameEncodedEvent();
+            event.begin();
             try {
                 reusableFrame.writeTo(codedOutput);
             } catch (Exception e) {
                 throw new RDFHandlerException("Error writing frame", e);
             }
+            event.end();
+            onFrameWritten(event);
         } else if (!buffer.isEmpty()) {
             flushBuffer();
         }
@@ -182,8 +189,12 @@ public final class JellyWriter extends AbstractRDFWriter {
 
     private void flushBuffer() {
         reusableFrame.resetCachedSize();
+        final var event = new FrameEncodedEvent();
+        event.begin();
         try {
             reusableFrame.writeDelimitedTo(codedOutput);
+            event.end();
+            onFrameWritten(event);
         } catch (Exception e) {
             throw new RDFHandlerException("Error writing frame", e);
         } finally {
@@ -191,4 +202,15 @@ public final class JellyWriter extends AbstractRDFWriter {
             allocator.releaseAll();
         }
     }
+
+    /**
+     * Reports the frame that was just written to JFR and the encoder statistics receiver (if any).
+     */
+    private void onFrameWritten(FrameEncodedEvent event) {
+        event.commitIfEnabled(buffer.size(), reusableFrame.getSerializedSize());
+        final var stats = encoder.getStats();
+        if (stats != null) {
+            stats.onFrame(buffer.size(), reusableFrame.getSerializedSize());
+        }
+    }
 }
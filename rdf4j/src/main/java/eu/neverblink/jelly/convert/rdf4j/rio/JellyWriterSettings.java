@@ -4,6 +4,7 @@ import eu.neverblink.jelly.core.internal.BaseJellyOptions;
 import eu.neverblink.jelly.core.proto.v1.LogicalStreamType;
 import eu.neverblink.jelly.core.proto.v1.PhysicalStreamType;
 import eu.neverblink.jelly.core.proto.v1.RdfStreamOptions;
+import eu.neverblink.jelly.core.stats.EncoderStats;
 import org.eclipse.rdf4j.rio.WriterConfig;
 import org.eclipse.rdf4j.rio.helpers.AbstractRioSetting;
 import org.eclipse.rdf4j.rio.helpers.BooleanRioSetting;
@@ -33,6 +34,11 @@ public final class JellyWriterSettings extends WriterConfig {
         return this;
     }
 
+    public JellyWriterSettings setEncoderStats(EncoderStats stats) {
+        this.set(ENCODER_STATS, stats);
+        return this;
+    }
+
     public JellyWriterSettings setJellyOptions(RdfStreamOptions options) {
         this.set(STREAM_NAME, options.getStreamName());
         this.set(PHYSICAL_TYPE, options.getPhysicalType());
@@ -112,4 +118,11 @@ public final class JellyWriterSettings extends WriterConfig {
         "Maximum size of the datatype table",
         BaseJellyOptions.BIG_DT_TABLE_SIZE
     );
+
+    public static final ClassRioSetting<EncoderStats> ENCODER_STATS = new ClassRioSetting<>(
+        "eu.neverblink.jelly.convert.rdf4j.rio.encoderStats",
+        "Receiver of encoder statistics (e.g., EncoderCounters). Statistics are not collected by default. " +
+            "The instance must not be shared between writers running concurrently.",
+        null
+    );
 }
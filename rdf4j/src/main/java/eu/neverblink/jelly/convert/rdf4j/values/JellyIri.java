@@ -0,0 +1,147 @@
+package eu.neverblink.jelly.convert.rdf4j.values;
+
+import eu.neverblink.jelly.core.ExperimentalApi;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.base.AbstractIRI;
+import org.eclipse.rdf4j.model.util.URIUtil;
+
+/**
+ * Lightweight RDF4J IRI created by the Jelly decoder, when lightweight values are enabled
+ * (see {@link eu.neverblink.jelly.convert.rdf4j.Rdf4jConverterFactory#getLightweightInstance()}).
+ * <p>
+ * Unlike SimpleValueFactory's IRIs, the IRI string is not validated, as it comes from a Jelly stream.
+ * The namespace and local name (in RDF4J's sense, split at the last '#', '/', or ':') are only computed
+ * when requested.
+ * <p>
+ * An IRI decoded from a Jelly prefix and name keeps the two strings separately. They are only concatenated
+ * when the full IRI string is requested, e.g., with {@link #stringValue()}. The hash code and equality with
+ * other IRIs are computed without concatenating.
+ * <p>
+ * Equal to any other RDF4J IRI with the same string value.
+ */
+@ExperimentalApi
+public final class JellyIri extends AbstractIRI {
+
+    private static final long serialVersionUID = 1L;
+
+    // Full IRI, null if not concatenated yet
+    private String iri;
+    // Prefix and name, null if the IRI was created from the full string
+    private final String prefix;
+    private final String name;
+    // Index of the first character of the local name, -1 if not computed yet
+    private int localNameIdx = -1;
+    private int hash = 0;
+
+    public JellyIri(String iri) {
+        this.iri = iri;
+        this.prefix = null;
+        this.name = null;
+    }
+
+    /**
+     * @param prefix first part of the IRI
+     * @param name rest of the IRI
+     */
+    public JellyIri(String prefix, String name) {
+        this.prefix = prefix;
+        this.name = name;
+    }
+
+    @Override
+    public String stringValue() {
+        String iri = this.iri;
+        if (iri == null) {
+            iri = prefix.concat(name);
+            this.iri = iri;
+        }
+        return iri;
+    }
+
+    /**
+     * @return true if the IRI is stored as a prefix and a name, which were not concatenated yet
+     */
+    public boolean isSplit() {
+        return iri == null;
+    }
+
+    @Override
+    public String getNamespace() {
+        return stringValue().substring(0, localNameIndex());
+    }
+
+    @Override
+    public String getLocalName() {
+        return stringValue().substring(localNameIndex());
+    }
+
+    private int localNameIndex() {
+        if (localNameIdx < 0) {
+            localNameIdx = URIUtil.getLocalNameIndex(stringValue());
+        }
+        return localNameIdx;
+    }
+
+    /**
+     * Checks if this IRI is equal to the given string, without concatenating the prefix and the name.
+     */
+    private boolean matches(String other) {
+        if (prefix == null) {
+            return iri.equals(other);
+        }
+        return (
+            other.length() == prefix.length() + name.length() &&
+            other.startsWith(prefix) &&
+            other.regionMatches(prefix.length(), name, 0, name.length())
+        );
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof IRI other)) {
+            return false;
+        }
+        if (o instanceof JellyIri otherJelly && otherJelly.prefix != null) {
+            if (otherJelly.prefix == prefix) {
+                // Same prefix table entry, the common case
+                return otherJelly.name.equals(name);
+            }
+            return hashCode() == otherJelly.hashCode() && otherJelly.matches(stringValue());
+        }
+        return matches(other.stringValue());
+    }
+
+    /**
+     * Same as for all other RDF4J IRIs – the hash code of the IRI string. For a split IRI, it is computed
+     * from the hash codes of the prefix and the name: hash(a + b) = hash(a) * 31^length(b) + hash(b).
+     */
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            if (prefix == null) {
+                h = iri.hashCode();
+            } else {
+                h = prefix.hashCode() * pow31(name.length()) + name.hashCode();
+            }
+            hash = h;
+        }
+        return h;
+    }
+
+    private static int pow31(int exponent) {
+        int result = 1;
+        int base = 31;
+        while (exponent > 0) {
+            if ((exponent & 1) != 0) {
+                result *= base;
+            }
+            base *= base;
+            exponent >>= 1;
+        }
+        return result;
+    }
+}
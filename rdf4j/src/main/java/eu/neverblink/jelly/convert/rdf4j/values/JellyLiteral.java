@@ -0,0 +1,82 @@
+package eu.neverblink.jelly.convert.rdf4j.values;
+
+import eu.neverblink.jelly.core.ExperimentalApi;
+import java.util.Optional;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.base.AbstractLiteral;
+import org.eclipse.rdf4j.model.base.CoreDatatype;
+
+/**
+ * Lightweight RDF4J literal created by the Jelly decoder, when lightweight values are enabled
+ * (see {@link eu.neverblink.jelly.convert.rdf4j.Rdf4jConverterFactory#getLightweightInstance()}).
+ * <p>
+ * The lexical form, language tag, and datatype are not validated or normalized, as they come from a
+ * Jelly stream. The datatype and its {@link CoreDatatype} are taken from the decoder's datatype lookup,
+ * so they are resolved once per datatype entry, not once per literal.
+ * <p>
+ * Equal to any other RDF4J literal with the same label, language, and datatype.
+ */
+@ExperimentalApi
+public final class JellyLiteral extends AbstractLiteral {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String label;
+    private final String language;
+    private final IRI datatype;
+    private final CoreDatatype coreDatatype;
+
+    private JellyLiteral(String label, String language, IRI datatype, CoreDatatype coreDatatype) {
+        this.label = label;
+        this.language = language;
+        this.datatype = datatype;
+        this.coreDatatype = coreDatatype;
+    }
+
+    /**
+     * @param label lexical form
+     * @return a literal with the xsd:string datatype
+     */
+    public static JellyLiteral simple(String label) {
+        return new JellyLiteral(label, null, CoreDatatype.XSD.STRING.getIri(), CoreDatatype.XSD.STRING);
+    }
+
+    /**
+     * @param label lexical form
+     * @param language language tag
+     * @return a literal with the rdf:langString datatype
+     */
+    public static JellyLiteral lang(String label, String language) {
+        return new JellyLiteral(label, language, CoreDatatype.RDF.LANGSTRING.getIri(), CoreDatatype.RDF.LANGSTRING);
+    }
+
+    /**
+     * @param label lexical form
+     * @param datatype datatype IRI
+     * @param coreDatatype core datatype matching the IRI, or CoreDatatype.NONE
+     * @return a typed literal
+     */
+    public static JellyLiteral typed(String label, IRI datatype, CoreDatatype coreDatatype) {
+        return new JellyLiteral(label, null, datatype, coreDatatype);
+    }
+
+    @Override
+    public String getLabel() {
+        return label;
+    }
+
+    @Override
+    public Optional<String> getLanguage() {
+        return Optional.ofNullable(language);
+    }
+
+    @Override
+    public IRI getDatatype() {
+        return datatype;
+    }
+
+    @Override
+    public CoreDatatype getCoreDatatype() {
+        return coreDatatype;
+    }
+}
@@ -0,0 +1,154 @@
+package eu.neverblink.jelly.convert.rdf4j.load
+
+import eu.neverblink.jelly.convert.rdf4j.rio.{JellyWriterFactory, JellyWriterSettings}
+import eu.neverblink.jelly.core.JellyOptions
+import eu.neverblink.jelly.core.proto.v1.PhysicalStreamType
+import org.eclipse.rdf4j.model.{Model, Statement}
+import org.eclipse.rdf4j.model.impl.{LinkedHashModel, SimpleValueFactory}
+import org.eclipse.rdf4j.model.util.Models
+import org.eclipse.rdf4j.repository.sail.SailRepository
+import org.eclipse.rdf4j.rio.RDFParseException
+import org.eclipse.rdf4j.sail.memory.MemoryStore
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+import java.io.{ByteArrayInputStream, ByteArrayOutputStream}
+import scala.jdk.CollectionConverters.*
+
+class JellyBulkLoaderSpec extends AnyWordSpec, Matchers:
+  private val vf = SimpleValueFactory.getInstance()
+
+  private def makeStatements(graphIx: Int): Seq[Statement] =
+    val graph = if graphIx == 0 then null else vf.createIRI(f"http://example.com/g$graphIx")
+    for i <- 1 to 500 yield vf.createStatement(
+      vf.createIRI(f"http://example.com/s${i % 50}"),
+      vf.createIRI(f"http://example.com/p${i % 7}"),
+      vf.createLiteral(f"$graphIx-$i"),
+      graph,
+    )
+
+  private val dataset: Model = LinkedHashModel((0 to 5).flatMap(makeStatements).asJava)
+
+  private def writeJelly(statements: Iterable[Statement], physicalType: PhysicalStreamType): Array[Byte] =
+    val out = ByteArrayOutputStream()
+    val writer = JellyWriterFactory().getWriter(out)
+    writer.set(JellyWriterSettings.FRAME_SIZE, 64)
+    writer.set(JellyWriterSettings.PHYSICAL_TYPE, physicalType)
+    writer.startRDF()
+    writer.handleNamespace("ex", "http://example.com/")
+    statements.foreach(writer.handleStatement)
+    writer.endRDF()
+    out.toByteArray
+
+  private val datasetBytes = writeJelly(dataset.asScala, PhysicalStreamType.QUADS)
+
+  private def withRepository[T](f: SailRepository => T): T =
+    val repository = SailRepository(MemoryStore())
+    repository.init()
+    try f(repository)
+    finally repository.shutDown()
+
+  private def contents(repository: SailRepository): Model =
+    val connection = repository.getConnection
+    try LinkedHashModel(connection.getStatements(null, null, null).asScala.toSeq.asJava)
+    finally connection.close()
+
+  private def namespace(repository: SailRepository, prefix: String): String =
+    val connection = repository.getConnection
+    try connection.getNamespace(prefix)
+    finally connection.close()
+
+  "JellyBulkLoader" should {
+    "reject invalid settings" in {
+      intercept[IllegalArgumentException] {
+        JellyBulkLoader.builder().batchSize(0).build()
+      }
+      intercept[IllegalArgumentException] {
+        JellyBulkLoader.builder().transactionSize(-1).build()
+      }
+      intercept[IllegalArgumentException] {
+        JellyBulkLoader.builder().parallelism(0).build()
+      }
+      intercept[IllegalArgumentException] {
+        JellyBulkLoader.builder().queueCapacity(0).build()
+      }
+    }
+
+    for
+      batchSize <- Seq(1, 100, JellyBulkLoader.DEFAULT_BATCH_SIZE)
+      transactionSize <- Seq(0L, 250L)
+    do
+      f"load quads into a repository (batch size $batchSize, transaction size $transactionSize)" in {
+        withRepository { repository =>
+          val loader = JellyBulkLoader.builder()
+            .batchSize(batchSize)
+            .transactionSize(transactionSize)
+            .build()
+          loader.load(ByteArrayInputStream(datasetBytes), repository) should be(3000)
+          Models.isomorphic(contents(repository), dataset) should be(true)
+          namespace(repository, "ex") should be("http://example.com/")
+        }
+      }
+
+    for parallelism <- Seq(2, 4) do
+      f"load quads with $parallelism workers" in {
+        withRepository { repository =>
+          val loader = JellyBulkLoader.builder()
+            .batchSize(64)
+            .parallelism(parallelism)
+            .queueCapacity(1)
+            .build()
+          loader.load(ByteArrayInputStream(datasetBytes), repository) should be(3000)
+          Models.isomorphic(contents(repository), dataset) should be(true)
+          namespace(repository, "ex") should be("http://example.com/")
+        }
+      }
+
+    "load triples into the default graph" in {
+      val bytes = writeJelly(makeStatements(0), PhysicalStreamType.TRIPLES)
+      withRepository { repository =>
+        JellyBulkLoader.builder().parallelism(2).build()
+          .load(ByteArrayInputStream(bytes), repository) should be(500)
+        Models.isomorphic(contents(repository), makeStatements(0).asJava) should be(true)
+      }
+    }
+
+    "use the transaction of the caller" in {
+      withRepository { repository =>
+        val connection = repository.getConnection
+        try
+          connection.begin()
+          JellyBulkLoader.builder().transactionSize(10).build()
+            .load(ByteArrayInputStream(datasetBytes), connection) should be(3000)
+          connection.isActive should be(true)
+          connection.rollback()
+          connection.isEmpty should be(true)
+        finally connection.close()
+      }
+    }
+
+    for parallelism <- Seq(1, 2) do
+      f"roll back on truncated data (parallelism $parallelism)" in {
+        withRepository { repository =>
+          // Cut the stream in the middle of a frame
+          val bytes = datasetBytes.take(datasetBytes.length / 2)
+          intercept[Exception] {
+            JellyBulkLoader.builder().batchSize(10).parallelism(parallelism).build()
+              .load(ByteArrayInputStream(bytes), repository)
+          }
+          contents(repository).isEmpty should be(true)
+        }
+      }
+
+    "throw RDFParseException on data not matching the supported options" in {
+      withRepository { repository =>
+        val options = JellyOptions.DEFAULT_SUPPORTED_OPTIONS.clone()
+          .setMaxNameTableSize(8)
+        intercept[RDFParseException] {
+          JellyBulkLoader.builder().supportedOptions(options).build()
+            .load(ByteArrayInputStream(datasetBytes), repository)
+        }
+        contents(repository).isEmpty should be(true)
+      }
+    }
+  }
@@ -0,0 +1,88 @@
+package eu.neverblink.jelly.convert.rdf4j.resultio
+
+import eu.neverblink.jelly.convert.rdf4j.Rdf4jConverterFactory
+import eu.neverblink.jelly.convert.rdf4j.rio.JellyWriterSettings
+import org.eclipse.rdf4j.model.Value
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory
+import org.eclipse.rdf4j.query.BindingSet
+import org.eclipse.rdf4j.query.impl.ListBindingSet
+import org.eclipse.rdf4j.query.resultio.helpers.QueryResultCollector
+import org.eclipse.rdf4j.query.resultio.{
+  QueryResultParseException,
+  TupleQueryResultParserRegistry,
+  TupleQueryResultWriterRegistry,
+}
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+import java.io.{ByteArrayInputStream, ByteArrayOutputStream}
+import scala.jdk.CollectionConverters.*
+
+class JellyTupleQueryResultSpec extends AnyWordSpec, Matchers:
+  private val vf = SimpleValueFactory.getInstance()
+  private val names = Seq("s", "name", "age").asJava
+
+  private val solutions: Seq[BindingSet] = (1 to 300).map { i =>
+    val values: Array[Value] = Array(
+      vf.createIRI(f"http://example.com/s${i % 20}"),
+      vf.createLiteral(f"name ${i % 3}"),
+      if i % 4 == 0 then null else vf.createLiteral(i % 10),
+    )
+    ListBindingSet(names, values*)
+  }
+
+  private def write(solutions: Seq[BindingSet], frameSize: Int = 256): Array[Byte] =
+    val out = ByteArrayOutputStream()
+    val writer = JellyTupleQueryResultWriter(Rdf4jConverterFactory.getInstance(), out)
+    writer.getWriterConfig.set(JellyWriterSettings.FRAME_SIZE, frameSize)
+    writer.startDocument()
+    writer.startHeader()
+    writer.startQueryResult(names)
+    writer.endHeader()
+    for s <- solutions do writer.handleSolution(s)
+    writer.endQueryResult()
+    out.toByteArray
+
+  private def parse(bytes: Array[Byte]): QueryResultCollector =
+    val collector = QueryResultCollector()
+    val parser = JellyTupleQueryResultParser(Rdf4jConverterFactory.getInstance())
+    parser.setQueryResultHandler(collector)
+    parser.parseQueryResult(ByteArrayInputStream(bytes))
+    collector
+
+  "JellyTupleQueryResultWriter and JellyTupleQueryResultParser" should {
+    "be registered with the RDF4J registries" in {
+      TupleQueryResultWriterRegistry.getInstance()
+        .get(JellyResultsFormat.JELLY_RESULTS).isPresent should be(true)
+      TupleQueryResultParserRegistry.getInstance()
+        .get(JellyResultsFormat.JELLY_RESULTS).isPresent should be(true)
+    }
+
+    for frameSize <- Seq(4, 256) do
+      f"round-trip tuple query results (frame size $frameSize)" in {
+        val collector = parse(write(solutions, frameSize))
+        collector.getBindingNames.asScala should be(names.asScala)
+        collector.getBindingSets.asScala should be(solutions)
+      }
+
+    "round-trip empty results" in {
+      val collector = parse(write(Seq()))
+      collector.getBindingNames.asScala should be(names.asScala)
+      collector.getBindingSets.asScala should be(empty)
+    }
+
+    "round-trip boolean results" in {
+      for result <- Seq(true, false) do
+        val out = ByteArrayOutputStream()
+        JellyTupleQueryResultWriter(Rdf4jConverterFactory.getInstance(), out).handleBoolean(result)
+        val collector = parse(out.toByteArray)
+        collector.getHandledBoolean should be(true)
+        collector.getBoolean should be(result)
+    }
+
+    "throw a parse exception on invalid input" in {
+      intercept[QueryResultParseException] {
+        parse(Array[Byte](2, 0x7a, 0))
+      }
+    }
+  }
@@ -2,6 +2,7 @@ package eu.neverblink.jelly.convert.rdf4j.rio
 
 import eu.neverblink.jelly.convert.rdf4j.Rdf4jConverterFactory
 import eu.neverblink.jelly.core.proto.v1.*
+import eu.neverblink.jelly.core.stats.{DecoderCounters, DecoderStats}
 import eu.neverblink.jelly.core.{JellyConstants, JellyOptions}
 import org.eclipse.rdf4j.model.Literal
 import org.eclipse.rdf4j.model.base.{AbstractValueFactory, CoreDatatype}
@@ -109,6 +110,21 @@ class JellyParserSpec extends AnyWordSpec, Matchers:
       st.getSubject.stringValue() shouldEqual "b1234"
     }
 
+    "report decoder statistics when DECODER_STATS is set" in {
+      val counters = DecoderCounters()
+      val parser = JellyParserFactory().getParser()
+      parser.set(JellyParserSettings.DECODER_STATS, counters)
+      val collector = new StatementCollector()
+      parser.setRDFHandler(collector)
+      parser.parse(ByteArrayInputStream(validData), "")
+      collector.getStatements.size should be(1)
+      counters.getFrames should be(1)
+      counters.getRows should be(3)
+      counters.getBytes should be(validData.length - 1)
+      counters.getLookupUpdates(DecoderStats.LookupTable.NAME) should be(1)
+      counters.getIriCacheMisses should be(1)
+    }
+
     "switch to checking mode when CHECKING=true" in {
       val parser = JellyParserFactory().getParser()
       parser.set(JellyParserSettings.CHECKING, true)
@@ -187,6 +203,7 @@ class JellyParserSpec extends AnyWordSpec, Matchers:
         JellyParserSettings.ALLOW_GENERALIZED_STATEMENTS,
         JellyParserSettings.MAX_DATATYPE_TABLE_SIZE,
         JellyParserSettings.PROTO_VERSION,
+        JellyParserSettings.DECODER_STATS,
       )
 
       keys should contain theSameElementsAs (expectedBase ++ expectedJelly)
@@ -120,6 +120,7 @@ class JellyWriterSpec extends AnyWordSpec, Matchers:
         JellyWriterSettings.FRAME_SIZE,
         JellyWriterSettings.ENABLE_NAMESPACE_DECLARATIONS,
         JellyWriterSettings.DELIMITED_OUTPUT,
+        JellyWriterSettings.ENCODER_STATS,
       )
 
       settings should contain theSameElementsAs (expectedBase ++ expectedJelly)
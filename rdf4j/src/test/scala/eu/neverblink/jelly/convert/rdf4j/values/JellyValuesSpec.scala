@@ -0,0 +1,164 @@
+package eu.neverblink.jelly.convert.rdf4j.values
+
+import eu.neverblink.jelly.convert.rdf4j.Rdf4jConverterFactory
+import eu.neverblink.jelly.convert.rdf4j.rio.JellyWriterFactory
+import eu.neverblink.jelly.core.JellyOptions
+import eu.neverblink.jelly.core.RdfHandler.AnyStatementHandler
+import eu.neverblink.jelly.core.proto.v1.RdfStreamFrame
+import org.eclipse.rdf4j.model.base.CoreDatatype
+import org.eclipse.rdf4j.model.impl.{LinkedHashModel, SimpleValueFactory}
+import org.eclipse.rdf4j.model.util.Models
+import org.eclipse.rdf4j.model.{Statement, Value}
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+import java.io.{ByteArrayInputStream, ByteArrayOutputStream}
+import scala.collection.mutable.ArrayBuffer
+import scala.jdk.CollectionConverters.*
+
+class JellyValuesSpec extends AnyWordSpec, Matchers:
+  private val vf = SimpleValueFactory.getInstance()
+
+  "JellyIri" should {
+    for iri <- Seq("http://example.com/a/b", "http://example.com/a#b", "urn:example:b", "http://example.com/") do
+      f"behave like SimpleIRI for $iri" in {
+        val jellyIri = JellyIri(iri)
+        val simpleIri = vf.createIRI(iri)
+        jellyIri should be(simpleIri)
+        simpleIri should be(jellyIri)
+        jellyIri.hashCode() should be(simpleIri.hashCode())
+        jellyIri.stringValue() should be(iri)
+        jellyIri.toString should be(simpleIri.toString)
+        jellyIri.getNamespace should be(simpleIri.getNamespace)
+        jellyIri.getLocalName should be(simpleIri.getLocalName)
+      }
+
+    for (prefix, name) <- Seq(
+        ("http://example.com/a/", "b"),
+        ("http://example.com/", "a#b"),
+        ("urn:example:", "b"),
+        ("http://example.com/", ""),
+        ("http://example.com/very/long/prefix/with/many/segments/", "and-a-rather-long-local-name-too"),
+      )
+    do
+      f"behave like SimpleIRI for prefix $prefix and name $name" in {
+        val jellyIri = JellyIri(prefix, name)
+        val simpleIri = vf.createIRI(prefix + name)
+        jellyIri.hashCode() should be(simpleIri.hashCode())
+        jellyIri should be(simpleIri)
+        jellyIri should be(JellyIri(prefix + name))
+        JellyIri(prefix + name) should be(jellyIri)
+        jellyIri.isSplit should be(true)
+        simpleIri should be(jellyIri)
+        jellyIri.getNamespace should be(simpleIri.getNamespace)
+        jellyIri.getLocalName should be(simpleIri.getLocalName)
+        jellyIri.isSplit should be(false)
+        jellyIri.stringValue() should be(prefix + name)
+      }
+
+    "compare split IRIs without concatenating them" in {
+      val prefix = "http://example.com/"
+      val a = JellyIri(prefix, "a")
+      JellyIri(prefix, "a") should be(a)
+      JellyIri(prefix, "b") should not be a
+      JellyIri("http://example.com/a", "") should be(a)
+      JellyIri("http://example.", "com/b") should not be a
+      a should not be vf.createIRI("http://example.com/ab")
+      a.isSplit should be(true)
+    }
+
+    "not be equal to a different IRI" in {
+      JellyIri("http://example.com/a") should not be JellyIri("http://example.com/b")
+      JellyIri("http://example.com/a") should not be vf.createIRI("http://example.com/b")
+    }
+  }
+
+  "JellyLiteral" should {
+    "behave like a simple literal" in {
+      val literal = JellyLiteral.simple("test")
+      literal should be(vf.createLiteral("test"))
+      vf.createLiteral("test") should be(literal)
+      literal.hashCode() should be(vf.createLiteral("test").hashCode())
+      literal.getCoreDatatype should be(CoreDatatype.XSD.STRING)
+      literal.getLanguage.isPresent should be(false)
+    }
+
+    "behave like a language-tagged literal" in {
+      val literal = JellyLiteral.lang("test", "en")
+      literal should be(vf.createLiteral("test", "en"))
+      vf.createLiteral("test", "en") should be(literal)
+      literal.getLanguage.get() should be("en")
+      literal.getCoreDatatype should be(CoreDatatype.RDF.LANGSTRING)
+      literal should not be JellyLiteral.lang("test", "de")
+    }
+
+    "behave like a typed literal" in {
+      val literal = JellyLiteral.typed("42", CoreDatatype.XSD.INT.getIri, CoreDatatype.XSD.INT)
+      literal should be(vf.createLiteral("42", CoreDatatype.XSD.INT))
+      vf.createLiteral("42", CoreDatatype.XSD.INT) should be(literal)
+      literal.intValue() should be(42)
+      literal should not be JellyLiteral.simple("42")
+    }
+
+    "support custom datatypes" in {
+      val dt = vf.createIRI("http://example.com/dt")
+      val literal = JellyLiteral.typed("x", dt, CoreDatatype.NONE)
+      literal should be(vf.createLiteral("x", dt))
+      literal.getDatatype should be(dt)
+    }
+  }
+
+  "Rdf4jConverterFactory.getLightweightInstance" should {
+    "create lightweight IRIs and literals" in {
+      val converter = Rdf4jConverterFactory.getLightweightInstance().decoderConverter()
+      converter.usesLightweightValues() should be(true)
+      converter.makeIriNode("http://example.com/a") shouldBe a[JellyIri]
+      converter.makeIriNode("http://example.com/", "a") should be(JellyIri("http://example.com/a"))
+      converter.makeSimpleLiteral("a") shouldBe a[JellyLiteral]
+      converter.makeLangLiteral("a", "en") shouldBe a[JellyLiteral]
+      val dt = converter.makeDatatype("http://www.w3.org/2001/XMLSchema#int")
+      converter.makeDtLiteral("1", dt) shouldBe a[JellyLiteral]
+      Rdf4jConverterFactory.getInstance().decoderConverter().usesLightweightValues() should be(false)
+    }
+
+    "decode data equal to data decoded with SimpleValueFactory" in {
+      val statements = for i <- 1 to 200 yield vf.createStatement(
+        vf.createIRI(f"http://example.com/s${i % 13}"),
+        vf.createIRI(f"http://example.com/p#${i % 5}"),
+        i % 4 match
+          case 0 => vf.createLiteral(f"lit $i")
+          case 1 => vf.createLiteral(f"lit $i", "en")
+          case 2 => vf.createLiteral(i)
+          case _ => vf.createTriple(vf.createBNode(f"b$i"), vf.createIRI("urn:p"), vf.createIRI(f"urn:o:$i")),
+        if i % 3 == 0 then vf.createIRI("http://example.com/g") else null,
+      )
+      val out = ByteArrayOutputStream()
+      val writer = JellyWriterFactory().getWriter(out)
+      writer.startRDF()
+      statements.foreach(writer.handleStatement)
+      writer.endRDF()
+
+      def decode(factory: Rdf4jConverterFactory): Seq[Statement] =
+        val result = ArrayBuffer[Statement]()
+        val converter = factory.decoderConverter()
+        val decoder = factory.anyStatementDecoder(
+          new AnyStatementHandler[Value] {
+            override def handleTriple(s: Value, p: Value, o: Value): Unit =
+              result += converter.makeTriple(s, p, o)
+            override def handleQuad(s: Value, p: Value, o: Value, g: Value): Unit =
+              result += converter.makeQuad(s, p, o, g)
+          },
+          JellyOptions.DEFAULT_SUPPORTED_OPTIONS,
+        )
+        val in = ByteArrayInputStream(out.toByteArray)
+        Iterator.continually(RdfStreamFrame.parseDelimitedFrom(in)).takeWhile(_ != null)
+          .foreach(_.getRows.forEach(decoder.ingestRow(_)))
+        result.toSeq
+
+      val lightweight = decode(Rdf4jConverterFactory.getLightweightInstance())
+      lightweight.map(_.getSubject).collect { case iri: JellyIri => iri }.exists(_.isSplit) should be(true)
+      val simple = decode(Rdf4jConverterFactory.getInstance())
+      lightweight should be(simple)
+      Models.isomorphic(LinkedHashModel(lightweight.asJava), statements.asJava) should be(true)
+    }
+  }
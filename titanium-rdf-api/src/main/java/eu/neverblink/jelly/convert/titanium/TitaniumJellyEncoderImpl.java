@@ -6,6 +6,7 @@ import com.apicatalog.rdf.api.RdfConsumerException;
 import com.apicatalog.rdf.api.RdfQuadConsumer;
 import eu.neverblink.jelly.convert.titanium.internal.TitaniumConverterFactory;
 import eu.neverblink.jelly.convert.titanium.internal.TitaniumLiteral;
+import eu.neverblink.jelly.convert.titanium.internal.TitaniumLiteralCache;
 import eu.neverblink.jelly.core.InternalApi;
 import eu.neverblink.jelly.core.ProtoEncoder;
 import eu.neverblink.jelly.core.RdfProtoSerializationError;
@@ -18,10 +19,13 @@ import eu.neverblink.jelly.core.proto.v1.RdfStreamOptions;
 @InternalApi
 final class TitaniumJellyEncoderImpl implements TitaniumJellyEncoder {
 
+    private static final int LITERAL_CACHE_SIZE = 1024;
+
     private final ProtoEncoder<Object> encoder;
 
     private final EncoderAllocator allocator;
     private final RowBuffer buffer;
+    private final TitaniumLiteralCache literalCache = new TitaniumLiteralCache(LITERAL_CACHE_SIZE);
 
     public TitaniumJellyEncoderImpl(RdfStreamOptions options, int frameSize) {
         // We set the stream type to QUADS, as this is the only type supported by Titanium.
@@ -79,17 +83,18 @@ final class TitaniumJellyEncoderImpl implements TitaniumJellyEncoder {
         String direction,
         String graph
     ) throws RdfConsumerException {
-        // IRIs and bnodes don't need further processing. For literals, we must allocate
-        // intermediate objects.
+        // IRIs and bnodes don't need further processing. For literals, we need an object
+        // representing the literal. We take it from the string-keyed cache, so that repeated
+        // literals don't allocate anything and are recognized as repeated terms by the encoder.
         try {
             if (RdfQuadConsumer.isLiteral(datatype, language, direction)) {
                 final TitaniumLiteral literal;
                 if (RdfQuadConsumer.isLangString(datatype, language, direction)) {
-                    literal = new TitaniumLiteral.LangLiteral(object, language);
+                    literal = literalCache.langLiteral(object, language);
                 } else if (datatype.equals(DT_STRING)) {
-                    literal = new TitaniumLiteral.SimpleLiteral(object);
+                    literal = literalCache.simpleLiteral(object);
                 } else {
-                    literal = new TitaniumLiteral.DtLiteral(object, datatype);
+                    literal = literalCache.dtLiteral(object, datatype);
                 }
 
                 encoder.handleQuad(subject, predicate, literal, graph);
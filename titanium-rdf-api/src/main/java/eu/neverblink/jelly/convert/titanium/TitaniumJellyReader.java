@@ -1,6 +1,7 @@
 package eu.neverblink.jelly.convert.titanium;
 
 import com.apicatalog.rdf.api.RdfQuadConsumer;
+import eu.neverblink.jelly.core.ExperimentalApi;
 import eu.neverblink.jelly.core.JellyOptions;
 import eu.neverblink.jelly.core.proto.v1.RdfStreamOptions;
 import java.io.IOException;
@@ -13,6 +14,11 @@ import java.io.InputStream;
  * @since 2.9.0
  */
 public interface TitaniumJellyReader {
+    /**
+     * Default number of quads buffered between the parsing thread and the consumer in the parallel reader.
+     */
+    int DEFAULT_PARALLEL_BUFFER_CAPACITY = 4096;
+
     /**
      * Factory method to create a new TitaniumJellyParser instance.
      * @param supportedOptions Maximum supported options of the Jelly parser. You can use this to
@@ -34,6 +40,37 @@ public interface TitaniumJellyReader {
         return factory(JellyOptions.DEFAULT_SUPPORTED_OPTIONS);
     }
 
+    /**
+     * Factory method to create a new TitaniumJellyParser instance that parses and decodes the frames on a
+     * background thread in parseAll.
+     * <p>
+     * The decoded quads are passed to the consumer on the calling thread, through a bounded buffer. This way,
+     * reading the stream overlaps with the consumer's work (e.g., JSON-LD processing), which is useful when
+     * both are expensive. The order of the quads is the same as with the sequential reader.
+     * <p>
+     * parseFrame always works sequentially on the calling thread.
+     * @param supportedOptions Maximum supported options of the Jelly parser.
+     * @param bufferCapacity Maximum number of quads buffered between the background thread and the consumer.
+     * @return TitaniumJellyParser
+     */
+    @ExperimentalApi
+    static TitaniumJellyReader factoryParallel(RdfStreamOptions supportedOptions, int bufferCapacity) {
+        if (bufferCapacity < 1) {
+            throw new IllegalArgumentException("Buffer capacity must be at least 1, got " + bufferCapacity);
+        }
+        return new TitaniumJellyReaderImpl(supportedOptions, bufferCapacity);
+    }
+
+    /**
+     * Factory method to create a new parallel TitaniumJellyParser instance, with the default supported options
+     * and buffer capacity. See {@link #factoryParallel(RdfStreamOptions, int)}.
+     * @return TitaniumJellyParser
+     */
+    @ExperimentalApi
+    static TitaniumJellyReader factoryParallel() {
+        return factoryParallel(JellyOptions.DEFAULT_SUPPORTED_OPTIONS, DEFAULT_PARALLEL_BUFFER_CAPACITY);
+    }
+
     /**
      * Parses all frames from the input stream and sends the quads to the consumer.
      * <p>
@@ -2,8 +2,10 @@ package eu.neverblink.jelly.convert.titanium;
 
 import static eu.neverblink.jelly.core.utils.IoUtils.readStream;
 
+import com.apicatalog.rdf.api.RdfConsumerException;
 import com.apicatalog.rdf.api.RdfQuadConsumer;
 import eu.neverblink.jelly.core.InternalApi;
+import eu.neverblink.jelly.core.RdfProtoDeserializationError;
 import eu.neverblink.jelly.core.memory.RowBuffer;
 import eu.neverblink.jelly.core.proto.v1.RdfStreamFrame;
 import eu.neverblink.jelly.core.proto.v1.RdfStreamOptions;
@@ -12,27 +14,49 @@ import eu.neverblink.protoc.java.runtime.MessageFactory;
 import eu.neverblink.protoc.java.runtime.ProtoMessage;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 /**
  * TitaniumJellyReaderImpl is an implementation of the TitaniumJellyReader interface.
  * It is responsible for parsing Titanium Jelly frames and converting them into RDF quads.
+ * <p>
+ * With a positive buffer capacity, parseAll parses and decodes the frames on a background thread, and passes
+ * the quads to the consumer on the calling thread through a {@link TitaniumQuadRingBuffer}.
  */
 @InternalApi
 final class TitaniumJellyReaderImpl implements TitaniumJellyReader {
 
     private final RdfStreamOptions supportedOptions;
+    // 0 means that the stream is read sequentially on the calling thread
+    private final int bufferCapacity;
 
     private final TitaniumAnyStatementHandler handler = new TitaniumAnyStatementHandler();
     private final TitaniumJellyDecoder decoder;
 
     TitaniumJellyReaderImpl(RdfStreamOptions supportedOptions) {
+        this(supportedOptions, 0);
+    }
+
+    TitaniumJellyReaderImpl(RdfStreamOptions supportedOptions, int bufferCapacity) {
+        if (bufferCapacity < 0) {
+            throw new IllegalArgumentException("Buffer capacity must not be negative, got " + bufferCapacity);
+        }
         this.supportedOptions = supportedOptions;
+        this.bufferCapacity = bufferCapacity;
         this.decoder = new TitaniumJellyDecoderImpl(supportedOptions, handler);
     }
 
     @Override
     public void parseAll(RdfQuadConsumer consumer, InputStream inputStream) throws IOException {
-        parseInternal(consumer, inputStream, false);
+        if (bufferCapacity > 0) {
+            parseAllParallel(consumer, inputStream);
+        } else {
+            parseInternal(consumer, inputStream, false);
+        }
     }
 
     @Override
@@ -73,4 +97,67 @@ final class TitaniumJellyReaderImpl implements TitaniumJellyReader {
         // May contain multiple frames
         readStream(delimitingResponse.newInput(), getReusableFrame, frame -> buffer.clear());
     }
+
+    private void parseAllParallel(RdfQuadConsumer consumer, InputStream inputStream) throws IOException {
+        final var ringBuffer = new TitaniumQuadRingBuffer(bufferCapacity);
+        final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+            final var thread = new Thread(runnable, "jelly-titanium-reader");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            final Future<?> parsing = executor.submit(() -> {
+                try {
+                    parseInternal(ringBuffer, inputStream, false);
+                } finally {
+                    ringBuffer.finish();
+                }
+                return null;
+            });
+
+            try {
+                ringBuffer.drainTo(consumer);
+            } catch (RdfConsumerException e) {
+                throw new RdfProtoDeserializationError("Consumer failed to process a quad", e);
+            }
+            // Rethrow the parser's error, if any
+            parsing.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RdfProtoDeserializationError(e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RdfProtoDeserializationError("Reading was interrupted", e);
+        } finally {
+            ringBuffer.cancel();
+            executor.shutdownNow();
+            awaitTermination(executor);
+        }
+    }
+
+    /**
+     * Waits for the parsing thread to stop, so that it does not use the input stream or the decoder after
+     * parseAll returns. The thread stops at its next quad, or when it is done reading.
+     */
+    private static void awaitTermination(ExecutorService executor) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                if (executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                    break;
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
 }
@@ -0,0 +1,158 @@
+package eu.neverblink.jelly.convert.titanium;
+
+import com.apicatalog.rdf.api.RdfConsumerException;
+import com.apicatalog.rdf.api.RdfQuadConsumer;
+import eu.neverblink.jelly.core.InternalApi;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded single-producer, single-consumer ring buffer of quads in the Titanium string form.
+ * <p>
+ * The producer thread passes the quads with {@link #quad}, as to any other RdfQuadConsumer, and calls
+ * {@link #finish()} when done. The consumer thread calls {@link #drainTo(RdfQuadConsumer)}, which forwards
+ * the quads to the target consumer until the producer finishes or the buffer is cancelled.
+ * <p>
+ * The quad strings are stored in a flat array, so passing a quad does not allocate anything. Threads that
+ * have to wait (producer on a full buffer, consumer on an empty one) spin briefly and then park.
+ */
+@InternalApi
+final class TitaniumQuadRingBuffer implements RdfQuadConsumer {
+
+    // subject, predicate, object, datatype, language, graph
+    private static final int FIELDS = 6;
+    private static final int SPIN_TRIES = 128;
+    private static final long PARK_NANOS = 20_000;
+
+    private final String[] slots;
+    private final int capacity;
+    private final int mask;
+
+    // Index of the next quad to read, written only by the consumer
+    private final AtomicLong head = new AtomicLong();
+    // Index of the next quad to write, written only by the producer
+    private final AtomicLong tail = new AtomicLong();
+    // Producer's last seen value of head, to avoid reading the shared counter on every quad
+    private long cachedHead = 0;
+
+    private volatile boolean finished = false;
+    private volatile boolean cancelled = false;
+
+    /**
+     * @param capacity maximum number of buffered quads, rounded up to a power of two
+     */
+    TitaniumQuadRingBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Buffer capacity must be at least 1, got " + capacity);
+        }
+        this.capacity = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+        this.mask = this.capacity - 1;
+        this.slots = new String[this.capacity * FIELDS];
+    }
+
+    /**
+     * Producer side: adds a quad to the buffer, waiting for free space if needed.
+     * The direction is ignored, as Jelly does not support directional literals.
+     *
+     * @throws CancellationException if the consumer side was cancelled
+     */
+    @Override
+    public RdfQuadConsumer quad(
+        String subject,
+        String predicate,
+        String object,
+        String datatype,
+        String language,
+        String direction,
+        String graph
+    ) {
+        if (cancelled) {
+            throw new CancellationException("Reading was cancelled by the consumer");
+        }
+        final long t = tail.get();
+        if (t - cachedHead >= capacity) {
+            awaitSpace(t);
+        }
+        final int i = (int) (t & mask) * FIELDS;
+        slots[i] = subject;
+        slots[i + 1] = predicate;
+        slots[i + 2] = object;
+        slots[i + 3] = datatype;
+        slots[i + 4] = language;
+        slots[i + 5] = graph;
+        tail.lazySet(t + 1);
+        return this;
+    }
+
+    private void awaitSpace(long t) {
+        int tries = 0;
+        while (true) {
+            cachedHead = head.get();
+            if (t - cachedHead < capacity) {
+                return;
+            }
+            if (cancelled) {
+                throw new CancellationException("Reading was cancelled by the consumer");
+            }
+            idle(tries++);
+        }
+    }
+
+    /**
+     * Producer side: marks the end of the data. Must be called also if the producer fails.
+     */
+    void finish() {
+        finished = true;
+    }
+
+    /**
+     * Stops the producer at its next quad.
+     */
+    void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Consumer side: forwards the quads to the consumer until the producer finishes.
+     *
+     * @param consumer target consumer
+     * @throws RdfConsumerException if the consumer throws it
+     */
+    void drainTo(RdfQuadConsumer consumer) throws RdfConsumerException {
+        long h = head.get();
+        int tries = 0;
+        while (true) {
+            final long t = tail.get();
+            if (h == t) {
+                if (finished) {
+                    // The producer may have added more quads just before finishing
+                    if (h == tail.get()) {
+                        return;
+                    }
+                    continue;
+                }
+                idle(tries++);
+                continue;
+            }
+            tries = 0;
+            while (h < t) {
+                final int i = (int) (h & mask) * FIELDS;
+                consumer.quad(slots[i], slots[i + 1], slots[i + 2], slots[i + 3], slots[i + 4], null, slots[i + 5]);
+                // Don't keep the strings alive until the slot is reused
+                for (int f = i; f < i + FIELDS; f++) {
+                    slots[f] = null;
+                }
+                head.lazySet(++h);
+            }
+        }
+    }
+
+    private static void idle(int tries) {
+        if (tries < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+    }
+}
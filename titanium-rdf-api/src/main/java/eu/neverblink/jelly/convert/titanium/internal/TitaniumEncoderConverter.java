@@ -8,13 +8,32 @@ import eu.neverblink.jelly.core.*;
 @InternalApi
 public final class TitaniumEncoderConverter implements ProtoEncoderConverter<Object> {
 
+    private static final int BLANK_NODE_CACHE_SIZE = 256;
+
+    // Direct-mapped cache of blank node labels with the "_:" prefix removed, to avoid calling substring
+    // every time the same blank node is encoded.
+    private final String[] blankNodeKeys = new String[BLANK_NODE_CACHE_SIZE];
+    private final String[] blankNodeLabels = new String[BLANK_NODE_CACHE_SIZE];
+
+    private String blankNodeLabel(String blankNode) {
+        final int h = blankNode.hashCode();
+        final int i = (h ^ (h >>> 16)) & (BLANK_NODE_CACHE_SIZE - 1);
+        if (blankNode.equals(blankNodeKeys[i])) {
+            return blankNodeLabels[i];
+        }
+        // remove "_:"
+        final String label = blankNode.substring(2);
+        blankNodeKeys[i] = blankNode;
+        blankNodeLabels[i] = label;
+        return label;
+    }
+
     @Override
     public Object nodeToProto(NodeEncoder<Object> encoder, Object titaniumNode) {
         try {
             return switch (TitaniumNode.typeOf(titaniumNode)) {
                 case IRI -> encoder.makeIri(TitaniumNode.iriLikeOf(titaniumNode));
-                // remove "_:"
-                case BLANK -> encoder.makeBlankNode(TitaniumNode.iriLikeOf(titaniumNode).substring(2));
+                case BLANK -> encoder.makeBlankNode(blankNodeLabel(TitaniumNode.iriLikeOf(titaniumNode)));
                 case SIMPLE_LITERAL -> encoder.makeSimpleLiteral(TitaniumNode.simpleLiteralOf(titaniumNode).lex());
                 case LANG_LITERAL -> encoder.makeLangLiteral(
                     titaniumNode,
@@ -42,8 +61,7 @@ public final class TitaniumEncoderConverter implements ProtoEncoderConverter<Obj
 
             return switch (TitaniumNode.typeOf(titaniumNode)) {
                 case IRI -> encoder.makeIri(TitaniumNode.iriLikeOf(titaniumNode));
-                // remove "_:"
-                case BLANK -> encoder.makeBlankNode(TitaniumNode.iriLikeOf(titaniumNode).substring(2));
+                case BLANK -> encoder.makeBlankNode(blankNodeLabel(TitaniumNode.iriLikeOf(titaniumNode)));
                 default -> throw new RdfProtoSerializationError(
                     "Cannot encode null as graph node: %s".formatted(titaniumNode)
                 );
@@ -0,0 +1,92 @@
+package eu.neverblink.jelly.convert.titanium.internal;
+
+import eu.neverblink.jelly.core.InternalApi;
+
+/**
+ * String-keyed cache of literal objects for the Titanium encoder.
+ * <p>
+ * Titanium passes literals as plain strings (lexical form, datatype, language tag). The Jelly encoder needs
+ * a single, immutable object per literal – it is used for repeated term elision and as a key in the
+ * encoder's literal lookups. This cache returns the same {@link TitaniumLiteral} instance for repeated
+ * literals, so encoding them does not allocate anything. Only new literals are allocated.
+ * <p>
+ * The cache is direct-mapped: each literal has exactly one slot, determined by its hash. A collision simply
+ * overwrites the slot. This means there are no per-entry allocations and no LRU bookkeeping, so a miss
+ * costs exactly one literal allocation, the same as without the cache.
+ * <p>
+ * Not thread-safe.
+ */
+@InternalApi
+public final class TitaniumLiteralCache {
+
+    private final TitaniumLiteral.SimpleLiteral[] simpleLiterals;
+    private final TitaniumLiteral.LangLiteral[] langLiterals;
+    private final TitaniumLiteral.DtLiteral[] dtLiterals;
+    private final int mask;
+
+    /**
+     * @param size number of slots for each literal kind, rounded up to a power of two
+     */
+    public TitaniumLiteralCache(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        final int capacity = Integer.highestOneBit(size) == size ? size : Integer.highestOneBit(size) << 1;
+        this.simpleLiterals = new TitaniumLiteral.SimpleLiteral[capacity];
+        this.langLiterals = new TitaniumLiteral.LangLiteral[capacity];
+        this.dtLiterals = new TitaniumLiteral.DtLiteral[capacity];
+        this.mask = capacity - 1;
+    }
+
+    private int slot(int hash) {
+        // Spread the higher bits, like in HashMap
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    /**
+     * @param lex lexical form
+     * @return a simple (xsd:string) literal
+     */
+    public TitaniumLiteral.SimpleLiteral simpleLiteral(String lex) {
+        final int i = slot(lex.hashCode());
+        final var cached = simpleLiterals[i];
+        if (cached != null && cached.lex().equals(lex)) {
+            return cached;
+        }
+        final var literal = new TitaniumLiteral.SimpleLiteral(lex);
+        simpleLiterals[i] = literal;
+        return literal;
+    }
+
+    /**
+     * @param lex lexical form
+     * @param lang language tag
+     * @return a language-tagged literal
+     */
+    public TitaniumLiteral.LangLiteral langLiteral(String lex, String lang) {
+        final int i = slot(lex.hashCode() * 31 + lang.hashCode());
+        final var cached = langLiterals[i];
+        if (cached != null && cached.lex().equals(lex) && cached.lang().equals(lang)) {
+            return cached;
+        }
+        final var literal = new TitaniumLiteral.LangLiteral(lex, lang);
+        langLiterals[i] = literal;
+        return literal;
+    }
+
+    /**
+     * @param lex lexical form
+     * @param dt datatype IRI
+     * @return a typed literal
+     */
+    public TitaniumLiteral.DtLiteral dtLiteral(String lex, String dt) {
+        final int i = slot(lex.hashCode() * 31 + dt.hashCode());
+        final var cached = dtLiterals[i];
+        if (cached != null && cached.lex().equals(lex) && cached.dt().equals(dt)) {
+            return cached;
+        }
+        final var literal = new TitaniumLiteral.DtLiteral(lex, dt);
+        dtLiterals[i] = literal;
+        return literal;
+    }
+}
@@ -1,14 +1,59 @@
 package eu.neveblink.jelly.convert.titanium
 
-import eu.neverblink.jelly.convert.titanium.TitaniumJellyReader
-import eu.neverblink.jelly.core.JellyOptions
+import com.apicatalog.rdf.api.{RdfConsumerException, RdfQuadConsumer}
+import eu.neverblink.jelly.convert.titanium.{TitaniumJellyReader, TitaniumJellyWriter}
+import eu.neverblink.jelly.core.{JellyOptions, RdfProtoDeserializationError}
 import org.scalatest.matchers.should.Matchers
 import org.scalatest.wordspec.AnyWordSpec
 
+import java.io.{ByteArrayInputStream, ByteArrayOutputStream}
+import scala.collection.mutable.ArrayBuffer
+
 /** Tests for the auxiliary methods of the TitaniumJellyReader. The main tests are done in the
   * integration-tests module.
   */
 class TitaniumJellyReaderSpec extends AnyWordSpec, Matchers:
+  private val xsdInt = "http://www.w3.org/2001/XMLSchema#int"
+  private val xsdString = "http://www.w3.org/2001/XMLSchema#string"
+  private val rdfLangString = "http://www.w3.org/1999/02/22-rdf-syntax-ns#langString"
+
+  private val quads: Seq[Seq[String]] = for i <- 1 to 5000 yield Seq(
+    if i % 7 == 0 then f"_:b${i % 11}" else f"http://example.com/s${i % 100}",
+    f"http://example.com/p${i % 9}",
+    i % 4 match
+      case 0 => f"http://example.com/o$i"
+      case _ => i.toString,
+    i % 4 match
+      case 0 => null
+      case 1 => xsdInt
+      case 2 => xsdString
+      case _ => rdfLangString,
+    if i % 4 == 3 then "en" else null,
+    if i % 3 == 0 then f"http://example.com/g${i % 2}" else null,
+  )
+
+  private def writeJelly(frameSize: Int): Array[Byte] =
+    val os = ByteArrayOutputStream()
+    val writer = TitaniumJellyWriter.factory(os, JellyOptions.SMALL_STRICT, frameSize)
+    quads.foreach(q => writer.quad(q(0), q(1), q(2), q(3), q(4), null, q(5)))
+    writer.close()
+    os.toByteArray
+
+  private final class Collector extends RdfQuadConsumer:
+    val result = ArrayBuffer[Seq[String]]()
+
+    override def quad(
+        subject: String,
+        predicate: String,
+        `object`: String,
+        datatype: String,
+        language: String,
+        direction: String,
+        graph: String,
+    ): RdfQuadConsumer =
+      result += Seq(subject, predicate, `object`, datatype, language, graph)
+      this
+
   "TitaniumJellyReader" should {
     "be created with default options" in {
       val reader = TitaniumJellyReader.factory()
@@ -20,3 +65,104 @@ class TitaniumJellyReaderSpec extends AnyWordSpec, Matchers:
       reader.getSupportedOptions should be(JellyOptions.BIG_STRICT)
     }
   }
+
+  "TitaniumJellyReader.factoryParallel" should {
+    for (frameSize, capacity) <- Seq((10, 1), (256, 3), (256, 4096), (10000, 16)) do
+      f"read the same quads as the sequential reader (frame size $frameSize, buffer $capacity)" in {
+        val bytes = writeJelly(frameSize)
+        val sequential = Collector()
+        TitaniumJellyReader.factory().parseAll(sequential, ByteArrayInputStream(bytes))
+        val parallel = Collector()
+        TitaniumJellyReader.factoryParallel(JellyOptions.DEFAULT_SUPPORTED_OPTIONS, capacity)
+          .parseAll(parallel, ByteArrayInputStream(bytes))
+        sequential.result should be(quads)
+        parallel.result should be(quads)
+      }
+
+    "be created with default options" in {
+      val reader = TitaniumJellyReader.factoryParallel()
+      reader.getSupportedOptions should be(JellyOptions.DEFAULT_SUPPORTED_OPTIONS)
+    }
+
+    "reject a non-positive buffer capacity" in {
+      an[IllegalArgumentException] should be thrownBy
+        TitaniumJellyReader.factoryParallel(JellyOptions.DEFAULT_SUPPORTED_OPTIONS, 0)
+    }
+
+    "read a single frame with parseFrame" in {
+      val bytes = writeJelly(10000)
+      val collector = Collector()
+      TitaniumJellyReader.factoryParallel().parseFrame(collector, ByteArrayInputStream(bytes))
+      collector.result should be(quads)
+    }
+
+    "propagate the consumer's errors" in {
+      val bytes = writeJelly(256)
+      val consumer = new RdfQuadConsumer {
+        var count = 0
+
+        override def quad(
+            subject: String,
+            predicate: String,
+            `object`: String,
+            datatype: String,
+            language: String,
+            direction: String,
+            graph: String,
+        ): RdfQuadConsumer =
+          count += 1
+          if count == 100 then throw RdfConsumerException("fail", RuntimeException())
+          this
+      }
+      val error = intercept[RdfProtoDeserializationError] {
+        TitaniumJellyReader.factoryParallel(JellyOptions.DEFAULT_SUPPORTED_OPTIONS, 8)
+          .parseAll(consumer, ByteArrayInputStream(bytes))
+      }
+      error.getCause shouldBe a[RdfConsumerException]
+      consumer.count should be(100)
+    }
+
+    "stop reading before returning after a consumer error, so that the reader can be reused" in {
+      val bytes = writeJelly(10)
+      val bytesRead = java.util.concurrent.atomic.AtomicLong()
+      val input = new java.io.FilterInputStream(ByteArrayInputStream(bytes)):
+        override def read(): Int =
+          val b = super.read()
+          if b >= 0 then bytesRead.incrementAndGet()
+          b
+
+        override def read(b: Array[Byte], off: Int, len: Int): Int =
+          val n = super.read(b, off, len)
+          if n > 0 then bytesRead.addAndGet(n)
+          n
+      val reader = TitaniumJellyReader.factoryParallel(JellyOptions.DEFAULT_SUPPORTED_OPTIONS, 4)
+      val failing = new RdfQuadConsumer:
+        override def quad(
+            subject: String,
+            predicate: String,
+            `object`: String,
+            datatype: String,
+            language: String,
+            direction: String,
+            graph: String,
+        ): RdfQuadConsumer = throw RdfConsumerException("fail", RuntimeException())
+      an[RdfProtoDeserializationError] should be thrownBy reader.parseAll(failing, input)
+      val readAtReturn = bytesRead.get()
+      Thread.sleep(100)
+      // The parsing thread has stopped
+      bytesRead.get() should be(readAtReturn)
+
+      val collector = Collector()
+      reader.parseAll(collector, ByteArrayInputStream(bytes))
+      collector.result should be(quads)
+    }
+
+    "propagate parsing errors" in {
+      val bytes = writeJelly(256)
+      // Cut the stream in the middle of a frame
+      val truncated = bytes.take(bytes.length / 2)
+      val collector = Collector()
+      an[Exception] should be thrownBy
+        TitaniumJellyReader.factoryParallel().parseAll(collector, ByteArrayInputStream(truncated))
+    }
+  }
@@ -0,0 +1,78 @@
+package eu.neveblink.jelly.convert.titanium
+
+import eu.neverblink.jelly.convert.titanium.TitaniumJellyEncoder
+import eu.neverblink.jelly.convert.titanium.internal.{TitaniumLiteral, TitaniumLiteralCache}
+import eu.neverblink.jelly.core.proto.v1.RdfLiteral
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+import scala.jdk.CollectionConverters.*
+
+class TitaniumLiteralCacheSpec extends AnyWordSpec, Matchers:
+  private val xsdInt = "http://www.w3.org/2001/XMLSchema#int"
+  private val xsdString = "http://www.w3.org/2001/XMLSchema#string"
+  private val rdfLangString = "http://www.w3.org/1999/02/22-rdf-syntax-ns#langString"
+
+  "TitaniumLiteralCache" should {
+    "return the same instance for repeated literals" in {
+      val cache = TitaniumLiteralCache(16)
+      val simple = cache.simpleLiteral("a")
+      cache.simpleLiteral(new String("a")) should be theSameInstanceAs simple
+      val lang = cache.langLiteral("a", "en")
+      cache.langLiteral("a", new String("en")) should be theSameInstanceAs lang
+      val dt = cache.dtLiteral("1", xsdInt)
+      cache.dtLiteral(new String("1"), xsdInt) should be theSameInstanceAs dt
+    }
+
+    "return correct literals for different values" in {
+      val cache = TitaniumLiteralCache(16)
+      cache.simpleLiteral("a") should be(TitaniumLiteral.SimpleLiteral("a"))
+      cache.simpleLiteral("b") should be(TitaniumLiteral.SimpleLiteral("b"))
+      cache.langLiteral("a", "en") should be(TitaniumLiteral.LangLiteral("a", "en"))
+      cache.langLiteral("a", "de") should be(TitaniumLiteral.LangLiteral("a", "de"))
+      cache.dtLiteral("1", xsdInt) should be(TitaniumLiteral.DtLiteral("1", xsdInt))
+      cache.dtLiteral("1", "http://example.com/dt") should be(
+        TitaniumLiteral.DtLiteral("1", "http://example.com/dt"),
+      )
+    }
+
+    "handle collisions with a single slot" in {
+      val cache = TitaniumLiteralCache(1)
+      for i <- 1 to 100 do
+        cache.simpleLiteral(i.toString) should be(TitaniumLiteral.SimpleLiteral(i.toString))
+        cache.dtLiteral(i.toString, xsdInt) should be(TitaniumLiteral.DtLiteral(i.toString, xsdInt))
+        cache.langLiteral(i.toString, "en") should be(TitaniumLiteral.LangLiteral(i.toString, "en"))
+    }
+
+    "reject a non-positive size" in {
+      an[IllegalArgumentException] should be thrownBy TitaniumLiteralCache(0)
+    }
+  }
+
+  "TitaniumJellyEncoder" should {
+    "elide repeated literal objects passed as separate strings" in {
+      val encoder = TitaniumJellyEncoder.factory()
+      encoder.quad("http://example.com/s", "http://example.com/p", "42", xsdInt, null, null, null)
+      val rowsAfterFirst = encoder.getRowCount
+      encoder.quad("_:b1", "http://example.com/p", new String("42"), xsdInt, null, null, null)
+      // Only the new quad row – the predicate, object, and graph are repeated
+      encoder.getRowCount should be(rowsAfterFirst + 1)
+      val quad = encoder.getRows.asScala.last.getQuad
+      quad.getSubject should be("b1")
+      quad.getPredicate should be(null)
+      quad.getObject should be(null)
+      quad.getGraph should be(null)
+    }
+
+    "encode simple and language-tagged literals" in {
+      val encoder = TitaniumJellyEncoder.factory()
+      encoder.quad("http://example.com/s", "http://example.com/p", "a", xsdString, null, null, null)
+      encoder.quad("http://example.com/s", "http://example.com/p", "a", rdfLangString, "en", null, null)
+      val quads = encoder.getRows.asScala.filter(_.hasQuad).map(_.getQuad).toSeq
+      quads.size should be(2)
+      val simple = quads(0).getObject.asInstanceOf[RdfLiteral]
+      simple.getLex should be("a")
+      simple.getLiteralKind should be(null)
+      quads(1).getObject.asInstanceOf[RdfLiteral].getLangtag should be("en")
+    }
+  }